@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.benchmarks.macro;
+
+import org.chocosolver.samples.AbstractProblem;
+import org.chocosolver.samples.integer.BinPacking;
+import org.chocosolver.samples.integer.CarSequencing;
+import org.chocosolver.samples.integer.GolombRuler;
+import org.chocosolver.samples.nsp.NSCPModelConstrained;
+import org.chocosolver.samples.nsp.NSData;
+import org.chocosolver.samples.nsp.NurseSchedulingProblem;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of some samples, limited to a fixed number of nodes so that the amount of work does not
+ * depend on the speed of the machine. The model is built before each invocation, and is not measured.
+ * <p>
+ * A change in the search tree (and not only in speed) shows in the number of nodes returned by each invocation,
+ * which is also printed when <code>-Dchoco.benchmarks.verbose=true</code> is set.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SamplesBenchmark {
+
+    /**
+     * The samples, with fixed parameters
+     */
+    public enum Sample {
+        GOLOMB_RULER {
+            @Override
+            AbstractProblem make() {
+                GolombRuler pb = new GolombRuler();
+                pb.readArgs("-m", "10");
+                return pb;
+            }
+        },
+        CAR_SEQUENCING {
+            @Override
+            AbstractProblem make() {
+                return new CarSequencing();
+            }
+        },
+        NURSE_SCHEDULING {
+            @Override
+            AbstractProblem make() {
+                return new NurseScheduling();
+            }
+        },
+        BIN_PACKING {
+            @Override
+            AbstractProblem make() {
+                return new BinPacking() {
+                    @Override
+                    public void configureSearch() {
+                        // the sample prints each solution, the default search is used instead
+                    }
+                };
+            }
+        };
+
+        abstract AbstractProblem make();
+    }
+
+    /**
+     * The nurse scheduling sample, on the default instance, with a deterministic search
+     * (the sample itself is a set of static methods).
+     */
+    static class NurseScheduling extends AbstractProblem {
+
+        NurseSchedulingProblem model;
+
+        @Override
+        public void createSolver() {
+            solver = new Solver("NurseScheduling");
+        }
+
+        @Override
+        public void buildModel() {
+            model = new NSCPModelConstrained(NSData.makeDefaultInstance(),
+                    NSCPModelConstrained.ConstraintOptions.BASIC, NSCPModelConstrained.ConstraintOptions.WITH_MCR, solver);
+        }
+
+        @Override
+        public void configureSearch() {
+            solver.set(ISF.domOverWDeg(ArrayUtils.flatten(ArrayUtils.transpose(model.getShifts())), 0));
+        }
+
+        @Override
+        public void solve() {
+            solver.findSolution();
+        }
+
+        @Override
+        public void prettyOut() {
+        }
+    }
+
+    @Param
+    public Sample sample;
+
+    @Param({"5000"})
+    public long nodeLimit;
+
+    AbstractProblem problem;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        problem = sample.make();
+        problem.createSolver();
+        problem.buildModel();
+        problem.configureSearch();
+        SMF.limitNode(problem.getSolver(), nodeLimit);
+    }
+
+    @Benchmark
+    public long solve() {
+        problem.solve();
+        long nodes = problem.getSolver().getMeasures().getNodeCount();
+        if (Boolean.getBoolean("choco.benchmarks.verbose")) {
+            System.out.printf("%s: %d nodes%n", sample, nodes);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.benchmarks.micro;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IntVar#removeValue(int, org.chocosolver.solver.ICause)} on each kind of integer domain,
+ * with no constraint, hence without propagation.
+ * Each invocation removes values in a new world and backtracks, so the domain is restored for the next one.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainBenchmark {
+
+    /**
+     * The kinds of domain, as built by {@link VF}
+     */
+    public enum Kind {
+        ENUMERATED {
+            @Override
+            IntVar make(int size, Solver solver) {
+                return VF.enumerated("x", 0, size - 1, solver);
+            }
+        },
+        ENUMERATED_VALUES {
+            @Override
+            IntVar make(int size, Solver solver) {
+                int[] values = new int[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = 3 * i;
+                }
+                return VF.enumerated("x", values, solver);
+            }
+        },
+        BOUNDED {
+            @Override
+            IntVar make(int size, Solver solver) {
+                return VF.bounded("x", 0, size - 1, solver);
+            }
+        },
+        OFFSET_VIEW {
+            @Override
+            IntVar make(int size, Solver solver) {
+                return VF.offset(VF.enumerated("x", 0, size - 1, solver), 5);
+            }
+        },
+        BOOL {
+            @Override
+            IntVar make(int size, Solver solver) {
+                return VF.bool("x", solver);
+            }
+        };
+
+        abstract IntVar make(int size, Solver solver);
+    }
+
+    @Param
+    public Kind kind;
+
+    @Param({"16", "1024"})
+    public int size;
+
+    IEnvironment environment;
+
+    IntVar var;
+
+    /**
+     * The values of the initial domain
+     */
+    int[] values;
+
+    @Setup
+    public void setup() {
+        Solver solver = new Solver();
+        environment = solver.getEnvironment();
+        var = kind.make(size, solver);
+        values = new int[var.getDomainSize()];
+        for (int i = 0, v = var.getLB(); v <= var.getUB(); v = var.nextValue(v)) {
+            values[i++] = v;
+        }
+    }
+
+    /**
+     * Removes the lower bound until the variable is instantiated.
+     */
+    @Benchmark
+    public int removeLowerBounds() throws ContradictionException {
+        environment.worldPush();
+        while (!var.isInstantiated()) {
+            var.removeValue(var.getLB(), Cause.Null);
+        }
+        int value = var.getValue();
+        environment.worldPop();
+        return value;
+    }
+
+    /**
+     * Removes every other value of the initial domain, starting with the second one, which creates holes
+     * (ignored by bounded domains).
+     */
+    @Benchmark
+    public int removeHoles() throws ContradictionException {
+        environment.worldPush();
+        for (int i = 1; i < values.length; i += 2) {
+            var.removeValue(values[i], Cause.Null);
+        }
+        int size = var.getDomainSize();
+        environment.worldPop();
+        return size;
+    }
+}
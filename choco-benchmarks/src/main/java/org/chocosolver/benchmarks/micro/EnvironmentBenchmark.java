@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.benchmarks.micro;
+
+import org.chocosolver.memory.Environments;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateInt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IEnvironment#worldPush()} and {@link IEnvironment#worldPop()} for each {@link Environments},
+ * as done by a search: a dive of <code>depth</code> worlds, each one modifying a few backtrackable integers and bits,
+ * followed by the backtrack to the initial world.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentBenchmark {
+
+    @Param({"TRAIL", "SLAB", "COPY", "COPY_ON_WRITE"})
+    public Environments environments;
+
+    /**
+     * Number of backtrackable integers, which is the size of the state
+     */
+    @Param({"1000", "100000"})
+    public int nbInts;
+
+    @Param({"50"})
+    public int depth;
+
+    /**
+     * Number of backtrackable integers modified in each world
+     */
+    @Param({"20"})
+    public int nbChanges;
+
+    IEnvironment environment;
+
+    IStateInt[] ints;
+
+    IStateBitSet bits;
+
+    @Setup
+    public void setup() {
+        environment = environments.make();
+        ints = new IStateInt[nbInts];
+        for (int i = 0; i < nbInts; i++) {
+            ints[i] = environment.makeInt(i);
+        }
+        bits = environment.makeBitSet(nbInts);
+        bits.set(0, nbInts);
+    }
+
+    @Benchmark
+    public int pushAndPop() {
+        int init = environment.getWorldIndex();
+        // a fixed stride spreads the modifications over the whole state
+        int stride = nbInts / (depth * nbChanges) + 1;
+        for (int d = 0, k = 0; d < depth; d++) {
+            environment.worldPush();
+            for (int c = 0; c < nbChanges; c++, k = (k + stride) % nbInts) {
+                ints[k].add(1);
+                bits.clear(k);
+            }
+        }
+        int sum = ints[0].get();
+        environment.worldPopUntil(init);
+        return sum;
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.benchmarks.micro;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the filtering of a single global constraint: <code>PropSum</code>, <code>PropAllDiffAC</code>
+ * and the table propagators.
+ * <p>
+ * A solution of the model is computed once, on a copy of the model. Then, each invocation dives to this solution,
+ * one variable after the other, and reaches the fix point after each instantiation, as a search would.
+ * Finally, it backtracks to the root node.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropagatorBenchmark {
+
+    /**
+     * The models, each one made of a single constraint
+     */
+    public enum Model {
+        SUM {
+            @Override
+            IntVar[] build(Solver solver) {
+                IntVar[] vars = VF.enumeratedArray("x", 40, 0, 20, solver);
+                solver.post(ICF.sum(vars, VF.fixed(400, solver)));
+                return vars;
+            }
+        },
+        ALLDIFFERENT_AC {
+            @Override
+            IntVar[] build(Solver solver) {
+                IntVar[] vars = VF.enumeratedArray("x", 30, 0, 34, solver);
+                solver.post(ICF.alldifferent(vars, "AC"));
+                return vars;
+            }
+        },
+        TABLE_GAC3RM {
+            @Override
+            IntVar[] build(Solver solver) {
+                return table(solver, "GAC3rm");
+            }
+        },
+        TABLE_GAC2001 {
+            @Override
+            IntVar[] build(Solver solver) {
+                return table(solver, "GAC2001");
+            }
+        },
+        TABLE_STR2 {
+            @Override
+            IntVar[] build(Solver solver) {
+                return table(solver, "STR2+");
+            }
+        },
+        TABLE_CT {
+            @Override
+            IntVar[] build(Solver solver) {
+                return table(solver, "CT");
+            }
+        };
+
+        abstract IntVar[] build(Solver solver);
+
+        /**
+         * A positive table over 8 variables with 20000 random tuples, always the same ones.
+         */
+        static IntVar[] table(Solver solver, String algorithm) {
+            IntVar[] vars = VF.enumeratedArray("x", 8, 0, 7, solver);
+            Random random = new Random(0);
+            Tuples tuples = new Tuples(true);
+            for (int t = 0; t < 20000; t++) {
+                int[] tuple = new int[vars.length];
+                for (int i = 0; i < tuple.length; i++) {
+                    tuple[i] = random.nextInt(8);
+                }
+                tuples.add(tuple);
+            }
+            solver.post(ICF.table(vars, tuples, algorithm));
+            return vars;
+        }
+    }
+
+    @Param
+    public Model model;
+
+    Solver solver;
+
+    IEnvironment environment;
+
+    IntVar[] vars;
+
+    /**
+     * The values of the solution to dive to
+     */
+    int[] solution;
+
+    @Setup
+    public void setup() throws ContradictionException {
+        Solver reference = new Solver();
+        IntVar[] rvars = model.build(reference);
+        if (!reference.findSolution()) {
+            throw new IllegalStateException(model + " has no solution");
+        }
+        solution = new int[rvars.length];
+        for (int i = 0; i < rvars.length; i++) {
+            solution[i] = rvars[i].getValue();
+        }
+        solver = new Solver();
+        environment = solver.getEnvironment();
+        vars = model.build(solver);
+        environment.worldPush();
+        solver.propagate();
+    }
+
+    @Benchmark
+    public int dive() throws ContradictionException {
+        environment.worldPush();
+        for (int i = 0; i < vars.length; i++) {
+            vars[i].instantiateTo(solution[i], Cause.Null);
+            solver.propagate();
+        }
+        int value = vars[vars.length - 1].getValue();
+        environment.worldPop();
+        return value;
+    }
+}
@@ -33,14 +33,23 @@ import org.chocosolver.memory.structure.BasicIndexedBipartiteSet;
 import org.chocosolver.memory.structure.OneWordS32BitSet;
 import org.chocosolver.memory.structure.OneWordS64BitSet;
 import org.chocosolver.memory.structure.S64BitSet;
+import org.chocosolver.memory.structure.StateSparseBitSet;
 
 /**
  * Super class of all environments !
  */
 public abstract class AbstractEnvironment implements IEnvironment {
 
-    protected enum Type {
-        FLAT, CHUNK, UNSAFE
+    /**
+     * Storage of the backtrackable objects of a trailing environment.
+     */
+    public enum Type {
+        FLAT, CHUNK, UNSAFE,
+        /**
+         * Backtrackable ints and longs are slots of a trail which stores their stamps in contiguous arrays of primitives,
+         * see {@link org.chocosolver.memory.trailing.trail.slab.SlabTrail}.
+         */
+        SLAB
     }
 
     protected final Type type;
@@ -89,6 +98,14 @@ public abstract class AbstractEnvironment implements IEnvironment {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StateSparseBitSet makeSparseBitSet(int size) {
+        return new StateSparseBitSet(this, size);
+    }
+
 
     /**
      * {@inheritDoc}
@@ -29,6 +29,7 @@
  */
 package org.chocosolver.memory;
 
+import org.chocosolver.memory.copy.EnvironmentCopyOnWrite;
 import org.chocosolver.memory.copy.EnvironmentCopying;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
 
@@ -47,6 +48,17 @@ public enum Environments {
                     new EnvironmentTrailing();
         }
     },
+    /**
+     * A trailing environment where backtrackable ints and longs are stored in contiguous arrays of primitives,
+     * which makes backtracking cheaper on deep searches.
+     */
+    SLAB() {
+        @Override
+        public IEnvironment make() {
+            return
+                    new EnvironmentTrailing(AbstractEnvironment.Type.SLAB);
+        }
+    },
     COPY() {
         @Override
         public IEnvironment make() {
@@ -54,6 +66,17 @@ public enum Environments {
                     new EnvironmentCopying();
         }
     },
+    /**
+     * A copying environment where only the pages of backtrackable primitives modified in a world are saved,
+     * which makes pushing a world cheap on models with a large state.
+     */
+    COPY_ON_WRITE() {
+        @Override
+        public IEnvironment make() {
+            return
+                    new EnvironmentCopyOnWrite();
+        }
+    },
     DEFAULT() {
         @Override
         public IEnvironment make() {
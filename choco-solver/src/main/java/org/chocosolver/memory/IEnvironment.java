@@ -31,6 +31,7 @@ package org.chocosolver.memory;
 
 import org.chocosolver.memory.structure.BasicIndexedBipartiteSet;
 import org.chocosolver.memory.structure.Operation;
+import org.chocosolver.memory.structure.StateSparseBitSet;
 
 import java.io.Serializable;
 
@@ -75,6 +76,32 @@ public interface IEnvironment extends Serializable {
      */
     void worldCommit();
 
+    /**
+     * Returns the number of times the internal structures of this environment (stacks, trails)
+     * have been increased since its creation.
+     *
+     * @return number of growths, 0 if not recorded
+     */
+    default long getNbGrowths() {
+        return 0;
+    }
+
+    /**
+     * Records the current sizes of the internal structures of this environment,
+     * so that environments built afterward can be pre-sized accordingly.
+     * Called at the end of a resolution.
+     */
+    default void recordHighWaterMarks() {
+    }
+
+    /**
+     * Creates a new environment of the same kind, and with the same settings, as this one.
+     * The new environment is at world 0 and does not hold any backtrackable object.
+     *
+     * @return a new empty environment
+     */
+    IEnvironment emptyCopy();
+
     /**
      * Force to build fake history when a stored object on a particular condition.
      * The default condition is {@link ICondition#FALSE}.
@@ -153,6 +180,15 @@ public interface IEnvironment extends Serializable {
      */
     IStateBitSet makeBitSet(int size);
 
+    /**
+     * Factory pattern: new StateSparseBitSet objects are created by the environment.
+     * Such a bitset maintains the indices of its non-zero words.
+     *
+     * @param size capacity of the StateSparseBitSet
+     * @return StateSparseBitSet
+     */
+    StateSparseBitSet makeSparseBitSet(int size);
+
     /**
      * Factory pattern: new IStateIntVector objects are created by the environment
      *
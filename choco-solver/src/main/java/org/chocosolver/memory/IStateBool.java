@@ -54,7 +54,7 @@ public abstract class IStateBool implements Serializable {
     /**
      * Returns the current value.
      */
-    public final boolean get() {
+    public boolean get() {
         return currentValue;
     }
 
@@ -84,7 +84,7 @@ public abstract class IStateBool implements Serializable {
      * @return a boolean
      */
     public final boolean deepCopy() {
-        return currentValue;
+        return get();
     }
 
     public int getTimeStamp() {
@@ -105,6 +105,6 @@ public abstract class IStateBool implements Serializable {
 
     @Override
     public String toString() {
-        return String.valueOf(currentValue);
+        return String.valueOf(get());
     }
 }
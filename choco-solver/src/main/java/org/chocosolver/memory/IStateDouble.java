@@ -54,7 +54,7 @@ public abstract class IStateDouble implements Serializable {
     /**
      * Returns the current value.
      */
-    public final double get() {
+    public double get() {
         return currentValue;
     }
 
@@ -73,7 +73,7 @@ public abstract class IStateDouble implements Serializable {
      * @return the new value
      */
     public final double add(double delta) {
-        double res = currentValue + delta;
+        double res = get() + delta;
         set(res);
         return res;
     }
@@ -96,7 +96,7 @@ public abstract class IStateDouble implements Serializable {
      * @return a double
      */
     public final double deepCopy() {
-        return currentValue;
+        return get();
     }
 
     public int getTimeStamp() {
@@ -117,6 +117,6 @@ public abstract class IStateDouble implements Serializable {
 
     @Override
     public String toString() {
-        return String.valueOf(currentValue);
+        return String.valueOf(get());
     }
 }
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.copy;
+
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.memory.copy.store.StoredLongPageCopy;
+
+/**
+ * A backtrackable long whose value is kept in the inherited field and saved, on modification,
+ * by the {@link StoredLongPageCopy} of the environment, which restores it on backtrack.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public final class CowLong extends IStateLong {
+
+    private final StoredLongPageCopy pages;
+
+    private final int slot;
+
+    public CowLong(EnvironmentCopyOnWrite env, long i) {
+        super(env, i);
+        pages = env.getLongPageCopy();
+        slot = pages.allocate(this);
+    }
+
+    @Override
+    public void set(long y) {
+        if (y != currentValue) {
+            pages.save(slot, environment.getWorldIndex());
+            currentValue = y;
+        }
+    }
+
+    @Override
+    public void _set(long y, int wstamp) {
+        currentValue = y;
+        pages.overrideStamp(slot, wstamp);
+    }
+
+    /**
+     * Restores the value on backtrack, the stamp being restored by the storage.
+     *
+     * @param y the former value
+     */
+    public void restore(long y) {
+        currentValue = y;
+    }
+
+    @Override
+    public int getTimeStamp() {
+        return pages.getStamp(slot);
+    }
+
+    @Override
+    public void overrideTimeStamp(int aTimeStamp) {
+        pages.overrideStamp(slot, aTimeStamp);
+    }
+}
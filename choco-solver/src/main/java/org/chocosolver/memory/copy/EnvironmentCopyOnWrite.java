@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.copy;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateDouble;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.memory.copy.store.StoredIntPageCopy;
+import org.chocosolver.memory.copy.store.StoredLongPageCopy;
+
+/**
+ * A copying environment where backtrackable primitives are copied on write.
+ * <p>
+ * Backtrackable ints and booleans (resp. longs and doubles) are slots of a {@link StoredIntPageCopy}
+ * (resp. {@link StoredLongPageCopy}), grouped into pages; their values are kept in the objects.
+ * Pushing a world does not copy anything: only the pages modified in a world are saved,
+ * either slot by slot, like trailing, when a few slots of a page are modified, or as a whole page otherwise.
+ * Thus, the cost of a world is O(modifications) instead of O(state), which suits models with a large state
+ * and a shallow search, such as LNS or search with restarts.
+ * <p>
+ * Stored sets are trailed with operations; vectors and objects are copied as in {@link EnvironmentCopying}.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class EnvironmentCopyOnWrite extends EnvironmentCopying {
+
+    private final int pageSize;
+
+    private final int copyThreshold;
+
+    private StoredIntPageCopy intPageCopy;
+
+    private StoredLongPageCopy longPageCopy;
+
+    /**
+     * Creates a copy-on-write environment with the default page size and copy threshold.
+     */
+    public EnvironmentCopyOnWrite() {
+        this(StoredIntPageCopy.DEFAULT_PAGE_SIZE, StoredIntPageCopy.DEFAULT_COPY_THRESHOLD);
+    }
+
+    /**
+     * Creates a copy-on-write environment.
+     *
+     * @param pageSize      number of slots of a page, a power of 2
+     * @param copyThreshold number of slots modified in a page, in a world, before the page is copied
+     */
+    public EnvironmentCopyOnWrite(int pageSize, int copyThreshold) {
+        super();
+        this.pageSize = pageSize;
+        this.copyThreshold = copyThreshold;
+        getIntPageCopy();
+        getLongPageCopy();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IEnvironment emptyCopy() {
+        return new EnvironmentCopyOnWrite(pageSize, copyThreshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPush() {
+        super.worldPush();
+        intPageCopy.worldPush(currentWorld);
+        longPageCopy.worldPush(currentWorld);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPop() {
+        longPageCopy.worldPop(currentWorld);
+        intPageCopy.worldPop(currentWorld);
+        super.worldPop();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPopUntil(int w) {
+        while (currentWorld > w) {
+            worldPop();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt() {
+        return makeInt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt(int initialValue) {
+        return new CowInt(this, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateBool makeBool(boolean initialValue) {
+        return new CowBool(this, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat() {
+        return makeFloat(Double.NaN);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat(double initialValue) {
+        return new CowDouble(this, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong() {
+        return makeLong(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong(long init) {
+        return new CowLong(this, init);
+    }
+
+    public StoredIntPageCopy getIntPageCopy() {
+        if (intPageCopy == null) {
+            intPageCopy = new StoredIntPageCopy(pageSize, copyThreshold);
+        }
+        return intPageCopy;
+    }
+
+    public StoredLongPageCopy getLongPageCopy() {
+        if (longPageCopy == null) {
+            longPageCopy = new StoredLongPageCopy(pageSize, copyThreshold);
+        }
+        return longPageCopy;
+    }
+
+    /**
+     * @return the number of backtrackable primitives trailed one by one since the creation of the environment
+     */
+    public long getNbTrailedSlots() {
+        return intPageCopy.getNbTrailed() + longPageCopy.getNbTrailed();
+    }
+
+    /**
+     * @return the number of pages copied since the creation of the environment
+     */
+    public long getNbCopiedPages() {
+        return intPageCopy.getNbCopied() + longPageCopy.getNbCopied();
+    }
+}
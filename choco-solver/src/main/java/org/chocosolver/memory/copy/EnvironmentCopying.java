@@ -54,6 +54,14 @@ public class EnvironmentCopying extends AbstractEnvironment {
         copySize = 0;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IEnvironment emptyCopy() {
+        return new EnvironmentCopying();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -82,11 +90,14 @@ public class EnvironmentCopying extends AbstractEnvironment {
 
     @Override
     public void worldPopUntil(int w) {
-        timestamp++;
-        for (int i = copySize - 1; i >= 0; i--) {
-            copies[i].worldPop(w);
+        if (w < currentWorld) {
+            timestamp++;
+            // the state of world w was copied when world w+1 was pushed
+            for (int i = copySize - 1; i >= 0; i--) {
+                copies[i].worldPop(w + 1);
+            }
+            currentWorld = w;
         }
-        currentWorld=w;
     }
 
     @Override
@@ -0,0 +1,340 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.copy.store;
+
+import org.chocosolver.memory.IStorage;
+
+/**
+ * Copy-on-write storage of backtrackable primitives, grouped into pages.
+ * <p>
+ * The backtrackable objects are stored in a single array, which is divided into pages of <code>pageSize</code> slots;
+ * each object keeps its current value, so that reading it is a field read.
+ * Nothing is copied when a world is pushed: a page is saved the first time it is modified in a world.
+ * Since copying a whole page is a waste when only a few of its slots are modified,
+ * the first modifications of a page in a world are trailed slot by slot, as a trailing environment does,
+ * and the page is copied once <code>copyThreshold</code> of its slots have been trailed in that world;
+ * its next modifications in that world are then free.
+ * Thus, pushing a world is O(1) and the cost of a world is O(modifications) instead of O(state).
+ * <p>
+ * The last page is never copied while it is not full, so that slots allocated during search
+ * are restored to their initial value on backtrack.
+ * <p>
+ * This class manages the pages, the stamps and the stack of entries;
+ * subclasses only hold the typed arrays of objects, former values and page copies.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public abstract class AbstractStoredPageCopy implements IStorage {
+
+    /**
+     * Default number of slots of a page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 64;
+
+    /**
+     * Default number of slots trailed in a page, in a world, before the page is copied.
+     */
+    public static final int DEFAULT_COPY_THRESHOLD = 8;
+
+    /**
+     * log2 of the number of slots of a page
+     */
+    protected final int shift;
+
+    /**
+     * Number of slots of a page
+     */
+    protected final int pageSize;
+
+    /**
+     * Number of slots trailed in a page, in a world, before the page is copied
+     */
+    private final int copyThreshold;
+
+    /**
+     * World in which each slot was last trailed
+     */
+    private int[] stamps;
+
+    /**
+     * Number of allocated slots
+     */
+    private int nbSlots;
+
+    /**
+     * World in which each page was last copied
+     */
+    private int[] pageStamps;
+
+    /**
+     * Number of slots of each page trailed since <code>pageEpochs</code>
+     */
+    private int[] pageCounts;
+
+    /**
+     * Epoch in which <code>pageCounts</code> were last reset
+     */
+    private int[] pageEpochs;
+
+    /**
+     * Incremented on each world push and pop
+     */
+    private int epoch;
+
+    /**
+     * Stack of entries: a slot (or <code>~page</code> for a page copy) ...
+     */
+    private int[] keys;
+
+    /**
+     * ... and its former stamp; the former value of a slot is stored by the subclass, at the same level.
+     */
+    private int[] oldStamps;
+
+    /**
+     * Points the level of the last entry.
+     */
+    private int currentLevel;
+
+    /**
+     * Number of copies of pages in use, in the order of the page entries of the stack
+     */
+    private int nbCopies;
+
+    /**
+     * A stack of pointers (for each start of a world).
+     */
+    private int[] worldStartLevels;
+
+    /**
+     * Number of slots trailed and pages copied since the creation of the storage.
+     */
+    private long nbTrailed, nbCopied;
+
+    /**
+     * Creates a storage.
+     *
+     * @param pageSize      number of slots of a page, a power of 2
+     * @param copyThreshold number of slots trailed in a page, in a world, before the page is copied
+     */
+    protected AbstractStoredPageCopy(int pageSize, int copyThreshold) {
+        if (pageSize < 1 || Integer.bitCount(pageSize) != 1 || copyThreshold < 1) {
+            throw new IllegalArgumentException("Invalid page size or copy threshold: " + pageSize + ", " + copyThreshold);
+        }
+        this.pageSize = pageSize;
+        this.shift = Integer.numberOfTrailingZeros(pageSize);
+        this.copyThreshold = copyThreshold;
+        stamps = new int[pageSize];
+        pageStamps = new int[1];
+        pageCounts = new int[1];
+        pageEpochs = new int[1];
+        keys = new int[64];
+        oldStamps = new int[64];
+        worldStartLevels = new int[64];
+    }
+
+    /**
+     * Grows the array of backtrackable objects.
+     *
+     * @param nbSlots  number of slots in use
+     * @param capacity new number of slots
+     */
+    protected abstract void growSlots(int nbSlots, int capacity);
+
+    /**
+     * Grows the array of former values.
+     *
+     * @param currentLevel number of entries in use
+     * @param capacity     new number of entries
+     */
+    protected abstract void growOldValues(int currentLevel, int capacity);
+
+    /**
+     * Stores the current value of <i>slot</i> as the former value of the entry at <i>level</i>.
+     */
+    protected abstract void saveValue(int level, int slot);
+
+    /**
+     * Restores the value of <i>slot</i> from the entry at <i>level</i>.
+     */
+    protected abstract void restoreValue(int level, int slot);
+
+    /**
+     * Copies the values of <i>page</i> into the <i>copy</i>-th copy of pages, growing the copies if needed.
+     */
+    protected abstract void copyValues(int page, int copy);
+
+    /**
+     * Restores the values of <i>page</i> from the <i>copy</i>-th copy of pages.
+     */
+    protected abstract void restoreValues(int page, int copy);
+
+    /**
+     * Allocates a slot.
+     * Its stamp is set to 0, so that its first modification in any world is trailed,
+     * and the slot is restored to its initial value on backtrack, even if it is allocated during search.
+     * The backtrackable object must then be stored by the subclass.
+     *
+     * @return the slot
+     */
+    protected final int allocateSlot() {
+        if (nbSlots == stamps.length) {
+            int capacity = stamps.length * 2;
+            growSlots(nbSlots, capacity);
+            int[] tmp = new int[capacity];
+            System.arraycopy(stamps, 0, tmp, 0, nbSlots);
+            stamps = tmp;
+            int nbPages = capacity >>> shift;
+            tmp = new int[nbPages];
+            System.arraycopy(pageStamps, 0, tmp, 0, pageStamps.length);
+            pageStamps = tmp;
+            tmp = new int[nbPages];
+            System.arraycopy(pageCounts, 0, tmp, 0, pageCounts.length);
+            pageCounts = tmp;
+            tmp = new int[nbPages];
+            System.arraycopy(pageEpochs, 0, tmp, 0, pageEpochs.length);
+            pageEpochs = tmp;
+        }
+        return nbSlots++;
+    }
+
+    public final int getStamp(int slot) {
+        return stamps[slot];
+    }
+
+    public final void overrideStamp(int slot, int stamp) {
+        stamps[slot] = stamp;
+    }
+
+    /**
+     * Saves the current value of a slot if neither the slot nor its page has already been saved in <i>world</i>.
+     * To be called before the value is modified.
+     *
+     * @param slot  the slot
+     * @param world the current world
+     */
+    public final void save(int slot, int world) {
+        int page = slot >>> shift;
+        if (pageStamps[page] < world && stamps[slot] < world) {
+            if (pageEpochs[page] != epoch) {
+                pageEpochs[page] = epoch;
+                pageCounts[page] = 0;
+            }
+            if (++pageCounts[page] > copyThreshold && ((page + 1) << shift) <= nbSlots) {
+                copyPage(page, world);
+            } else {
+                trail(slot, world);
+            }
+        }
+    }
+
+    private void trail(int slot, int world) {
+        ensureCapacity();
+        keys[currentLevel] = slot;
+        oldStamps[currentLevel] = stamps[slot];
+        saveValue(currentLevel, slot);
+        currentLevel++;
+        stamps[slot] = world;
+        nbTrailed++;
+    }
+
+    private void copyPage(int page, int world) {
+        ensureCapacity();
+        copyValues(page, nbCopies++);
+        keys[currentLevel] = ~page;
+        oldStamps[currentLevel] = pageStamps[page];
+        currentLevel++;
+        pageStamps[page] = world;
+        nbCopied++;
+    }
+
+    private void ensureCapacity() {
+        if (currentLevel == keys.length) {
+            int capacity = keys.length * 3 / 2 + 1;
+            int[] tmp = new int[capacity];
+            System.arraycopy(keys, 0, tmp, 0, currentLevel);
+            keys = tmp;
+            tmp = new int[capacity];
+            System.arraycopy(oldStamps, 0, tmp, 0, currentLevel);
+            oldStamps = tmp;
+            growOldValues(currentLevel, capacity);
+        }
+    }
+
+    @Override
+    public final void worldPush(int worldIndex) {
+        if (worldIndex >= worldStartLevels.length) {
+            int[] tmp = new int[worldIndex * 3 / 2 + 1];
+            System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+            worldStartLevels = tmp;
+        }
+        worldStartLevels[worldIndex] = currentLevel;
+        epoch++;
+    }
+
+    @Override
+    public final void worldPop(int worldIndex) {
+        final int wsl = worldStartLevels[worldIndex];
+        int level = currentLevel;
+        while (level > wsl) {
+            level--;
+            final int key = keys[level];
+            if (key >= 0) {
+                restoreValue(level, key);
+                stamps[key] = oldStamps[level];
+            } else {
+                restoreValues(~key, --nbCopies);
+                pageStamps[~key] = oldStamps[level];
+            }
+        }
+        currentLevel = level;
+        epoch++;
+    }
+
+    @Override
+    public final void worldCommit(int worldIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return the number of slots trailed since the creation of the storage
+     */
+    public final long getNbTrailed() {
+        return nbTrailed;
+    }
+
+    /**
+     * @return the number of pages copied since the creation of the storage
+     */
+    public final long getNbCopied() {
+        return nbCopied;
+    }
+}
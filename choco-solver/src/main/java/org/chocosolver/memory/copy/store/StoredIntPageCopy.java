@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.copy.store;
+
+import org.chocosolver.memory.copy.CowInt;
+
+/**
+ * Copy-on-write storage of backtrackable ints, grouped into pages,
+ * see {@link AbstractStoredPageCopy}.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public final class StoredIntPageCopy extends AbstractStoredPageCopy {
+
+    /**
+     * Backtrackable ints, one per slot
+     */
+    private CowInt[] vars;
+
+    /**
+     * Former values of the entries of the stack (unused for a page copy)
+     */
+    private int[] oldValues;
+
+    /**
+     * Copies of pages, in the order of the page entries of the stack; arrays are reused.
+     */
+    private int[][] copies;
+
+    /**
+     * Creates a storage with the default page size and copy threshold.
+     */
+    public StoredIntPageCopy() {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_COPY_THRESHOLD);
+    }
+
+    /**
+     * Creates a storage.
+     *
+     * @param pageSize      number of slots of a page, a power of 2
+     * @param copyThreshold number of slots trailed in a page, in a world, before the page is copied
+     */
+    public StoredIntPageCopy(int pageSize, int copyThreshold) {
+        super(pageSize, copyThreshold);
+        vars = new CowInt[pageSize];
+        oldValues = new int[64];
+        copies = new int[8][];
+    }
+
+    /**
+     * Allocates a slot.
+     * Its stamp is set to 0, so that its first modification in any world is trailed,
+     * and the slot is restored to its initial value on backtrack, even if it is allocated during search.
+     *
+     * @param var the backtrackable int, set to its initial value
+     * @return the slot
+     */
+    public int allocate(CowInt var) {
+        int slot = allocateSlot();
+        vars[slot] = var;
+        return slot;
+    }
+
+    @Override
+    protected void growSlots(int nbSlots, int capacity) {
+        CowInt[] tmp = new CowInt[capacity];
+        System.arraycopy(vars, 0, tmp, 0, nbSlots);
+        vars = tmp;
+    }
+
+    @Override
+    protected void growOldValues(int currentLevel, int capacity) {
+        int[] tmp = new int[capacity];
+        System.arraycopy(oldValues, 0, tmp, 0, currentLevel);
+        oldValues = tmp;
+    }
+
+    @Override
+    protected void saveValue(int level, int slot) {
+        oldValues[level] = vars[slot].get();
+    }
+
+    @Override
+    protected void restoreValue(int level, int slot) {
+        vars[slot].restore(oldValues[level]);
+    }
+
+    @Override
+    protected void copyValues(int page, int copy) {
+        if (copy == copies.length) {
+            int[][] tmp = new int[copy * 3 / 2 + 1][];
+            System.arraycopy(copies, 0, tmp, 0, copy);
+            copies = tmp;
+        }
+        if (copies[copy] == null) {
+            copies[copy] = new int[pageSize];
+        }
+        final int[] c = copies[copy];
+        final int first = page << shift;
+        for (int k = 0; k < pageSize; k++) {
+            c[k] = vars[first + k].get();
+        }
+    }
+
+    @Override
+    protected void restoreValues(int page, int copy) {
+        final int[] c = copies[copy];
+        final int first = page << shift;
+        for (int k = 0; k < pageSize; k++) {
+            vars[first + k].restore(c[k]);
+        }
+    }
+}
@@ -0,0 +1,625 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.structure;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+
+import java.util.BitSet;
+
+/**
+ * A backtrackable bitset which maintains the indices of its non-zero words.
+ * <p>
+ * The indices of the words are stored in a permutation, <code>index</code>,
+ * where the non-zero words are the first <code>limit + 1</code> ones.
+ * When a word becomes zero, it is swapped with the last non-zero word and <code>limit</code> is decremented.
+ * While words are only removed, only <code>limit</code> (and the words themselves) are restored upon backtrack:
+ * the permutation is not, since the words removed after a world is pushed are still located after the limit
+ * of that world.
+ * Thus, counting bits, iterating over the non-zero words, or checking whether the bitset intersects a mask
+ * costs O(number of non-zero words) instead of O(number of words).
+ * <p>
+ * A zero word can also be set again once a world has been pushed. From then on, and until the world in which
+ * this happens is popped, each change of the permutation is recorded and undone upon backtrack.
+ * So, structures which only shrink during search, such as domains, envelopes or sets of valid tuples,
+ * do not pay for it.
+ * The capacity of the bitset is fixed at creation.
+ * <p>
+ * A mask (not restored upon backtrack) is attached to the bitset to intersect it with an union of other bitsets,
+ * as described in "Compact-Table: Efficiently Filtering Table Constraints with Reversible Sparse Bit-Sets",
+ * J. Demeulenaere et al., CP 2016.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class StateSparseBitSet implements IStateBitSet {
+
+    /*
+    * BitSets are packed into arrays of "words."  Currently a word is
+    * a long, which consists of 64 bits, requiring 6 address bits.
+    */
+    private final static int ADDRESS_BITS_PER_WORD = 6;
+    private final static int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+    /* Used to shift left or right for a partial word mask */
+    private static final long WORD_MASK = 0xffffffffffffffffL;
+
+    /**
+     * The current environment.
+     */
+    private final IEnvironment environment;
+
+    /**
+     * The world in which the bitset has been created, the changes of the permutation done in this world
+     * never need to be undone.
+     */
+    private final int creationWorld;
+
+    /**
+     * Number of bits which can be set.
+     */
+    private final int nbBits;
+
+    /**
+     * The words of the bitset.
+     */
+    private final IStateLong[] words;
+
+    /**
+     * Permutation of the word indices, the non-zero words are stored in [0, limit].
+     */
+    private final int[] index;
+
+    /**
+     * Position of each word in {@link #index}.
+     */
+    private final int[] position;
+
+    /**
+     * Position of the last non-zero word in {@link #index}.
+     */
+    private final IStateInt limit;
+
+    /**
+     * Set to <tt>true</tt> once a zero word is set in a world following the creation one:
+     * from then on, the changes of the permutation are undone upon backtrack.
+     */
+    private final IStateBool restoreIndex;
+
+    /**
+     * A temporary mask, not restored upon backtrack.
+     */
+    private final long[] mask;
+
+    /**
+     * Creates a bitset able to store bits with indices in the range <code>0</code> through <code>nbits-1</code>.
+     * All bits are initially <code>false</code>.
+     *
+     * @param environment backtrackable environment
+     * @param nbits       the capacity of the bitset
+     * @throws NegativeArraySizeException if the specified size is negative.
+     */
+    public StateSparseBitSet(IEnvironment environment, int nbits) {
+        if (nbits < 0)
+            throw new NegativeArraySizeException("nbits < 0: " + nbits);
+        this.environment = environment;
+        this.creationWorld = environment.getWorldIndex();
+        this.nbBits = nbits;
+        int nbWords = wordIndex(nbits - 1) + 1;
+        this.words = new IStateLong[nbWords];
+        this.index = new int[nbWords];
+        this.position = new int[nbWords];
+        this.mask = new long[nbWords];
+        for (int i = 0; i < nbWords; i++) {
+            words[i] = environment.makeLong(0L);
+            index[i] = i;
+            position[i] = i;
+        }
+        this.limit = environment.makeInt(-1);
+        this.restoreIndex = environment.makeBool(false);
+    }
+
+    /**
+     * Given a bit index, return word index containing it.
+     *
+     * @param bitIndex bit index
+     */
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private void checkIndex(int bitIndex) {
+        if (bitIndex < 0 || bitIndex >= nbBits)
+            throw new IndexOutOfBoundsException("bitIndex: " + bitIndex + ", capacity: " + nbBits);
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if (toIndex > nbBits)
+            throw new IndexOutOfBoundsException("toIndex > capacity: " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + " > toIndex: " + toIndex);
+    }
+
+    /**
+     * Sets the word <i>wordIndex</i>, and updates the index of non-zero words if needed.
+     */
+    private void setWord(int wordIndex, long oldWord, long newWord) {
+        if (oldWord != newWord) {
+            if (oldWord == 0L) {
+                addToIndex(wordIndex);
+            }
+            words[wordIndex].set(newWord);
+            if (newWord == 0L) {
+                removeFromIndex(wordIndex);
+            }
+        }
+    }
+
+    private void addToIndex(int wordIndex) {
+        if (!restoreIndex.get() && environment.getWorldIndex() > creationWorld) {
+            // the word may be moved beyond the limit of a previous world, the permutation should now be restored
+            restoreIndex.set(true);
+        }
+        swap(position[wordIndex], limit.add(1));
+    }
+
+    private void removeFromIndex(int wordIndex) {
+        int l = limit.get();
+        swap(position[wordIndex], l);
+        limit.set(l - 1);
+    }
+
+    private void swap(int p1, int p2) {
+        if (p1 != p2) {
+            exchange(p1, p2);
+            if (restoreIndex.get()) {
+                new SwapOperation(p1, p2);
+            }
+        }
+    }
+
+    private void exchange(int p1, int p2) {
+        int w1 = index[p1];
+        int w2 = index[p2];
+        index[p1] = w2;
+        position[w2] = p1;
+        index[p2] = w1;
+        position[w1] = p2;
+    }
+
+    //***********************************************************************************
+    // BITSET API
+    //***********************************************************************************
+
+    @Override
+    public int cardinality() {
+        int sum = 0;
+        for (int i = limit.get(); i >= 0; i--) {
+            sum += Long.bitCount(words[index[i]].get());
+        }
+        return sum;
+    }
+
+    @Override
+    public int size() {
+        return words.length * BITS_PER_WORD;
+    }
+
+    @Override
+    public int capacity() {
+        return words.length * BITS_PER_WORD;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return limit.get() == -1;
+    }
+
+    @Override
+    public boolean get(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int wordIndex = wordIndex(bitIndex);
+        return wordIndex < words.length && (words[wordIndex].get() & (1L << bitIndex)) != 0;
+    }
+
+    @Override
+    public void set(int bitIndex) {
+        checkIndex(bitIndex);
+        int wordIndex = wordIndex(bitIndex);
+        long word = words[wordIndex].get();
+        setWord(wordIndex, word, word | (1L << bitIndex));
+    }
+
+    @Override
+    public void clear(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int wordIndex = wordIndex(bitIndex);
+        if (wordIndex < words.length) {
+            long word = words[wordIndex].get();
+            setWord(wordIndex, word, word & ~(1L << bitIndex));
+        }
+    }
+
+    @Override
+    public void set(int bitIndex, boolean value) {
+        if (value)
+            set(bitIndex);
+        else
+            clear(bitIndex);
+    }
+
+    @Override
+    public void flip(int bitIndex) {
+        set(bitIndex, !get(bitIndex));
+    }
+
+    @Override
+    public void clear() {
+        for (int i = limit.get(); i >= 0; i--) {
+            words[index[i]].set(0L);
+        }
+        limit.set(-1);
+    }
+
+    @Override
+    public void set(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return;
+        int startWordIndex = wordIndex(fromIndex);
+        int endWordIndex = wordIndex(toIndex - 1);
+        long firstWordMask = WORD_MASK << fromIndex;
+        long lastWordMask = WORD_MASK >>> -toIndex;
+        for (int i = startWordIndex; i <= endWordIndex; i++) {
+            long m = WORD_MASK;
+            if (i == startWordIndex) m &= firstWordMask;
+            if (i == endWordIndex) m &= lastWordMask;
+            long word = words[i].get();
+            setWord(i, word, word | m);
+        }
+    }
+
+    @Override
+    public void clear(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if (fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + " > toIndex: " + toIndex);
+        toIndex = Math.min(toIndex, nbBits);
+        if (fromIndex >= toIndex)
+            return;
+        int startWordIndex = wordIndex(fromIndex);
+        int endWordIndex = wordIndex(toIndex - 1);
+        long firstWordMask = WORD_MASK << fromIndex;
+        long lastWordMask = WORD_MASK >>> -toIndex;
+        for (int i = startWordIndex; i <= endWordIndex; i++) {
+            long m = WORD_MASK;
+            if (i == startWordIndex) m &= firstWordMask;
+            if (i == endWordIndex) m &= lastWordMask;
+            long word = words[i].get();
+            setWord(i, word, word & ~m);
+        }
+    }
+
+    @Override
+    public void flip(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            flip(i);
+        }
+    }
+
+    @Override
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        int u = wordIndex(fromIndex);
+        if (u >= words.length || isEmpty())
+            return -1;
+        long word = words[u].get() & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0)
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            if (++u == words.length)
+                return -1;
+            word = words[u].get();
+        }
+    }
+
+    @Override
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        int u = wordIndex(fromIndex);
+        if (u >= words.length)
+            return fromIndex;
+        long word = ~words[u].get() & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0)
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            if (++u == words.length)
+                return words.length * BITS_PER_WORD;
+            word = ~words[u].get();
+        }
+    }
+
+    @Override
+    public int prevSetBit(int fromIndex) {
+        if (fromIndex < 0 || isEmpty())
+            return -1;
+        if (fromIndex >= nbBits)
+            fromIndex = nbBits - 1;
+        int u = wordIndex(fromIndex);
+        long word = words[u].get() & (WORD_MASK >>> -(fromIndex + 1));
+        while (true) {
+            if (word != 0)
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            if (u-- == 0)
+                return -1;
+            word = words[u].get();
+        }
+    }
+
+    @Override
+    public int prevClearBit(int fromIndex) {
+        if (fromIndex < 0)
+            return -1;
+        if (fromIndex >= nbBits)
+            return fromIndex;
+        int u = wordIndex(fromIndex);
+        long word = ~words[u].get() & (WORD_MASK >>> -(fromIndex + 1));
+        while (true) {
+            if (word != 0)
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            if (u-- == 0)
+                return -1;
+            word = ~words[u].get();
+        }
+    }
+
+    @Override
+    public void and(IStateBitSet other) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            long word = words[offset].get();
+            setWord(offset, word, word & wordOf(other, offset, word));
+        }
+    }
+
+    @Override
+    public void andNot(IStateBitSet other) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            long word = words[offset].get();
+            setWord(offset, word, word & ~wordOf(other, offset, word));
+        }
+    }
+
+    @Override
+    public void or(IStateBitSet other) {
+        for (int i = other.nextSetBit(0); i >= 0; i = other.nextSetBit(i + 1)) {
+            set(i);
+        }
+    }
+
+    @Override
+    public void xor(IStateBitSet other) {
+        for (int i = other.nextSetBit(0); i >= 0; i = other.nextSetBit(i + 1)) {
+            flip(i);
+        }
+    }
+
+    @Override
+    public boolean intersects(IStateBitSet other) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            long word = words[offset].get();
+            if ((word & wordOf(other, offset, word)) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the bits of <i>other</i> in the word <i>offset</i> which are also set in <i>word</i>
+     */
+    private static long wordOf(IStateBitSet other, int offset, long word) {
+        if (other instanceof StateSparseBitSet) {
+            StateSparseBitSet sparse = (StateSparseBitSet) other;
+            return offset < sparse.words.length ? sparse.words[offset].get() & word : 0L;
+        }
+        long w = 0L;
+        int base = offset * BITS_PER_WORD;
+        for (long m = word; m != 0L; m &= m - 1) {
+            int bit = Long.numberOfTrailingZeros(m);
+            if (other.get(base + bit)) {
+                w |= 1L << bit;
+            }
+        }
+        return w;
+    }
+
+    @Override
+    public IStateBitSet copy() {
+        StateSparseBitSet copy = new StateSparseBitSet(environment, nbBits);
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            copy.setWord(offset, 0L, words[offset].get());
+        }
+        return copy;
+    }
+
+    @Override
+    public BitSet copyToBitSet() {
+        long[] ws = new long[words.length];
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            ws[offset] = words[offset].get();
+        }
+        return BitSet.valueOf(ws);
+    }
+
+    //***********************************************************************************
+    // SPARSE API
+    //***********************************************************************************
+
+    /**
+     * @return the number of words of the bitset
+     */
+    public int getNbWords() {
+        return words.length;
+    }
+
+    /**
+     * @return the number of non-zero words of the bitset
+     */
+    public int getNbNonZeroWords() {
+        return limit.get() + 1;
+    }
+
+    /**
+     * @param wordIndex index of a word
+     * @return the value of the <i>wordIndex</i>th word of the bitset
+     */
+    public long getWord(int wordIndex) {
+        return words[wordIndex].get();
+    }
+
+    /**
+     * Resets the mask to zero, on non-zero words only.
+     */
+    public void clearMask() {
+        for (int i = limit.get(); i >= 0; i--) {
+            mask[index[i]] = 0L;
+        }
+    }
+
+    /**
+     * Reverses the mask, on non-zero words only.
+     */
+    public void reverseMask() {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            mask[offset] = ~mask[offset];
+        }
+    }
+
+    /**
+     * Adds <i>m</i> to the mask, on non-zero words only.
+     *
+     * @param m an array of {@link #getNbWords()} words
+     */
+    public void addToMask(long[] m) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            mask[offset] |= m[offset];
+        }
+    }
+
+    /**
+     * Intersects the bitset with the mask.
+     */
+    public void intersectWithMask() {
+        int l = limit.get();
+        for (int i = l; i >= 0; i--) {
+            int offset = index[i];
+            long w = words[offset].get();
+            long nw = w & mask[offset];
+            if (w != nw) {
+                words[offset].set(nw);
+                if (nw == 0L) {
+                    swap(i, l);
+                    l--;
+                }
+            }
+        }
+        limit.set(l);
+    }
+
+    /**
+     * @param m an array of {@link #getNbWords()} words
+     * @return the index of a word which intersects <i>m</i>, -1 if there is none
+     */
+    public int intersectIndex(long[] m) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            if ((words[offset].get() & m[offset]) != 0L) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param m    an array of {@link #getNbWords()} words
+     * @param stop a bound
+     * @return the number of bits in common with <i>m</i>, or any value greater or equal to <i>stop</i>
+     */
+    public int countIntersection(long[] m, int stop) {
+        int count = 0;
+        for (int i = limit.get(); i >= 0 && count < stop; i--) {
+            int offset = index[i];
+            count += Long.bitCount(words[offset].get() & m[offset]);
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return copyToBitSet().toString();
+    }
+
+    /**
+     * Undoes a swap of two positions of the permutation upon backtrack.
+     */
+    private final class SwapOperation extends Operation {
+
+        private final int p1, p2;
+
+        SwapOperation(int p1, int p2) {
+            super(environment);
+            this.p1 = p1;
+            this.p2 = p2;
+        }
+
+        @Override
+        public void undo() {
+            exchange(p1, p2);
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.chocosolver.memory.structure.Operation;
 import org.chocosolver.memory.trailing.trail.*;
 import org.chocosolver.memory.trailing.trail.chunck.*;
 import org.chocosolver.memory.trailing.trail.flatten.*;
+import org.chocosolver.memory.trailing.trail.slab.SlabTrail;
 import org.chocosolver.memory.trailing.trail.unsafe.UnsafeBoolTrail;
 import org.chocosolver.memory.trailing.trail.unsafe.UnsafeDoubleTrail;
 import org.chocosolver.memory.trailing.trail.unsafe.UnsafeIntTrail;
@@ -49,17 +50,27 @@ import org.chocosolver.memory.trailing.trail.unsafe.UnsafeLongTrail;
 public final class EnvironmentTrailing extends AbstractEnvironment {
 
 
+    /**
+     * Initial sizes of the trails.
+     */
+    private final TrailSizing sizing;
+
     /**
      * The maximum numbers of worlds that a
      * {@link org.chocosolver.memory.IStorage} can handle.
      */
-    private int maxWorld = 100; //1000;
+    private int maxWorld;
 
     /**
      * The maximum numbers of updates that a
      * {@link org.chocosolver.memory.IStorage} can handle.
      */
-    private static final int MaxHist = 5000;
+    private final int maxHist;
+
+    /**
+     * Number of times the world capacity has been increased.
+     */
+    private int nbWorldGrowths;
 
     //Contains all the {@link IStorage} trails for
     // storing different kinds of data.
@@ -70,6 +81,8 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
     private IStoredDoubleTrail doubleTrail;
     private IOperationTrail operationTrail;
 
+    private SlabTrail slabTrail;
+
     private StoredIntVectorTrail intVectorTrail;
     private StoredDoubleVectorTrail doubleVectorTrail;
 
@@ -86,11 +99,51 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
      */
 
     public EnvironmentTrailing() {
-        super(Type.FLAT);
+        this(Type.FLAT);
+    }
+
+    /**
+     * Constructs a new <code>IEnvironment</code> which stores backtrackable objects as stated by <i>type</i>.
+     *
+     * @param type storage of the backtrackable objects
+     */
+    public EnvironmentTrailing(Type type) {
+        this(type, TrailSizing.DEFAULT);
+    }
+
+    /**
+     * Constructs a new <code>IEnvironment</code> whose trails are sized as stated by <i>sizing</i>.
+     *
+     * @param sizing initial sizes of the trails
+     */
+    public EnvironmentTrailing(TrailSizing sizing) {
+        this(Type.FLAT, sizing);
+    }
+
+    /**
+     * Constructs a new <code>IEnvironment</code> which stores backtrackable objects as stated by <i>type</i>
+     * and whose trails are sized as stated by <i>sizing</i>.
+     *
+     * @param type   storage of the backtrackable objects
+     * @param sizing initial sizes of the trails
+     */
+    public EnvironmentTrailing(Type type, TrailSizing sizing) {
+        super(type);
+        this.sizing = sizing;
+        this.maxWorld = sizing.getInitialDepth();
+        this.maxHist = sizing.getInitialUpdates();
         trails = new ITrailStorage[0];
         trailSize = 0;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IEnvironment emptyCopy() {
+        return new EnvironmentTrailing(type, sizing);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -123,6 +176,53 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         currentWorld--;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Before restoring the world, the high-water marks are recorded in the sizing profile
+     * (see {@link #recordHighWaterMarks()}).
+     */
+    @Override
+    public void worldPopUntil(int w) {
+        recordHighWaterMarks();
+        super.worldPopUntil(w);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The number of worlds and the number of updates this environment can currently handle are recorded
+     * in its sizing profile. When the profile is auto-tuned, environments built afterward with it are pre-sized
+     * to these marks.
+     */
+    @Override
+    public void recordHighWaterMarks() {
+        int updates = 0;
+        for (int i = 0; i < trailSize; i++) {
+            updates = Math.max(updates, trails[i].getCapacity());
+        }
+        sizing.record(maxWorld, updates);
+    }
+
+    /**
+     * @return the sizing profile of this environment
+     */
+    public TrailSizing getSizing() {
+        return sizing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNbGrowths() {
+        long n = nbWorldGrowths;
+        for (int i = 0; i < trailSize; i++) {
+            n += trails[i].getNbGrowths();
+        }
+        return n;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -152,6 +252,9 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
      */
     @Override
     public IStateInt makeInt(final int initialValue) {
+        if (type == Type.SLAB) {
+            return new SlabInt(this, initialValue);
+        }
         return new StoredInt(this, initialValue);
     }
 
@@ -208,6 +311,9 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
      */
     @Override
     public IStateLong makeLong(final long init) {
+        if (type == Type.SLAB) {
+            return new SlabLong(this, init);
+        }
         return new StoredLong(this, init);
     }
 
@@ -222,13 +328,14 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         if (intTrail == null) {
             switch (type) {
                 case FLAT:
-                    intTrail = new StoredIntTrail(MaxHist, maxWorld);
+                case SLAB:
+                    intTrail = new StoredIntTrail(maxHist, maxWorld);
                     break;
                 case CHUNK:
-                    intTrail = new StoredIntChunckTrail(maxWorld);
+                    intTrail = new StoredIntChunckTrail(maxHist, maxWorld, sizing.getChunkSize());
                     break;
                 case UNSAFE:
-                    intTrail = new UnsafeIntTrail(MaxHist, maxWorld);
+                    intTrail = new UnsafeIntTrail(maxHist, maxWorld);
                     break;
             }
             increaseTrail();
@@ -241,13 +348,14 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         if (longTrail == null) {
             switch (type) {
                 case FLAT:
-                    longTrail = new StoredLongTrail(MaxHist, maxWorld);
+                case SLAB:
+                    longTrail = new StoredLongTrail(maxHist, maxWorld);
                     break;
                 case CHUNK:
-                    longTrail = new StoredLongChunckTrail(maxWorld);
+                    longTrail = new StoredLongChunckTrail(maxHist, maxWorld, sizing.getChunkSize());
                     break;
                 case UNSAFE:
-                    longTrail = new UnsafeLongTrail(MaxHist, maxWorld);
+                    longTrail = new UnsafeLongTrail(maxHist, maxWorld);
                     break;
             }
 
@@ -261,13 +369,14 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         if (boolTrail == null) {
             switch (type) {
                 case FLAT:
-                    boolTrail = new StoredBoolTrail(MaxHist, maxWorld);
+                case SLAB:
+                    boolTrail = new StoredBoolTrail(maxHist, maxWorld);
                     break;
                 case CHUNK:
-                    boolTrail = new StoredBoolChunckTrail(maxWorld);
+                    boolTrail = new StoredBoolChunckTrail(maxHist, maxWorld, sizing.getChunkSize());
                     break;
                 case UNSAFE:
-                    boolTrail = new UnsafeBoolTrail(MaxHist, maxWorld);
+                    boolTrail = new UnsafeBoolTrail(maxHist, maxWorld);
                     break;
             }
 
@@ -281,13 +390,14 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         if (doubleTrail == null) {
             switch (type) {
                 case FLAT:
-                    doubleTrail = new StoredDoubleTrail(MaxHist, maxWorld);
+                case SLAB:
+                    doubleTrail = new StoredDoubleTrail(maxHist, maxWorld);
                     break;
                 case CHUNK:
-                    doubleTrail = new StoredDoubleChunckTrail(maxWorld);
+                    doubleTrail = new StoredDoubleChunckTrail(maxHist, maxWorld, sizing.getChunkSize());
                     break;
                 case UNSAFE:
-                    doubleTrail = new UnsafeDoubleTrail(MaxHist, maxWorld);
+                    doubleTrail = new UnsafeDoubleTrail(maxHist, maxWorld);
                     break;
             }
             increaseTrail();
@@ -296,11 +406,21 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         return doubleTrail;
     }
 
+    public SlabTrail getSlabTrail() {
+        if (slabTrail == null) {
+            slabTrail = new SlabTrail(maxHist, maxHist, maxWorld);
+            increaseTrail();
+            trails[trailSize++] = slabTrail;
+        }
+        return slabTrail;
+    }
+
     public IOperationTrail getOperationTrail() {
         if (operationTrail == null) {
             switch (type) {
                 case FLAT:
-                    operationTrail = new OperationTrail(MaxHist, maxWorld);
+                case SLAB:
+                    operationTrail = new OperationTrail(maxHist, maxWorld);
                     break;
                 case CHUNK:
                 case UNSAFE:
@@ -320,7 +440,7 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
 
     public StoredIntVectorTrail getIntVectorTrail() {
         if (intVectorTrail == null) {
-            intVectorTrail = new StoredIntVectorTrail(this, MaxHist, maxWorld);
+            intVectorTrail = new StoredIntVectorTrail(this, maxHist, maxWorld);
             increaseTrail();
             trails[trailSize++] = intVectorTrail;
         }
@@ -329,7 +449,7 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
 
     public StoredDoubleVectorTrail getDoubleVectorTrail() {
         if (doubleVectorTrail == null) {
-            doubleVectorTrail = new StoredDoubleVectorTrail(this, MaxHist, maxWorld);
+            doubleVectorTrail = new StoredDoubleVectorTrail(this, maxHist, maxWorld);
             increaseTrail();
             trails[trailSize++] = doubleVectorTrail;
         }
@@ -339,6 +459,7 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     private void resizeWorldCapacity(final int newWorldCapacity) {
+        nbWorldGrowths++;
         for (final ITrailStorage trail : trails) {
             trail.resizeWorldCapacity(newWorldCapacity);
         }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.trailing;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.trailing.trail.slab.SlabTrail;
+
+/**
+ * A backtrackable int whose stamp is stored in a slot of the {@link SlabTrail} of the environment.
+ * The value is kept in the inherited field, the slab restoring it on backtrack.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public final class SlabInt extends IStateInt {
+
+    private final SlabTrail slab;
+
+    private final int slot;
+
+    /**
+     * Constructs a stored search with an initial value.
+     * Note: this constructor should not be used directly: one should instead
+     * use the IEnvironment factory
+     */
+    public SlabInt(final EnvironmentTrailing env, final int i) {
+        super(env, i);
+        slab = env.getSlabTrail();
+        slot = slab.allocateInt(this, timeStamp);
+        if (env.fakeHistoryNeeded()) {
+            slab.buildFakeIntHistory(slot, i, timeStamp);
+        }
+    }
+
+    /**
+     * Modifies the value and stores if needed the former value on the
+     * trailing stack.
+     */
+    @Override
+    public void set(final int y) {
+        if (y != currentValue) {
+            slab.saveInt(slot, currentValue, environment.getWorldIndex());
+            currentValue = y;
+        }
+    }
+
+    @Override
+    public void _set(final int y, final int wstamp) {
+        currentValue = y;
+        slab.overrideIntStamp(slot, wstamp);
+    }
+
+    /**
+     * Restores the value on backtrack, the stamp being restored by the slab.
+     *
+     * @param y the former value
+     */
+    public void restore(final int y) {
+        currentValue = y;
+    }
+
+    @Override
+    public int getTimeStamp() {
+        return slab.getIntStamp(slot);
+    }
+
+    @Override
+    public void overrideTimeStamp(int aTimeStamp) {
+        slab.overrideIntStamp(slot, aTimeStamp);
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.trailing;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initial sizes of the trails of an {@link EnvironmentTrailing}.
+ * <p>
+ * A trail is created with room for <code>initialDepth</code> worlds and
+ * <code>initialDepth * updatesPerWorld</code> updates; chunked trails allocate chunks of <code>chunkSize</code> updates.
+ * When a trail is full, it grows by copy (or by allocating a new chunk), which is counted
+ * (see {@link EnvironmentTrailing#getNbGrowths()}).
+ * <p>
+ * An auto-tuned profile also records the high-water marks (number of worlds and of updates) reached by
+ * the environments built with it, at the end of each resolution and each time one of them is restored
+ * to a previous state with {@link EnvironmentTrailing#worldPopUntil(int)} (on a restart, for instance).
+ * The environments built afterward are then pre-sized to these marks, which avoids growing the trails again.
+ * An auto-tuned profile can be shared by several environments, even from several threads.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public final class TrailSizing implements Serializable {
+
+    /**
+     * The default profile: 100 worlds, 50 updates per world, chunks of 1048576 updates, no auto-tuning.
+     */
+    public static final TrailSizing DEFAULT = new TrailSizing(100, 50, 1048576, false);
+
+    /**
+     * Initial number of worlds
+     */
+    private final int initialDepth;
+
+    /**
+     * Expected number of updates per world
+     */
+    private final int updatesPerWorld;
+
+    /**
+     * Number of updates of a chunk
+     */
+    private final int chunkSize;
+
+    /**
+     * Set to <tt>true</tt> to record high-water marks
+     */
+    private final boolean autoTune;
+
+    /**
+     * Highest number of worlds recorded
+     */
+    private final AtomicInteger depthMark;
+
+    /**
+     * Highest number of updates recorded
+     */
+    private final AtomicInteger updatesMark;
+
+    /**
+     * Creates a sizing profile.
+     *
+     * @param initialDepth    initial number of worlds
+     * @param updatesPerWorld expected number of updates per world
+     * @param chunkSize       number of updates of a chunk, for chunked trails
+     * @param autoTune        set to <tt>true</tt> to pre-size environments to the high-water marks recorded so far
+     */
+    public TrailSizing(int initialDepth, int updatesPerWorld, int chunkSize, boolean autoTune) {
+        if (initialDepth < 2 || updatesPerWorld < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Invalid trail sizing: depth=" + initialDepth
+                    + ", updates per world=" + updatesPerWorld + ", chunk size=" + chunkSize);
+        }
+        this.initialDepth = initialDepth;
+        this.updatesPerWorld = updatesPerWorld;
+        this.chunkSize = chunkSize;
+        this.autoTune = autoTune;
+        this.depthMark = new AtomicInteger();
+        this.updatesMark = new AtomicInteger();
+    }
+
+    /**
+     * @return a new auto-tuned profile, starting from the default sizes
+     */
+    public static TrailSizing autoTuned() {
+        return new TrailSizing(DEFAULT.initialDepth, DEFAULT.updatesPerWorld, DEFAULT.chunkSize, true);
+    }
+
+    /**
+     * @return the number of worlds a new environment can handle before growing
+     */
+    public int getInitialDepth() {
+        return Math.max(initialDepth, depthMark.get());
+    }
+
+    /**
+     * @return the number of updates a new trail can store before growing
+     */
+    public int getInitialUpdates() {
+        return Math.max(initialDepth * updatesPerWorld, updatesMark.get());
+    }
+
+    /**
+     * @return the number of updates of a chunk, for chunked trails
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return <tt>true</tt> if high-water marks are recorded
+     */
+    public boolean isAutoTuned() {
+        return autoTune;
+    }
+
+    /**
+     * Records high-water marks, if this profile is auto-tuned.
+     *
+     * @param depth   a number of worlds
+     * @param updates a number of updates
+     */
+    public void record(int depth, int updates) {
+        if (autoTune) {
+            depthMark.accumulateAndGet(depth, Math::max);
+            updatesMark.accumulateAndGet(updates, Math::max);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "depth: " + getInitialDepth() + ", updates: " + getInitialUpdates() + ", chunk size: " + chunkSize
+                + (autoTune ? " (auto-tuned)" : "");
+    }
+}
@@ -46,4 +46,19 @@ public interface ITrailStorage extends IStorage {
      */
     void resizeWorldCapacity(int newWorldCapacity);
 
+    /**
+     * @return the current number of updates stored
+     */
+    int getSize();
+
+    /**
+     * @return the number of updates which can be stored before the trail grows
+     */
+    int getCapacity();
+
+    /**
+     * @return the number of times the capacity of the trail has been increased
+     */
+    int getNbGrowths();
+
 }
@@ -38,6 +38,11 @@ import org.chocosolver.memory.trailing.StoredIntVector;
  */
 public class StoredIntVectorTrail implements ITrailStorage {
 
+    /**
+     * Number of times the capacity of the trail has been increased.
+     */
+    private int nbGrowths;
+
     /**
      * The current environment.
      */
@@ -124,6 +129,7 @@ public class StoredIntVectorTrail implements ITrailStorage {
     }
 
     private void resizeUpdateCapacity() {
+        nbGrowths++;
         final int newCapacity = ((maxUpdates * 3) / 2);
         // first, copy the stack of variables
         final StoredIntVector[] tmp1 = new StoredIntVector[newCapacity];
@@ -146,6 +152,16 @@ public class StoredIntVectorTrail implements ITrailStorage {
         maxUpdates = newCapacity;
     }
 
+    @Override
+    public int getCapacity() {
+        return maxUpdates;
+    }
+
+    @Override
+    public int getNbGrowths() {
+        return nbGrowths;
+    }
+
     public void resizeWorldCapacity(int newWorldCapacity) {
         final int[] tmp = new int[newWorldCapacity];
         System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
@@ -40,6 +40,11 @@ import org.chocosolver.memory.trailing.trail.IOperationTrail;
  */
 public final class OperationChunckTrail implements IOperationTrail {
 
+    /**
+     * Number of times the capacity of the trail has been increased.
+     */
+    private int nbGrowths;
+
     private static final int CHUNK_SIZE = 10000;
 
     /**
@@ -153,12 +158,23 @@ public final class OperationChunckTrail implements IOperationTrail {
     }
 
     private void increase(int l) {
+        nbGrowths++;
         Operation[][] varBigger = new Operation[l + 1][];
         System.arraycopy(operationStack, 0, varBigger, 0, l);
         varBigger[l] = new Operation[CHUNK_SIZE];
         operationStack = varBigger;
     }
 
+    @Override
+    public int getCapacity() {
+        return operationStack.length * CHUNK_SIZE;
+    }
+
+    @Override
+    public int getNbGrowths() {
+        return nbGrowths;
+    }
+
     public void resizeWorldCapacity(int newWorldCapacity) {
         int[] tmp = new int[newWorldCapacity];
         System.arraycopy(chunks, 0, tmp, 0, chunks.length);
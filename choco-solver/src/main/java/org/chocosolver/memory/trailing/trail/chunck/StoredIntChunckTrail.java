@@ -40,7 +40,20 @@ import org.chocosolver.memory.trailing.trail.IStoredIntTrail;
  */
 public class StoredIntChunckTrail implements IStoredIntTrail {
 
-    private static final int CHUNK_SIZE = 1048576;
+    /**
+     * Default number of updates of a chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1048576;
+
+    /**
+     * Number of updates of a chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * Number of times the capacity of the trail has been increased.
+     */
+    private int nbGrowths;
 
     /**
      * Stack of backtrackable search variables.
@@ -88,16 +101,24 @@ public class StoredIntChunckTrail implements IStoredIntTrail {
      */
 
     public StoredIntChunckTrail(int nWorlds) {
-        curChunk = nextTop = 0;
-
-        variableStack = new StoredInt[1][];
-        variableStack[0] = new StoredInt[CHUNK_SIZE];
+        this(DEFAULT_CHUNK_SIZE, nWorlds, DEFAULT_CHUNK_SIZE);
+    }
 
-        valueStack = new int[1][];
-        valueStack[0] = new int[CHUNK_SIZE];
+    /**
+     * Constructs a trail with predefined size.
+     *
+     * @param nUpdates  number of updates that can be stored before allocating a new chunk
+     * @param nWorlds   maximal number of worlds that will be stored
+     * @param chunkSize number of updates of a chunk
+     */
+    public StoredIntChunckTrail(int nUpdates, int nWorlds, int chunkSize) {
+        this.chunkSize = chunkSize;
+        curChunk = nextTop = 0;
 
-        stampStack = new int[1][];
-        stampStack[0] = new int[CHUNK_SIZE];
+        int nChunks = Math.max(1, (nUpdates - 1) / chunkSize + 1);
+        variableStack = new StoredInt[nChunks][chunkSize];
+        valueStack = new int[nChunks][chunkSize];
+        stampStack = new int[nChunks][chunkSize];
 
         chunks = new int[nWorlds];
         tops = new int[nWorlds];
@@ -132,7 +153,7 @@ public class StoredIntChunckTrail implements IStoredIntTrail {
             cvar = variableStack[cc];
             cval = valueStack[cc];
             cstmp = stampStack[cc];
-            int tt = (cc == curChunk ? nextTop : CHUNK_SIZE) - 1;
+            int tt = (cc == curChunk ? nextTop : chunkSize) - 1;
             int to = (cc == c ? t : 0);
             for (; tt >= to; tt--) {
                 cvar[tt]._set(cval[tt], cstmp[tt]);
@@ -148,7 +169,7 @@ public class StoredIntChunckTrail implements IStoredIntTrail {
      */
 
     public int getSize() {
-        return curChunk * CHUNK_SIZE + nextTop;
+        return curChunk * chunkSize + nextTop;
     }
 
 
@@ -169,7 +190,7 @@ public class StoredIntChunckTrail implements IStoredIntTrail {
         variableStack[curChunk][nextTop] = v;
         stampStack[curChunk][nextTop] = oldStamp;
         nextTop++;
-        if (nextTop == CHUNK_SIZE) {
+        if (nextTop == chunkSize) {
             curChunk++;
             int l = variableStack.length;
             if (curChunk == l) {
@@ -193,13 +214,13 @@ public class StoredIntChunckTrail implements IStoredIntTrail {
         int _nextTop = nextTop;
 
         variableStack = new StoredInt[1][];
-        variableStack[0] = new StoredInt[CHUNK_SIZE];
+        variableStack[0] = new StoredInt[chunkSize];
 
         valueStack = new int[1][];
-        valueStack[0] = new int[CHUNK_SIZE];
+        valueStack[0] = new int[chunkSize];
 
         stampStack = new int[1][];
-        stampStack[0] = new int[CHUNK_SIZE];
+        stampStack[0] = new int[chunkSize];
 
         chunks = new int[_chunks.length + 1];
         tops = new int[_tops.length + 1];
@@ -225,7 +246,7 @@ public class StoredIntChunckTrail implements IStoredIntTrail {
             int[] cval = _valueStack[cc];
             int[] cstmp = _stampStack[cc];
             int from = (cc == fc ? ft : 0);
-            int to = (cc == tc ? tt : CHUNK_SIZE);
+            int to = (cc == tc ? tt : chunkSize);
             for (; from < to; from++) {
                 savePreviousState(cvar[from], cval[from], cstmp[from]);
             }
@@ -233,22 +254,33 @@ public class StoredIntChunckTrail implements IStoredIntTrail {
     }
 
     private void increase(int l) {
+        nbGrowths++;
         StoredInt[][] varBigger = new StoredInt[l + 1][];
         System.arraycopy(variableStack, 0, varBigger, 0, l);
-        varBigger[l] = new StoredInt[CHUNK_SIZE];
+        varBigger[l] = new StoredInt[chunkSize];
         variableStack = varBigger;
 
         int[][] valBigger = new int[l + 1][];
         System.arraycopy(valueStack, 0, valBigger, 0, l);
-        valBigger[l] = new int[CHUNK_SIZE];
+        valBigger[l] = new int[chunkSize];
         valueStack = valBigger;
 
         int[][] staBigger = new int[l + 1][];
         System.arraycopy(stampStack, 0, staBigger, 0, l);
-        staBigger[l] = new int[CHUNK_SIZE];
+        staBigger[l] = new int[chunkSize];
         stampStack = staBigger;
     }
 
+    @Override
+    public int getCapacity() {
+        return variableStack.length * chunkSize;
+    }
+
+    @Override
+    public int getNbGrowths() {
+        return nbGrowths;
+    }
+
     public void resizeWorldCapacity(int newWorldCapacity) {
         int[] tmp = new int[newWorldCapacity];
         System.arraycopy(chunks, 0, tmp, 0, chunks.length);
@@ -39,6 +39,11 @@ import org.chocosolver.memory.trailing.trail.IOperationTrail;
  */
 public class OperationTrail implements IOperationTrail {
 
+    /**
+     * Number of times the capacity of the trail has been increased.
+     */
+    private int nbGrowths;
+
 
     /**
      * Stack of values (former values that need be restored upon backtracking).
@@ -121,6 +126,7 @@ public class OperationTrail implements IOperationTrail {
     }
 
     private void resizeUpdateCapacity() {
+        nbGrowths++;
         final int newCapacity = ((valueStack.length * 3) / 2);
         // First, copy the stack of former values
         final Operation[] tmp2 = new Operation[newCapacity];
@@ -128,6 +134,16 @@ public class OperationTrail implements IOperationTrail {
         valueStack = tmp2;
     }
 
+    @Override
+    public int getCapacity() {
+        return valueStack.length;
+    }
+
+    @Override
+    public int getNbGrowths() {
+        return nbGrowths;
+    }
+
     public void resizeWorldCapacity(int newWorldCapacity) {
         final int[] tmp = new int[newWorldCapacity];
         System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
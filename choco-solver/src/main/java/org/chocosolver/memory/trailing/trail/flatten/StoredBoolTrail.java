@@ -35,6 +35,11 @@ import org.chocosolver.memory.trailing.trail.IStoredBoolTrail;
 
 public class StoredBoolTrail implements IStoredBoolTrail {
 
+    /**
+     * Number of times the capacity of the trail has been increased.
+     */
+    private int nbGrowths;
+
 
     /**
      * Stack of backtrackable search variables.
@@ -194,6 +199,7 @@ public class StoredBoolTrail implements IStoredBoolTrail {
 
 
     private void resizeUpdateCapacity() {
+        nbGrowths++;
         final int newCapacity = ((variableStack.length * 3) / 2);
         // first, copy the stack of variables
         final StoredBool[] tmp1 = new StoredBool[newCapacity];
@@ -209,6 +215,16 @@ public class StoredBoolTrail implements IStoredBoolTrail {
         stampStack = tmp3;
     }
 
+    @Override
+    public int getCapacity() {
+        return variableStack.length;
+    }
+
+    @Override
+    public int getNbGrowths() {
+        return nbGrowths;
+    }
+
     public void resizeWorldCapacity(int newWorldCapacity) {
         final int[] tmp = new int[newWorldCapacity];
         System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
@@ -35,6 +35,11 @@ import org.chocosolver.memory.trailing.trail.IStoredLongTrail;
 
 public class StoredLongTrail implements IStoredLongTrail {
 
+    /**
+     * Number of times the capacity of the trail has been increased.
+     */
+    private int nbGrowths;
+
 
     /**
      * Stack of backtrackable search variables.
@@ -195,6 +200,7 @@ public class StoredLongTrail implements IStoredLongTrail {
 
 
     private void resizeUpdateCapacity() {
+        nbGrowths++;
         final int newCapacity = ((variableStack.length * 3) / 2);
         // first, copy the stack of variables
         final StoredLong[] tmp1 = new StoredLong[newCapacity];
@@ -210,6 +216,16 @@ public class StoredLongTrail implements IStoredLongTrail {
         stampStack = tmp3;
     }
 
+    @Override
+    public int getCapacity() {
+        return variableStack.length;
+    }
+
+    @Override
+    public int getNbGrowths() {
+        return nbGrowths;
+    }
+
     public void resizeWorldCapacity(int newWorldCapacity) {
         final int[] tmp = new int[newWorldCapacity];
         System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
@@ -0,0 +1,347 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.trailing.trail.slab;
+
+import org.chocosolver.memory.trailing.SlabInt;
+import org.chocosolver.memory.trailing.SlabLong;
+import org.chocosolver.memory.trailing.trail.ITrailStorage;
+
+/**
+ * A trail which also stores the stamps of backtrackable ints and longs.
+ * <p>
+ * Each backtrackable int (resp. long) is a slot of <code>ints</code> (resp. <code>longs</code>),
+ * the world in which it was last saved being stored in a contiguous array of stamps.
+ * Its value is kept in the object itself, so that {@link org.chocosolver.memory.IStateInt#get()} remains a field read.
+ * An update is recorded on a single stack of longs, as two consecutive longs:
+ * the slot and the former stamp packed in one long (slots of longs are stored as <code>~slot</code>),
+ * then the former value.
+ * Thus, pushing an update does not store any reference, and restoring a world is a loop over primitive arrays,
+ * {@link SlabInt} and {@link SlabLong} being final classes, without any virtual call.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public final class SlabTrail implements ITrailStorage {
+
+    /**
+     * Number of times the capacity of the trail has been increased.
+     */
+    private int nbGrowths;
+
+    /**
+     * The backtrackable ints.
+     */
+    private SlabInt[] ints;
+
+    /**
+     * World in which each backtrackable int was last saved.
+     */
+    private int[] intStamps;
+
+    /**
+     * Number of backtrackable ints.
+     */
+    private int nbInts;
+
+    /**
+     * The backtrackable longs.
+     */
+    private SlabLong[] longs;
+
+    /**
+     * World in which each backtrackable long was last saved.
+     */
+    private int[] longStamps;
+
+    /**
+     * Number of backtrackable longs.
+     */
+    private int nbLongs;
+
+    /**
+     * Stack of updates, two longs per update: (slot, stamp) and former value.
+     */
+    private long[] stack;
+
+    /**
+     * Points the level of the last entry (in longs).
+     */
+    private int currentLevel;
+
+    /**
+     * A stack of pointers (for each start of a world).
+     */
+    private int[] worldStartLevels;
+
+    /**
+     * Constructs a trail with predefined size.
+     *
+     * @param nSlots   initial number of slots of each type
+     * @param nUpdates maximal number of updates that will be stored
+     * @param nWorlds  maximal number of worlds that will be stored
+     */
+    public SlabTrail(int nSlots, int nUpdates, int nWorlds) {
+        ints = new SlabInt[nSlots];
+        intStamps = new int[nSlots];
+        longs = new SlabLong[nSlots];
+        longStamps = new int[nSlots];
+        stack = new long[2 * nUpdates];
+        worldStartLevels = new int[nWorlds];
+        currentLevel = 0;
+    }
+
+    //***********************************************************************************
+    // SLOTS
+    //***********************************************************************************
+
+    /**
+     * Allocates a slot for a new backtrackable int.
+     *
+     * @param var   the backtrackable int
+     * @param stamp the current world
+     * @return the slot of the backtrackable int
+     */
+    public int allocateInt(SlabInt var, int stamp) {
+        if (nbInts == ints.length) {
+            int newCapacity = Math.max(16, nbInts * 3 / 2);
+            SlabInt[] tmp = new SlabInt[newCapacity];
+            System.arraycopy(ints, 0, tmp, 0, nbInts);
+            ints = tmp;
+            int[] tmp2 = new int[newCapacity];
+            System.arraycopy(intStamps, 0, tmp2, 0, nbInts);
+            intStamps = tmp2;
+        }
+        ints[nbInts] = var;
+        intStamps[nbInts] = stamp;
+        return nbInts++;
+    }
+
+    /**
+     * Allocates a slot for a new backtrackable long.
+     *
+     * @param var   the backtrackable long
+     * @param stamp the current world
+     * @return the slot of the backtrackable long
+     */
+    public int allocateLong(SlabLong var, int stamp) {
+        if (nbLongs == longs.length) {
+            int newCapacity = Math.max(16, nbLongs * 3 / 2);
+            SlabLong[] tmp = new SlabLong[newCapacity];
+            System.arraycopy(longs, 0, tmp, 0, nbLongs);
+            longs = tmp;
+            int[] tmp2 = new int[newCapacity];
+            System.arraycopy(longStamps, 0, tmp2, 0, nbLongs);
+            longStamps = tmp2;
+        }
+        longs[nbLongs] = var;
+        longStamps[nbLongs] = stamp;
+        return nbLongs++;
+    }
+
+    public int getIntStamp(int slot) {
+        return intStamps[slot];
+    }
+
+    public int getLongStamp(int slot) {
+        return longStamps[slot];
+    }
+
+    /**
+     * Stores if needed the former value of a backtrackable int on the stack, before it is modified.
+     *
+     * @param slot  slot of the backtrackable int
+     * @param old   its current value
+     * @param world the current world
+     */
+    public void saveInt(int slot, int old, int world) {
+        int stamp = intStamps[slot];
+        if (stamp < world) {
+            push(slot, stamp, old);
+            intStamps[slot] = world;
+        }
+    }
+
+    /**
+     * Stores if needed the former value of a backtrackable long on the stack, before it is modified.
+     *
+     * @param slot  slot of the backtrackable long
+     * @param old   its current value
+     * @param world the current world
+     */
+    public void saveLong(int slot, long old, int world) {
+        int stamp = longStamps[slot];
+        if (stamp < world) {
+            push(~slot, stamp, old);
+            longStamps[slot] = world;
+        }
+    }
+
+    public void overrideIntStamp(int slot, int stamp) {
+        intStamps[slot] = stamp;
+    }
+
+    public void overrideLongStamp(int slot, int stamp) {
+        longStamps[slot] = stamp;
+    }
+
+    //***********************************************************************************
+    // TRAIL
+    //***********************************************************************************
+
+    private static long head(int key, int stamp) {
+        return ((long) key << 32) | (stamp & 0xFFFFFFFFL);
+    }
+
+    private void push(int key, int stamp, long value) {
+        if (currentLevel + 2 > stack.length) {
+            resizeUpdateCapacity(currentLevel + 2);
+        }
+        stack[currentLevel++] = head(key, stamp);
+        stack[currentLevel++] = value;
+    }
+
+    @Override
+    public void worldPush(int worldIndex) {
+        worldStartLevels[worldIndex] = currentLevel;
+    }
+
+    @Override
+    public void worldPop(int worldIndex) {
+        final int wsl = worldStartLevels[worldIndex];
+        final long[] s = stack;
+        final SlabInt[] iv = ints;
+        final int[] is = intStamps;
+        final SlabLong[] lv = longs;
+        final int[] ls = longStamps;
+        int level = currentLevel;
+        while (level > wsl) {
+            final long value = s[--level];
+            final long head = s[--level];
+            final int key = (int) (head >> 32);
+            if (key >= 0) {
+                iv[key].restore((int) value);
+                is[key] = (int) head;
+            } else {
+                lv[~key].restore(value);
+                ls[~key] = (int) head;
+            }
+        }
+        currentLevel = level;
+    }
+
+    @Override
+    public void worldCommit(int worldIndex) {
+        // see StoredIntTrail#worldCommit
+        final int startLevel = worldStartLevels[worldIndex];
+        final int prevWorld = worldIndex - 1;
+        int writeIdx = startLevel;
+        for (int level = startLevel; level < currentLevel; level += 2) {
+            final long head = stack[level];
+            final long value = stack[level + 1];
+            final int key = (int) (head >> 32);
+            if (key >= 0) {
+                intStamps[key] = prevWorld;
+            } else {
+                longStamps[~key] = prevWorld;
+            }
+            if ((int) head != prevWorld) {
+                stack[writeIdx++] = head;
+                stack[writeIdx++] = value;
+            }
+        }
+        currentLevel = writeIdx;
+    }
+
+    /**
+     * Returns the current number of updates stored.
+     */
+    public int getSize() {
+        return currentLevel / 2;
+    }
+
+    /**
+     * From world 0 to <i>olderStamp</i> (excluded), creates a fake history based on <i>initValue</i>,
+     * as {@link org.chocosolver.memory.trailing.trail.flatten.StoredIntTrail#buildFakeHistory} does.
+     */
+    private void buildFakeHistory(int key, long initValue, int olderStamp) {
+        // first save the current state on the top of the stack
+        push(key, olderStamp - 1, initValue);
+        // second: ensures capacities
+        if (currentLevel + 2 * olderStamp > stack.length) {
+            resizeUpdateCapacity(currentLevel + 2 * olderStamp);
+        }
+        int i1, f, s = currentLevel;
+        for (int w = olderStamp; w > 1; w--) {
+            f = worldStartLevels[w];
+            i1 = f + 2 * (w - 1);
+            s -= f;
+            System.arraycopy(stack, f, stack, i1, s);
+            stack[i1 - 2] = head(key, w - 2);
+            stack[i1 - 1] = initValue;
+            worldStartLevels[w] += 2 * (w - 1);
+            currentLevel += 2;
+            s = f;
+        }
+    }
+
+    public void buildFakeIntHistory(int slot, int initValue, int olderStamp) {
+        buildFakeHistory(slot, initValue, olderStamp);
+    }
+
+    public void buildFakeLongHistory(int slot, long initValue, int olderStamp) {
+        buildFakeHistory(~slot, initValue, olderStamp);
+    }
+
+    private void resizeUpdateCapacity(int minCapacity) {
+        nbGrowths++;
+        int newCapacity = Math.max(minCapacity, (stack.length * 3) / 2);
+        newCapacity += newCapacity & 1;
+        final long[] tmp = new long[newCapacity];
+        System.arraycopy(stack, 0, tmp, 0, currentLevel);
+        stack = tmp;
+    }
+
+    @Override
+    public int getCapacity() {
+        return stack.length / 2;
+    }
+
+    @Override
+    public int getNbGrowths() {
+        return nbGrowths;
+    }
+
+    @Override
+    public void resizeWorldCapacity(int newWorldCapacity) {
+        final int[] tmp = new int[newWorldCapacity];
+        System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+        worldStartLevels = tmp;
+    }
+}
@@ -43,6 +43,11 @@ import java.lang.reflect.Field;
  */
 public class UnsafeDoubleTrail implements IStoredDoubleTrail {
 
+    /**
+     * Number of times the capacity of the trail has been increased.
+     */
+    private int nbGrowths;
+
     private final Unsafe unsafe;
 
     public static final int SIZEOF_DATA = Unsafe.ARRAY_DOUBLE_INDEX_SCALE;
@@ -199,6 +204,7 @@ public class UnsafeDoubleTrail implements IStoredDoubleTrail {
 
 
     private void resizeUpdateCapacity() {
+        nbGrowths++;
         int oldCapacity = variableStack.length;
         int newCapacity = ((oldCapacity * 3) / 2);
         // first, copy the stack of variables
@@ -217,6 +223,16 @@ public class UnsafeDoubleTrail implements IStoredDoubleTrail {
         stampStack = ad2;
     }
 
+    @Override
+    public int getCapacity() {
+        return variableStack.length;
+    }
+
+    @Override
+    public int getNbGrowths() {
+        return nbGrowths;
+    }
+
     public void resizeWorldCapacity(int newWorldCapacity) {
         final int[] tmp = new int[newWorldCapacity];
         System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.SLF;
+import org.chocosolver.solver.search.loop.eps.SubproblemQueue;
+
+import java.util.function.Supplier;
+
+/**
+ * An Embarrassingly Parallel Search[1] which solves the same model with a set of solvers, each in its own thread.
+ * <p>
+ * Before each resolution, the root node of a <i>master</i> solver is decomposed into many more subproblems
+ * than workers (30 per worker by default), and the subproblems are stored in a shared {@link SubproblemQueue}.
+ * Then, each worker pulls subproblems from the queue, solves them one after the other (see {@link SLF#eps(Solver, SubproblemQueue)}),
+ * and ends when the queue is empty.
+ * Having many subproblems balances the workload between workers, without any communication but the queue and,
+ * when dealing with optimization problem, the best known bound.
+ * <p>
+ * The master solver and the workers are built by calling the same modeler, so that they declare the same model.
+ * The search strategy declared in the master solver (or the default one) is used to decompose the problem;
+ * workers can declare any search strategy to solve subproblems.
+ * <p>
+ * The expected use is the following:
+ * <pre> {@code
+ * EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch(() -> readModel(), 4);
+ * long nbSolutions = eps.findAllSolutions();
+ * }</pre>
+ * <p>
+ * [1]: J-C. Regin, M. Rezgui and A. Malapert, Embarrassingly Parallel Search, CP-2013.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class EmbarrassinglyParallelSearch extends ParallelPortfolio {
+
+    /**
+     * Creates a solver which declares the model
+     */
+    private final Supplier<Solver> modeler;
+
+    /**
+     * The subproblems shared by workers
+     */
+    private final SubproblemQueue queue;
+
+    /**
+     * Expected number of subproblems per resolution
+     */
+    private int nbSubproblems;
+
+    /**
+     * Set to <tt>true</tt> when the resolution stops at the first solution found
+     */
+    private boolean stopAtFirst;
+
+    /**
+     * Creates an Embarrassingly Parallel Search made of <i>nbWorkers</i> solvers, each of them built by calling <i>modeler</i>.
+     *
+     * @param modeler   a method which creates a solver and declares the model in it
+     * @param nbWorkers number of solvers to run in parallel
+     */
+    public EmbarrassinglyParallelSearch(Supplier<Solver> modeler, int nbWorkers) {
+        this(modeler, nbWorkers, new SubproblemQueue());
+    }
+
+    /**
+     * Creates a parallel search made of <i>nbWorkers</i> solvers which share <i>queue</i>.
+     *
+     * @param modeler   a method which creates a solver and declares the model in it
+     * @param nbWorkers number of solvers to run in parallel
+     * @param queue     the subproblems shared by workers
+     */
+    protected EmbarrassinglyParallelSearch(Supplier<Solver> modeler, int nbWorkers, SubproblemQueue queue) {
+        super(modeler, nbWorkers);
+        this.modeler = modeler;
+        this.queue = queue;
+        this.nbSubproblems = 30 * nbWorkers;
+        setSearchAutoConf(false);
+    }
+
+    /**
+     * Sets the expected number of subproblems generated by the decomposition.
+     * The decomposition may generate more subproblems, or less when the search tree is small.
+     *
+     * @param nbSubproblems expected number of subproblems
+     */
+    public void setNbSubproblems(int nbSubproblems) {
+        if (nbSubproblems < 1) {
+            throw new SolverException("The number of subproblems should be strictly positive");
+        }
+        this.nbSubproblems = nbSubproblems;
+    }
+
+    /**
+     * @return the number of subproblems generated by the last decomposition
+     */
+    public int getNbGeneratedSubproblems() {
+        return queue.getNbSubproblems();
+    }
+
+    @Override
+    public boolean findSolution() {
+        stopAtFirst = true;
+        fill(queue);
+        return super.findSolution();
+    }
+
+    /**
+     * Attempts to find all solutions of the declared problem, with each solver run in parallel.
+     *
+     * @return the number of solutions found
+     */
+    public long findAllSolutions() {
+        stopAtFirst = false;
+        fill(queue);
+        run(Solver::findAllSolutions);
+        return getMeasures().getSolutionCount();
+    }
+
+    @Override
+    public void findOptimalSolution(ResolutionPolicy policy) {
+        stopAtFirst = false;
+        fill(queue);
+        super.findOptimalSolution(policy);
+    }
+
+    /**
+     * Subproblems are solved by the encapsulated move of each worker.
+     */
+    @Override
+    protected void prepare(Solver solver, int rank) {
+        SLF.eps(solver, queue);
+    }
+
+    /**
+     * A worker ends when the queue is empty, that does not end the resolution of the others,
+     * unless the resolution stops at the first solution found.
+     */
+    @Override
+    protected boolean endsResolution(Solver solver) {
+        return stopAtFirst && solver.getMeasures().getSolutionCount() > 0;
+    }
+
+    /**
+     * The optimality of the best solution is proven once every worker has ended without reaching a limit,
+     * that is, once every subproblem has been solved.
+     */
+    @Override
+    protected boolean isObjectiveOptimal() {
+        boolean found = false;
+        for (Solver s : getSolvers()) {
+            if (s.hasReachedLimit()) {
+                return false;
+            }
+            found |= s.getMeasures().getSolutionCount() > 0;
+        }
+        return found;
+    }
+
+    /**
+     * Fills <i>queue</i> before a resolution, by decomposing the root node of a master solver.
+     *
+     * @param queue the subproblems shared by workers
+     */
+    protected void fill(SubproblemQueue queue) {
+        queue.decompose(modeler.get(), nbSubproblems);
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.MoveLNS;
+import org.chocosolver.solver.search.loop.SLF;
+import org.chocosolver.solver.search.loop.lns.LNSFactory;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.loop.monitors.SolutionSharing;
+import org.chocosolver.solver.search.solution.SharedSolution;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A parallel Large Neighborhood Search: a {@link ParallelPortfolio} in which each solver runs an LNS
+ * (see {@link MoveLNS}), with its own neighbor and seed.
+ * <p>
+ * Each solver publishes its solutions to a shared incumbent (a {@link SharedSolution}) and, before building its next
+ * fragment, adopts the incumbent if it has been improved by another solver.
+ * Thus, the neighbors race on relaxing the same best solution, each fragment being explored under a short fail limit
+ * (see {@link #setFailLimit(long)}).
+ * As in a portfolio, the best objective value is shared too, so that each solver only looks for improving solutions.
+ * <p>
+ * By default, the neighbors are chosen by rank among random, propagation-guided, reverse propagation-guided and
+ * a bandit-driven selection of the latter (see {@link org.chocosolver.solver.search.loop.lns.neighbors.BanditNeighborhood}),
+ * over the integer decision variables; this can be changed with {@link #setNeighbors(BiFunction)}.
+ * Solvers which do not declare any search strategy are given one diversified by rank.
+ * Since no neighbor is complete, the resolution usually ends on a limit (for instance, a time limit set on each solver),
+ * unless optimality is proven by a solver.
+ * <pre> {@code
+ * ParallelLNS lns = new ParallelLNS(() -> {
+ *     Solver s = readModel();
+ *     SMF.limitTime(s, "1h");
+ *     return s;
+ * }, Runtime.getRuntime().availableProcessors());
+ * lns.findOptimalSolution(ResolutionPolicy.MINIMIZE);
+ * Solution best = lns.getBestSolution();
+ * }</pre>
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class ParallelLNS extends ParallelPortfolio {
+
+    /**
+     * The best solution known so far, shared between solvers
+     */
+    private final SharedSolution incumbent;
+
+    /**
+     * Builds the neighbor of a solver, given its rank, <tt>null</tt> to use the default ones
+     */
+    private BiFunction<Solver, Integer, INeighbor> neighbors;
+
+    /**
+     * Number of fails allowed to explore a fragment before moving to the next one
+     */
+    private long failLimit = 100;
+
+    /**
+     * Creates an empty parallel LNS, solvers have to be added with {@link #addSolver(Solver)}.
+     */
+    public ParallelLNS() {
+        super();
+        this.incumbent = new SharedSolution();
+    }
+
+    /**
+     * Creates a parallel LNS made of <i>nbWorkers</i> solvers, each of them built by calling <i>modeler</i>.
+     *
+     * @param modeler   a method which creates a solver and declares the model in it
+     * @param nbWorkers number of solvers to run in parallel
+     */
+    public ParallelLNS(Supplier<Solver> modeler, int nbWorkers) {
+        this();
+        for (int i = 0; i < nbWorkers; i++) {
+            addSolver(modeler.get());
+        }
+    }
+
+    /**
+     * Sets the way the neighbor of each solver is built.
+     * Should be called before the first resolution.
+     *
+     * @param neighbors a function which, given a solver and its rank in the portfolio, returns the neighbor to use
+     */
+    public void setNeighbors(BiFunction<Solver, Integer, INeighbor> neighbors) {
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Sets the number of fails allowed to explore a fragment before moving to the next one (default is 100).
+     * Should be called before the first resolution.
+     *
+     * @param failLimit a number of fails, strictly positive
+     */
+    public void setFailLimit(long failLimit) {
+        if (failLimit < 1) {
+            throw new SolverException("The fail limit of a fragment should be strictly positive");
+        }
+        this.failLimit = failLimit;
+    }
+
+    /**
+     * @return the best solution shared between solvers
+     */
+    public SharedSolution getSharedSolution() {
+        return incumbent;
+    }
+
+    /**
+     * @return the best solution found, <tt>null</tt> if no solution has been found.
+     * Since variable ids are the same in each solver, it can be read or restored in any solver.
+     */
+    @Override
+    public Solution getBestSolution() {
+        return incumbent.getSolution();
+    }
+
+    @Override
+    protected void run(Consumer<Solver> resolution) {
+        incumbent.reset();
+        super.run(resolution);
+    }
+
+    /**
+     * Configures <i>solver</i> to run an LNS connected to the shared incumbent.
+     * The search strategy is diversified, if enabled and if no search strategy is declared.
+     *
+     * @param solver a solver of the portfolio
+     * @param rank   the rank of the solver in the portfolio
+     */
+    @Override
+    protected void prepare(Solver solver, int rank) {
+        IntVar[] ivars = decisionVariables(solver);
+        if (ivars.length == 0) {
+            throw new SolverException("Solver[" + solver.getName() + "] has no integer decision variable to relax");
+        }
+        if (isSearchAutoConf() && solver.getSearchLoop().getMove().getStrategy() == null) {
+            solver.set(ISF.lastConflict(solver, ISF.domOverWDeg(ivars, getSeed() + rank)));
+        }
+        INeighbor neighbor = neighbors == null ? defaultNeighbor(solver, ivars, rank) : neighbors.apply(solver, rank);
+        SLF.lns(solver, neighbor, new FailCounter(solver, failLimit));
+        ((MoveLNS) solver.getSearchLoop().getMove()).setSharedSolution(incumbent);
+        solver.plugMonitor(new SolutionSharing(solver, incumbent));
+    }
+
+    /**
+     * @return the neighbor of the solver of rank <i>rank</i>, over <i>ivars</i>
+     */
+    private INeighbor defaultNeighbor(Solver solver, IntVar[] ivars, int rank) {
+        long wseed = getSeed() + rank;
+        switch (rank % 4) {
+            case 0:
+                return LNSFactory.random(solver, ivars, 200, wseed);
+            case 1:
+                return LNSFactory.pg(solver, ivars, 30, 10, wseed);
+            case 2:
+                return LNSFactory.rpg(solver, ivars, 30, 10, wseed);
+            default:
+                return LNSFactory.bandit(solver, wseed,
+                        LNSFactory.pg(solver, ivars, 30, 10, wseed),
+                        LNSFactory.rpg(solver, ivars, 30, 10, wseed),
+                        LNSFactory.random(solver, ivars, 200, wseed));
+        }
+    }
+}
@@ -0,0 +1,519 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.constraints.nary.cnf.SharedClauses;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.objective.SharedBound;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.BoundSharing;
+import org.chocosolver.solver.search.loop.monitors.ClauseSharing;
+import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.measure.IMeasures;
+import org.chocosolver.solver.search.measure.MeasuresRecorder;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A parallel portfolio which runs a set of solvers, each of them in its own thread, on the same model.
+ * <p>
+ * The solvers are expected to declare the same model (variables and constraints declared in the same order),
+ * for instance by calling the same model-building method.
+ * When a solver does not declare any search strategy, a diversified one is set automatically,
+ * depending on the rank of the solver in the portfolio (this can be disabled with {@link #setSearchAutoConf(boolean)}).
+ * <p>
+ * When dealing with an optimization problem, the best known objective value is shared through a {@link SharedBound}.
+ * Each solver polls it at safe points of its own search loop, so that no solver's state is modified by a foreign thread.
+ * The resolution stops as soon as one solver ends normally, that is, without reaching one of its own limits.
+ * <p>
+ * When solvers learn clauses (for instance, with {@link SMF#nogoodRecordingFromRestarts(Solver)}),
+ * short learnt clauses can be shared too, see {@link #setClauseSharing(int)}.
+ * <p>
+ * The expected use is the following:
+ * <pre> {@code
+ * ParallelPortfolio portfolio = new ParallelPortfolio(() -> readModel(), 4);
+ * // or, copying an existing solver:
+ * // ParallelPortfolio portfolio = new ParallelPortfolio(solver.copier(), 4);
+ * // or, using pre-built solvers:
+ * // ParallelPortfolio portfolio = new ParallelPortfolio();
+ * // portfolio.addSolver(solver1); portfolio.addSolver(solver2); ...
+ * portfolio.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+ * Solution best = portfolio.getBestSolution();
+ * IMeasures measures = portfolio.getMeasures();
+ * }</pre>
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class ParallelPortfolio {
+
+    /**
+     * The solvers run in parallel
+     */
+    private final List<Solver> solvers;
+
+    /**
+     * The best objective value known so far, shared between solvers
+     */
+    private final SharedBound bound;
+
+    /**
+     * Set to <tt>true</tt> to stop every solver
+     */
+    private final AtomicBoolean stop;
+
+    /**
+     * The learnt clauses shared between solvers, <tt>null</tt> if clauses are not shared
+     */
+    private SharedClauses clauses;
+
+    /**
+     * Set to <tt>true</tt> to diversify the search of solvers which do not declare any search strategy
+     */
+    private boolean searchAutoConf = true;
+
+    /**
+     * Base seed used for diversification
+     */
+    private long seed = 0;
+
+    /**
+     * Indicates whether solvers have been prepared to run in parallel
+     */
+    private boolean prepared;
+
+    /**
+     * The solver which found the best solution so far (or the first solution in satisfaction problem)
+     */
+    private Solver bestSolver;
+
+    /**
+     * The objective value of the best solution found so far
+     */
+    private Number bestValue;
+
+    /**
+     * Creates an empty portfolio, solvers have to be added with {@link #addSolver(Solver)}.
+     */
+    public ParallelPortfolio() {
+        this.solvers = new ArrayList<>();
+        this.bound = new SharedBound();
+        this.stop = new AtomicBoolean(false);
+    }
+
+    /**
+     * Creates a portfolio made of <i>nbWorkers</i> solvers, each of them built by calling <i>modeler</i>.
+     *
+     * @param modeler   a method which creates a solver and declares the model in it
+     * @param nbWorkers number of solvers to run in parallel
+     */
+    public ParallelPortfolio(Supplier<Solver> modeler, int nbWorkers) {
+        this();
+        for (int i = 0; i < nbWorkers; i++) {
+            addSolver(modeler.get());
+        }
+    }
+
+    /**
+     * Adds a solver to the portfolio.
+     * It should declare the same model as the other ones.
+     *
+     * @param solver a solver
+     */
+    public void addSolver(Solver solver) {
+        if (prepared) {
+            throw new SolverException("A solver cannot be added once the portfolio resolution has started");
+        }
+        solvers.add(solver);
+    }
+
+    /**
+     * @return the solvers of this portfolio
+     */
+    public List<Solver> getSolvers() {
+        return Collections.unmodifiableList(solvers);
+    }
+
+    /**
+     * Enables (or disables) the automatic diversification of the search strategies.
+     * When enabled (default value), each solver which does not declare any search strategy
+     * is set with a strategy which depends on its rank in the portfolio.
+     *
+     * @param searchAutoConf set to <tt>false</tt> to keep the search strategies of the solvers unchanged
+     */
+    public void setSearchAutoConf(boolean searchAutoConf) {
+        this.searchAutoConf = searchAutoConf;
+    }
+
+    /**
+     * @return <tt>true</tt> if the search strategies are automatically diversified
+     */
+    public boolean isSearchAutoConf() {
+        return searchAutoConf;
+    }
+
+    /**
+     * Sets the seed used to diversify the search strategies
+     *
+     * @param seed a seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return the seed used to diversify the search strategies
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Enables the sharing of learnt clauses between solvers.
+     * Each clause of at most <i>maxSize</i> literals learnt by the no-good store of a solver is exported,
+     * and the clauses exported by the other solvers are imported before each restart (see {@link ClauseSharing}).
+     * Only relevant when solvers learn clauses and restart.
+     * Should be called before the first resolution.
+     *
+     * @param maxSize maximum number of literals of a shared clause
+     */
+    public void setClauseSharing(int maxSize) {
+        if (prepared) {
+            throw new SolverException("Clause sharing cannot be enabled once the portfolio resolution has started");
+        }
+        if (maxSize < 1) {
+            throw new SolverException("The maximum size of a shared clause should be strictly positive");
+        }
+        this.clauses = new SharedClauses(maxSize);
+    }
+
+    /**
+     * @return the learnt clauses shared between solvers, <tt>null</tt> if clause sharing is not enabled
+     */
+    public SharedClauses getSharedClauses() {
+        return clauses;
+    }
+
+    /**
+     * Attempts to find a solution of the declared problem, with each solver run in parallel.
+     * The resolution stops as soon as one solver finds a solution or proves the problem to be unsatisfiable.
+     *
+     * @return <code>true</code> if and only if a solution has been found.
+     */
+    public boolean findSolution() {
+        run(Solver::findSolution);
+        return bestSolver != null;
+    }
+
+    /**
+     * Attempts optimize the value of the objective variable w.r.t. to the optimization <i>policy</i>,
+     * with each solver run in parallel.
+     * Each solver should declare the same objective variable, with {@link Solver#setObjectives(Variable...)}.
+     * The resolution stops as soon as one solver proves the optimality of the best known solution.
+     *
+     * @param policy optimization policy, among ResolutionPolicy.MINIMIZE and ResolutionPolicy.MAXIMIZE
+     */
+    public void findOptimalSolution(ResolutionPolicy policy) {
+        if (policy == ResolutionPolicy.SATISFACTION) {
+            throw new SolverException("ParallelPortfolio.findOptimalSolution(...) cannot be called with ResolutionPolicy.SATISFACTION.");
+        }
+        for (Solver s : solvers) {
+            if (s.getObjectives() == null || s.getObjectives().length != 1) {
+                throw new SolverException("Each solver of the portfolio should declare exactly one objective variable");
+            }
+        }
+        run(s -> s.findOptimalSolution(policy, false));
+    }
+
+    /**
+     * @return the solver which found the best solution (or the first one when dealing with satisfaction problem),
+     * <tt>null</tt> if no solution has been found.
+     */
+    public Solver getBestSolver() {
+        return bestSolver;
+    }
+
+    /**
+     * @return the best solution found, <tt>null</tt> if no solution has been found.
+     * Since variable ids are the same in each solver, it can be read or restored in any solver of the portfolio.
+     */
+    public Solution getBestSolution() {
+        return bestSolver == null ? null : bestSolver.getSolutionRecorder().getLastSolution();
+    }
+
+    /**
+     * Merges the measures of each solver of the portfolio:
+     * counters are summed up, the time count and the maximum depth are the maximum ones.
+     *
+     * @return the measures of the portfolio
+     */
+    public IMeasures getMeasures() {
+        if (solvers.isEmpty()) {
+            throw new SolverException("The portfolio is empty");
+        }
+        Solver ref = bestSolver == null ? solvers.get(0) : bestSolver;
+        MeasuresRecorder merged = new MeasuresRecorder(ref);
+        for (Solver s : solvers) {
+            IMeasures m = s.getMeasures();
+            merged.hasObjective |= m.hasObjective();
+            merged.solutionCount += m.getSolutionCount();
+            merged.nodeCount += m.getNodeCount();
+            merged.backtrackCount += m.getBackTrackCount();
+            merged.failCount += m.getFailCount();
+            merged.restartCount += m.getRestartCount();
+            merged.timeCount = Math.max(merged.timeCount, m.getElapsedTimeInNanoseconds());
+            merged.readingTimeCount = Math.max(merged.readingTimeCount, (long) (m.getReadingTimeCount() * 1e9));
+            merged.maxDepth = Math.max(merged.maxDepth, m.getMaxDepth());
+        }
+        merged.objectiveOptimal = merged.hasObjective && isObjectiveOptimal();
+        return merged;
+    }
+
+    /**
+     * Indicates whether the optimality of the best solution has been proven.
+     * By default, this is the case as soon as one solver has proven it.
+     *
+     * @return <tt>true</tt> if the best solution is known to be optimal
+     */
+    protected boolean isObjectiveOptimal() {
+        for (Solver s : solvers) {
+            if (s.getMeasures().isObjectiveOptimal()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Runs <i>resolution</i> on every solver, each in its own thread, and waits for all of them to end.
+     *
+     * @param resolution the resolution method to call on each solver
+     */
+    protected void run(Consumer<Solver> resolution) {
+        if (solvers.isEmpty()) {
+            throw new SolverException("The portfolio is empty");
+        }
+        prepare();
+        stop.set(false);
+        bound.reset();
+        bestSolver = null;
+        bestValue = null;
+        Thread[] workers = new Thread[solvers.size()];
+        SolverException[] errors = new SolverException[1];
+        for (int i = 0; i < workers.length; i++) {
+            Solver s = solvers.get(i);
+            workers[i] = new Thread(() -> {
+                try {
+                    resolution.accept(s);
+                } catch (Throwable e) {
+                    // errors included, otherwise the other solvers would run until their own limits
+                    stop.set(true);
+                    onFailure(s);
+                    synchronized (errors) {
+                        if (errors[0] == null) {
+                            errors[0] = new SolverException("Solver[" + s.getName() + "] ended unexpectedly", e);
+                        }
+                    }
+                }
+            }, "portfolio-" + i);
+            workers[i].start();
+        }
+        try {
+            for (Thread w : workers) {
+                w.join();
+            }
+        } catch (InterruptedException e) {
+            stop.set(true);
+            Thread.currentThread().interrupt();
+        }
+        if (errors[0] != null) {
+            throw errors[0];
+        }
+    }
+
+    /**
+     * Plugs, once and for all, the monitors and stop criterion which connect solvers together.
+     */
+    private void prepare() {
+        if (prepared) {
+            return;
+        }
+        prepared = true;
+        for (int i = 0; i < solvers.size(); i++) {
+            Solver s = solvers.get(i);
+            prepare(s, i);
+            s.plugMonitor(new BoundSharing(s, bound));
+            if (clauses != null) {
+                s.plugMonitor(new ClauseSharing(s, clauses));
+            }
+            s.plugMonitor((IMonitorSolution) () -> onSolution(s));
+            s.plugMonitor(new IMonitorClose() {
+                @Override
+                public void afterClose() {
+                    if (endsResolution(s)) {
+                        stop.set(true);
+                    }
+                }
+            });
+            s.addStopCriterion(stop::get);
+        }
+    }
+
+    /**
+     * Configures <i>solver</i> before it is run in parallel.
+     * By default, the search strategy is diversified (if enabled and if no search strategy is declared).
+     *
+     * @param solver a solver of the portfolio
+     * @param rank   the rank of the solver in the portfolio
+     */
+    protected void prepare(Solver solver, int rank) {
+        if (searchAutoConf && solver.getSearchLoop().getMove().getStrategy() == null) {
+            diversify(solver, rank);
+        }
+    }
+
+    /**
+     * Indicates whether <i>solver</i>, which has just ended, ends the resolution of the other solvers too.
+     * By default, a solver which ends without reaching one of its own limits
+     * has either found a solution (satisfaction problem) or proven the optimality of the best known solution,
+     * so the other solvers can stop.
+     *
+     * @param solver a solver which has just ended
+     * @return <tt>true</tt> if every solver should stop
+     */
+    protected boolean endsResolution(Solver solver) {
+        return !solver.hasReachedLimit();
+    }
+
+    /**
+     * Called by the thread which runs <i>solver</i> when it ends unexpectedly, after every solver has been asked to stop.
+     * Does nothing by default.
+     *
+     * @param solver a solver which has just thrown an exception or an error
+     */
+    protected void onFailure(Solver solver) {
+    }
+
+    /**
+     * Records <i>solver</i> as the best one if its current solution is the best known one.
+     * Called by the thread which runs <i>solver</i>.
+     *
+     * @param solver a solver which has just found a solution
+     */
+    private synchronized void onSolution(Solver solver) {
+        if (solver.getObjectiveManager().isOptimization()) {
+            Number value = objectiveValue(solver);
+            boolean max = solver.getObjectiveManager().getPolicy() == ResolutionPolicy.MAXIMIZE;
+            if (bestValue == null
+                    || (max && value.doubleValue() > bestValue.doubleValue())
+                    || (!max && value.doubleValue() < bestValue.doubleValue())) {
+                bestValue = value;
+                bestSolver = solver;
+            }
+        } else if (bestSolver == null) {
+            bestSolver = solver;
+        }
+    }
+
+    private static Number objectiveValue(Solver solver) {
+        Variable objective = solver.getObjectiveManager().getObjective();
+        if ((objective.getTypeAndKind() & Variable.KIND) == Variable.REAL) {
+            RealVar r = (RealVar) objective;
+            return solver.getObjectiveManager().getPolicy() == ResolutionPolicy.MAXIMIZE ? r.getLB() : r.getUB();
+        }
+        return ((IntVar) objective).getValue();
+    }
+
+    /**
+     * Declares a search strategy on integer decision variables of <i>solver</i> which depends on <i>rank</i>.
+     * Other variables (and the objective one) are branched on with the default search strategy.
+     *
+     * @param solver a solver with no search strategy declared
+     * @param rank   the rank of the solver in the portfolio
+     */
+    private void diversify(Solver solver, int rank) {
+        IntVar[] ivars = decisionVariables(solver);
+        if (ivars.length == 0) {
+            return;
+        }
+        long wseed = seed + rank;
+        switch (rank % 4) {
+            case 0:
+                // default search: dom/wdeg + last conflict
+                return;
+            case 1:
+                solver.set(ISF.activity(ivars, wseed));
+                break;
+            case 2:
+                solver.set(ISF.lastConflict(solver, ISF.domOverWDeg(ivars, wseed)));
+                SMF.luby(solver, 500, 2, new FailCounter(solver, 500), Integer.MAX_VALUE);
+                break;
+            default:
+                solver.set(ISF.lastConflict(solver, ISF.random_bound(ivars, wseed)));
+                SMF.geometrical(solver, 100, 1.5, new FailCounter(solver, 100), Integer.MAX_VALUE);
+                break;
+        }
+        solver.makeCompleteSearch(true);
+    }
+
+    /**
+     * @param solver a solver
+     * @return the integer and boolean variables of <i>solver</i>, excluding constants, views and objective variables.
+     */
+    protected static IntVar[] decisionVariables(Solver solver) {
+        Variable[] objectives = solver.getObjectives();
+        List<Variable> excluded = objectives == null ? Collections.emptyList() : Arrays.asList(objectives);
+        List<IntVar> ivars = new ArrayList<>();
+        for (Variable v : solver.getVars()) {
+            int type = v.getTypeAndKind();
+            if ((type & Variable.TYPE) == Variable.VAR
+                    && (type & Variable.INT) != 0
+                    && !excluded.contains(v)) {
+                ivars.add((IntVar) v);
+            }
+        }
+        return ivars.toArray(new IntVar[ivars.size()]);
+    }
+}
@@ -119,6 +119,24 @@ public interface Settings extends Serializable {
         return 10000;
     }
 
+    /**
+     * Define the minimum number of tuples from which the Compact-Table algorithm is selected by default
+     * for table constraints, see {@link org.chocosolver.solver.constraints.IntConstraintFactory#table(org.chocosolver.solver.variables.IntVar[], org.chocosolver.solver.constraints.extension.Tuples, String)}
+     * @return minimum number of tuples to select Compact-Table by default
+     */
+    default int getMinTuplesForCompactTable() {
+        return 1000;
+    }
+
+    /**
+     * Define the minimum number of values from which the domain of a bitset integer variable,
+     * or the envelope of a set variable, is stored in a {@link org.chocosolver.memory.structure.StateSparseBitSet}
+     * @return minimum number of values to select a sparse bitset
+     */
+    default int getMinSizeForSparseBitSet() {
+        return 1024;
+    }
+
     /**
      * Set to true to plug explanation engine in.
      * @return <tt>true</tt> if explanations are plugged in
@@ -203,6 +221,63 @@ public interface Settings extends Serializable {
         return false;
     }
 
+    /**
+     * When this setting returns a strictly positive value <i>k</i>, the propagation engine records, for each propagator,
+     * the number of fine and coarse calls, the time spent in it (one call out of <i>k</i> is timed),
+     * the number of domain modifications it caused and the number of times it failed.
+     * See {@link org.chocosolver.solver.propagation.PropagationProfiler}.
+     *
+     * Note that this parameter is read once at propagation engine creation and set in a final variable.
+     * @return the sampling period of the propagation profiler, 0 to disable profiling
+     */
+    default int getPropagationProfilingPeriod(){
+        return 0;
+    }
+
+    /**
+     * Define the number of consecutive calls without any domain modification after which a propagator declared as redundant
+     * (see {@link org.chocosolver.solver.constraints.Propagator#setWeakRedundant(boolean)}) is demoted.
+     * Only considered by {@link org.chocosolver.solver.propagation.hardcoded.DensePropagatorEngine}.
+     * @return the number of useless calls before demotion, 0 to never demote
+     */
+    default int getWeakRedundancyThreshold(){
+        return 16;
+    }
+
+    /**
+     * Define how often a demoted propagator is executed: it is scheduled with the lowest priority,
+     * and it is only executed once every <i>k</i> times it is scheduled; the other times, it is skipped.
+     * Only considered by {@link org.chocosolver.solver.propagation.hardcoded.DensePropagatorEngine}.
+     * @return the period <i>k</i>, strictly positive
+     */
+    default int getWeakRedundancySkipPeriod(){
+        return 8;
+    }
+
+    /**
+     * Define the maximum number of removable learnt clauses in the nogood store
+     * (see {@link org.chocosolver.solver.constraints.nary.cnf.PropNogoods#setBudget(int, long)}).
+     * When it is exceeded, the learnt clauses are reduced to half of it.
+     *
+     * Note that this parameter is read once at nogood store creation.
+     * @return the maximum number of removable learnt clauses, strictly positive
+     */
+    default int getMaxLearntNogoods(){
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Define the maximum estimated memory used by the removable learnt clauses in the nogood store, in bytes
+     * (see {@link org.chocosolver.solver.constraints.nary.cnf.PropNogoods#setBudget(int, long)}).
+     * When it is exceeded, the learnt clauses are reduced to half of it.
+     *
+     * Note that this parameter is read once at nogood store creation.
+     * @return the maximum memory used by removable learnt clauses, in bytes, strictly positive
+     */
+    default long getMaxLearntNogoodsBytes(){
+        return Long.MAX_VALUE;
+    }
+
     /**
      * Return true if the incrementality is enabled on boolean sum, based on the number of variables involved.
      * Default condition is : nbvars > 10
@@ -63,6 +63,7 @@ import org.chocosolver.util.criteria.Criterion;
 
 import java.io.*;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * The <code>Solver</code> is the header component of Constraint Programming.
@@ -1534,6 +1535,44 @@ public class Solver implements Serializable {
         return model;
     }
 
+    /**
+     * Creates a deep copy of this solver: variables, views, constraints, propagators, search strategy and monitors
+     * are copied in a single pass, variable ids are kept unchanged.
+     * The copy relies on a new environment, of the same kind as the one of this solver, in which every
+     * backtrackable object is rebuilt from its current value: the copy does not keep any history.
+     * <p>
+     * This solver should not be copied during a resolution, and the objects attached to it (including search
+     * monitors and stop criteria) are copied too, except immutable and static ones which are shared.
+     * The values captured by lambdas and anonymous classes are copied if they refer to this solver,
+     * and shared otherwise (e.g., a counter); a lambda which refers to this solver should be serializable,
+     * as search monitors are.
+     * When many copies are needed, {@link #copier()} should be preferred.
+     *
+     * @return a copy of this solver
+     * @throws SolverException if this solver cannot be copied
+     */
+    public Solver copy() {
+        if (environment.getWorldIndex() > 0) {
+            throw new SolverException("Solver[" + name + "] cannot be copied during resolution");
+        }
+        return new SolverCopier(this).copy();
+    }
+
+    /**
+     * Copies this solver once (see {@link #copy()}) and returns a supplier which creates a new deep copy
+     * of this first copy on each call.
+     * Later modifications of this solver are not reflected in the copies.
+     * The supplier is thread-safe, it can be used to build the workers of a parallel resolution,
+     * such as {@link ParallelPortfolio#ParallelPortfolio(java.util.function.Supplier, int)}.
+     *
+     * @return a supplier of copies of this solver
+     * @throws SolverException if this solver cannot be copied
+     */
+    public Supplier<Solver> copier() {
+        final Solver snapshot = copy();
+        return () -> new SolverCopier(snapshot).copy();
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -0,0 +1,734 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import gnu.trove.impl.hash.THash;
+import gnu.trove.impl.hash.TObjectHash;
+import org.chocosolver.memory.*;
+import org.chocosolver.memory.copy.EnvironmentCopying;
+import org.chocosolver.memory.copy.RcObject;
+import org.chocosolver.memory.copy.store.StoredObjectCopy;
+import org.chocosolver.memory.structure.BasicIndexedBipartiteSet;
+import org.chocosolver.solver.constraints.nary.cnf.SharedClauses;
+import org.chocosolver.solver.constraints.real.Ibex;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.objective.SharedBound;
+
+import java.io.Serializable;
+import java.lang.invoke.SerializedLambda;
+import java.lang.ref.Reference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Structural deep copy of a solver, see {@link Solver#copy()}.
+ * <p>
+ * The object graph of the solver (variables, views, constraints, propagators, engine, search loop, monitors, ...)
+ * is walked once: each object is allocated without calling any constructor, as Java serialization does,
+ * and its fields are copied by reflection, references being redirected to the copies.
+ * The environment is not copied: an empty one of the same kind is created (see {@link IEnvironment#emptyCopy()})
+ * and each backtrackable primitive is rebuilt in it from its current value.
+ * So, the copy holds no trailed history, the current state of the solver is the root world of the copy.
+ * <p>
+ * Immutable objects (strings, boxed primitives, enums, classes), objects referenced by static fields
+ * (singletons, sentinels), I/O objects and the channels between solvers ({@link SharedBound}, {@link SharedClauses})
+ * are shared between the solver and its copy.
+ * <p>
+ * The values captured by lambdas and by inner, local or anonymous classes are not walked at first:
+ * once every other object is copied, a captured value is redirected to its copy if the solver owns it,
+ * that is, if it is also reachable without going through a captured value.
+ * Otherwise, it is copied only if it refers to objects of the solver (like an array of variables),
+ * and shared if it does not (like a counter declared by the caller).
+ * Lambdas are handled the same way: a lambda which does not refer to the solver is shared, otherwise it is rebuilt
+ * from its serialized form with its captured values resolved, so it should be serializable, like search monitors.
+ * <p>
+ * Hash-based maps and sets are rehashed once every object is copied, since the hash codes of their keys may change.
+ * <p>
+ * An instance copies one solver once and is not thread-safe,
+ * but a solver which is not modified can be copied by several instances concurrently.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+final class SolverCopier {
+
+    // kinds of classes
+    private static final int OBJECT = 0, SHARED = 1, REFUSED = 2, STATE = 3, OBJECT_ARRAY = 4, PRIMITIVE_ARRAY = 5,
+            RC_OBJECT = 6, OBJECT_STORE = 7, LAMBDA = 8;
+
+    // types of fields
+    private static final byte REF = 0, INT = 1, LONG = 2, BOOLEAN = 3, BYTE = 4, SHORT = 5, CHAR = 6, FLOAT = 7,
+            DOUBLE = 8;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<Layout>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return new Layout(type);
+        }
+    };
+
+    /**
+     * The reflection factory of the JVM, and its method which creates the constructors used by Java serialization.
+     * It is looked up by name since it is not part of the Java API, but it is available from Java 6 to the latest versions
+     * (in the <i>jdk.unsupported</i> module since Java 9).
+     * Both are <tt>null</tt> when not available, in which case solvers cannot be copied.
+     */
+    private static final Object REFLECTION_FACTORY;
+    private static final Method NEW_CONSTRUCTOR_FOR_SERIALIZATION;
+
+    static {
+        Object factory = null;
+        Method method = null;
+        try {
+            Class<?> type = Class.forName("sun.reflect.ReflectionFactory");
+            factory = type.getMethod("getReflectionFactory").invoke(null);
+            method = type.getMethod("newConstructorForSerialization", Class.class, Constructor.class);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // not available on this JVM
+        }
+        REFLECTION_FACTORY = factory;
+        NEW_CONSTRUCTOR_FOR_SERIALIZATION = method;
+    }
+
+    /**
+     * The solver to copy
+     */
+    private final Solver source;
+
+    /**
+     * The environment of the copy
+     */
+    private final IEnvironment environment;
+
+    /**
+     * Object of the solver to its copy, or to itself when it is shared
+     */
+    private final IdentityHashMap<Object, Object> copies;
+
+    /**
+     * Layouts whose static values are already known to be shared
+     */
+    private final Set<Layout> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Pairs of objects (original, copy) whose fields or elements are not copied yet
+     */
+    private final ArrayDeque<Object> pending = new ArrayDeque<>();
+
+    /**
+     * References to lambdas and captured values, resolved once every other object is copied
+     */
+    private final List<Link> links = new ArrayList<>();
+
+    /**
+     * Copied maps and sets to rehash
+     */
+    private final List<Object> hashed = new ArrayList<>();
+
+    SolverCopier(Solver source) {
+        this.source = source;
+        this.environment = source.getEnvironment().emptyCopy();
+        this.copies = new IdentityHashMap<>(Math.max(64, 16 * (source.getNbVars() + source.getNbCstrs())));
+        copies.put(source.getEnvironment(), environment);
+    }
+
+    /**
+     * @return a deep copy of the solver
+     * @throws SolverException if an object attached to the solver cannot be copied
+     */
+    Solver copy() {
+        if (NEW_CONSTRUCTOR_FOR_SERIALIZATION == null) {
+            throw new SolverException("Solver[" + source.getName() + "] cannot be copied: "
+                    + "objects cannot be created without their constructors on this JVM");
+        }
+        try {
+            Solver copy = (Solver) copyOf(source);
+            drain();
+            IEnvironment env = source.getEnvironment();
+            if (env instanceof AbstractEnvironment && ((AbstractEnvironment) env).booleanSet != null) {
+                // the shared set is created lazily by the environment, the copy should refer to the copied one
+                ((AbstractEnvironment) environment).booleanSet =
+                        (BasicIndexedBipartiteSet) copyOf(((AbstractEnvironment) env).booleanSet);
+                drain();
+            }
+            // captured values may need to be copied, which may reach new lambdas and captured values
+            for (int i = 0; i < links.size(); i++) {
+                Link link = links.get(i);
+                link.set(resolve(link.value));
+            }
+            for (int i = 0; i < hashed.size(); i++) {
+                rehash(hashed.get(i));
+            }
+            return copy;
+        } catch (ReflectiveOperationException e) {
+            throw new SolverException("Solver[" + source.getName() + "] cannot be copied", e);
+        }
+    }
+
+    /**
+     * Returns the copy of <i>o</i>, allocates it if needed.
+     * The fields of a newly allocated copy are filled later, in {@link #drain()}.
+     * <i>o</i> should not be a lambda.
+     */
+    private Object copyOf(Object o) throws ReflectiveOperationException {
+        if (o == null) {
+            return null;
+        }
+        Object c = copies.get(o);
+        if (c != null) {
+            return c;
+        }
+        Layout layout = layoutOf(o);
+        if (layout.kind == SHARED) {
+            return o;
+        }
+        c = copies.get(o);
+        if (c != null) {
+            // a static value
+            return c;
+        }
+        switch (layout.kind) {
+            case STATE:
+                c = rebuild(o);
+                break;
+            case PRIMITIVE_ARRAY:
+                c = cloneArray(o);
+                break;
+            case OBJECT_ARRAY:
+                c = ((Object[]) o).clone();
+                pending.add(o);
+                pending.add(c);
+                break;
+            case OBJECT_STORE:
+                c = ((EnvironmentCopying) environment).getObjectCopy();
+                break;
+            case REFUSED:
+                throw refuse(o, layout.refusal);
+            default:
+                c = layout.allocator.newInstance();
+                pending.add(o);
+                pending.add(c);
+        }
+        copies.put(o, c);
+        return c;
+    }
+
+    /**
+     * Returns the layout of the class of <i>o</i>, and declares the static values of the class as shared on first call
+     */
+    private Layout layoutOf(Object o) {
+        Layout layout = LAYOUTS.get(o.getClass());
+        if (registered.add(layout)) {
+            for (Object s : layout.statics) {
+                copies.putIfAbsent(s, s);
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * Copies the fields, or the elements, of the pending objects
+     */
+    private void drain() throws ReflectiveOperationException {
+        while (!pending.isEmpty()) {
+            Object o = pending.poll();
+            Object c = pending.poll();
+            if (o instanceof Object[]) {
+                Object[] os = (Object[]) o;
+                Object[] cs = (Object[]) c;
+                for (int i = 0; i < os.length; i++) {
+                    if (isLambda(os[i])) {
+                        links.add(new Link(cs, i, null, os[i]));
+                    } else {
+                        cs[i] = copyOf(os[i]);
+                    }
+                }
+            } else {
+                Layout layout = LAYOUTS.get(o.getClass());
+                copyFields(o, c, layout);
+                if (layout.hashed) {
+                    hashed.add(c);
+                }
+                if (layout.kind == RC_OBJECT) {
+                    ((EnvironmentCopying) environment).getObjectCopy().add((RcObject) c);
+                }
+            }
+        }
+    }
+
+    private void copyFields(Object o, Object c, Layout layout) throws ReflectiveOperationException {
+        Field[] fields = layout.fields;
+        byte[] types = layout.types;
+        for (int i = 0; i < fields.length; i++) {
+            Field f = fields[i];
+            switch (types[i]) {
+                case REF:
+                    Object v = f.get(o);
+                    if (layout.captured[i] || isLambda(v)) {
+                        links.add(new Link(c, -1, f, v));
+                    } else {
+                        f.set(c, copyOf(v));
+                    }
+                    break;
+                case INT:
+                    f.setInt(c, f.getInt(o));
+                    break;
+                case LONG:
+                    f.setLong(c, f.getLong(o));
+                    break;
+                case BOOLEAN:
+                    f.setBoolean(c, f.getBoolean(o));
+                    break;
+                case BYTE:
+                    f.setByte(c, f.getByte(o));
+                    break;
+                case SHORT:
+                    f.setShort(c, f.getShort(o));
+                    break;
+                case CHAR:
+                    f.setChar(c, f.getChar(o));
+                    break;
+                case FLOAT:
+                    f.setFloat(c, f.getFloat(o));
+                    break;
+                case DOUBLE:
+                    f.setDouble(c, f.getDouble(o));
+                    break;
+            }
+        }
+    }
+
+    private static boolean isLambda(Object o) {
+        return o != null && LAYOUTS.get(o.getClass()).kind == LAMBDA;
+    }
+
+    /**
+     * Returns the copy of <i>o</i>, a lambda or a captured value,
+     * once every object reachable from the solver without going through a captured value is copied.
+     */
+    private Object resolve(Object o) throws ReflectiveOperationException {
+        if (o == null) {
+            return null;
+        }
+        Layout layout = layoutOf(o);
+        Object c = copies.get(o);
+        if (c != null) {
+            return c;
+        }
+        switch (layout.kind) {
+            case SHARED:
+                return o;
+            case LAMBDA:
+                if (!reachesSolver(o)) {
+                    copies.put(o, o);
+                    return o;
+                }
+                if (layout.writeReplace == null) {
+                    throw refuse(o, "it is a lambda which refers to the solver but is not serializable");
+                }
+                c = copyLambda(o, layout);
+                copies.put(o, c);
+                return c;
+            case REFUSED:
+                throw refuse(o, layout.refusal);
+            default:
+                if (!reachesSolver(o)) {
+                    // not part of the model, such as a counter or a channel declared by the caller
+                    copies.put(o, o);
+                    return o;
+                }
+                c = copyOf(o);
+                drain();
+                return c;
+        }
+    }
+
+    /**
+     * @return <tt>true</tt> if an object already copied from the solver is reachable from <i>o</i>
+     * (static and shared objects are not followed)
+     */
+    private boolean reachesSolver(Object o) throws ReflectiveOperationException {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<Object> todo = new ArrayDeque<>();
+        todo.add(o);
+        while (!todo.isEmpty()) {
+            Object x = todo.poll();
+            Object c = copies.get(x);
+            if (c != null && c != x) {
+                return true;
+            }
+            Layout layout = layoutOf(x);
+            if (c != null || layout.kind == SHARED || !visited.add(x)) {
+                continue;
+            }
+            switch (layout.kind) {
+                case OBJECT_ARRAY:
+                    for (Object e : (Object[]) x) {
+                        if (e != null) {
+                            todo.add(e);
+                        }
+                    }
+                    break;
+                case OBJECT:
+                case RC_OBJECT:
+                case LAMBDA:
+                    for (int i = 0; i < layout.fields.length; i++) {
+                        if (layout.types[i] == REF) {
+                            Object v = layout.fields[i].get(x);
+                            if (v != null) {
+                                todo.add(v);
+                            }
+                        }
+                    }
+                    break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a new instance of the lambda <i>o</i>, whose captured values are resolved
+     */
+    private Object copyLambda(Object o, Layout layout) throws ReflectiveOperationException {
+        SerializedLambda lambda = (SerializedLambda) layout.writeReplace.invoke(o);
+        Object[] args = new Object[lambda.getCapturedArgCount()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = resolve(lambda.getCapturedArg(i));
+        }
+        Class<?> capturing = Class.forName(lambda.getCapturingClass().replace('/', '.'), false,
+                o.getClass().getClassLoader());
+        Method deserialize = capturing.getDeclaredMethod("$deserializeLambda$", SerializedLambda.class);
+        deserialize.setAccessible(true);
+        return deserialize.invoke(null, new SerializedLambda(capturing,
+                lambda.getFunctionalInterfaceClass(), lambda.getFunctionalInterfaceMethodName(),
+                lambda.getFunctionalInterfaceMethodSignature(), lambda.getImplMethodKind(), lambda.getImplClass(),
+                lambda.getImplMethodName(), lambda.getImplMethodSignature(), lambda.getInstantiatedMethodType(), args));
+    }
+
+    private SolverException refuse(Object o, String reason) {
+        return new SolverException("Solver[" + source.getName() + "] cannot be copied: "
+                + o.getClass().getName() + " is not copyable, " + reason);
+    }
+
+    /**
+     * Creates, in the environment of the copy, a backtrackable object with the current value of <i>o</i>
+     */
+    private Object rebuild(Object o) {
+        if (o instanceof IStateInt) {
+            return environment.makeInt(((IStateInt) o).get());
+        } else if (o instanceof IStateBool) {
+            return environment.makeBool(((IStateBool) o).get());
+        } else if (o instanceof IStateLong) {
+            return environment.makeLong(((IStateLong) o).get());
+        } else if (o instanceof IStateDouble) {
+            return environment.makeFloat(((IStateDouble) o).get());
+        } else if (o instanceof IStateIntVector) {
+            IStateIntVector v = (IStateIntVector) o;
+            IStateIntVector c = environment.makeIntVector(v.size(), 0);
+            for (int i = 0; i < v.size(); i++) {
+                c.quickSet(i, v.quickGet(i));
+            }
+            return c;
+        } else {
+            IStateDoubleVector v = (IStateDoubleVector) o;
+            IStateDoubleVector c = environment.makeDoubleVector(v.size(), 0.);
+            for (int i = 0; i < v.size(); i++) {
+                c.quickSet(i, v.quickGet(i));
+            }
+            return c;
+        }
+    }
+
+    private static Object cloneArray(Object a) {
+        if (a instanceof int[]) {
+            return ((int[]) a).clone();
+        } else if (a instanceof long[]) {
+            return ((long[]) a).clone();
+        } else if (a instanceof boolean[]) {
+            return ((boolean[]) a).clone();
+        } else if (a instanceof double[]) {
+            return ((double[]) a).clone();
+        } else if (a instanceof byte[]) {
+            return ((byte[]) a).clone();
+        } else if (a instanceof short[]) {
+            return ((short[]) a).clone();
+        } else if (a instanceof char[]) {
+            return ((char[]) a).clone();
+        } else {
+            return ((float[]) a).clone();
+        }
+    }
+
+    /**
+     * Puts back the entries of a copied map (or set) in their buckets
+     */
+    @SuppressWarnings("unchecked")
+    private static void rehash(Object o) {
+        if (o instanceof THash) {
+            ((THash) o).compact();
+        } else {
+            Map<Object, Object> map = (Map<Object, Object>) o;
+            Object[] keys = map.keySet().toArray();
+            Object[] values = map.values().toArray();
+            map.clear();
+            for (int i = 0; i < keys.length; i++) {
+                map.put(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * A reference from a copy to a lambda or to a captured value, set once every other object is copied
+     */
+    private static final class Link {
+
+        /**
+         * The copy which holds the reference, and the field or the index of the reference in it
+         */
+        final Object target;
+        final int index;
+        final Field field;
+
+        /**
+         * The value of the reference in the solver
+         */
+        final Object value;
+
+        Link(Object target, int index, Field field, Object value) {
+            this.target = target;
+            this.index = index;
+            this.field = field;
+            this.value = value;
+        }
+
+        void set(Object copy) throws IllegalAccessException {
+            if (field != null) {
+                field.set(target, copy);
+            } else {
+                ((Object[]) target)[index] = copy;
+            }
+        }
+    }
+
+    /**
+     * How to copy the instances of a class
+     */
+    private static final class Layout {
+
+        final int kind;
+
+        /**
+         * Why the instances cannot be copied, when they are refused
+         */
+        final String refusal;
+
+        /**
+         * Set to <tt>true</tt> when the instances put objects in buckets computed from their hash codes
+         */
+        final boolean hashed;
+
+        /**
+         * Creates an instance without calling the constructors of the class
+         */
+        final Constructor<?> allocator;
+
+        /**
+         * The instance fields, their types, and whether they hold a value captured by an inner, local or anonymous class
+         */
+        final Field[] fields;
+        final byte[] types;
+        final boolean[] captured;
+
+        /**
+         * Returns the serialized form of a lambda
+         */
+        final Method writeReplace;
+
+        /**
+         * Values of the static fields of the class, its super types and its enclosing classes
+         */
+        final Object[] statics;
+
+        Layout(Class<?> type) {
+            int kind = kindOf(type);
+            String refusal = kind == REFUSED ? "it belongs to another environment or holds native resources" : null;
+            Constructor<?> allocator = null;
+            List<Field> fields = new ArrayList<>();
+            Method writeReplace = null;
+            try {
+                if (kind == OBJECT || kind == RC_OBJECT) {
+                    allocator = (Constructor<?>) NEW_CONSTRUCTOR_FOR_SERIALIZATION.invoke(REFLECTION_FACTORY,
+                            type, Object.class.getDeclaredConstructor());
+                    allocator.setAccessible(true);
+                    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                        for (Field f : c.getDeclaredFields()) {
+                            if (!Modifier.isStatic(f.getModifiers())) {
+                                f.setAccessible(true);
+                                fields.add(f);
+                            }
+                        }
+                    }
+                } else if (kind == LAMBDA) {
+                    // the captured values, only read
+                    for (Field f : type.getDeclaredFields()) {
+                        if (!Modifier.isStatic(f.getModifiers())) {
+                            f.setAccessible(true);
+                            fields.add(f);
+                        }
+                    }
+                    if (Serializable.class.isAssignableFrom(type)) {
+                        writeReplace = type.getDeclaredMethod("writeReplace");
+                        writeReplace.setAccessible(true);
+                    }
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                kind = REFUSED;
+                refusal = "its fields cannot be accessed (" + e + ")";
+                fields.clear();
+            }
+            this.kind = kind;
+            this.refusal = refusal;
+            this.allocator = allocator;
+            this.writeReplace = writeReplace;
+            hashed = kind == OBJECT && (TObjectHash.class.isAssignableFrom(type)
+                    || HashMap.class.isAssignableFrom(type) || Hashtable.class.isAssignableFrom(type)
+                    || IdentityHashMap.class.isAssignableFrom(type) || ConcurrentHashMap.class.isAssignableFrom(type));
+            this.fields = fields.toArray(new Field[fields.size()]);
+            types = new byte[this.fields.length];
+            captured = new boolean[this.fields.length];
+            for (int i = 0; i < this.fields.length; i++) {
+                types[i] = typeOf(this.fields[i].getType());
+                // this$0, val$x, ...
+                captured[i] = this.fields[i].isSynthetic();
+            }
+            statics = kind == SHARED ? new Object[0] : staticsOf(type);
+        }
+
+        private static int kindOf(Class<?> type) {
+            if (type.isArray()) {
+                return type.getComponentType().isPrimitive() ? PRIMITIVE_ARRAY : OBJECT_ARRAY;
+            }
+            String name = type.getName();
+            if (type == String.class || type == Boolean.class || type == Character.class || type == Class.class
+                    || Enum.class.isAssignableFrom(type)
+                    || (Number.class.isAssignableFrom(type) && (name.startsWith("java.lang.") || name.startsWith("java.math.")))
+                    || Thread.class.isAssignableFrom(type) || ThreadGroup.class.isAssignableFrom(type)
+                    || ClassLoader.class.isAssignableFrom(type)
+                    || name.startsWith("java.lang.reflect.") || name.startsWith("java.lang.invoke.")
+                    || name.startsWith("java.io.") || name.startsWith("java.nio.")
+                    || name.startsWith("sun.") || name.startsWith("org.slf4j.")
+                    || type == SharedBound.class || type == SharedClauses.class) {
+                return SHARED;
+            }
+            if (type.isSynthetic() && name.contains("$$Lambda")) {
+                return LAMBDA;
+            }
+            if (IStateInt.class.isAssignableFrom(type) || IStateBool.class.isAssignableFrom(type)
+                    || IStateLong.class.isAssignableFrom(type) || IStateDouble.class.isAssignableFrom(type)
+                    || IStateIntVector.class.isAssignableFrom(type) || IStateDoubleVector.class.isAssignableFrom(type)) {
+                return STATE;
+            }
+            if (type == StoredObjectCopy.class) {
+                return OBJECT_STORE;
+            }
+            if (RcObject.class.isAssignableFrom(type)) {
+                return RC_OBJECT;
+            }
+            // other environments, trails and native or weakly referenced objects
+            if (IEnvironment.class.isAssignableFrom(type) || IStorage.class.isAssignableFrom(type)
+                    || Reference.class.isAssignableFrom(type) || WeakHashMap.class.isAssignableFrom(type)
+                    || Ibex.class.isAssignableFrom(type)) {
+                return REFUSED;
+            }
+            return OBJECT;
+        }
+
+        private static byte typeOf(Class<?> type) {
+            if (!type.isPrimitive()) {
+                return REF;
+            } else if (type == int.class) {
+                return INT;
+            } else if (type == long.class) {
+                return LONG;
+            } else if (type == boolean.class) {
+                return BOOLEAN;
+            } else if (type == byte.class) {
+                return BYTE;
+            } else if (type == short.class) {
+                return SHORT;
+            } else if (type == char.class) {
+                return CHAR;
+            } else if (type == float.class) {
+                return FLOAT;
+            } else {
+                return DOUBLE;
+            }
+        }
+
+        private static Object[] staticsOf(Class<?> type) {
+            List<Object> values = new ArrayList<>();
+            Set<Class<?>> visited = new HashSet<>();
+            ArrayDeque<Class<?>> todo = new ArrayDeque<>();
+            todo.add(type);
+            while (!todo.isEmpty()) {
+                Class<?> c = todo.poll();
+                if (c.isArray() || !visited.add(c)) {
+                    continue;
+                }
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers()) && !f.getType().isPrimitive()) {
+                        try {
+                            f.setAccessible(true);
+                            Object v = f.get(null);
+                            if (v != null) {
+                                values.add(v);
+                            }
+                        } catch (IllegalAccessException | RuntimeException ignored) {
+                            // not readable, not shared
+                        }
+                    }
+                }
+                if (c.getSuperclass() != null) {
+                    todo.add(c.getSuperclass());
+                }
+                Collections.addAll(todo, c.getInterfaces());
+                Class<?> enclosing = c.getEnclosingClass();
+                if (enclosing != null) {
+                    todo.add(enclosing);
+                }
+            }
+            return values.toArray();
+        }
+    }
+}
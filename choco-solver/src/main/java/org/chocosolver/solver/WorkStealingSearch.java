@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.SLF;
+import org.chocosolver.solver.search.loop.eps.SubproblemQueue;
+import org.chocosolver.solver.search.loop.eps.WorkStealingPool;
+
+import java.util.function.Supplier;
+
+/**
+ * A parallel Depth First Search which solves the same model with a set of solvers, each in its own thread,
+ * and balances the workload dynamically by work stealing.
+ * <p>
+ * Unlike {@link EmbarrassinglyParallelSearch}, the problem is not decomposed beforehand:
+ * one worker starts with the entire problem and, while some workers are idle, busy workers give away
+ * the shallowest open right branches of their decision path (see {@link SLF#workStealing(Solver, WorkStealingPool, int)}).
+ * Each stolen branch is replayed from the root node by an idle worker.
+ * This keeps every worker busy even when the search tree is irregular.
+ * <p>
+ * The expected use is the following:
+ * <pre> {@code
+ * WorkStealingSearch ws = new WorkStealingSearch(() -> readModel(), 4);
+ * long nbSolutions = ws.findAllSolutions();
+ * long nbSteals = ws.getNbSteals();
+ * }</pre>
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class WorkStealingSearch extends EmbarrassinglyParallelSearch {
+
+    /**
+     * The subproblems given away by busy workers
+     */
+    private final WorkStealingPool pool;
+
+    /**
+     * Maximum depth, from the top of a subproblem, of a right branch to give away
+     */
+    private int granularity = 16;
+
+    /**
+     * Creates a parallel Depth First Search made of <i>nbWorkers</i> solvers, each of them built by calling <i>modeler</i>.
+     *
+     * @param modeler   a method which creates a solver and declares the model in it
+     * @param nbWorkers number of solvers to run in parallel
+     */
+    public WorkStealingSearch(Supplier<Solver> modeler, int nbWorkers) {
+        this(modeler, nbWorkers, new WorkStealingPool());
+    }
+
+    private WorkStealingSearch(Supplier<Solver> modeler, int nbWorkers, WorkStealingPool pool) {
+        super(modeler, nbWorkers, pool);
+        this.pool = pool;
+    }
+
+    /**
+     * Sets the stealing granularity, that is, the maximum depth, from the top of the subproblem a worker explores,
+     * at which a right branch can be given away.
+     * The smaller, the larger the stolen sub-trees, but the less often work can be stolen.
+     * Should be called before the first resolution.
+     *
+     * @param granularity a strictly positive depth (default value is 16)
+     */
+    public void setGranularity(int granularity) {
+        if (granularity < 1) {
+            throw new SolverException("The stealing granularity should be strictly positive");
+        }
+        this.granularity = granularity;
+    }
+
+    /**
+     * @return the number of subproblems given away by busy workers during the last resolution
+     */
+    public long getNbSteals() {
+        return pool.getNbSteals();
+    }
+
+    /**
+     * @return the number of subproblems replayed by workers during the last resolution (including the entire problem)
+     */
+    public long getNbReplays() {
+        return pool.getNbReplays();
+    }
+
+    /**
+     * @return the number of decisions replayed by workers during the last resolution
+     */
+    public long getNbReplayedDecisions() {
+        return pool.getNbReplayedDecisions();
+    }
+
+    /**
+     * The pool only contains the entire problem.
+     */
+    @Override
+    protected void fill(SubproblemQueue queue) {
+        pool.reset(getSolvers().size());
+    }
+
+    @Override
+    protected void prepare(Solver solver, int rank) {
+        SLF.workStealing(solver, pool, granularity);
+    }
+
+    /**
+     * Idle workers are woken up when the resolution ends.
+     */
+    @Override
+    protected boolean endsResolution(Solver solver) {
+        boolean ends = super.endsResolution(solver);
+        if (ends) {
+            pool.stop();
+        }
+        return ends;
+    }
+
+    /**
+     * Idle workers would wait for the subproblem of a failing worker forever, they are woken up.
+     */
+    @Override
+    protected void onFailure(Solver solver) {
+        pool.stop();
+    }
+}
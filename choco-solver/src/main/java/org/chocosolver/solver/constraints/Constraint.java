@@ -223,6 +223,20 @@ public class Constraint implements Serializable {
         return name;
     }
 
+    /**
+     * Declares all the propagators of <code>this</code> as redundant (see {@link Propagator#setWeakRedundant(boolean)}).
+     * Must only be called on a constraint which is implied by the other ones, such as an implied constraint added to
+     * improve the filtering.
+     *
+     * @return <code>this</code>
+     */
+    public Constraint setWeakRedundant() {
+        for (Propagator p : propagators) {
+            p.setWeakRedundant(true);
+        }
+        return this;
+    }
+
     /**
      * @return the maximum priority of a propagator of this constraint
      */
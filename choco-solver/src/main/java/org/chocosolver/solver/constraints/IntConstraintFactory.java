@@ -486,6 +486,8 @@ public class IntConstraintFactory {
      *                    <b>AC</b>:
      *                    Uses Regin algorithm
      *                    Runs in O(m.n) worst case time for the initial propagation and then in O(n+m) on average.
+     *                    When all domains are enumerated, the matching is repaired incrementally from the removed values
+     *                    and the strongly connected components are only computed in the modified components.
      *                    <p>
      *                    <b>DEFAULT</b>:
      *                    <br/>
@@ -1466,11 +1468,16 @@ public class IntConstraintFactory {
      * <br/>
      * - <b>STR2+</b>: Arc Consistency version STR2 for allowed tuples,
      * <br/>
+     * - <b>CT</b>: Arc Consistency with Compact-Table, for allowed or forbidden tuples,
+     * <br/>
      * - <b>FC</b>: Forward Checking.
+     * <p>
+     * Any other value selects <b>CT</b> when the table contains at least
+     * {@link org.chocosolver.solver.Settings#getMinTuplesForCompactTable()} tuples, <b>GACSTR+</b> otherwise.
      *
      * @param VARS      first variable
      * @param TUPLES    the relation between the variables (list of allowed/forbidden tuples)
-     * @param ALGORITHM to choose among {"GAC3rm", "GAC2001", "GACSTR", "GAC2001+", "GAC3rm+", "FC", "STR2+"}
+     * @param ALGORITHM to choose among {"GAC3rm", "GAC2001", "GACSTR", "GAC2001+", "GAC3rm+", "FC", "STR2+", "CT"}
      */
     public static Constraint table(IntVar[] VARS, Tuples TUPLES, String ALGORITHM) {
         if (VARS.length == 2) {
@@ -1487,7 +1494,6 @@ public class IntConstraintFactory {
             case "GAC2001":
                 p = new PropLargeGAC2001(VARS, TUPLES);
                 break;
-            default:
             case "GACSTR+":
                 if (!TUPLES.isFeasible()) {
                     throw new SolverException("GACSTR+ cannot be used with forbidden tuples.");
@@ -1511,6 +1517,23 @@ public class IntConstraintFactory {
                     throw new SolverException("STR2+ cannot be used with forbidden tuples.");
                 }
                 p = new PropTableStr2(VARS, TUPLES.toMatrix());
+                break;
+            case "CT":
+                p = TUPLES.isFeasible() ?
+                        new PropCompactTable(VARS, TUPLES.toMatrix()) :
+                        new PropCompactTableNegative(VARS, TUPLES.toMatrix());
+                break;
+            default:
+                if (TUPLES.nbTuples() >= VARS[0].getSolver().getSettings().getMinTuplesForCompactTable()) {
+                    p = TUPLES.isFeasible() ?
+                            new PropCompactTable(VARS, TUPLES.toMatrix()) :
+                            new PropCompactTableNegative(VARS, TUPLES.toMatrix());
+                } else {
+                    if (!TUPLES.isFeasible()) {
+                        throw new SolverException("GACSTR+ cannot be used with forbidden tuples.");
+                    }
+                    p = new PropLargeGACSTRPos(VARS, TUPLES);
+                }
         }
         return new Constraint("Table(" + ALGORITHM + ")", p);
     }
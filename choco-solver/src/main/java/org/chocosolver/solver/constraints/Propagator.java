@@ -141,6 +141,18 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
      */
     private int nbPendingEvt = 0;
 
+    /**
+     * Index of this propagator in the propagation engine which schedules it, -1 if none.
+     * Only maintained by engines which rely on it, e.g. {@link org.chocosolver.solver.propagation.hardcoded.DensePropagatorEngine}.
+     */
+    private int engineSlot = -1;
+
+    /**
+     * Set to <tt>true</tt> to indicate that this propagator is redundant: the other propagators ensure that the solutions
+     * found are correct even if this one is not called. Such a propagator may be skipped by the propagation engine.
+     */
+    private boolean weakRedundant = false;
+
     /**
      * Priority of this propagator.
      * Mix between arity and compexity.
@@ -546,6 +558,44 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         return nbPendingEvt;
     }
 
+    /**
+     * @return the index of this propagator in the propagation engine, -1 if not set
+     */
+    public int getEngineSlot() {
+        return engineSlot;
+    }
+
+    /**
+     * Set the index of this propagator in the propagation engine.
+     * Must only be called by the propagation engine.
+     *
+     * @param slot index of this propagator in the engine, -1 to unset
+     */
+    public void setEngineSlot(int slot) {
+        this.engineSlot = slot;
+    }
+
+    /**
+     * @return <tt>true</tt> if this propagator is declared as redundant, and thus may be skipped by the propagation engine
+     */
+    public boolean isWeakRedundant() {
+        return weakRedundant;
+    }
+
+    /**
+     * Declares this propagator as redundant: the other propagators ensure that the solutions found are correct
+     * even if this one is not called.
+     * A propagation engine may then decide to delay or skip it when it does not filter any value,
+     * see {@link org.chocosolver.solver.propagation.hardcoded.DensePropagatorEngine}.
+     * In that case, pending fine events are dropped and the next call is a full propagation:
+     * {@link #propagate(int)} with {@link PropagatorEventType#FULL_PROPAGATION} must then be valid at any time.
+     *
+     * @param weakRedundant <tt>true</tt> to declare this propagator as redundant
+     */
+    public void setWeakRedundant(boolean weakRedundant) {
+        this.weakRedundant = weakRedundant;
+    }
+
     /**
      * Returns the element at the specified position in this internal list of <code>V</code> objects.
      *
@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.structure.StateSparseBitSet;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.UnaryIntProcedure;
+
+/**
+ * Compact-Table propagator for table constraints (only positive tuples).
+ * <p>
+ * The tuples which are still valid, that is, whose values all belong to the current domains, are stored in a
+ * reversible sparse bitset (see {@link StateSparseBitSet}). For each couple variable-value, a static mask stores the tuples which contain it.
+ * When a variable is modified, the set of valid tuples is intersected with the union of the masks of
+ * the removed values (delta-based update) or of the remaining values (reset-based update), whichever is the smaller.
+ * Then, a value is supported if its mask intersects the set of valid tuples; the last word found is kept as residue.
+ * <p>
+ * Related to "Compact-Table: Efficiently Filtering Table Constraints with Reversible Sparse Bit-Sets",
+ * J. Demeulenaere et al., CP 2016.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class PropCompactTable extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    /**
+     * The tuples
+     */
+    protected final int[][] tuples;
+
+    /**
+     * The valid tuples
+     */
+    protected final StateSparseBitSet currTable;
+
+    /**
+     * For each variable, the smallest value of the tuples
+     */
+    protected final int[] offsets;
+
+    /**
+     * For each couple variable-value, the tuples which contain it (<tt>null</tt> if there is none)
+     */
+    protected final long[][][] supports;
+
+    /**
+     * For each couple variable-value, the index of a word of {@link #currTable} which intersects its supports
+     */
+    protected final int[][] residues;
+
+    /**
+     * For each variable, the domain size when it was last considered
+     */
+    protected final IStateInt[] lastSizes;
+
+    /**
+     * To iterate over removed values
+     */
+    protected final IIntDeltaMonitor[] monitors;
+
+    /**
+     * Procedure to add the supports of a removed value to the mask of {@link #currTable}
+     */
+    private final UnaryIntProcedure<Integer> onValRem;
+
+    //***********************************************************************************
+    // CONSTRUCTOR
+    //***********************************************************************************
+
+    /**
+     * Creates a Compact-Table propagator over <i>vars</i> for positive tuples.
+     *
+     * @param vars   scope of the table
+     * @param tuples the allowed tuples
+     */
+    public PropCompactTable(IntVar[] vars, int[][] tuples) {
+        super(vars, PropagatorPriority.LINEAR, true);
+        this.tuples = tuples;
+        int n = vars.length;
+        this.currTable = solver.getEnvironment().makeSparseBitSet(tuples.length);
+        this.currTable.set(0, tuples.length);
+        this.offsets = new int[n];
+        this.supports = new long[n][][];
+        this.residues = new int[n][];
+        this.lastSizes = new IStateInt[n];
+        this.monitors = new IIntDeltaMonitor[n];
+        int nbWords = currTable.getNbWords();
+        for (int i = 0; i < n; i++) {
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            for (int[] tuple : tuples) {
+                min = Math.min(min, tuple[i]);
+                max = Math.max(max, tuple[i]);
+            }
+            // no need to store values out of the initial domain
+            min = Math.max(min, vars[i].getLB());
+            max = Math.min(max, vars[i].getUB());
+            offsets[i] = min;
+            int size = Math.max(0, max - min + 1);
+            supports[i] = new long[size][];
+            residues[i] = new int[size];
+            for (int t = 0; t < tuples.length; t++) {
+                int v = tuples[t][i] - min;
+                if (v >= 0 && v < size) {
+                    if (supports[i][v] == null) {
+                        supports[i][v] = new long[nbWords];
+                    }
+                    supports[i][v][t >>> 6] |= 1L << t;
+                }
+            }
+            lastSizes[i] = solver.getEnvironment().makeInt(Integer.MAX_VALUE);
+            monitors[i] = vars[i].monitorDelta(this);
+        }
+        this.onValRem = new UnaryIntProcedure<Integer>() {
+            int var;
+
+            @Override
+            public UnaryIntProcedure set(Integer idx) {
+                this.var = idx;
+                return this;
+            }
+
+            @Override
+            public void execute(int value) throws ContradictionException {
+                long[] mask = supportsOf(var, value);
+                if (mask != null) {
+                    currTable.addToMask(mask);
+                }
+            }
+        };
+    }
+
+    //***********************************************************************************
+    // PROP METHODS
+    //***********************************************************************************
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < vars.length; i++) {
+                resetBasedUpdate(i);
+            }
+            onTableUpdated();
+        }
+        filterDomains();
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        int size = vars[vIdx].getDomainSize();
+        // the number of removed values is known thanks to the last domain size
+        if (lastSizes[vIdx].get() - size < size) {
+            deltaBasedUpdate(vIdx);
+        } else {
+            resetBasedUpdate(vIdx);
+        }
+        onTableUpdated();
+        if (isActive()) {
+            forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+        }
+    }
+
+    /**
+     * Keeps the valid tuples which do not contain a value removed from the domain of the <i>i</i>th variable.
+     */
+    private void deltaBasedUpdate(int i) throws ContradictionException {
+        currTable.clearMask();
+        monitors[i].freeze();
+        monitors[i].forEachRemVal(onValRem.set(i));
+        monitors[i].unfreeze();
+        currTable.reverseMask();
+        currTable.intersectWithMask();
+        lastSizes[i].set(vars[i].getDomainSize());
+    }
+
+    /**
+     * Keeps the valid tuples which contain a value of the domain of the <i>i</i>th variable.
+     */
+    protected final void resetBasedUpdate(int i) {
+        currTable.clearMask();
+        IntVar var = vars[i];
+        int ub = var.getUB();
+        for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+            long[] mask = supportsOf(i, v);
+            if (mask != null) {
+                currTable.addToMask(mask);
+            }
+        }
+        // the removed values are not relevant anymore
+        monitors[i].freeze();
+        monitors[i].unfreeze();
+        currTable.intersectWithMask();
+        lastSizes[i].set(var.getDomainSize());
+    }
+
+    /**
+     * Reacts to a modification of the set of valid tuples.
+     *
+     * @throws ContradictionException if no tuple is valid anymore
+     */
+    protected void onTableUpdated() throws ContradictionException {
+        if (currTable.isEmpty()) {
+            fails();
+        }
+    }
+
+    /**
+     * Removes the values which are not supported by a valid tuple anymore.
+     *
+     * @throws ContradictionException if a domain becomes empty
+     */
+    protected void filterDomains() throws ContradictionException {
+        for (int i = 0; i < vars.length; i++) {
+            IntVar var = vars[i];
+            int ub = var.getUB();
+            for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+                int idx = v - offsets[i];
+                long[] mask = supportsOf(i, v);
+                if (mask == null) {
+                    var.removeValue(v, this);
+                } else if ((currTable.getWord(residues[i][idx]) & mask[residues[i][idx]]) == 0L) {
+                    int r = currTable.intersectIndex(mask);
+                    if (r == -1) {
+                        var.removeValue(v, this);
+                    } else {
+                        residues[i][idx] = r;
+                    }
+                }
+            }
+            lastSizes[i].set(var.getDomainSize());
+        }
+    }
+
+    /**
+     * @return the tuples which contain the value <i>v</i> for the <i>i</i>th variable, <tt>null</tt> if there is none
+     */
+    protected final long[] supportsOf(int i, int v) {
+        int idx = v - offsets[i];
+        return idx >= 0 && idx < supports[i].length ? supports[i][idx] : null;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        boolean hasSupport = false;
+        for (int t = 0; t < tuples.length && !hasSupport; t++) {
+            hasSupport = isValid(tuples[t]);
+        }
+        if (hasSupport) {
+            return isCompletelyInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+        }
+        return ESat.FALSE;
+    }
+
+    /**
+     * @return <tt>true</tt> if each value of <i>tuple</i> belongs to the domain of its variable
+     */
+    protected final boolean isValid(int[] tuple) {
+        for (int i = 0; i < vars.length; i++) {
+            if (!vars[i].contains(tuple[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CT table constraint with " + vars.length + " vars and " + tuples.length + " tuples";
+    }
+}
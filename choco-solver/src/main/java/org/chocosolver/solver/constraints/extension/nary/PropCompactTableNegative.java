@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Compact-Table propagator for table constraints (only negative tuples).
+ * <p>
+ * The valid forbidden tuples are maintained as in {@link PropCompactTable}.
+ * Since forbidden tuples are distinct, a value is supported as long as the number of valid forbidden tuples
+ * which contain it is smaller than the number of combinations of values of the other variables.
+ * The valid tuples are only counted when the value appears in enough forbidden tuples.
+ * <p>
+ * Related to "Extending Compact-Table to Negative and Short Tables", H. Verhaeghe et al., AAAI 2017.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class PropCompactTableNegative extends PropCompactTable {
+
+    /**
+     * For each couple variable-value, the number of forbidden tuples which contain it
+     */
+    private final int[][] counts;
+
+    /**
+     * Domain sizes, at the beginning of a filtering step
+     */
+    private final int[] sizes;
+
+    /**
+     * Variables modified during a filtering step
+     */
+    private final boolean[] touched;
+
+    /**
+     * Creates a Compact-Table propagator over <i>vars</i> for negative tuples.
+     *
+     * @param vars   scope of the table
+     * @param tuples the forbidden tuples
+     */
+    public PropCompactTableNegative(IntVar[] vars, int[][] tuples) {
+        super(vars, distinct(tuples));
+        counts = new int[vars.length][];
+        sizes = new int[vars.length];
+        touched = new boolean[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            counts[i] = new int[supports[i].length];
+            for (int j = 0; j < supports[i].length; j++) {
+                if (supports[i][j] != null) {
+                    for (long w : supports[i][j]) {
+                        counts[i][j] += Long.bitCount(w);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return <i>tuples</i> without duplicates
+     */
+    private static int[][] distinct(int[][] tuples) {
+        Comparator<int[]> lex = (t1, t2) -> {
+            for (int i = 0; i < t1.length; i++) {
+                if (t1[i] != t2[i]) {
+                    return Integer.compare(t1[i], t2[i]);
+                }
+            }
+            return 0;
+        };
+        int[][] sorted = tuples.clone();
+        Arrays.sort(sorted, lex);
+        int n = 0;
+        for (int t = 0; t < sorted.length; t++) {
+            if (t == 0 || lex.compare(sorted[n - 1], sorted[t]) != 0) {
+                sorted[n++] = sorted[t];
+            }
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+
+    /**
+     * No forbidden tuple is valid anymore: the constraint is entailed.
+     */
+    @Override
+    protected void onTableUpdated() throws ContradictionException {
+        if (currTable.isEmpty() && isActive()) {
+            setPassive();
+        }
+    }
+
+    /**
+     * Since removing a value invalidates forbidden tuples, and thus may make other values unsupported,
+     * the filtering is repeated until a fix point is reached.
+     */
+    @Override
+    protected void filterDomains() throws ContradictionException {
+        int n = vars.length;
+        int bound = tuples.length + 1;
+        boolean modified = true;
+        while (modified && !currTable.isEmpty()) {
+            modified = false;
+            for (int i = 0; i < n; i++) {
+                sizes[i] = vars[i].getDomainSize();
+                touched[i] = false;
+            }
+            for (int i = 0; i < n; i++) {
+                IntVar var = vars[i];
+                // number of combinations of values of the other variables, bounded by the number of tuples
+                int comb = 1;
+                for (int j = 0; j < n && comb < bound; j++) {
+                    if (j != i) {
+                        comb = (int) Math.min(bound, (long) comb * sizes[j]);
+                    }
+                }
+                int ub = var.getUB();
+                for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+                    long[] mask = supportsOf(i, v);
+                    if (mask != null && counts[i][v - offsets[i]] >= comb
+                            && currTable.countIntersection(mask, comb) >= comb) {
+                        var.removeValue(v, this);
+                        touched[i] = true;
+                        modified = true;
+                    }
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if (touched[i]) {
+                    resetBasedUpdate(i);
+                }
+                lastSizes[i].set(vars[i].getDomainSize());
+            }
+        }
+        if (currTable.isEmpty() && isActive()) {
+            setPassive();
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (isCompletelyInstantiated()) {
+            for (int[] tuple : tuples) {
+                if (isValid(tuple)) {
+                    return ESat.FALSE;
+                }
+            }
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public String toString() {
+        return "CT negative table constraint with " + vars.length + " vars and " + tuples.length + " tuples";
+    }
+}
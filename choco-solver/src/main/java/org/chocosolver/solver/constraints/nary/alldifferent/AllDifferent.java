@@ -70,8 +70,18 @@ public class AllDifferent extends Constraint {
                 return new Propagator[]{new PropAllDiffInst(VARS)};
             case BC:
                 return new Propagator[]{new PropAllDiffInst(VARS), new PropAllDiffBC(VARS)};
-            case AC:
-                return new Propagator[]{new PropAllDiffInst(VARS), new PropAllDiffAC(VARS)};
+            case AC: {
+                // the incremental algorithm requires enumerated domains
+                boolean enumDom = true;
+                for (int i = 0; i < VARS.length && enumDom; i++) {
+                    enumDom = VARS[i].hasEnumeratedDomain();
+                }
+                if (enumDom) {
+                    return new Propagator[]{new PropAllDiffInst(VARS), new PropAllDiffACIncremental(VARS)};
+                } else {
+                    return new Propagator[]{new PropAllDiffInst(VARS), new PropAllDiffAC(VARS)};
+                }
+            }
             case DEFAULT:
             default: {
                 // adds a Probabilistic AC (only if at least some variables have an enumerated domain)
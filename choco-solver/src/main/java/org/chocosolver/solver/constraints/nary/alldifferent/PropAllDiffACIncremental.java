@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.alldifferent;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.nary.alldifferent.algo.AlgoAllDiffACIncremental;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.UnaryIntProcedure;
+
+/**
+ * Incremental propagator for AllDifferent AC constraint for integer variables with enumerated domains
+ * <p/>
+ * Uses Regin algorithm, but the matching is repaired from the removed values
+ * and the strongly connected components are only computed in the modified components
+ * (see {@link AlgoAllDiffACIncremental})
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class PropAllDiffACIncremental extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final AlgoAllDiffACIncremental filter;
+
+    private final IIntDeltaMonitor[] monitors;
+
+    private final UnaryIntProcedure<Integer> onValRem;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * AllDifferent constraint for integer variables with enumerated domains
+     *
+     * @param variables array of integer variables
+     */
+    public PropAllDiffACIncremental(IntVar[] variables) {
+        super(variables, PropagatorPriority.QUADRATIC, true);
+        this.filter = new AlgoAllDiffACIncremental(vars, this);
+        this.monitors = new IIntDeltaMonitor[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            monitors[i] = vars[i].monitorDelta(this);
+        }
+        this.onValRem = new UnaryIntProcedure<Integer>() {
+            int var;
+
+            @Override
+            public UnaryIntProcedure set(Integer idx) {
+                this.var = idx;
+                return this;
+            }
+
+            @Override
+            public void execute(int value) throws ContradictionException {
+                filter.onValueRemoved(var, value);
+            }
+        };
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < vars.length; i++) {
+                monitors[i].freeze();
+                monitors[i].unfreeze();
+            }
+            filter.touchAll();
+        }
+        filter.propagate();
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        filter.touch(vIdx);
+        monitors[vIdx].freeze();
+        monitors[vIdx].forEachRemVal(onValRem.set(vIdx));
+        monitors[vIdx].unfreeze();
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        return ESat.TRUE; // redundant propagator (used with PropAllDiffInst)
+    }
+
+}
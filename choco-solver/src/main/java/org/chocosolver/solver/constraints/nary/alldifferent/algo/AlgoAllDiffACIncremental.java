@@ -0,0 +1,434 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.alldifferent.algo;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Incremental algorithm of Alldifferent with AC, for variables with enumerated domains.
+ * <p>
+ * Unlike {@link AlgoAllDiffAC}, the value graph is not built: the arcs are read from the domains.
+ * The matching is kept from one call to another, and even on backtrack since it remains valid when domains grow:
+ * only the variables whose matched value has been removed (see {@link #onValueRemoved(int, int)}) are matched again.
+ * <p>
+ * Since inconsistent values are removed, there is no arc between two strongly connected components of the graph,
+ * and removing values can only split components.
+ * The components are thus stored in backtrackable ints, and strongly connected components are only computed
+ * in the components which contain a modified variable.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class AlgoAllDiffACIncremental implements Serializable {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final IntVar[] vars;
+    private final Propagator<IntVar> aCause;
+    // number of variables, of variables and values, and index of the sink
+    private final int n, n2, sink;
+    // value of node n+k is offset+k if the values are dense, values[k] otherwise
+    private final int offset;
+    private final int[] values;
+    private final TIntIntHashMap map;
+    // matched value node of each variable, matched variable of each value node (-1 if free)
+    private final int[] varMatch, valMatch;
+    // component of each node (but the sink), and component of the sink
+    private final IStateInt[] comp;
+    private final IStateInt sinkComp;
+    private int nextComp;
+    // variables modified since the last call, variables to match
+    private final BitSet touched, unmatched;
+    // for augmenting matching (BFS)
+    private final int[] father, fifo;
+    private final BitSet in;
+    // for Tarjan's algorithm, restricted to the nodes of some components
+    private final TIntHashSet affected, claimed;
+    private final int[] nodes, matchedValues, num, low, stack, calls, cursor, scc;
+    private final int[] mark;
+    private final BitSet onStack;
+    private int round;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * @param variables variables with enumerated domains
+     * @param cause     the propagator
+     */
+    public AlgoAllDiffACIncremental(IntVar[] variables, Propagator<IntVar> cause) {
+        this.vars = variables;
+        this.aCause = cause;
+        this.n = vars.length;
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        TIntHashSet all = new TIntHashSet();
+        for (IntVar v : vars) {
+            min = Math.min(min, v.getLB());
+            max = Math.max(max, v.getUB());
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                all.add(k);
+            }
+        }
+        if ((long) max - min + 1 <= 2L * all.size() + 64) {
+            offset = min;
+            values = null;
+            map = null;
+            n2 = n + max - min + 1;
+        } else {
+            offset = 0;
+            values = all.toArray();
+            Arrays.sort(values);
+            map = new TIntIntHashMap();
+            for (int k = 0; k < values.length; k++) {
+                map.put(values[k], k);
+            }
+            n2 = n + values.length;
+        }
+        sink = n2;
+        varMatch = new int[n];
+        valMatch = new int[n2 - n];
+        Arrays.fill(varMatch, -1);
+        Arrays.fill(valMatch, -1);
+        IEnvironment environment = cause.getSolver().getEnvironment();
+        comp = new IStateInt[n2];
+        for (int i = 0; i < n2; i++) {
+            comp[i] = environment.makeInt(0);
+        }
+        sinkComp = environment.makeInt(0);
+        nextComp = 1;
+        touched = new BitSet(n);
+        unmatched = new BitSet(n);
+        unmatched.set(0, n);
+        father = new int[n2];
+        fifo = new int[n2 + 1];
+        in = new BitSet(n2);
+        affected = new TIntHashSet();
+        claimed = new TIntHashSet();
+        nodes = new int[n2 + 1];
+        matchedValues = new int[n2];
+        num = new int[n2 + 1];
+        low = new int[n2 + 1];
+        stack = new int[n2 + 1];
+        calls = new int[n2 + 1];
+        cursor = new int[n2 + 1];
+        scc = new int[n2 + 1];
+        mark = new int[n2 + 1];
+        onStack = new BitSet(n2 + 1);
+    }
+
+    private int nodeOf(int value) {
+        return values == null ? n + value - offset : n + map.get(value);
+    }
+
+    private int valueOf(int node) {
+        return values == null ? offset + node - n : values[node - n];
+    }
+
+    //***********************************************************************************
+    // EVENTS
+    //***********************************************************************************
+
+    /**
+     * Declares that the domain of every variable may have been modified.
+     */
+    public void touchAll() {
+        touched.set(0, n);
+        for (int i = 0; i < n; i++) {
+            if (varMatch[i] != -1 && !vars[i].contains(valueOf(varMatch[i]))) {
+                unmatch(i);
+            }
+        }
+    }
+
+    /**
+     * Declares that the domain of the <i>i</i>th variable has been modified.
+     */
+    public void touch(int i) {
+        touched.set(i);
+    }
+
+    /**
+     * Declares that <i>value</i> has been removed from the domain of the <i>i</i>th variable.
+     */
+    public void onValueRemoved(int i, int value) {
+        if (varMatch[i] != -1 && valueOf(varMatch[i]) == value) {
+            unmatch(i);
+        }
+    }
+
+    private void unmatch(int i) {
+        valMatch[varMatch[i] - n] = -1;
+        varMatch[i] = -1;
+        unmatched.set(i);
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    /**
+     * Repairs the matching, then removes the inconsistent values of the modified components.
+     *
+     * @return <tt>true</tt> if a domain has been modified
+     * @throws ContradictionException if there is no maximum matching covering the variables
+     */
+    public boolean propagate() throws ContradictionException {
+        affected.clear();
+        for (int i = touched.nextSetBit(0); i >= 0; i = touched.nextSetBit(i + 1)) {
+            affected.add(comp[i].get());
+        }
+        touched.clear();
+        for (int i = unmatched.nextSetBit(0); i >= 0; i = unmatched.nextSetBit(i + 1)) {
+            // a previous call may have failed after having matched the variable
+            if (varMatch[i] == -1) {
+                affected.add(comp[i].get());
+                tryToMatch(i);
+            }
+        }
+        unmatched.clear();
+        if (affected.isEmpty()) {
+            return false;
+        }
+        findSCC();
+        return filter();
+    }
+
+    private void tryToMatch(int i) throws ContradictionException {
+        int mate = augmentPath_BFS(i);
+        if (mate == -1) {
+            aCause.fails();
+        }
+        // flip the path, from the free value back to the variable
+        int tmp = mate;
+        while (tmp != i) {
+            int var = father[tmp];
+            int next = varMatch[var];
+            varMatch[var] = tmp;
+            valMatch[tmp - n] = var;
+            tmp = var == i ? i : next;
+        }
+    }
+
+    /**
+     * @return a free value node reachable from <i>root</i> by an alternating path, -1 if there is none
+     */
+    private int augmentPath_BFS(int root) {
+        in.clear();
+        int indexFirst = 0, indexLast = 0;
+        fifo[indexLast++] = root;
+        while (indexFirst != indexLast) {
+            int x = fifo[indexFirst++];
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                int y = nodeOf(k);
+                if (!in.get(y)) {
+                    in.set(y);
+                    father[y] = x;
+                    int mate = valMatch[y - n];
+                    if (mate == -1) {
+                        return y;
+                    }
+                    if (!in.get(mate)) {
+                        in.set(mate);
+                        fifo[indexLast++] = mate;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    //***********************************************************************************
+    // STRONGLY CONNECTED COMPONENTS
+    //***********************************************************************************
+
+    /**
+     * Tarjan's algorithm on the nodes of the affected components.
+     * Arcs go from a variable to its non-matched values, from a value to its matched variable,
+     * from a free value to the sink and from the sink to matched values.
+     */
+    private void findSCC() {
+        round++;
+        int nbNodes = 0, nbMatched = 0;
+        for (int i = 0; i < n2; i++) {
+            if (affected.contains(comp[i].get())) {
+                mark[i] = round;
+                num[i] = 0;
+                nodes[nbNodes++] = i;
+                if (i >= n && valMatch[i - n] != -1) {
+                    matchedValues[nbMatched++] = i;
+                }
+            }
+        }
+        boolean withSink = affected.contains(sinkComp.get());
+        if (withSink) {
+            mark[sink] = round;
+            num[sink] = 0;
+            nodes[nbNodes++] = sink;
+        }
+        int counter = 0, top = 0, nbSCC = 0;
+        for (int r = 0; r < nbNodes; r++) {
+            int root = nodes[r];
+            if (num[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            counter = visit(root, counter, top++);
+            calls[depth++] = root;
+            while (depth > 0) {
+                int u = calls[depth - 1];
+                int w = nextSucc(u, withSink, nbMatched);
+                if (w != -1) {
+                    if (num[w] == 0) {
+                        counter = visit(w, counter, top++);
+                        calls[depth++] = w;
+                    } else if (onStack.get(w) && num[w] < low[u]) {
+                        low[u] = num[w];
+                    }
+                } else {
+                    depth--;
+                    if (low[u] == num[u]) {
+                        int x;
+                        do {
+                            x = stack[--top];
+                            onStack.clear(x);
+                            scc[x] = nbSCC;
+                        } while (x != u);
+                        nbSCC++;
+                    }
+                    if (depth > 0) {
+                        int p = calls[depth - 1];
+                        if (low[u] < low[p]) {
+                            low[p] = low[u];
+                        }
+                    }
+                }
+            }
+        }
+        // one component per strongly connected component; a component keeps its id for its first one
+        claimed.clear();
+        int[] ids = fifo;
+        Arrays.fill(ids, 0, nbSCC, -1);
+        for (int r = 0; r < nbNodes; r++) {
+            int x = nodes[r];
+            int s = scc[x];
+            if (ids[s] == -1) {
+                int c = x == sink ? sinkComp.get() : comp[x].get();
+                ids[s] = claimed.add(c) ? c : nextComp++;
+            }
+            if (x == sink) {
+                sinkComp.set(ids[s]);
+            } else {
+                comp[x].set(ids[s]);
+            }
+        }
+    }
+
+    private int visit(int u, int counter, int top) {
+        num[u] = low[u] = ++counter;
+        stack[top] = u;
+        onStack.set(u);
+        if (u < n) {
+            cursor[u] = vars[u].getLB();
+        } else {
+            cursor[u] = 0;
+        }
+        return counter;
+    }
+
+    private int nextSucc(int u, boolean withSink, int nbMatched) {
+        if (u < n) {
+            IntVar v = vars[u];
+            int ub = v.getUB();
+            for (int k = cursor[u]; k <= ub; k = v.nextValue(k)) {
+                int w = nodeOf(k);
+                if (w != varMatch[u] && mark[w] == round) {
+                    cursor[u] = v.nextValue(k);
+                    return w;
+                }
+            }
+            cursor[u] = Integer.MAX_VALUE;
+            return -1;
+        } else if (u < n2) {
+            if (cursor[u] == 0) {
+                cursor[u] = 1;
+                int mate = valMatch[u - n];
+                if (mate != -1) {
+                    return mark[mate] == round ? mate : -1;
+                }
+                return withSink ? sink : -1;
+            }
+            return -1;
+        } else {
+            return cursor[u] < nbMatched ? matchedValues[cursor[u]++] : -1;
+        }
+    }
+
+    //***********************************************************************************
+    // PRUNING
+    //***********************************************************************************
+
+    private boolean filter() throws ContradictionException {
+        boolean filter = false;
+        for (int i = 0; i < n; i++) {
+            if (mark[i] == round) {
+                IntVar v = vars[i];
+                int ub = v.getUB();
+                for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                    int j = nodeOf(k);
+                    if (scc[i] != scc[j]) {
+                        if (varMatch[i] == j) {
+                            filter |= v.instantiateTo(k, aCause);
+                            break;
+                        } else {
+                            filter |= v.removeValue(k, aCause);
+                        }
+                    }
+                }
+            }
+        }
+        return filter;
+    }
+}
@@ -39,6 +39,7 @@ import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.explanations.RuleStore;
+import org.chocosolver.solver.search.measure.IMeasures;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
@@ -120,7 +121,32 @@ public class PropNogoods extends Propagator<IntVar> {
     /**
      * Local-like parameter, for #why() method only, lazily initialized.
      */
-    TIntObjectHashMap<ArrayList<SatSolver.Clause>> inClauses;
+    TIntObjectHashMap<TIntArrayList> inClauses;
+
+    /**
+     * Value of {@link SatSolver#clausesStamp_} when {@link #inClauses} was filled.
+     */
+    int inClausesStamp;
+
+    /**
+     * Access point to the channel shared with other solvers, <tt>null</tt> if learnt clauses are not shared.
+     */
+    SharedClauses.Port port;
+
+    /**
+     * Binds variable id to integer variable, for clauses imported from other solvers only, lazily initialized.
+     */
+    TIntObjectHashMap<IntVar> id2var;
+
+    /**
+     * Values of the counters of the SAT solver last reported to the measures: learnt clauses removed and fired.
+     */
+    long nbRemoved, nbFired;
+
+    /**
+     * Number of variables of the solver scanned to fill {@link #id2var}
+     */
+    int nbScannedVars;
 
     /**
      * Create a (unique) propagator for no-goods recording and propagation.
@@ -145,6 +171,7 @@ public class PropNogoods extends Propagator<IntVar> {
         sat_trail_ = solver.getEnvironment().makeInt();
         test_eq = new BitSet();
         fp = new ArrayDeque<>();
+        sat_.setLearntBudget(solver.getSettings().getMaxLearntNogoods(), solver.getSettings().getMaxLearntNogoodsBytes());
     }
 
     @Override
@@ -245,15 +272,17 @@ public class PropNogoods extends Propagator<IntVar> {
         return true;
     }
 
-    private boolean clauseEntailed(ArrayList<SatSolver.Clause> clauses) {
+    private boolean clauseEntailed(TIntArrayList clauses) {
         int lit, var;
         long value;
         boolean sign;
         IntVar ivar;
-        for (SatSolver.Clause c : clauses) {
+        for (int k = 0; k < clauses.size(); k++) {
+            int cr = clauses.getQuick(k);
+            int size = sat_.clauseSize(cr);
             int cnt = 0;
-            for (int i = 0; i < c.size(); i++) {
-                lit = c._g(i);
+            for (int i = 0; i < size; i++) {
+                lit = sat_.clauseLiteral(cr, i);
                 sign = sign(lit);
                 var = var(lit);
                 ivar = vars[lit2pos[var]];
@@ -263,14 +292,14 @@ public class PropNogoods extends Propagator<IntVar> {
                         cnt++;
                     } else break;
                 } else {
-                    if (sign && ivar.getUB() <= ivalue(value)) {
+                    if (sign && ivar.getLB() > ivalue(value)) {
                         cnt++;
-                    } else if (!sign && ivar.getLB() > ivalue(value)) {
+                    } else if (!sign && ivar.getUB() <= ivalue(value)) {
                         cnt++;
                     } else break;
                 }
             }
-            if (cnt == c.size()) return false;
+            if (cnt == size) return false;
         }
         return true;
     }
@@ -368,6 +397,59 @@ public class PropNogoods extends Propagator<IntVar> {
         return SatSolver.makeLiteral(var, true);
     }
 
+    /**
+     * @return the number of literals declared in this store, they are numbered from 0 (see {@link #literal(int)})
+     */
+    public int getNbLiterals() {
+        return (int) sat_.numvars();
+    }
+
+    /**
+     * @param i the number of a literal, in [0, {@link #getNbLiterals()}[
+     * @return the i^th literal declared in this store, as returned by {@link #Literal(IntVar, int, boolean)}
+     */
+    public static int literal(int i) {
+        return SatSolver.makeLiteral(i, true);
+    }
+
+    /**
+     * @param lit a literal, or its negation
+     * @return the integer variable of the literal
+     */
+    public IntVar getIntVar(int lit) {
+        return vars[lit2pos[var(lit)]];
+    }
+
+    /**
+     * @param lit a literal, or its negation
+     * @return the value of the literal
+     */
+    public int getValue(int lit) {
+        return ivalue(lit2val[var(lit)]);
+    }
+
+    /**
+     * @param lit a literal, or its negation
+     * @return <tt>true</tt> if the literal encodes '=', <tt>false</tt> if it encodes '&le;'
+     */
+    public boolean isEq(int lit) {
+        return iseq(lit2val[var(lit)]);
+    }
+
+    /**
+     * @return the number of learnt clauses currently stored
+     */
+    public int getNbLearnts() {
+        return sat_.nLearnt();
+    }
+
+    /**
+     * @return the underlying SAT solver
+     */
+    public SatSolver getSatSolver() {
+        return sat_;
+    }
+
     /**
      * var points a clause variable whom value is now to be val.
      *
@@ -395,6 +477,7 @@ public class PropNogoods extends Propagator<IntVar> {
             }
         } finally {
             sat_.touched_variables_.resetQuick(); // issue#327
+            updateMeasures();
         }
     }
 
@@ -513,38 +596,178 @@ public class PropNogoods extends Propagator<IntVar> {
     }
 
     /**
-     * Add learnt clause to no-goods store
+     * Add learnt clause to no-goods store.
+     * The clause may be removed later, when the learnt clauses are reduced (see {@link #setBudget(int, long)}).
      *
      * @param lits clause
      */
     public void addLearnt(int... lits) {
-        sat_.learnClause(lits);
+        addLearnt(true, lits);
+    }
+
+    /**
+     * Add learnt clause to no-goods store
+     *
+     * @param removable set to <tt>false</tt> if the clause is not redundant and cannot be removed when the learnt clauses
+     *                  are reduced (for instance, a clause which forbids a solution)
+     * @param lits      clause
+     */
+    public void addLearnt(boolean removable, int... lits) {
+        learn(removable, lits);
+        if (port != null && port.accepts(lits.length)) {
+            export(lits);
+        }
+    }
+
+    /**
+     * Set a budget on the removable learnt clauses of this store: each time it is exceeded, the learnt clauses are reduced
+     * to half the budget (the ones with the lowest LBD, then the most active, are kept).
+     * The default budget is given by {@link org.chocosolver.solver.Settings#getMaxLearntNogoods()} and
+     * {@link org.chocosolver.solver.Settings#getMaxLearntNogoodsBytes()}.
+     *
+     * @param maxClauses maximum number of removable learnt clauses, strictly positive
+     * @param maxBytes   maximum estimated memory used by removable learnt clauses, in bytes
+     * @see SatSolver#setLearntBudget(int, long)
+     */
+    public void setBudget(int maxClauses, long maxBytes) {
+        sat_.setLearntBudget(maxClauses, maxBytes);
+    }
+
+    /**
+     * Report the new activity of the SAT solver to the measures: nogoods removed and fired.
+     */
+    private void updateMeasures() {
+        long r = sat_.getNbRemovedLearnts(), f = sat_.getNbLearntFired();
+        if (r > nbRemoved || f > nbFired) {
+            IMeasures mMeasures = getSolver().getMeasures();
+            mMeasures.incNogoodDeletedCount(r - nbRemoved);
+            mMeasures.incNogoodFiredCount(f - nbFired);
+            nbRemoved = r;
+            nbFired = f;
+        }
+    }
+
+    private void learn(boolean removable, int... lits) {
+        getSolver().getMeasures().incNogoodAddedCount();
+        sat_.learnClause(removable, lits);
         // early deductions of learnt clause may lead to incorrect behavior on backtrack
         // since early deduction is not backtrackable.
         this.getSolver().getEngine().propagateOnBacktrack(this); // issue#327
         // compare the current clauses with the previous stored one,
         // just in case the current one dominates the previous none
         if (sat_.nLearnt() > 1) {
-            SatSolver.Clause last = sat_.learnts.get(sat_.learnts.size() - 1);
+            int last = sat_.learnts.getQuick(sat_.learnts.size() - 1);
+            int lsize = sat_.clauseSize(last);
             test_eq.clear();
-            for (int i = last.size() - 1; i >= 0; i--) {
-                test_eq.set(last._g(i));
+            for (int i = lsize - 1; i >= 0; i--) {
+                test_eq.set(sat_.clauseLiteral(last, i));
             }
+            int card = test_eq.cardinality();
             for (int c = sat_.learnts.size() - 2; c >= 0; c--) {
-                int s = test_eq.cardinality();
-                SatSolver.Clause prev = sat_.learnts.get(c);
-                if (last.size() > 1 && last.size() < prev.size()) {
-                    for (int i = prev.size() - 1; i >= 0; i--) {
-                        s -= test_eq.get(prev._g(i)) ? 1 : 0;
+                int s = card;
+                int prev = sat_.learnts.getQuick(c);
+                int psize = sat_.clauseSize(prev);
+                // a clause which cannot be removed is only replaced by a clause which cannot be removed either
+                if (lsize > 1 && lsize < psize && (!sat_.isProtected(prev) || sat_.isProtected(last))) {
+                    for (int i = psize - 1; i >= 0; i--) {
+                        s -= test_eq.get(sat_.clauseLiteral(prev, i)) ? 1 : 0;
                     }
                     if (s == 0) { // then last dominates prev
                         sat_.detachLearnt(c);
+                        getSolver().getMeasures().incNogoodDeletedCount(1);
                     }
                 }
             }
         }
+        updateMeasures();
+    }
+
+
+    /**
+     * Connects this no-good store to a channel shared with other solvers which declare the same model.
+     * From now on, the short clauses learnt by this store are exported to the channel
+     * (see {@link SharedClauses#getMaxSize()}).
+     * The clauses exported by other solvers are imported on calls to {@link #importSharedClauses()}.
+     *
+     * @param channel a channel shared with other solvers
+     */
+    public void shareLearnts(SharedClauses channel) {
+        port = channel.connect();
+    }
+
+    /**
+     * Adds to this store the clauses learnt by other solvers since the last call.
+     * A clause which refers to a variable unknown in this solver is ignored.
+     * <b>This method has to be called by the thread which runs the solver,
+     * at a point where learnt clauses can be added, for instance, before a restart.</b>
+     *
+     * @return the number of clauses imported
+     */
+    public int importSharedClauses() {
+        if (port == null) {
+            return 0;
+        }
+        int n = 0;
+        SharedClauses.Entry entry;
+        while ((entry = port.poll()) != null) {
+            int[] lits = new int[entry.size()];
+            int i = 0;
+            for (; i < lits.length; i++) {
+                IntVar ivar = lookup(entry.vars[i]);
+                if (ivar == null) {
+                    break;
+                }
+                int lit = Literal(ivar, ivalue(entry.vals[i]), iseq(entry.vals[i]));
+                lits[i] = entry.signs[i] ? lit : negated(lit);
+            }
+            if (i == lits.length) {
+                learn(true, lits);
+                n++;
+            }
+        }
+        return n;
     }
 
+    /**
+     * Exports a learnt clause in a solver-independent way.
+     *
+     * @param lits a learnt clause
+     */
+    private void export(int[] lits) {
+        int[] ids = new int[lits.length];
+        long[] vals = new long[lits.length];
+        boolean[] signs = new boolean[lits.length];
+        for (int i = 0; i < lits.length; i++) {
+            int var = var(lits[i]);
+            ids[i] = vars[lit2pos[var]].getId();
+            vals[i] = lit2val[var];
+            signs[i] = sign(lits[i]);
+        }
+        port.offer(ids, vals, signs);
+    }
+
+    /**
+     * @param id a variable id
+     * @return the integer variable of the solver with this id, or <tt>null</tt> if there is none
+     */
+    private IntVar lookup(int id) {
+        if (id2var == null) {
+            id2var = new TIntObjectHashMap<>();
+        }
+        IntVar ivar = id2var.get(id);
+        Solver solver = getSolver();
+        if (ivar == null && nbScannedVars < solver.getNbVars()) {
+            // some variables were declared since the last scan
+            for (; nbScannedVars < solver.getNbVars(); nbScannedVars++) {
+                Variable v = solver.getVar(nbScannedVars);
+                if ((v.getTypeAndKind() & Variable.INT) != 0) {
+                    id2var.put(v.getId(), (IntVar) v);
+                }
+            }
+            ivar = id2var.get(id);
+        }
+        return ivar;
+    }
 
     private void storeEarlyDeductions() {
         for (int i = 0; i < sat_.touched_variables_.size(); ++i) {
@@ -572,7 +795,7 @@ public class PropNogoods extends Propagator<IntVar> {
 
     @Override
     public boolean why(RuleStore ruleStore, IntVar ivar, IEventType evt, int ivalue) {
-        if (inClauses == null) {
+        if (inClauses == null || inClausesStamp != sat_.clausesStamp_) {
             fillInClauses();
         }
         boolean newrules = ruleStore.addPropagatorActivationRule(this);
@@ -607,16 +830,16 @@ public class PropNogoods extends Propagator<IntVar> {
         }
         // B. clauses:
         // We need to find the fully instantiated clauses where bvar appears
-        ArrayList<SatSolver.Clause> mClauses = inClauses.get(lit);
+        TIntArrayList mClauses = inClauses.get(lit);
         if (mClauses != null) {
             for (int i = mClauses.size() - 1; i >= 0; i--) {
-                newrules |= _why(mClauses.get(i), ruleStore);
+                newrules |= _whyClause(mClauses.getQuick(i), ruleStore);
             }
         }
         mClauses = inClauses.get(neg);
         if (mClauses != null) {
             for (int i = mClauses.size() - 1; i >= 0; i--) {
-                newrules |= _why(mClauses.get(i), ruleStore);
+                newrules |= _whyClause(mClauses.getQuick(i), ruleStore);
             }
         }
         // C. learnt clauses:
@@ -624,7 +847,7 @@ public class PropNogoods extends Propagator<IntVar> {
         // we cannot rely on watches_ because is not backtrackable
         // So, we iterate over clauses where the two first literal are valued AND which contains bvar
         for (int k = sat_.nLearnt() - 1; k >= 0; k--) {
-            newrules |= _why(neg, lit, sat_.learnts.get(k), ruleStore);
+            newrules |= _why(neg, lit, sat_.learnts.getQuick(k), ruleStore);
         }
         return newrules;
     }
@@ -632,46 +855,47 @@ public class PropNogoods extends Propagator<IntVar> {
     private void fillInClauses() {
         inClauses = new TIntObjectHashMap<>();
         for (int k = sat_.nClauses() - 1; k >= 0; k--) {
-            SatSolver.Clause cl = sat_.clauses.get(k);
-            for (int d = cl.size() - 1; d >= 0; d--) {
-                int l = cl._g(d);
-                ArrayList<SatSolver.Clause> mcls = inClauses.get(l);
+            int cr = sat_.clauses.getQuick(k);
+            for (int d = sat_.clauseSize(cr) - 1; d >= 0; d--) {
+                int l = sat_.clauseLiteral(cr, d);
+                TIntArrayList mcls = inClauses.get(l);
                 if (mcls == null) {
-                    mcls = new ArrayList<>();
+                    mcls = new TIntArrayList();
                     inClauses.put(l, mcls);
                 }
-                mcls.add(cl);
+                mcls.add(cr);
             }
         }
+        inClausesStamp = sat_.clausesStamp_;
     }
 
-    private boolean _why(SatSolver.Clause cl, RuleStore ruleStore) {
+    private boolean _whyClause(int cr, RuleStore ruleStore) {
         boolean newrules = false;
         // if the watched literals are instantiated
-        if (litIsKnown(cl._g(0)) && litIsKnown(cl._g(1))) {
-            for (int d = cl.size() - 1; d >= 0; d--) {
-                newrules |= _why(cl._g(d), ruleStore);
+        if (litIsKnown(sat_.clauseLiteral(cr, 0)) && litIsKnown(sat_.clauseLiteral(cr, 1))) {
+            for (int d = sat_.clauseSize(cr) - 1; d >= 0; d--) {
+                newrules |= _why(sat_.clauseLiteral(cr, d), ruleStore);
             }
         }
         return newrules;
     }
 
-    private boolean _why(int neg, int lit, SatSolver.Clause cl, RuleStore ruleStore) {
+    private boolean _why(int neg, int lit, int cr, RuleStore ruleStore) {
         boolean newrules = false;
         // if the variable watches
-        if (cl._g(0) == neg || cl._g(0) == lit || cl._g(1) == neg || cl._g(1) == lit) {
-            for (int d = cl.size() - 1; d >= 0; d--) {
-                newrules |= _why(cl._g(d), ruleStore);
+        if (sat_.clauseLiteral(cr, 0) == neg || sat_.clauseLiteral(cr, 0) == lit || sat_.clauseLiteral(cr, 1) == neg || sat_.clauseLiteral(cr, 1) == lit) {
+            for (int d = sat_.clauseSize(cr) - 1; d >= 0; d--) {
+                newrules |= _why(sat_.clauseLiteral(cr, d), ruleStore);
             }
         } else
             // if the watched literals are instantiated
-            if (litIsKnown(cl._g(0)) && litIsKnown(cl._g(1))) {
+            if (litIsKnown(sat_.clauseLiteral(cr, 0)) && litIsKnown(sat_.clauseLiteral(cr, 1))) {
                 // then, look for the lit
-                int p = cl.pos(neg);
-                int q = cl.pos(lit);
+                int p = sat_.clausePos(cr, neg);
+                int q = sat_.clausePos(cr, lit);
                 if (p > -1 || q > -1) { // we found a clause where neg is in
-                    for (int d = cl.size() - 1; d >= 0; d--) {
-                        newrules |= _why(cl._g(d), ruleStore);
+                    for (int d = sat_.clauseSize(cr) - 1; d >= 0; d--) {
+                        newrules |= _why(sat_.clauseLiteral(cr, d), ruleStore);
                     }
                 }
             }
@@ -45,8 +45,6 @@ import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 
-import java.util.ArrayList;
-
 import static org.chocosolver.solver.constraints.nary.cnf.SatSolver.*;
 
 /**
@@ -81,7 +79,12 @@ public class PropSat extends Propagator<BoolVar> {
     /**
      * Local-like parameter, for #why() method only, lazily initialized.
      */
-    TIntObjectHashMap<ArrayList<SatSolver.Clause>> inClauses;
+    TIntObjectHashMap<TIntArrayList> inClauses;
+
+    /**
+     * Value of {@link SatSolver#clausesStamp_} when {@link #inClauses} was filled.
+     */
+    int inClausesStamp;
 
     /**
      * Create a (unique) propagator for clauses recording and propagation.
@@ -156,20 +159,22 @@ public class PropSat extends Propagator<BoolVar> {
      * @param clauses list of clause
      * @return <tt>true</tt> if all clauses are satisfied, <tt>false</tt> otherwise
      */
-    private boolean clauseEntailed(ArrayList<SatSolver.Clause> clauses) {
+    private boolean clauseEntailed(TIntArrayList clauses) {
         int lit, var, val;
         boolean sign;
-        for (SatSolver.Clause c : clauses) {
+        for (int k = 0; k < clauses.size(); k++) {
+            int cr = clauses.getQuick(k);
+            int size = sat_.clauseSize(cr);
             int cnt = 0;
-            for (int i = 0; i < c.size(); i++) {
-                lit = c._g(i);
+            for (int i = 0; i < size; i++) {
+                lit = sat_.clauseLiteral(cr, i);
                 sign = sign(lit);
                 var = var(lit);
                 val = vars[var].getValue();
                 if (val == (sign ? 0 : 1)) cnt++; // if the lit is ok
                 else break;
             }
-            if (cnt == c.size()) return false;
+            if (cnt == size) return false;
         }
         return true;
     }
@@ -302,12 +307,14 @@ public class PropSat extends Propagator<BoolVar> {
     }
 
     /**
-     * Add learnt clause to SAT solver
+     * Add learnt clause to SAT solver.
+     * The clause is not redundant (for instance, it forbids a dominated solution), so it is never removed when the
+     * learnt clauses are reduced.
      *
      * @param lits clause
      */
     public void addLearnt(int... lits) {
-        sat_.learnClause(lits);
+        sat_.learnClause(false, lits);
         this.getSolver().getEngine().propagateOnBacktrack(this); // issue#327
         // early deductions of learnt clause may lead to incorrect behavior on backtrack
         // since early deduction is not backtrackable.
@@ -343,7 +350,7 @@ public class PropSat extends Propagator<BoolVar> {
 
     @Override
     public boolean why(RuleStore ruleStore, IntVar bvar, IEventType evt, int bvalue) {
-        if (inClauses == null) {
+        if (inClauses == null || inClausesStamp != sat_.clausesStamp_) {
             fillInClauses();
         }
         boolean newrules = ruleStore.addPropagatorActivationRule(this);
@@ -373,16 +380,16 @@ public class PropSat extends Propagator<BoolVar> {
         }
         // B. clauses:
         // We need to find the fully instantiated clauses where bvar appears
-        ArrayList<SatSolver.Clause> mClauses = inClauses.get(lit);
+        TIntArrayList mClauses = inClauses.get(lit);
         if (mClauses != null) {
             for (int i = mClauses.size() - 1; i >= 0; i--) {
-                newrules |= _why(mClauses.get(i), ruleStore);
+                newrules |= _whyClause(mClauses.getQuick(i), ruleStore);
             }
         }
         mClauses = inClauses.get(neg);
         if (mClauses != null) {
             for (int i = mClauses.size() - 1; i >= 0; i--) {
-                newrules |= _why(mClauses.get(i), ruleStore);
+                newrules |= _whyClause(mClauses.getQuick(i), ruleStore);
             }
         }
 
@@ -391,7 +398,7 @@ public class PropSat extends Propagator<BoolVar> {
         // we cannot rely on watches_ because is not backtrackable
         // So, we iterate over clauses where the two first literal are valued AND which contains bvar
         for (int k = sat_.nLearnt() - 1; k >= 0; k--) {
-            newrules |= _why(neg, lit, sat_.learnts.get(k), ruleStore);
+            newrules |= _why(neg, lit, sat_.learnts.getQuick(k), ruleStore);
         }
         return newrules;
     }
@@ -399,46 +406,47 @@ public class PropSat extends Propagator<BoolVar> {
     private void fillInClauses() {
         inClauses = new TIntObjectHashMap<>();
         for (int k = sat_.nClauses() - 1; k >= 0; k--) {
-            SatSolver.Clause cl = sat_.clauses.get(k);
-            for (int d = cl.size() - 1; d >= 0; d--) {
-                int l = cl._g(d);
-                ArrayList<SatSolver.Clause> mcls = inClauses.get(l);
+            int cr = sat_.clauses.getQuick(k);
+            for (int d = sat_.clauseSize(cr) - 1; d >= 0; d--) {
+                int l = sat_.clauseLiteral(cr, d);
+                TIntArrayList mcls = inClauses.get(l);
                 if (mcls == null) {
-                    mcls = new ArrayList<>();
+                    mcls = new TIntArrayList();
                     inClauses.put(l, mcls);
                 }
-                mcls.add(cl);
+                mcls.add(cr);
             }
         }
+        inClausesStamp = sat_.clausesStamp_;
     }
 
-    private boolean _why(SatSolver.Clause cl, RuleStore ruleStore) {
+    private boolean _whyClause(int cr, RuleStore ruleStore) {
         boolean newrules = false;
         // if the variable watches
-        if (vars[var(cl._g(0))].isInstantiated() && vars[var(cl._g(1))].isInstantiated()) {
-            for (int d = cl.size() - 1; d >= 0; d--) {
-                newrules |= _why(cl._g(d), ruleStore);
+        if (vars[var(sat_.clauseLiteral(cr, 0))].isInstantiated() && vars[var(sat_.clauseLiteral(cr, 1))].isInstantiated()) {
+            for (int d = sat_.clauseSize(cr) - 1; d >= 0; d--) {
+                newrules |= _why(sat_.clauseLiteral(cr, d), ruleStore);
             }
         }
         return newrules;
     }
 
-    private boolean _why(int neg, int lit, SatSolver.Clause cl, RuleStore ruleStore) {
+    private boolean _why(int neg, int lit, int cr, RuleStore ruleStore) {
         boolean newrules = false;
         // if the variable watches
-        if (cl._g(0) == neg || cl._g(0) == lit || cl._g(1) == neg || cl._g(1) == lit) {
-            for (int d = cl.size() - 1; d >= 0; d--) {
-                newrules |= _why(cl._g(d), ruleStore);
+        if (sat_.clauseLiteral(cr, 0) == neg || sat_.clauseLiteral(cr, 0) == lit || sat_.clauseLiteral(cr, 1) == neg || sat_.clauseLiteral(cr, 1) == lit) {
+            for (int d = sat_.clauseSize(cr) - 1; d >= 0; d--) {
+                newrules |= _why(sat_.clauseLiteral(cr, d), ruleStore);
             }
         } else
             // if the watched literals are instantiated
-            if (vars[var(cl._g(0))].isInstantiated() && vars[var(cl._g(1))].isInstantiated()) {
+            if (vars[var(sat_.clauseLiteral(cr, 0))].isInstantiated() && vars[var(sat_.clauseLiteral(cr, 1))].isInstantiated()) {
                 // then, look for the lit
-                int p = cl.pos(neg);
-                int q = cl.pos(lit);
+                int p = sat_.clausePos(cr, neg);
+                int q = sat_.clausePos(cr, lit);
                 if (p > -1 || q > -1) { // we found a clause where neg is in
-                    for (int d = cl.size() - 1; d >= 0; d--) {
-                        newrules |= _why(cl._g(d), ruleStore);
+                    for (int d = sat_.clauseSize(cr) - 1; d >= 0; d--) {
+                        newrules |= _why(sat_.clauseLiteral(cr, d), ruleStore);
                     }
                 }
             }
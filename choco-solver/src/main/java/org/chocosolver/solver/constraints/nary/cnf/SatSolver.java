@@ -32,21 +32,34 @@ package org.chocosolver.solver.constraints.nary.cnf;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntObjectHashMap;
+import org.chocosolver.util.sort.ArraySort;
 
-import java.util.ArrayList;
+import java.io.Serializable;
 import java.util.Arrays;
-import java.util.HashMap;
 
 /**
  * A MiniSat solver.
  * <p>
  * (or-tools, booleans.cc, ty L. Perron).
+ * <p>
+ * Clauses (but binary ones, stored in {@link #implies_}) are stored in a flat arena: a clause is referenced by its offset
+ * in {@link #arena_}, where a header (size, flags and LBD, activity) is followed by the literals.
+ * Watch lists are primitive arrays of clause references and blocking literals, indexed by literal.
+ * <p>
+ * Learnt clauses are periodically reduced: each time the number of learnt clauses reaches a threshold (which is then
+ * increased), half of them are removed, those with the highest LBD (literal block distance) first, then the least active.
+ * Clauses with an LBD of at most 2 and clauses which may currently be the reason of an assignment are kept.
+ * See {@link #setReductionPolicy(int, int)}.
+ * <p>
+ * Besides, a budget can be set on removable learnt clauses (see {@link #setLearntBudget(int, long)}): when it is exceeded,
+ * the learnt clauses are reduced to half the budget, in the same order.
+ * Learnt clauses declared as not removable (see {@link #learnClause(boolean, int...)}) are never removed.
  * <br/>
  *
  * @author Charles Prud'homme
  * @since 12/07/13
  */
-public class SatSolver {
+public class SatSolver implements Serializable {
 
 
     /**
@@ -54,20 +67,48 @@ public class SatSolver {
      */
     static final int kUndefinedLiteral = -2;
 
+    /**
+     * Size of the header of a clause in the arena: size, flags and LBD, activity
+     */
+    private static final int HEADER = 3;
+
+    /**
+     * Flags of a clause
+     */
+    private static final int LEARNT = 1, DELETED = 2, PROTECTED = 4, FLAGS = 3;
+
+    /**
+     * Activity decay factor of learnt clauses
+     */
+    private static final double CLA_DECAY = 0.999;
+
     // If false, the constraints are already unsatisfiable. No part of
     // the solver state may be used!
     boolean ok_;
-    // List of problem addClauses.
-    ArrayList<Clause> clauses;
-    // List of learnt addClauses.
-    ArrayList<Clause> learnts;
+    // References of problem addClauses.
+    TIntArrayList clauses;
+    // References of learnt addClauses.
+    TIntArrayList learnts;
+    // Clause arena: for each clause, a header followed by its literals.
+    int[] arena_;
+    // Number of used cells in 'arena_'.
+    int arenaSize_;
+    // Number of cells of 'arena_' used by deleted clauses.
+    int wasted_;
+    // Incremented each time a clause is added to 'clauses' or clause references change,
+    // to let external indices know they are outdated.
+    int clausesStamp_;
     // 'watches_[lit]' is a list of constraints watching 'lit'(will go
-    // there if literal becomes true).
-    TIntObjectHashMap<ArrayList<Watcher>> watches_;
+    // there if literal becomes true): clause references, blocking literals and size.
+    int[][] watchCrefs_;
+    int[][] watchBlockers_;
+    int[] watchSizes_;
     // implies_[lit] is a list of literals to set to true if 'lit' becomes true.
     TIntObjectHashMap<TIntArrayList> implies_;
-    // The current assignments.
-    TIntObjectHashMap<Boolean> assignment_;
+    // The current assignments, indexed by variable (see Boolean#value()).
+    byte[] assignment_;
+    // The decision level of each assigned variable.
+    int[] levels_;
     // Assignment stack; stores all assigments made in the order they
     // were made.
     TIntArrayList trail_;
@@ -81,28 +122,92 @@ public class SatSolver {
     TIntArrayList temporary_add_vector_;
     TIntArrayList touched_variables_;
 
+    // Activity increment of learnt clauses.
+    private double claInc_;
+    // Number of learnt clauses which triggers the next reduction, and its increment.
+    private int nextReduce_, reduceIncrement_;
+    // Number of reductions and number of learnt clauses removed so far.
+    private long nbReductions_, nbRemoved_;
+    // Budget of removable learnt clauses: maximum number and maximum number of arena cells.
+    private int maxLearnts_;
+    private long maxLearntCells_;
+    // Number of removable learnt clauses, and number of arena cells they use.
+    private int nbRemovable_;
+    private long removableCells_;
+    // Number of times a learnt clause became unit or conflicting.
+    private long nbLearntFired_;
+    // Local-like parameters for LBD computation and reduction.
+    private int[] lbdStamps_;
+    private int lbdStamp_;
+    private ArraySort<Object> sorter_;
+    private int sorterCapacity_;
+
 
     public SatSolver() {
         this.ok_ = true;
         this.qhead_ = 0;
         num_vars_ = 0;
-        this.clauses = new ArrayList<>();
-        this.learnts = new ArrayList<>();
-        this.watches_ = new TIntObjectHashMap<>();
+        this.clauses = new TIntArrayList();
+        this.learnts = new TIntArrayList();
+        this.arena_ = new int[1024];
+        this.watchCrefs_ = new int[16][];
+        this.watchBlockers_ = new int[16][];
+        this.watchSizes_ = new int[16];
         this.implies_ = new TIntObjectHashMap<>();
-        this.assignment_ = new TIntObjectHashMap<>();
+        this.assignment_ = new byte[8];
+        this.levels_ = new int[8];
         this.trail_ = new TIntArrayList();
         this.trail_markers_ = new TIntArrayList();
         this.temporary_add_vector_ = new TIntArrayList();
         this.touched_variables_ = new TIntArrayList();
+        this.claInc_ = 1.;
+        this.nextReduce_ = 2000;
+        this.reduceIncrement_ = 300;
+        this.maxLearnts_ = Integer.MAX_VALUE;
+        this.maxLearntCells_ = Long.MAX_VALUE;
+        this.lbdStamps_ = new int[16];
+    }
+
+    /**
+     * Set the learnt clauses reduction policy.
+     * A reduction occurs each time the number of learnt clauses reaches <code>first</code>, then
+     * <code>first</code> + <code>increment</code>, <code>first</code> + 2 * <code>increment</code>, etc.
+     * A non-positive <code>first</code> disables the reduction.
+     *
+     * @param first     number of learnt clauses which triggers the first reduction
+     * @param increment increment of the threshold after each reduction
+     */
+    public void setReductionPolicy(int first, int increment) {
+        this.nextReduce_ = first > 0 ? first : Integer.MAX_VALUE;
+        this.reduceIncrement_ = increment;
+    }
+
+    /**
+     * Set a budget on removable learnt clauses.
+     * Each time the number of removable learnt clauses exceeds <code>maxClauses</code>, or the estimated memory they use
+     * exceeds <code>maxBytes</code>, they are reduced to half the budget.
+     *
+     * @param maxClauses maximum number of removable learnt clauses, strictly positive
+     * @param maxBytes   maximum estimated memory used by removable learnt clauses (clauses and watchers), in bytes
+     */
+    public void setLearntBudget(int maxClauses, long maxBytes) {
+        if (maxClauses < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("The budget of learnt clauses must be strictly positive");
+        }
+        this.maxLearnts_ = maxClauses;
+        // a clause uses its header and its literals in the arena, plus two watchers (reference and blocker)
+        this.maxLearntCells_ = maxBytes / Integer.BYTES;
     }
 
     // Add a new variable.
     public int newVariable() {
         int v = incrementVariableCounter();
-//            watches_.resize(2 * v + 2);
-//        implies_.resize(2 * v.value() + 2);
-        assignment_.put(v, Boolean.kUndefined);
+        if (v >= assignment_.length) {
+            int size = Math.max(v + 1, assignment_.length * 3 / 2);
+            assignment_ = Arrays.copyOf(assignment_, size);
+            levels_ = Arrays.copyOf(levels_, size);
+        }
+        assignment_[v] = Boolean.kUndefined.value;
         return v;
     }
 
@@ -167,8 +272,9 @@ public class SatSolver {
                 i1.add(l0);
                 break;
             default:
-                Clause cr = new Clause(ps.toArray());
+                int cr = allocate(ps.toArray(), false);
                 clauses.add(cr);
+                clausesStamp_++;
                 attachClause(cr);
                 break;
 
@@ -177,6 +283,17 @@ public class SatSolver {
     }
 
     public boolean learnClause(int... ps) {
+        return learnClause(true, ps);
+    }
+
+    /**
+     * Learn a clause.
+     *
+     * @param removable set to <tt>false</tt> if the clause cannot be removed by reductions
+     * @param ps        the literals of the clause
+     * @return <tt>false</tt> if the solver is known to be unsatisfiable
+     */
+    public boolean learnClause(boolean removable, int... ps) {
         Arrays.sort(ps);
         switch (ps.length) {
             case 0:
@@ -185,9 +302,25 @@ public class SatSolver {
                 dynUncheckedEnqueue(ps[0]);
                 return (ok_ = propagate());
             default:
-                Clause cr = new Clause(ps);
+                if (nbRemovable_ >= nextReduce_) {
+                    nextReduce_ += reduceIncrement_;
+                    reduceDB(nbRemovable_ / 2, Long.MAX_VALUE, true);
+                }
+                int cr = allocate(ps, true);
+                setLBD(cr, computeLBD(cr));
+                bumpClause(cr);
                 learnts.add(cr);
                 attachClause(cr);
+                claInc_ /= CLA_DECAY;
+                if (removable) {
+                    nbRemovable_++;
+                    removableCells_ += cells(cr);
+                    if (nbRemovable_ > maxLearnts_ || removableCells_ > maxLearntCells_) {
+                        reduceDB(Math.min(nbRemovable_, maxLearnts_) / 2, Math.min(removableCells_, maxLearntCells_) / 2, false);
+                    }
+                } else {
+                    arena_[cr + 1] |= PROTECTED;
+                }
                 break;
         }
         return true;
@@ -234,7 +367,7 @@ public class SatSolver {
         if (trailMarker() > level) {
             for (int c = trail_.size() - 1; c >= trail_markers_.get(level); c--) {
                 int x = var(trail_.get(c));
-                assignment_.put(x, Boolean.kUndefined);
+                assignment_[x] = Boolean.kUndefined.value;
             }
             qhead_ = trail_markers_.get(level);
             trail_.remove(trail_markers_.get(level), trail_.size() - trail_markers_.get(level));
@@ -249,13 +382,18 @@ public class SatSolver {
 
     // The current value of a variable.
     Boolean valueVar(int x) {
-        return assignment_.get(x);
+        return Boolean.make(assignment_[x]);
     }
 
     // The current value of a literal.
     Boolean valueLit(int l) {
-        Boolean b = assignment_.get(var(l));
-        return b == Boolean.kUndefined ? Boolean.kUndefined : xor(b, sign(l));
+        return Boolean.make(value(l));
+    }
+
+    // The current value of a literal, as a byte (see Boolean#value()).
+    private byte value(int l) {
+        byte b = assignment_[var(l)];
+        return b == 2 ? b : (byte) (b ^ (l & 1));
     }
 
     // The current number of original clauses.
@@ -286,7 +424,8 @@ public class SatSolver {
         pushTrailMarker();
         // Unchecked enqueue
         assert valueLit(lit) == Boolean.kUndefined;
-        assignment_.put(var(lit), makeBoolean(!sign(lit)));
+        assignment_[var(lit)] = makeBoolean(!sign(lit)).value;
+        levels_[var(lit)] = trailMarker();
         trail_.add(lit);
         return propagate();
     }
@@ -304,10 +443,11 @@ public class SatSolver {
     // Enqueue a literal. Assumes value of literal is undefined.
     void uncheckedEnqueue(int l) {
         assert valueLit(l) == Boolean.kUndefined;
-        if (assignment_.get(var(l)) == Boolean.kUndefined) {
+        if (assignment_[var(l)] == Boolean.kUndefined.value) {
             touched_variables_.add(l);
         }
-        assignment_.put(var(l), sign(l) ? Boolean.kFalse : Boolean.kTrue);
+        assignment_[var(l)] = sign(l) ? Boolean.kFalse.value : Boolean.kTrue.value;
+        levels_[var(l)] = trailMarker();
         trail_.add(l);
     }
 
@@ -326,41 +466,274 @@ public class SatSolver {
         }
     }
 
-    // Attach a clause to watcher lists.
-    void attachClause(Clause cr) {
-        assert cr.size() > 1;
-        ArrayList<Watcher> l0 = watches_.get(negated(cr._g(0)));
-        if (l0 == null) {
-            l0 = new ArrayList<>();
-            watches_.put(negated(cr._g(0)), l0);
-        }
-        ArrayList<Watcher> l1 = watches_.get(negated(cr._g(1)));
-        if (l1 == null) {
-            l1 = new ArrayList<>();
-            watches_.put(negated(cr._g(1)), l1);
+    //***********************************************************************************
+    // CLAUSE ARENA
+    //***********************************************************************************
+
+    // Store a clause in the arena, returns its reference.
+    private int allocate(int[] ps, boolean learnt) {
+        int cr = arenaSize_;
+        int need = cr + HEADER + ps.length;
+        if (need > arena_.length) {
+            arena_ = Arrays.copyOf(arena_, Math.max(need, arena_.length * 3 / 2));
         }
-        l0.add(new Watcher(cr, cr._g(1)));
-        l1.add(new Watcher(cr, cr._g(0)));
+        arena_[cr] = ps.length;
+        arena_[cr + 1] = learnt ? LEARNT : 0;
+        arena_[cr + 2] = Float.floatToRawIntBits(0f);
+        System.arraycopy(ps, 0, arena_, cr + HEADER, ps.length);
+        arenaSize_ = need;
+        return cr;
     }
 
-    public void detachLearnt(int ci) {
-        Clause cr = learnts.get(ci);
-        learnts.remove(ci);
+    // Number of literals of the clause 'cr'.
+    int clauseSize(int cr) {
+        return arena_[cr];
+    }
 
-        ArrayList<Watcher> ws = watches_.get(negated(cr._g(0)));
-        int i = ws.size() - 1;
-        while (i >= 0 && ws.get(i).clause != cr) {
+    // The i^th literal of the clause 'cr'.
+    int clauseLiteral(int cr, int i) {
+        return arena_[cr + HEADER + i];
+    }
+
+    // Position of 'l' in the clause 'cr', -1 if absent.
+    int clausePos(int cr, int l) {
+        int i = arena_[cr] - 1;
+        while (i >= 0 && arena_[cr + HEADER + i] != l) {
             i--;
         }
-        assert i > -1;
-        ws.remove(i);
-        ws = watches_.get(negated(cr._g(1)));
-        i = ws.size() - 1;
-        while (i >= 0 && ws.get(i).clause != cr) {
+        return i;
+    }
+
+    // The literals of the clause 'cr'.
+    int[] clauseLiterals(int cr) {
+        return Arrays.copyOfRange(arena_, cr + HEADER, cr + HEADER + arena_[cr]);
+    }
+
+    private boolean isDeleted(int cr) {
+        return (arena_[cr + 1] & DELETED) != 0;
+    }
+
+    private boolean isLearnt(int cr) {
+        return (arena_[cr + 1] & LEARNT) != 0;
+    }
+
+    // Return true if the learnt clause 'cr' cannot be removed.
+    boolean isProtected(int cr) {
+        return (arena_[cr + 1] & PROTECTED) != 0;
+    }
+
+    // Estimated number of cells used by the clause 'cr': header, literals and two watchers.
+    private int cells(int cr) {
+        return HEADER + arena_[cr] + 4;
+    }
+
+    // The literal block distance of the learnt clause 'cr'.
+    int getLBD(int cr) {
+        return arena_[cr + 1] >>> FLAGS;
+    }
+
+    private void setLBD(int cr, int lbd) {
+        arena_[cr + 1] = (arena_[cr + 1] & ((1 << FLAGS) - 1)) | (lbd << FLAGS);
+    }
+
+    // The activity of the learnt clause 'cr'.
+    float getActivity(int cr) {
+        return Float.intBitsToFloat(arena_[cr + 2]);
+    }
+
+    private void bumpClause(int cr) {
+        float a = (float) (getActivity(cr) + claInc_);
+        arena_[cr + 2] = Float.floatToRawIntBits(a);
+        if (a > 1e20) {
+            // rescale
+            for (int i = learnts.size() - 1; i >= 0; i--) {
+                int c = learnts.getQuick(i);
+                arena_[c + 2] = Float.floatToRawIntBits(getActivity(c) * 1e-20f);
+            }
+            arena_[cr + 2] = Float.floatToRawIntBits(getActivity(cr) * 1e-20f);
+            claInc_ *= 1e-20;
+        }
+    }
+
+    // Number of distinct decision levels of the assigned literals of 'cr', unassigned literals count for one level.
+    private int computeLBD(int cr) {
+        if (++lbdStamp_ == Integer.MAX_VALUE) {
+            Arrays.fill(lbdStamps_, 0);
+            lbdStamp_ = 1;
+        }
+        int lbd = 0;
+        boolean unassigned = false;
+        for (int i = cr + HEADER, end = i + arena_[cr]; i < end; i++) {
+            int x = var(arena_[i]);
+            if (assignment_[x] == Boolean.kUndefined.value) {
+                unassigned = true;
+            } else {
+                int l = levels_[x];
+                if (l >= lbdStamps_.length) {
+                    lbdStamps_ = Arrays.copyOf(lbdStamps_, Math.max(l + 1, lbdStamps_.length * 3 / 2));
+                }
+                if (lbdStamps_[l] != lbdStamp_) {
+                    lbdStamps_[l] = lbdStamp_;
+                    lbd++;
+                }
+            }
+        }
+        return unassigned ? lbd + 1 : lbd;
+    }
+
+    // A clause is locked when it may be the reason of an assignment: all its literals are assigned and at most one is true.
+    private boolean isLocked(int cr) {
+        int nbTrue = 0;
+        for (int i = cr + HEADER, end = i + arena_[cr]; i < end; i++) {
+            byte v = value(arena_[i]);
+            if (v == Boolean.kUndefined.value || (v == Boolean.kTrue.value && ++nbTrue > 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Reduce the removable learnt clauses to 'keep' clauses and 'keepCells' cells: the ones with the lowest LBD are kept
+    // first, then the most active ones. Clauses which may be the reason of an assignment are always kept,
+    // glue clauses too, when 'glue' is set to true.
+    private void reduceDB(int keep, long keepCells, boolean glue) {
+        nbReductions_++;
+        int n = learnts.size();
+        if (sorterCapacity_ < n) {
+            sorterCapacity_ = Math.max(n, sorterCapacity_ * 3 / 2);
+            sorter_ = new ArraySort<>(sorterCapacity_, false, true);
+        }
+        int[] crefs = learnts.toArray();
+        sorter_.sort(crefs, n, (c1, c2) -> {
+            int c = Integer.compare(getLBD(c1), getLBD(c2));
+            if (c == 0) {
+                c = Float.compare(getActivity(c2), getActivity(c1));
+            }
+            return c;
+        });
+        int kept = 0;
+        long keptCells = 0;
+        for (int i = 0; i < n; i++) {
+            int cr = crefs[i];
+            if (isProtected(cr)) {
+                continue;
+            }
+            if ((kept < keep && keptCells + cells(cr) <= keepCells) || (glue && getLBD(cr) <= 2) || isLocked(cr)) {
+                kept++;
+                keptCells += cells(cr);
+            } else {
+                arena_[cr + 1] |= DELETED;
+                wasted_ += HEADER + arena_[cr];
+                nbRemoved_++;
+            }
+        }
+        nbRemovable_ = kept;
+        removableCells_ = keptCells;
+        // the remaining clauses keep their chronological order
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            int cr = learnts.getQuick(i);
+            if (!isDeleted(cr)) {
+                learnts.setQuick(j++, cr);
+            }
+        }
+        if (j < n) {
+            learnts.remove(j, n - j);
+        }
+        // remove the watchers of the deleted clauses
+        for (int l = 0; l < watchSizes_.length; l++) {
+            int[] ws = watchCrefs_[l];
+            int[] bs = watchBlockers_[l];
+            int k = 0;
+            for (int i = 0; i < watchSizes_[l]; i++) {
+                if (!isDeleted(ws[i])) {
+                    ws[k] = ws[i];
+                    bs[k++] = bs[i];
+                }
+            }
+            watchSizes_[l] = k;
+        }
+        if (wasted_ > arenaSize_ / 2) {
+            garbageCollect();
+        }
+    }
+
+    // Compact the arena, clause references are updated.
+    private void garbageCollect() {
+        int[] to = new int[Math.max(1024, arenaSize_ - wasted_)];
+        int size = 0;
+        for (TIntArrayList list : new TIntArrayList[]{clauses, learnts}) {
+            for (int i = 0; i < list.size(); i++) {
+                int cr = list.getQuick(i);
+                int len = HEADER + arena_[cr];
+                System.arraycopy(arena_, cr, to, size, len);
+                // forwarding reference
+                arena_[cr + 2] = size;
+                list.setQuick(i, size);
+                size += len;
+            }
+        }
+        for (int l = 0; l < watchSizes_.length; l++) {
+            int[] ws = watchCrefs_[l];
+            for (int i = 0; i < watchSizes_[l]; i++) {
+                ws[i] = arena_[ws[i] + 2];
+            }
+        }
+        arena_ = to;
+        arenaSize_ = size;
+        wasted_ = 0;
+        clausesStamp_++;
+    }
+
+    // Attach a clause to watcher lists.
+    void attachClause(int cr) {
+        assert clauseSize(cr) > 1;
+        addWatch(negated(clauseLiteral(cr, 0)), cr, clauseLiteral(cr, 1));
+        addWatch(negated(clauseLiteral(cr, 1)), cr, clauseLiteral(cr, 0));
+    }
+
+    private void addWatch(int l, int cr, int blocker) {
+        if (l >= watchSizes_.length) {
+            int size = Math.max(l + 1, watchSizes_.length * 3 / 2);
+            watchCrefs_ = Arrays.copyOf(watchCrefs_, size);
+            watchBlockers_ = Arrays.copyOf(watchBlockers_, size);
+            watchSizes_ = Arrays.copyOf(watchSizes_, size);
+        }
+        int s = watchSizes_[l];
+        if (watchCrefs_[l] == null) {
+            watchCrefs_[l] = new int[4];
+            watchBlockers_[l] = new int[4];
+        } else if (s == watchCrefs_[l].length) {
+            watchCrefs_[l] = Arrays.copyOf(watchCrefs_[l], s * 3 / 2 + 1);
+            watchBlockers_[l] = Arrays.copyOf(watchBlockers_[l], s * 3 / 2 + 1);
+        }
+        watchCrefs_[l][s] = cr;
+        watchBlockers_[l][s] = blocker;
+        watchSizes_[l]++;
+    }
+
+    private void removeWatch(int l, int cr) {
+        int[] ws = watchCrefs_[l];
+        int i = watchSizes_[l] - 1;
+        while (i >= 0 && ws[i] != cr) {
             i--;
         }
         assert i > -1;
-        ws.remove(i);
+        System.arraycopy(ws, i + 1, ws, i, watchSizes_[l] - i - 1);
+        System.arraycopy(watchBlockers_[l], i + 1, watchBlockers_[l], i, watchSizes_[l] - i - 1);
+        watchSizes_[l]--;
+    }
+
+    public void detachLearnt(int ci) {
+        int cr = learnts.removeAt(ci);
+        removeWatch(negated(clauseLiteral(cr, 0)), cr);
+        removeWatch(negated(clauseLiteral(cr, 1)), cr);
+        if (!isProtected(cr)) {
+            nbRemovable_--;
+            removableCells_ -= cells(cr);
+        }
+        arena_[cr + 1] |= DELETED;
+        wasted_ += HEADER + arena_[cr];
     }
 
     // Perform unit propagation. returns true upon success.
@@ -380,74 +753,83 @@ public class SatSolver {
     private boolean propagateClauses(int p) {
         boolean result = true;
         // 'p' is enqueued fact to propagate.
-        ArrayList<Watcher> ws = watches_.get(p);
-
+        if (p >= watchSizes_.length || watchCrefs_[p] == null) {
+            return true;
+        }
+        final int[] ws = watchCrefs_[p];
+        final int[] bs = watchBlockers_[p];
+        final int n = watchSizes_[p];
+        final int false_lit = negated(p);
+        final byte kTrue = Boolean.kTrue.value;
         int i = 0;
         int j = 0;
-        while (ws != null && i < ws.size()) {
+        while (i < n) {
             // Try to avoid inspecting the clause:
-            int blocker = ws.get(i).blocker;
-            if (valueLit(blocker) == Boolean.kTrue) {
-                ws.set(j++, ws.get(i++));
+            int blocker = bs[i];
+            if (value(blocker) == kTrue) {
+                ws[j] = ws[i];
+                bs[j++] = bs[i++];
                 continue;
             }
 
             // Make sure the false literal is data[1]:
-            Clause cr = ws.get(i).clause;
-            final int false_lit = negated(p);
-            if (cr._g(0) == false_lit) {
-                cr._s(0, cr._g(1));
-                cr._s(1, false_lit);
+            int cr = ws[i];
+            int c0 = cr + HEADER;
+            if (arena_[c0] == false_lit) {
+                arena_[c0] = arena_[c0 + 1];
+                arena_[c0 + 1] = false_lit;
             }
-            assert (cr._g(1) == false_lit);
+            assert (arena_[c0 + 1] == false_lit);
             i++;
 
             // If 0th watch is true, then clause is already satisfied.
-            final int first = cr._g(0);
-            Watcher w = new Watcher(cr, first);
-            if (first != blocker && valueLit(first) == Boolean.kTrue) {
-                ws.set(j++, w);
+            final int first = arena_[c0];
+            if (first != blocker && value(first) == kTrue) {
+                ws[j] = cr;
+                bs[j++] = first;
                 continue;
             }
 
             // Look for new watch:
             boolean cont = false;
-            for (int k = 2; k < cr.size(); k++) {
-                if (valueLit(cr._g(k)) != Boolean.kFalse) {
-                    cr._s(1, cr._g(k));
-                    cr._s(k, false_lit);
-                    ArrayList<Watcher> lw = watches_.get(negated(cr._g(1)));
-                    if (lw == null) {
-                        lw = new ArrayList<>();
-                        watches_.put(negated(cr._g(1)), lw);
-                    }
-                    lw.add(w);
+            for (int k = c0 + 2, end = c0 + arena_[cr]; k < end; k++) {
+                if (value(arena_[k]) != Boolean.kFalse.value) {
+                    arena_[c0 + 1] = arena_[k];
+                    arena_[k] = false_lit;
+                    addWatch(negated(arena_[c0 + 1]), cr, first);
                     cont = true;
                     break;
                 }
             }
+            if (cont) {
+                continue;
+            }
 
             // Did not find watch -- clause is unit under assignment:
-            if (!cont) {
-                ws.set(j++, w);
-                if (valueLit(first) == Boolean.kFalse) {
-                    result = false;
-                    qhead_ = trail_.size();
-                    // Copy the remaining watches_:
-                    while (i < ws.size()) {
-                        ws.set(j++, ws.get(i++));
-                    }
-                    touched_variables_.add(first);
-                } else {
-                    uncheckedEnqueue(first);
+            ws[j] = cr;
+            bs[j++] = first;
+            if (isLearnt(cr)) {
+                nbLearntFired_++;
+                bumpClause(cr);
+                int lbd = computeLBD(cr);
+                if (lbd < getLBD(cr)) {
+                    setLBD(cr, lbd);
                 }
             }
-        }
-        if (ws != null) {
-            for (int k = ws.size() - 1; k >= j; k--) {
-                ws.remove(k);
+            if (value(first) == Boolean.kFalse.value) {
+                result = false;
+                qhead_ = trail_.size();
+                // Copy the remaining watches_:
+                while (i < n) {
+                    ws[j] = ws[i];
+                    bs[j++] = bs[i++];
+                }
+                touched_variables_.add(first);
+            } else {
+                uncheckedEnqueue(first);
             }
         }
+        watchSizes_[p] = j;
         return result;
     }
 
@@ -515,64 +897,6 @@ public class SatSolver {
     }
 
 
-    /**
-     * Clause -- a simple class for representing a clause
-     * <br/>
-     *
-     * @author Charles Prud'homme, Laurent Perron
-     * @since 12/07/13
-     */
-    class Clause {
-        private int[] literals_;
-
-        public Clause(int[] ps) {
-            literals_ = ps.clone();
-        }
-
-        int size() {
-            return literals_.length;
-        }
-
-        int _g(int i) {
-            return literals_[i];
-        }
-
-        int _s(int pos, int l) {
-            return literals_[pos] = l;
-        }
-
-        int pos(int l) {
-            int i = literals_.length - 1;
-            while (i >= 0 && literals_[i] != l) {
-                i--;
-            }
-            return i;
-        }
-
-        public String toString() {
-            return Arrays.toString(literals_);
-        }
-    }
-
-    /**
-     * // A watcher represent a clause attached to a literal.
-     * <br/>
-     * (or-tools, booleans.cc, ty L. Perron).
-     *
-     * @author Charles Prud'homme
-     * @since 12/07/13
-     */
-    class Watcher {
-
-        Clause clause;
-        int blocker;
-
-        public Watcher(final Clause cr, int l) {
-            this.clause = cr;
-            this.blocker = l;
-        }
-    }
-
     /**
      * <br/>
      * (or-tools, booleans.cc, ty L. Perron).
@@ -618,9 +942,8 @@ public class SatSolver {
         this.touched_variables_.addAll(o.touched_variables_);
         this.temporary_add_vector_.resetQuick();
         this.temporary_add_vector_.addAll(o.temporary_add_vector_);
-        for (int k : o.assignment_.keys()) {
-            this.assignment_.putIfAbsent(k, o.assignment_.get(k));
-        }
+        this.assignment_ = o.assignment_.clone();
+        this.levels_ = o.levels_.clone();
         for (int k : o.implies_.keys()) {
             TIntArrayList tl = this.implies_.get(k);
             if(tl == null){
@@ -631,28 +954,31 @@ public class SatSolver {
             }
             tl.addAll(o.implies_.get(k));
         }
-        final HashMap<Clause, Clause> map = new HashMap<>();
-        this.clauses.clear();
-        for (Clause cl : o.clauses) {
-            Clause _cl = new Clause(cl.literals_);
-            map.put(cl, _cl);
-            this.clauses.add(_cl);
-        }
-        this.learnts.clear();
-        for (Clause cl : o.learnts) {
-            Clause _cl = new Clause(cl.literals_);
-            map.put(cl, _cl);
-            this.learnts.add(_cl);
-        }
-        this.watches_.clear();
-        for (int k : o.watches_.keys()) {
-            ArrayList<Watcher> ws = o.watches_.get(k);
-            ArrayList<Watcher> _ws = new ArrayList<>(ws.size());
-            for (Watcher w : ws) {
-                _ws.add(new Watcher(map.get(w.clause), w.blocker));
+        // clause references are offsets, they can be copied as is
+        this.arena_ = o.arena_.clone();
+        this.arenaSize_ = o.arenaSize_;
+        this.wasted_ = o.wasted_;
+        this.clausesStamp_++;
+        this.clauses.resetQuick();
+        this.clauses.addAll(o.clauses);
+        this.learnts.resetQuick();
+        this.learnts.addAll(o.learnts);
+        this.watchSizes_ = o.watchSizes_.clone();
+        this.watchCrefs_ = new int[o.watchCrefs_.length][];
+        this.watchBlockers_ = new int[o.watchBlockers_.length][];
+        for (int l = 0; l < watchSizes_.length; l++) {
+            if (o.watchCrefs_[l] != null) {
+                this.watchCrefs_[l] = o.watchCrefs_[l].clone();
+                this.watchBlockers_[l] = o.watchBlockers_[l].clone();
             }
-            this.watches_.put(k, _ws);
         }
+        this.claInc_ = o.claInc_;
+        this.nextReduce_ = o.nextReduce_;
+        this.reduceIncrement_ = o.reduceIncrement_;
+        this.maxLearnts_ = o.maxLearnts_;
+        this.maxLearntCells_ = o.maxLearntCells_;
+        this.nbRemovable_ = o.nbRemovable_;
+        this.removableCells_ = o.removableCells_;
     }
 
     public long nbclauses() {
@@ -663,4 +989,32 @@ public class SatSolver {
         return num_vars_;
     }
 
+    /**
+     * @return the number of learnt clauses reductions done so far
+     */
+    public long getNbReductions() {
+        return nbReductions_;
+    }
+
+    /**
+     * @return the number of learnt clauses removed by reductions so far
+     */
+    public long getNbRemovedLearnts() {
+        return nbRemoved_;
+    }
+
+    /**
+     * @return the number of times a learnt clause became unit or conflicting so far
+     */
+    public long getNbLearntFired() {
+        return nbLearntFired_;
+    }
+
+    /**
+     * @return the estimated memory used by the removable learnt clauses, in bytes
+     */
+    public long getRemovableLearntBytes() {
+        return removableCells_ * Integer.BYTES;
+    }
+
 }
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.cnf;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free channel through which solvers running in parallel on the same model exchange learnt clauses.
+ * <p>
+ * A clause is exported in a solver-independent way: each literal is a couple (variable, value),
+ * where the variable is identified by its id (see {@link org.chocosolver.solver.variables.Variable#getId()}),
+ * together with the relation ('=' or '&le;') and the sign of the literal.
+ * Only short clauses are exported, that is, those with at most {@link #getMaxSize()} literals.
+ * <p>
+ * Clauses are appended to a single linked log, and each solver reads it through its own {@link Port},
+ * from its own thread, at safe points of its search loop (see {@link PropNogoods#importSharedClauses()}).
+ * Neither publishing nor reading blocks, and a solver never reads its own clauses.
+ * Clauses read by every port are garbage collected.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public final class SharedClauses implements Serializable {
+
+    /**
+     * Maximum number of literals of an exported clause
+     */
+    private final int maxSize;
+
+    /**
+     * The last clause of the log
+     */
+    private final AtomicReference<Entry> tail;
+
+    /**
+     * To identify ports
+     */
+    private final AtomicInteger nbPorts;
+
+    /**
+     * Number of exported clauses
+     */
+    private final AtomicLong nbExported;
+
+    /**
+     * Number of imported clauses
+     */
+    private final AtomicLong nbImported;
+
+    /**
+     * Creates a channel which exports clauses of at most <i>maxSize</i> literals.
+     *
+     * @param maxSize maximum number of literals of an exported clause
+     */
+    public SharedClauses(int maxSize) {
+        this.maxSize = maxSize;
+        this.tail = new AtomicReference<>(new Entry(-1, new int[0], new long[0], new boolean[0]));
+        this.nbPorts = new AtomicInteger();
+        this.nbExported = new AtomicLong();
+        this.nbImported = new AtomicLong();
+    }
+
+    /**
+     * Creates a new access point to the channel, to be used by one solver only.
+     * The port only reads clauses published after its creation.
+     *
+     * @return a new port
+     */
+    public Port connect() {
+        return new Port(nbPorts.getAndIncrement(), tail.get());
+    }
+
+    /**
+     * @return the maximum number of literals of an exported clause
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of clauses exported so far
+     */
+    public long getNbExported() {
+        return nbExported.get();
+    }
+
+    /**
+     * @return the number of clauses imported so far, by any port
+     */
+    public long getNbImported() {
+        return nbImported.get();
+    }
+
+    /**
+     * Appends a clause to the log.
+     *
+     * @param entry a clause
+     */
+    private void publish(Entry entry) {
+        nbExported.incrementAndGet();
+        Entry last = tail.getAndSet(entry);
+        // readers may not see the clause until the link is set, they will read it later
+        last.next = entry;
+    }
+
+    /**
+     * A clause of the log.
+     * The <i>i</i>th literal is: <code>vars[i]</code> (=|&le;) <code>vals[i]</code>, negated if <code>signs[i]</code> is false,
+     * where '&le;' is encoded in the value as in {@link PropNogoods}.
+     */
+    static final class Entry implements Serializable {
+        final int origin;
+        final int[] vars;
+        final long[] vals;
+        final boolean[] signs;
+        // not serialized: a copy of a solver does not receive the clauses published afterward
+        transient volatile Entry next;
+
+        Entry(int origin, int[] vars, long[] vals, boolean[] signs) {
+            this.origin = origin;
+            this.vars = vars;
+            this.vals = vals;
+            this.signs = signs;
+        }
+
+        int size() {
+            return vars.length;
+        }
+    }
+
+    /**
+     * The access point of a solver to the channel.
+     * A port is not thread-safe: it should only be used by the thread which runs its solver.
+     */
+    public final class Port implements Serializable {
+
+        /**
+         * Identifies clauses published by this port
+         */
+        private final int id;
+
+        /**
+         * The last entry read
+         */
+        private Entry last;
+
+        private Port(int id, Entry last) {
+            this.id = id;
+            this.last = last;
+        }
+
+        /**
+         * @return the channel this port is connected to
+         */
+        public SharedClauses getChannel() {
+            return SharedClauses.this;
+        }
+
+        /**
+         * @param size number of literals of a clause
+         * @return <tt>true</tt> if a clause of <i>size</i> literals is exported
+         */
+        boolean accepts(int size) {
+            return size <= maxSize;
+        }
+
+        /**
+         * Exports a clause, the arrays must not be modified afterward.
+         */
+        void offer(int[] vars, long[] vals, boolean[] signs) {
+            publish(new Entry(id, vars, vals, signs));
+        }
+
+        /**
+         * @return the next clause published by another port, or <tt>null</tt> if there is none
+         */
+        Entry poll() {
+            Entry next;
+            while ((next = last.next) != null) {
+                last = next;
+                if (next.origin != id) {
+                    nbImported.incrementAndGet();
+                    return next;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -29,14 +29,15 @@
  */
 package org.chocosolver.solver.explanations;
 
-import gnu.trove.set.hash.THashSet;
 import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.util.PoolManager;
 
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -60,9 +61,23 @@ public class Explanation {
     private Rules rules;
 
     /**
-     * Possibly empty (see {@link #saveCauses}) set of causes related to this explanation
+     * Possibly empty (see {@link #saveCauses}) set of causes related to this explanation,
+     * stored in [0, {@link #nbCauses}[.
      */
-    private final THashSet<ICause> causes;
+    private ICause[] causes;
+
+    /**
+     * Number of causes related to this explanation
+     */
+    private int nbCauses;
+
+    /**
+     * Position in {@link #causes} of propagators, indexed by their ID ({@link Propagator#getId()}).
+     * The position of a propagator is only valid when it points to the propagator itself, so that the set is cleared
+     * in constant time and without allocation.
+     * The position of the other causes is found by a linear scan (there are few of them).
+     */
+    private int[] positions;
 
     /**
      * Set of decisions related to this explanation.
@@ -88,7 +103,8 @@ public class Explanation {
      * @param saveCauses set to <tt>true</tt> to store causes in this explanation
      */
     Explanation(PoolManager<Explanation> explanationPool, boolean saveCauses) {
-        this.causes = new THashSet<>();
+        this.causes = new ICause[8];
+        this.positions = new int[16];
         this.decisions = new BitSet();
         this.saveCauses = saveCauses;
         this.explanationPool = explanationPool;
@@ -102,7 +118,50 @@ public class Explanation {
      * @return true if this was an unknown cause
      */
     public boolean addCause(ICause cause) {
-        return saveCauses && causes.add(cause);
+        return saveCauses && add(cause);
+    }
+
+    /**
+     * Return the position of <code>cause</code> in {@link #causes}, or -1 if it is unknown
+     */
+    private int indexOf(ICause cause) {
+        if (cause instanceof Propagator) {
+            int id = ((Propagator) cause).getId();
+            if (id < positions.length) {
+                int p = positions[id];
+                if (p < nbCauses && causes[p] == cause) {
+                    return p;
+                }
+            }
+        } else {
+            for (int p = 0; p < nbCauses; p++) {
+                if (causes[p] == cause) {
+                    return p;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add a cause, whatever {@link #saveCauses} is
+     */
+    private boolean add(ICause cause) {
+        if (indexOf(cause) > -1) {
+            return false;
+        }
+        if (nbCauses == causes.length) {
+            causes = Arrays.copyOf(causes, nbCauses * 3 / 2 + 1);
+        }
+        if (cause instanceof Propagator) {
+            int id = ((Propagator) cause).getId();
+            if (id >= positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(id + 1, positions.length * 3 / 2 + 1));
+            }
+            positions[id] = nbCauses;
+        }
+        causes[nbCauses++] = cause;
+        return true;
     }
 
     /**
@@ -121,7 +180,7 @@ public class Explanation {
      * @return an int
      */
     public int nbCauses() {
-        return causes.size();
+        return nbCauses;
     }
 
     /**
@@ -139,8 +198,8 @@ public class Explanation {
      * @param explanation a given explanation
      */
     public void addCausesAndDecisions(Explanation explanation) {
-        if (explanation.nbCauses() > 0) {
-            this.causes.addAll(explanation.causes);
+        for (int i = 0; i < explanation.nbCauses; i++) {
+            add(explanation.causes[i]);
         }
         if (explanation.nbDecisions() > 0) {
             this.decisions.or(explanation.decisions);
@@ -163,7 +222,17 @@ public class Explanation {
      * @return true if the explanation changed
      */
     public boolean remove(ICause cause) {
-        return causes.remove(cause);
+        int p = indexOf(cause);
+        if (p == -1) {
+            return false;
+        }
+        ICause last = causes[--nbCauses];
+        causes[p] = last;
+        causes[nbCauses] = null;
+        if (last instanceof Propagator) {
+            positions[((Propagator) last).getId()] = p;
+        }
+        return true;
     }
 
     /**
@@ -188,7 +257,19 @@ public class Explanation {
      */
     @SuppressWarnings("unused")
     public Set<ICause> getCauses() {
-        return Collections.unmodifiableSet(causes);
+        Set<ICause> set = new HashSet<>();
+        Collections.addAll(set, Arrays.copyOf(causes, nbCauses));
+        return Collections.unmodifiableSet(set);
+    }
+
+    /**
+     * Return the i^th cause of this explanation, in order to iterate over the causes without allocation
+     *
+     * @param i an index in [0, {@link #nbCauses()}[
+     * @return a cause
+     */
+    public ICause getCause(int i) {
+        return causes[i];
     }
 
     /**
@@ -245,7 +326,7 @@ public class Explanation {
     public String toString() {
         StringBuilder st = new StringBuilder("Explanation ");
         if (saveCauses) {
-            st.append(Arrays.toString(causes.toArray()));
+            st.append(Arrays.toString(Arrays.copyOf(causes, nbCauses)));
         }
         st.append(decisions);
         if (rules != null) {
@@ -259,7 +340,8 @@ public class Explanation {
      */
     public void recycle() {
         evtstrIdx = 0;
-        causes.clear();
+        Arrays.fill(causes, 0, nbCauses, null);
+        nbCauses = 0;
         decisions.clear();
         rules.clear();
         explanationPool.returnE(this);
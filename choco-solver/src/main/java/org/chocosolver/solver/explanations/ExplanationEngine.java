@@ -33,8 +33,8 @@ import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.ContradictionException;
-import org.chocosolver.solver.explanations.store.ArrayEventStore;
 import org.chocosolver.solver.explanations.store.IEventStore;
+import org.chocosolver.solver.explanations.store.IndexedEventStore;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.FilteringMonitor;
@@ -58,6 +58,10 @@ public class ExplanationEngine implements FilteringMonitor {
     private final boolean enablePartialExplanation;
     private final Solver mSolver;
     PoolManager<Explanation> explanationPool;
+    private int[] heap; // max-heap of the indices of the events to analyze
+    private int heapSize;
+    private int level; // index of the first event of the current decision level, for 1-UIP, -1 otherwise
+    private int nAbove; // number of events in the heap with an index greater or equal to level
 
 
     /**
@@ -67,13 +71,25 @@ public class ExplanationEngine implements FilteringMonitor {
      * @param recordCauses set to <tt>true</tt> to record causes in explanations, <tt>false</tt> otherwise
      */
     public ExplanationEngine(Solver solver, boolean partialExplanationsOn, boolean recordCauses) {
+        this(solver, partialExplanationsOn, recordCauses, new IndexedEventStore(solver.getEnvironment()));
+    }
+
+    /**
+     * Create an explanation engine based on a rule store and a given event store
+     * @param solver                   a solver
+     * @param partialExplanationsOn set to <tt>true</tt> to enable partial explanations, <tt>false</tt> otherwise
+     * @param recordCauses set to <tt>true</tt> to record causes in explanations, <tt>false</tt> otherwise
+     * @param eventStore the event store, an {@link IndexedEventStore} avoids scanning all the events on analysis
+     */
+    public ExplanationEngine(Solver solver, boolean partialExplanationsOn, boolean recordCauses, IEventStore eventStore) {
         this.mSolver = solver;
         this.saveCauses = recordCauses;
         this.enablePartialExplanation = partialExplanationsOn;
-        eventStore = new ArrayEventStore(solver.getEnvironment());
+        this.eventStore = eventStore;
         ruleStore = new RuleStore(solver, saveCauses, enablePartialExplanation);
         solver.set(this);
         this.explanationPool = new PoolManager<>();
+        this.heap = new int[16];
     }
 
     /**
@@ -93,25 +109,160 @@ public class ExplanationEngine implements FilteringMonitor {
      */
     public Explanation explain(ContradictionException cex) {
         Explanation explanation = makeExplanation(saveCauses);
-        ruleStore.init(explanation);
+        init(explanation, cex);
+        analyze(explanation, eventStore.getSize() - 1, 0, true);
+        if (!enablePartialExplanation) {
+            explanation.getRules().clear(); // not required, for assertion purpose only
+        }
+        return explanation;
+    }
 
+    /**
+     * Initialize the rule store with <code>explanation</code> and add the rules explaining the failure <code>cex</code>.
+     * The events are not analyzed yet.
+     *
+     * @param explanation an explanation, freshly created
+     * @param cex         the failure to explain
+     */
+    public void init(Explanation explanation, ContradictionException cex) {
+        ruleStore.init(explanation);
         if (cex.v != null) {
             ruleStore.addFullDomainRule((IntVar) cex.v);
         } else {
             explanation.addCause(cex.c); // otherwise, we could miss it ;)
             cex.c.why(ruleStore, null, IntEventType.VOID, 0);
         }
-        int i = eventStore.getSize() - 1;
-        while (i > -1 && !ruleStore.isPreemptedStop()) {
-            if (ruleStore.match(i, eventStore)) {
-                ruleStore.update(i, eventStore, explanation);
+    }
+
+    /**
+     * Analyze backward the events of the event store, from <code>from</code> down to <code>to</code> (both included),
+     * and update the rule store and <code>explanation</code> for each event matching a rule.
+     * The rule store must have been initialized with <code>explanation</code> beforehand.
+     * <p>
+     * When the event store is an {@link IndexedEventStore}, only the events of the variables with a rule,
+     * and the propagator activations, are visited: the last event of each of these variables is stored in a max-heap,
+     * and when an event is analyzed, the previous event on the same variable replaces it.
+     * A variable which gets a rule during the analysis is added to the heap.
+     * Otherwise, all the events are visited.
+     * In both cases, the events are analyzed in decreasing order of index.
+     *
+     * @param explanation the explanation to compute
+     * @param from        index of the first event to analyze
+     * @param to          index of the last event to analyze
+     * @param preemptable set to <tt>true</tt> to stop the analysis as soon as the rule store allows it
+     */
+    public void analyze(Explanation explanation, int from, int to, boolean preemptable) {
+        analyze(explanation, from, to, preemptable, -1);
+    }
+
+    /**
+     * Analyze backward the events of the event store, like {@link #analyze(Explanation, int, int, boolean)},
+     * but may stop at a cut of the implication graph.
+     * <p>
+     * When <code>level</code> is positive and the event store is an {@link IndexedEventStore},
+     * the analysis stops, after an event of index greater or equal to <code>level</code> has been analyzed,
+     * as soon as at most one variable with a rule (or propagator activation) still has an event to analyze
+     * in [<code>level</code>, <code>from</code>].
+     * Taking <code>level</code> as the index of the first event of the current decision level,
+     * this is a candidate for the first unique implication point (1-UIP).
+     * The analysis can be resumed by calling this method again with <code>from</code> set to the returned index minus one.
+     *
+     * @param explanation the explanation to compute
+     * @param from        index of the first event to analyze
+     * @param to          index of the last event to analyze
+     * @param preemptable set to <tt>true</tt> to stop the analysis as soon as the rule store allows it
+     * @param level       index of the first event of the current decision level, or -1 to analyze all the events
+     * @return the smallest index <i>c</i> such that all the events in [<i>c</i>, <code>from</code>] have been analyzed
+     * (that is, <code>to</code> when the analysis was not stopped at a cut)
+     */
+    public int analyze(Explanation explanation, int from, int to, boolean preemptable, int level) {
+        if (eventStore instanceof IndexedEventStore) {
+            IndexedEventStore store = (IndexedEventStore) eventStore;
+            Rules rules = explanation.getRules();
+            heapSize = 0;
+            nAbove = 0;
+            this.level = level;
+            rules.clearAdded();
+            for (int vid = rules.nextVmRule(0); vid > -1; vid = rules.nextVmRule(vid + 1)) {
+                offer(store.getLastEvent(vid, from + 1), to);
+            }
+            offer(store.getLastActivation(from + 1), to);
+            int last = -1;
+            while (heapSize > 0 && !(preemptable && ruleStore.isPreemptedStop())) {
+                int i = poll();
+                if (i == last) {
+                    continue; // a variable may have been offered twice, if its rule was removed then added again
+                }
+                last = i;
+                if (ruleStore.match(i, eventStore)) {
+                    ruleStore.update(i, eventStore, explanation);
+                    // the rules may have been merged in another set, that is why they are read again
+                    rules = explanation.getRules();
+                    for (int k = 0; k < rules.getNbAdded(); k++) {
+                        offer(store.getLastEvent(rules.getAdded(k), i), to);
+                    }
+                    rules.clearAdded();
+                }
+                offer(store.getPrevious(i), to);
+                if (level >= 0 && i >= level && nAbove <= 1) {
+                    return i;
+                }
+            }
+        } else {
+            int i = from;
+            while (i >= to && !(preemptable && ruleStore.isPreemptedStop())) {
+                if (ruleStore.match(i, eventStore)) {
+                    ruleStore.update(i, eventStore, explanation);
+                }
+                i--;
+            }
+        }
+        return to;
+    }
+
+    private void offer(int evt, int to) {
+        if (evt >= to) {
+            if (heapSize == heap.length) {
+                int[] tmp = heap;
+                heap = new int[heapSize * 3 / 2 + 1];
+                System.arraycopy(tmp, 0, heap, 0, heapSize);
+            }
+            if (level >= 0 && evt >= level) {
+                nAbove++;
+            }
+            int pos = heapSize++;
+            while (pos > 0) {
+                int parent = (pos - 1) >> 1;
+                if (heap[parent] >= evt) {
+                    break;
+                }
+                heap[pos] = heap[parent];
+                pos = parent;
             }
-            i--;
+            heap[pos] = evt;
         }
-        if (!enablePartialExplanation) {
-            explanation.getRules().clear(); // not required, for assertion purpose only
+    }
+
+    private int poll() {
+        int top = heap[0];
+        if (level >= 0 && top >= level) {
+            nAbove--;
         }
-        return explanation;
+        int last = heap[--heapSize];
+        int pos = 0;
+        int child;
+        while ((child = (pos << 1) + 1) < heapSize) {
+            if (child + 1 < heapSize && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= last) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = last;
+        return top;
     }
 
     public Explanation makeExplanation(boolean saveCauses) {
@@ -418,6 +418,10 @@ public class RuleStore {
             System.arraycopy(tmp, 0, decRefut, 0, tmp.length);
         }
         assert explanation == null || w >= explanation.getDecisions().length();
+        if (decRefut[w] != null && decRefut[w] != explanation) {
+            // the previous one is related to a decision which is not in the current branch anymore
+            decRefut[w].recycle();
+        }
         decRefut[w] = explanation;
     }
 
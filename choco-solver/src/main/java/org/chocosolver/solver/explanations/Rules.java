@@ -71,6 +71,16 @@ public class Rules {
      */
     private NoIteratorIntHashSet[] remVal;
 
+    /**
+     * Stores the variables ({@link Variable#getId()}) added to {@link #vmRules} since the last call to {@link #clearAdded()}
+     */
+    private int[] added;
+
+    /**
+     * Number of variables in {@link #added}
+     */
+    private int nbAdded;
+
     /**
      * Creates a set of rules for {@link RuleStore}.
      * It stores events related to an explanation.
@@ -82,6 +92,7 @@ public class Rules {
         this.vmRules = new BitSet();
         this.vmMasks = new int[i1];
         this.remVal = new NoIteratorIntHashSet[i2];
+        this.added = new int[16];
     }
 
     /**
@@ -180,6 +191,12 @@ public class Rules {
         if (!vmRules.get(vid)) {
             vmMasks[vid] = mask;
             vmRules.set(vid);
+            if (nbAdded == added.length) {
+                int[] tmp = added;
+                added = new int[nbAdded * 3 / 2 + 1];
+                System.arraycopy(tmp, 0, added, 0, nbAdded);
+            }
+            added[nbAdded++] = vid;
             return true;
         } else {
             int amount = (cmask | mask) - cmask;
@@ -188,6 +205,38 @@ public class Rules {
         }
     }
 
+    /**
+     * @return the number of variables which got a rule since the last call to {@link #clearAdded()}
+     */
+    public int getNbAdded() {
+        return nbAdded;
+    }
+
+    /**
+     * @param i an index in [0, {@link #getNbAdded()}[
+     * @return the ID of the i^th variable which got a rule since the last call to {@link #clearAdded()}
+     */
+    public int getAdded(int i) {
+        return added[i];
+    }
+
+    /**
+     * Forget the variables which got a rule up to now (their rules are kept)
+     */
+    public void clearAdded() {
+        nbAdded = 0;
+    }
+
+    /**
+     * Iterate over the variables which have a rule
+     *
+     * @param from a variable ID
+     * @return the smallest ID greater or equal to <code>from</code> of a variable which has a rule, -1 if none
+     */
+    public int nextVmRule(int from) {
+        return vmRules.nextSetBit(from);
+    }
+
     /**
      * Clear this
      */
@@ -197,6 +246,7 @@ public class Rules {
             if (i < remVal.length && remVal[i] != null) remVal[i].clear();
         }
         vmRules.clear();
+        nbAdded = 0;
     }
 
     /**
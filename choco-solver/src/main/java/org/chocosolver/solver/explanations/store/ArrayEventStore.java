@@ -35,23 +35,45 @@ import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IEventType;
 
+import java.util.Arrays;
+
 /**
+ * An event store where events are stored in parallel arrays (one per field of an event).
+ * <p>
+ * The arrays are split into chunks of {@link #CHUNK_SIZE} events: when the store is full, a new chunk is added
+ * and the previous ones are neither copied nor released.
+ * So, once the store has reached its maximum size, pushing events does not allocate anymore.
+ * <p>
  * Created by cprudhom on 13/11/14.
  * Project: choco.
  */
 public class ArrayEventStore implements IEventStore {
 
-    private static final int SIZE = 128;
+    /**
+     * Log2 of the number of events per chunk.
+     */
+    static final int SHIFT = 10;
+
+    /**
+     * Number of events per chunk.
+     */
+    static final int CHUNK_SIZE = 1 << SHIFT;
+
+    /**
+     * To get the position of an event in its chunk.
+     */
+    static final int MASK = CHUNK_SIZE - 1;
 
     //*****************************************//
     // STRUCTURES DEDICATED TO EVENT RECORDING //
     //*****************************************//
-    IntVar[] varChunks;   // to store variables, in chronological order
-    ICause[] cauChunks;   // to store causes, in chronological order
-    IEventType[] masChunks;// to store masks, in chronological order
-    int[] val1Chunks;     // to store values, in chronological order
-    int[] val2Chunks;     // to store values, in chronological order
-    int[] val3Chunks;     // to store values, in chronological order
+    IntVar[][] varChunks;   // to store variables, in chronological order
+    ICause[][] cauChunks;   // to store causes, in chronological order
+    IEventType[][] masChunks;// to store masks, in chronological order
+    int[][] val1Chunks;     // to store values, in chronological order
+    int[][] val2Chunks;     // to store values, in chronological order
+    int[][] val3Chunks;     // to store values, in chronological order
+    int nbChunks;           // number of allocated chunks
 
     IStateInt size;
 
@@ -59,56 +81,52 @@ public class ArrayEventStore implements IEventStore {
         size = env.makeInt(0);
         size._set(0, 0); // to force history manually -- required when created during the search
 
-        varChunks = new IntVar[SIZE];
-        cauChunks = new ICause[SIZE];
-        masChunks = new IEventType[SIZE];
-        val1Chunks = new int[SIZE];
-        val2Chunks = new int[SIZE];
-        val3Chunks = new int[SIZE];
+        varChunks = new IntVar[4][];
+        cauChunks = new ICause[4][];
+        masChunks = new IEventType[4][];
+        val1Chunks = new int[4][];
+        val2Chunks = new int[4][];
+        val3Chunks = new int[4][];
+        increase();
     }
 
     public void pushEvent(IntVar var, ICause cause, IEventType mask, int one, int two, int three) {
         //        assert cause != Cause.Null : "cause null";
         int idx = size.get();
-        if (idx >= varChunks.length) {
+        int c = idx >>> SHIFT;
+        if (c == nbChunks) {
             increase();
         }
-        varChunks[idx] = var;
-        cauChunks[idx] = cause;
-        masChunks[idx] = mask;
-        val1Chunks[idx] = one;
-        val2Chunks[idx] = two;
-        val3Chunks[idx] = three;
+        int o = idx & MASK;
+        varChunks[c][o] = var;
+        cauChunks[c][o] = cause;
+        masChunks[c][o] = mask;
+        val1Chunks[c][o] = one;
+        val2Chunks[c][o] = two;
+        val3Chunks[c][o] = three;
         size.add(1);
     }
 
+    /**
+     * Adds a chunk, only the (small) arrays of chunks are copied.
+     */
     private void increase() {
-        int oldCapacity = varChunks.length;
-        int newCapacity = oldCapacity + (oldCapacity >> 1);
-
-        IntVar[] varBigger = new IntVar[newCapacity];
-        System.arraycopy(varChunks, 0, varBigger, 0, oldCapacity);
-        varChunks = varBigger;
-
-        ICause[] cauBigger = new ICause[newCapacity];
-        System.arraycopy(cauChunks, 0, cauBigger, 0, oldCapacity);
-        cauChunks = cauBigger;
-
-        IEventType[] masBigger = new IEventType[newCapacity];
-        System.arraycopy(masChunks, 0, masBigger, 0, oldCapacity);
-        masChunks = masBigger;
-
-        int[] valBigger = new int[newCapacity];
-        System.arraycopy(val1Chunks, 0, valBigger, 0, oldCapacity);
-        val1Chunks = valBigger;
-
-        valBigger = new int[newCapacity];
-        System.arraycopy(val2Chunks, 0, valBigger, 0, oldCapacity);
-        val2Chunks = valBigger;
-
-        valBigger = new int[newCapacity];
-        System.arraycopy(val3Chunks, 0, valBigger, 0, oldCapacity);
-        val3Chunks = valBigger;
+        if (nbChunks == varChunks.length) {
+            int ncap = nbChunks * 2;
+            varChunks = Arrays.copyOf(varChunks, ncap);
+            cauChunks = Arrays.copyOf(cauChunks, ncap);
+            masChunks = Arrays.copyOf(masChunks, ncap);
+            val1Chunks = Arrays.copyOf(val1Chunks, ncap);
+            val2Chunks = Arrays.copyOf(val2Chunks, ncap);
+            val3Chunks = Arrays.copyOf(val3Chunks, ncap);
+        }
+        varChunks[nbChunks] = new IntVar[CHUNK_SIZE];
+        cauChunks[nbChunks] = new ICause[CHUNK_SIZE];
+        masChunks[nbChunks] = new IEventType[CHUNK_SIZE];
+        val1Chunks[nbChunks] = new int[CHUNK_SIZE];
+        val2Chunks[nbChunks] = new int[CHUNK_SIZE];
+        val3Chunks[nbChunks] = new int[CHUNK_SIZE];
+        nbChunks++;
     }
 
     public int getSize() {
@@ -116,27 +134,27 @@ public class ArrayEventStore implements IEventStore {
     }
 
     public IntVar getVariable(int evt) {
-        return varChunks[evt];
+        return varChunks[evt >>> SHIFT][evt & MASK];
     }
 
     public IEventType getEventType(int evt) {
-        return masChunks[evt];
+        return masChunks[evt >>> SHIFT][evt & MASK];
     }
 
     public ICause getCause(int evt) {
-        return cauChunks[evt];
+        return cauChunks[evt >>> SHIFT][evt & MASK];
     }
 
     public int getFirstValue(int evt) {
-        return val1Chunks[evt];
+        return val1Chunks[evt >>> SHIFT][evt & MASK];
     }
 
     public int getSecondValue(int evt) {
-        return val2Chunks[evt];
+        return val2Chunks[evt >>> SHIFT][evt & MASK];
     }
 
     public int getThirdValue(int evt) {
-        return val3Chunks[evt];
+        return val3Chunks[evt >>> SHIFT][evt & MASK];
     }
 
 }
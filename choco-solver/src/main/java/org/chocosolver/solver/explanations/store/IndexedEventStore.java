@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.explanations.store;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+
+import java.util.Arrays;
+
+/**
+ * An event store which also links each event to the previous event on the same variable.
+ * Propagator activations ({@link PropagatorEventType#FULL_PROPAGATION}) are linked together, in a distinct chain.
+ * <p>
+ * Thus, the events related to a given variable can be visited backward without scanning the whole store
+ * (see {@link org.chocosolver.solver.explanations.ExplanationEngine#analyze}).
+ * <p>
+ * The size of the store is backtrackable, but the links are not: on backtrack, the events beyond the size are lazily
+ * unlinked (in reverse chronological order) before a new event is pushed or before the links are read.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class IndexedEventStore extends ArrayEventStore {
+
+    /**
+     * Index of the previous event on the same variable (or the previous activation), -1 if none.
+     */
+    private int[][] prevChunks;
+
+    /**
+     * Index of the last linked event of each variable, indexed by variable ID, -1 if none.
+     */
+    private int[] lastOfVar;
+
+    /**
+     * Index of the last linked activation, -1 if none.
+     */
+    private int lastActivation;
+
+    /**
+     * Number of linked events, may be greater than the size of the store after a backtrack.
+     */
+    private int linked;
+
+    public IndexedEventStore(IEnvironment env) {
+        super(env);
+        prevChunks = new int[varChunks.length][];
+        lastOfVar = new int[16];
+        Arrays.fill(lastOfVar, -1);
+        lastActivation = -1;
+        linked = 0;
+    }
+
+    @Override
+    public void pushEvent(IntVar var, ICause cause, IEventType mask, int one, int two, int three) {
+        int idx = size.get();
+        unlink(idx);
+        super.pushEvent(var, cause, mask, one, two, three);
+        int c = idx >>> SHIFT;
+        if (c == prevChunks.length) {
+            prevChunks = Arrays.copyOf(prevChunks, varChunks.length);
+        }
+        if (prevChunks[c] == null) {
+            prevChunks[c] = new int[CHUNK_SIZE];
+        }
+        if (mask == PropagatorEventType.FULL_PROPAGATION) {
+            prevChunks[c][idx & MASK] = lastActivation;
+            lastActivation = idx;
+        } else {
+            int vid = var.getId();
+            if (vid >= lastOfVar.length) {
+                int osize = lastOfVar.length;
+                lastOfVar = Arrays.copyOf(lastOfVar, Math.max(vid + 1, osize * 3 / 2));
+                Arrays.fill(lastOfVar, osize, lastOfVar.length, -1);
+            }
+            prevChunks[c][idx & MASK] = lastOfVar[vid];
+            lastOfVar[vid] = idx;
+        }
+        linked = idx + 1;
+    }
+
+    /**
+     * Unlinks, in reverse chronological order, the events stored beyond <code>to</code>.
+     *
+     * @param to the number of events to keep linked
+     */
+    private void unlink(int to) {
+        while (linked > to) {
+            int idx = --linked;
+            if (getEventType(idx) == PropagatorEventType.FULL_PROPAGATION) {
+                lastActivation = getPrevious(idx);
+            } else {
+                lastOfVar[getVariable(idx).getId()] = getPrevious(idx);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the last event on the variable <code>vid</code> strictly before <code>before</code>.
+     *
+     * @param vid    ID of a variable
+     * @param before an index in the store
+     * @return an event index, or -1 if there is no such event
+     */
+    public int getLastEvent(int vid, int before) {
+        unlink(size.get());
+        int idx = vid < lastOfVar.length ? lastOfVar[vid] : -1;
+        while (idx >= before) {
+            idx = getPrevious(idx);
+        }
+        return idx;
+    }
+
+    /**
+     * Returns the index of the last propagator activation strictly before <code>before</code>.
+     *
+     * @param before an index in the store
+     * @return an event index, or -1 if there is no such event
+     */
+    public int getLastActivation(int before) {
+        unlink(size.get());
+        int idx = lastActivation;
+        while (idx >= before) {
+            idx = getPrevious(idx);
+        }
+        return idx;
+    }
+
+    /**
+     * Returns the index of the previous event on the same variable as <code>evt</code>,
+     * or the previous activation if <code>evt</code> is a propagator activation.
+     *
+     * @param evt an event index, strictly lower than the size of the store
+     * @return an event index, or -1 if there is no such event
+     */
+    public int getPrevious(int evt) {
+        return prevChunks[evt >>> SHIFT][evt & MASK];
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.objective;
+
+import org.chocosolver.solver.ResolutionPolicy;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe channel which stores the best objective value known by a set of solvers running in parallel.
+ * <p>
+ * A solver <i>offers</i> the value of each of its solutions to the channel, which is kept only if it improves the
+ * current one (wrt the resolution policy).
+ * Each solver then <i>polls</i> the channel from its own thread and only at safe points of its search loop,
+ * so that its {@link ObjectiveManager} is never modified by a foreign thread.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public final class SharedBound implements Serializable {
+
+    /**
+     * The best known bound, <tt>null</tt> while no solution has been found.
+     */
+    private final AtomicReference<Number> bound = new AtomicReference<>();
+
+    /**
+     * Offers a new objective value to the channel.
+     * The value is recorded only if it improves the current best known one.
+     *
+     * @param policy the resolution policy, among {@link ResolutionPolicy#MINIMIZE} and {@link ResolutionPolicy#MAXIMIZE}
+     * @param value  the objective value of a new solution
+     * @return <tt>true</tt> if <i>value</i> is the new best known bound, <tt>false</tt> otherwise
+     */
+    public boolean offer(ResolutionPolicy policy, Number value) {
+        Number current;
+        do {
+            current = bound.get();
+            if (current != null && !improves(policy, value, current)) {
+                return false;
+            }
+        } while (!bound.compareAndSet(current, value));
+        return true;
+    }
+
+    /**
+     * Offers the best solution value of <i>om</i> to the channel.
+     *
+     * @param om an objective manager, of an optimization problem
+     * @return <tt>true</tt> if the value is the new best known bound, <tt>false</tt> otherwise
+     * @see #offer(ResolutionPolicy, Number)
+     */
+    public boolean offer(ObjectiveManager om) {
+        return om.isOptimization() && offer(om.getPolicy(), om.getBestSolutionValue());
+    }
+
+    /**
+     * Updates the best bound of <i>om</i> with the current best known bound, if any.
+     * <b>This method has to be called by the thread which runs the solver that owns <i>om</i>.</b>
+     *
+     * @param om an objective manager
+     */
+    @SuppressWarnings("unchecked")
+    public void poll(ObjectiveManager om) {
+        Number b = bound.get();
+        if (b != null) {
+            switch (om.getPolicy()) {
+                case MAXIMIZE:
+                    om.updateBestLB(b);
+                    break;
+                case MINIMIZE:
+                    om.updateBestUB(b);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @return the best known bound, or <tt>null</tt> if no solution has been found yet
+     */
+    public Number get() {
+        return bound.get();
+    }
+
+    /**
+     * Clears the best known bound
+     */
+    public void reset() {
+        bound.set(null);
+    }
+
+    private static boolean improves(ResolutionPolicy policy, Number value, Number current) {
+        switch (policy) {
+            case MAXIMIZE:
+                return value.doubleValue() > current.doubleValue();
+            case MINIMIZE:
+                return value.doubleValue() < current.doubleValue();
+            default:
+                return false;
+        }
+    }
+}
@@ -139,6 +139,14 @@ public interface IPropagationEngine extends Serializable {
     default void fails(ICause cause, Variable variable, String message) throws ContradictionException {
     }
 
+    /**
+     * @return the object which records per-propagator statistics, or null if profiling is disabled
+     * (see {@link org.chocosolver.solver.Settings#getPropagationProfilingPeriod()})
+     */
+    default PropagationProfiler getProfiler() {
+        return null;
+    }
+
     default ContradictionException getContradictionException() {
         throw new UnsupportedOperationException("no propagation engine has been defined");
     }
@@ -30,6 +30,7 @@
 package org.chocosolver.solver.propagation;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.propagation.hardcoded.DensePropagatorEngine;
 import org.chocosolver.solver.propagation.hardcoded.SevenQueuesPropagatorEngine;
 import org.chocosolver.solver.propagation.hardcoded.TwoBucketPropagationEngine;
 
@@ -66,6 +67,17 @@ public enum PropagationEngineFactory {
         }
     },
 
+    /**
+     * Create a seven queue propagator-oriented propagation engine, like {@link #PROPAGATORDRIVEN_7QD},
+     * but with a dense memory layout: no map lookup, int queues and a flat array of event masks.
+     */
+    PROPAGATORDRIVEN_7QD_DENSE() {
+        @Override
+        public IPropagationEngine make(Solver solver) {
+            return new DensePropagatorEngine(solver);
+        }
+    },
+
     DEFAULT() {
         @Override
         public IPropagationEngine make(Solver solver) {
@@ -0,0 +1,343 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records, for each propagator, the number of fine and coarse calls, the time spent in it,
+ * the number of domain modifications it caused and the number of times it failed.
+ * <p>
+ * Calls are counted exactly, but the time is only measured on one call out of <code>period</code>:
+ * the time of a propagator is then estimated from the time of its sampled calls.
+ * A propagator whose calls are never sampled has an estimated time of 0.
+ * <p>
+ * A profiler is created by the propagation engine when {@link org.chocosolver.solver.Settings#getPropagationProfilingPeriod()}
+ * is strictly positive, and is available from {@link IPropagationEngine#getProfiler()}.
+ * See also {@link org.chocosolver.solver.trace.Chatterbox#printPropagationProfile(org.chocosolver.solver.Solver)}.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class PropagationProfiler implements Serializable {
+
+    /**
+     * The header of the CSV output.
+     */
+    public static final String CSV_HEADER = "id;propagator;constraint;fineCalls;coarseCalls;time(ns);reductions;fails;";
+
+    /**
+     * One call out of <code>period</code> is timed.
+     */
+    private final int period;
+
+    /**
+     * Number of calls since the last timed one.
+     */
+    private int tick;
+
+    /**
+     * Number of nested calls (a propagator may force its own propagation).
+     */
+    private int depth;
+
+    /**
+     * Observed propagators, indexed by their ID.
+     */
+    private Propagator[] propagators;
+    private long[] fineCalls;
+    private long[] coarseCalls;
+    private long[] sampledCalls;
+    private long[] sampledNanos;
+    private long[] reductions;
+    private long[] fails;
+
+    /**
+     * Creates a profiler.
+     *
+     * @param period one call out of <code>period</code> is timed, must be strictly positive
+     */
+    public PropagationProfiler(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("The sampling period of the profiler must be strictly positive");
+        }
+        this.period = period;
+        this.propagators = new Propagator[16];
+        this.fineCalls = new long[16];
+        this.coarseCalls = new long[16];
+        this.sampledCalls = new long[16];
+        this.sampledNanos = new long[16];
+        this.reductions = new long[16];
+        this.fails = new long[16];
+    }
+
+    private int index(Propagator propagator) {
+        int id = propagator.getId();
+        if (id >= propagators.length) {
+            int size = Math.max(id + 1, propagators.length * 3 / 2);
+            propagators = Arrays.copyOf(propagators, size);
+            fineCalls = Arrays.copyOf(fineCalls, size);
+            coarseCalls = Arrays.copyOf(coarseCalls, size);
+            sampledCalls = Arrays.copyOf(sampledCalls, size);
+            sampledNanos = Arrays.copyOf(sampledNanos, size);
+            reductions = Arrays.copyOf(reductions, size);
+            fails = Arrays.copyOf(fails, size);
+        }
+        propagators[id] = propagator;
+        return id;
+    }
+
+    //***********************************************************************************
+    // RECORDING
+    //***********************************************************************************
+
+    /**
+     * Calls {@link Propagator#propagate(int, int)} and records it.
+     */
+    public void propagate(Propagator propagator, int idxVarInProp, int mask) throws ContradictionException {
+        int id = index(propagator);
+        fineCalls[id]++;
+        if (depth == 0 && ++tick == period) {
+            tick = 0;
+            long start = System.nanoTime();
+            try {
+                depth++;
+                propagator.propagate(idxVarInProp, mask);
+            } catch (ContradictionException cex) {
+                fails[id]++;
+                throw cex;
+            } finally {
+                depth--;
+                sampledNanos[id] += System.nanoTime() - start;
+                sampledCalls[id]++;
+            }
+        } else {
+            try {
+                depth++;
+                propagator.propagate(idxVarInProp, mask);
+            } catch (ContradictionException cex) {
+                if (depth == 1) {
+                    fails[id]++;
+                }
+                throw cex;
+            } finally {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Calls {@link Propagator#propagate(int)} and records it.
+     */
+    public void propagate(Propagator propagator, int evtmask) throws ContradictionException {
+        int id = index(propagator);
+        coarseCalls[id]++;
+        if (depth == 0 && ++tick == period) {
+            tick = 0;
+            long start = System.nanoTime();
+            try {
+                depth++;
+                propagator.propagate(evtmask);
+            } catch (ContradictionException cex) {
+                fails[id]++;
+                throw cex;
+            } finally {
+                depth--;
+                sampledNanos[id] += System.nanoTime() - start;
+                sampledCalls[id]++;
+            }
+        } else {
+            try {
+                depth++;
+                propagator.propagate(evtmask);
+            } catch (ContradictionException cex) {
+                if (depth == 1) {
+                    fails[id]++;
+                }
+                throw cex;
+            } finally {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Records a domain modification.
+     *
+     * @param cause the cause of the modification, only propagators are recorded
+     */
+    public void onVariableUpdate(ICause cause) {
+        if (cause instanceof Propagator) {
+            reductions[index((Propagator) cause)]++;
+        }
+    }
+
+    //***********************************************************************************
+    // ACCESSORS
+    //***********************************************************************************
+
+    private long get(long[] values, Propagator propagator) {
+        int id = propagator.getId();
+        return id < values.length ? values[id] : 0;
+    }
+
+    /**
+     * @return the number of calls to {@link Propagator#propagate(int, int)} of <code>propagator</code>
+     */
+    public long getFineCalls(Propagator propagator) {
+        return get(fineCalls, propagator);
+    }
+
+    /**
+     * @return the number of calls to {@link Propagator#propagate(int)} of <code>propagator</code>
+     */
+    public long getCoarseCalls(Propagator propagator) {
+        return get(coarseCalls, propagator);
+    }
+
+    /**
+     * @return the estimated time spent in <code>propagator</code>, in nanoseconds
+     */
+    public long getTime(Propagator propagator) {
+        long sampled = get(sampledCalls, propagator);
+        if (sampled == 0) {
+            return 0;
+        }
+        long calls = getFineCalls(propagator) + getCoarseCalls(propagator);
+        return (long) (get(sampledNanos, propagator) * ((double) calls / sampled));
+    }
+
+    /**
+     * @return the number of domain modifications caused by <code>propagator</code>
+     */
+    public long getReductions(Propagator propagator) {
+        return get(reductions, propagator);
+    }
+
+    /**
+     * @return the number of times <code>propagator</code> failed
+     */
+    public long getFails(Propagator propagator) {
+        return get(fails, propagator);
+    }
+
+    /**
+     * @return the sampling period of this profiler
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return the observed propagators, sorted by decreasing estimated time then decreasing number of calls
+     */
+    public List<Propagator> getPropagators() {
+        List<Propagator> list = new ArrayList<>();
+        for (int i = 0; i < propagators.length; i++) {
+            if (propagators[i] != null) {
+                list.add(propagators[i]);
+            }
+        }
+        list.sort((p1, p2) -> {
+            int c = Long.compare(getTime(p2), getTime(p1));
+            if (c == 0) {
+                c = Long.compare(getFineCalls(p2) + getCoarseCalls(p2), getFineCalls(p1) + getCoarseCalls(p1));
+            }
+            return c;
+        });
+        return list;
+    }
+
+    /**
+     * Resets all the counters.
+     */
+    public void reset() {
+        Arrays.fill(propagators, null);
+        Arrays.fill(fineCalls, 0);
+        Arrays.fill(coarseCalls, 0);
+        Arrays.fill(sampledCalls, 0);
+        Arrays.fill(sampledNanos, 0);
+        Arrays.fill(reductions, 0);
+        Arrays.fill(fails, 0);
+        tick = 0;
+    }
+
+    //***********************************************************************************
+    // OUTPUT
+    //***********************************************************************************
+
+    private static String propagatorName(Propagator propagator) {
+        String name = propagator.getClass().getSimpleName();
+        return name.isEmpty() ? propagator.getClass().getName() : name;
+    }
+
+    private static String constraintName(Propagator propagator) {
+        return propagator.getConstraint() == null ? "" : propagator.getConstraint().getName();
+    }
+
+    /**
+     * Outputs the profile, one line per propagator, sorted by decreasing estimated time.
+     *
+     * @param out the stream to print in
+     */
+    public void print(PrintStream out) {
+        out.printf("- Propagation profile (1 call out of %d timed)\n", period);
+        out.printf("\t%-8s %-32s %-16s %12s %12s %12s %12s %10s\n",
+                "id", "propagator", "constraint", "fine", "coarse", "time (ms)", "reductions", "fails");
+        for (Propagator p : getPropagators()) {
+            out.printf("\t%-8d %-32s %-16s %12d %12d %12.3f %12d %10d\n",
+                    p.getId(), propagatorName(p), constraintName(p),
+                    getFineCalls(p), getCoarseCalls(p), getTime(p) / 1e6, getReductions(p), getFails(p));
+        }
+    }
+
+    /**
+     * Outputs the profile in CSV, one line per propagator, sorted by decreasing estimated time.
+     * The header is {@link #CSV_HEADER}.
+     *
+     * @param out the stream to print in
+     */
+    public void printCSV(PrintStream out) {
+        out.println(CSV_HEADER);
+        for (Propagator p : getPropagators()) {
+            out.printf("%d;%s;%s;%d;%d;%d;%d;%d;\n",
+                    p.getId(), propagatorName(p), constraintName(p),
+                    getFineCalls(p), getCoarseCalls(p), getTime(p), getReductions(p), getFails(p));
+        }
+    }
+}
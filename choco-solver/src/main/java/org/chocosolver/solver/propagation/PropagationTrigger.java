@@ -193,11 +193,20 @@ public class PropagationTrigger implements Serializable {
     public static void execute(Propagator toPropagate, IPropagationEngine engine) throws ContradictionException {
         if (toPropagate.isStateLess()) {
             toPropagate.setActive();
-            toPropagate.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+            propagate(toPropagate, engine);
             engine.onPropagatorExecution(toPropagate);
         } else if (toPropagate.isActive()) { // deal with updated propagator
-            toPropagate.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+            propagate(toPropagate, engine);
             engine.onPropagatorExecution(toPropagate);
         }
     }
+
+    private static void propagate(Propagator toPropagate, IPropagationEngine engine) throws ContradictionException {
+        PropagationProfiler profiler = engine.getProfiler();
+        if (profiler != null) {
+            profiler.propagate(toPropagate, PropagatorEventType.FULL_PROPAGATION.getMask());
+        } else {
+            toPropagate.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+        }
+    }
 }
@@ -0,0 +1,613 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.propagation.hardcoded;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.propagation.PropagationProfiler;
+import org.chocosolver.solver.propagation.PropagationTrigger;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.iterators.EvtScheduler;
+import org.chocosolver.util.objects.IntCircularQueue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This engine is priority-driven constraint-oriented seven queues engine,
+ * with the same scheduling policy than {@link SevenQueuesPropagatorEngine}, but with a dense memory layout.
+ * <p>
+ * Each propagator stores its index in the engine (see {@link Propagator#getEngineSlot()}), so no map lookup is needed
+ * on a call to {@code onVariableUpdate}.
+ * The queues store indices of propagators in int circular queues.
+ * The event masks of all propagators are stored in a single array of ints: the one of the i^th variable
+ * of the propagator in slot <i>p</i> is <code>eventmasks[offsets[p] + i]</code>.
+ * The fine events to propagate are stored, in the same area, in a ring buffer of ints:
+ * since a variable is scheduled at most once, a propagator of <i>n</i> variables needs no more than <i>n</i> cells.
+ * <p>
+ * In addition, this engine adapts the propagation of the propagators declared as redundant
+ * (see {@link Propagator#setWeakRedundant(boolean)}).
+ * After {@link Settings#getWeakRedundancyThreshold()} consecutive calls without any domain modification, such a propagator is demoted:
+ * it is scheduled in the lowest priority queue and only executed once every {@link Settings#getWeakRedundancySkipPeriod()}
+ * times it is scheduled. When skipped, its pending fine events are dropped, and its next execution is a full propagation.
+ * It is re-promoted as soon as it modifies a domain, or fails.
+ * Without redundant propagator, the scheduling is the one of {@link SevenQueuesPropagatorEngine}.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class DensePropagatorEngine implements IPropagationEngine {
+
+    private static final int WORD_MASK = 0xffffffff;
+
+    protected final ContradictionException exception; // the exception in case of contradiction
+    protected final IEnvironment environment; // environment of backtrackable objects
+    private final Solver solver;
+    protected Propagator[] propagators; // the i^th propagator has i as engine slot
+    private final boolean DEBUG, COLOR;
+    private final PropagationProfiler profiler; // null if profiling is disabled
+
+    protected final IntCircularQueue[] pro_queue; // slots of scheduled propagators, per priority
+    protected Propagator lastProp;
+    protected int notEmpty; // point out the no empty queues
+    protected byte[] scheduled; // also maintains the index of the queue!
+    protected int[] offsets; // start of the area of each propagator in 'eventmasks' and 'events'
+    protected int[] capacities; // size of the area of each propagator (0 if it does not react to fine events)
+    protected int[] heads; // position of the first fine event to propagate, relatively to the area
+    protected int[] sizes; // number of fine events to propagate
+    protected int[] eventmasks; // modification events on each variable of each propagator, since the last propagation
+    protected int[] events; // ring buffers of the indices of the variables to propagate
+    protected int[] idles; // number of consecutive useless calls of each redundant propagator
+    protected int[] skips; // number of skipped calls of each demoted propagator since its last execution
+    protected boolean[] stales; // set to true when the pending events of a redundant propagator were dropped
+    private final int idleThreshold; // number of useless calls before demotion, 0 to never demote
+    private final int skipPeriod; // a demoted propagator is executed once every 'skipPeriod' times it is scheduled
+    private boolean pruned; // set to true when the last propagator modifies a domain
+    private long nbSkips; // number of skipped calls
+    private boolean init;
+
+    final PropagationTrigger trigger; // an object that starts the propagation
+
+    final Settings.Idem idemStrat;
+
+
+    public DensePropagatorEngine(Solver solver) {
+        this.exception = new ContradictionException();
+        this.environment = solver.getEnvironment();
+        this.trigger = new PropagationTrigger(this, solver);
+        this.idemStrat = solver.getSettings().getIdempotencyStrategy();
+        this.solver = solver;
+        pro_queue = new IntCircularQueue[8];
+        this.DEBUG = solver.getSettings().debugPropagation();
+        this.COLOR = solver.getSettings().outputWithANSIColors();
+        int period = solver.getSettings().getPropagationProfilingPeriod();
+        this.profiler = period > 0 ? new PropagationProfiler(period) : null;
+        this.idleThreshold = solver.getSettings().getWeakRedundancyThreshold();
+        this.skipPeriod = solver.getSettings().getWeakRedundancySkipPeriod();
+        if (idleThreshold < 0 || skipPeriod < 1) {
+            throw new SolverException("Wrong settings for redundant propagators: threshold must be positive and period strictly positive");
+        }
+    }
+
+    /**
+     * @return the number of calls of redundant propagators skipped since the creation of this engine
+     */
+    public long getNbSkips() {
+        return nbSkips;
+    }
+
+    @Override
+    public PropagationProfiler getProfiler() {
+        return profiler;
+    }
+
+    @Override
+    public void fails(ICause cause, Variable variable, String message) throws ContradictionException {
+        throw exception.set(cause, variable, message);
+    }
+
+    @Override
+    public ContradictionException getContradictionException() {
+        return exception;
+    }
+
+    @Override
+    public void initialize() {
+        if (!init) {
+            List<Propagator> _propagators = new ArrayList<>();
+            Constraint[] constraints = solver.getCstrs();
+            for (int c = 0; c < constraints.length; c++) {
+                Propagator[] cprops = constraints[c].getPropagators();
+                for (int j = 0; j < cprops.length; j++) {
+                    _propagators.add(cprops[j]);
+                }
+            }
+            propagators = _propagators.toArray(new Propagator[_propagators.size()]);
+            trigger.addAll(propagators);
+            for (int j = 0; j < propagators.length; j++) {
+                propagators[j].setEngineSlot(j);
+            }
+            for (int i = 0; i < 8; i++) {
+                pro_queue[i] = new IntCircularQueue(16);
+            }
+            int nbProp = propagators.length;
+            scheduled = new byte[nbProp];
+            idles = new int[nbProp];
+            skips = new int[nbProp];
+            stales = new boolean[nbProp];
+            offsets = new int[0];
+            capacities = new int[0];
+            heads = new int[0];
+            sizes = new int[0];
+            eventmasks = new int[0];
+            events = new int[0];
+            layout(-1);
+            notEmpty = 0;
+            init = true;
+        }
+    }
+
+    /**
+     * Allocates the areas of the propagators.
+     * Pending events of the propagators which were already declared are kept,
+     * and the areas left free by deleted propagators are reclaimed.
+     *
+     * @param reset slot of a propagator whose area has to be rebuilt from its current number of variables, -1 if none
+     */
+    private void layout(int reset) {
+        int nbProp = propagators.length;
+        int nbOld = offsets.length;
+        int[] _offsets = new int[nbProp];
+        int[] _capacities = new int[nbProp];
+        int total = 0;
+        for (int i = 0; i < nbProp; i++) {
+            _offsets[i] = total;
+            if (i < nbOld && i != reset) {
+                _capacities[i] = capacities[i];
+            } else if (propagators[i].reactToFineEvent()) {
+                _capacities[i] = propagators[i].getNbVars();
+            }
+            total += _capacities[i];
+        }
+        int[] _eventmasks = new int[total];
+        int[] _events = new int[total];
+        int[] _heads = new int[nbProp];
+        int[] _sizes = new int[nbProp];
+        for (int i = 0; i < nbOld && i < nbProp; i++) {
+            if (i != reset && capacities[i] > 0) {
+                int off = offsets[i];
+                int c = capacities[i];
+                System.arraycopy(eventmasks, off, _eventmasks, _offsets[i], c);
+                // the ring buffer is unrolled
+                int h = heads[i];
+                for (int k = 0; k < sizes[i]; k++) {
+                    _events[_offsets[i] + k] = events[off + h];
+                    if (++h == c) {
+                        h = 0;
+                    }
+                }
+                _sizes[i] = sizes[i];
+            }
+        }
+        offsets = _offsets;
+        capacities = _capacities;
+        eventmasks = _eventmasks;
+        events = _events;
+        heads = _heads;
+        sizes = _sizes;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return init;
+    }
+
+    @SuppressWarnings({"NullableProblems"})
+    @Override
+    public void propagate() throws ContradictionException {
+        int aid;
+        if (trigger.needToRun()) {
+            trigger.propagate();
+        }
+        for (int i = nextNotEmpty(0); i > -1; i = nextNotEmpty(0)) {
+            while (!pro_queue[i].isEmpty()) {
+                aid = pro_queue[i].pollFirst();
+                lastProp = propagators[aid];
+                // revision of the variable
+                scheduled[aid] = 0;
+                if (lastProp.isWeakRedundant()) {
+                    propagateRedundant(aid);
+                } else if (lastProp.reactToFineEvent()) {
+                    propagateEvents();
+                } else if (lastProp.isActive()) { // need to be checked due to views
+                    propagateFull();
+                }
+                // This part is for debugging only!!
+                if (Settings.Idem.disabled != idemStrat) {
+                    FakeEngine.checkIdempotency(lastProp);
+                }
+            }
+            notEmpty = notEmpty & ~(1 << i);
+        }
+    }
+
+    /**
+     * Propagates the pending fine events of {@link #lastProp}.
+     */
+    private void propagateEvents() throws ContradictionException {
+        int mask, aid, off, h, v;
+        // the slot and the area are read again after each propagation,
+        // since they can be modified by a dynamic addition or deletion
+        while (sizes[aid = lastProp.getEngineSlot()] > 0) {
+            off = offsets[aid];
+            h = heads[aid];
+            v = events[off + h];
+            heads[aid] = ++h == capacities[aid] ? 0 : h;
+            sizes[aid]--;
+            assert lastProp.isActive() : "propagator is not active:" + lastProp;
+            if (DEBUG) {
+                IPropagationEngine.Trace.printPropagation(lastProp.getVar(v), lastProp, COLOR);
+            }
+            // clear event
+            mask = eventmasks[off + v];
+            eventmasks[off + v] = 0;
+            lastProp.decNbPendingEvt();
+            // run propagation on the specific event
+            if (profiler != null) {
+                profiler.propagate(lastProp, v, mask);
+            } else {
+                lastProp.propagate(v, mask);
+            }
+        }
+    }
+
+    /**
+     * Runs a full propagation of {@link #lastProp}.
+     */
+    private void propagateFull() throws ContradictionException {
+        if (DEBUG) {
+            IPropagationEngine.Trace.printPropagation(null, lastProp, COLOR);
+        }
+        if (profiler != null) {
+            profiler.propagate(lastProp, PropagatorEventType.FULL_PROPAGATION.getMask());
+        } else {
+            lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+        }
+    }
+
+    /**
+     * Executes or skips {@link #lastProp}, a redundant propagator, and updates its yield.
+     *
+     * @param aid slot of the propagator
+     */
+    private void propagateRedundant(int aid) throws ContradictionException {
+        boolean fine = lastProp.reactToFineEvent();
+        if (idleThreshold > 0 && idles[aid] >= idleThreshold && ++skips[aid] < skipPeriod) {
+            // demoted: the pending events are dropped, the next execution will be a full propagation
+            if (fine) {
+                clearEvents(aid);
+                lastProp.flushPendingEvt();
+            }
+            stales[aid] = true;
+            nbSkips++;
+            return;
+        }
+        skips[aid] = 0;
+        pruned = false;
+        try {
+            if (fine && !stales[aid]) {
+                propagateEvents();
+            } else {
+                if (fine) {
+                    clearEvents(aid);
+                    lastProp.flushPendingEvt();
+                }
+                stales[aid] = false;
+                if (lastProp.isActive()) {
+                    propagateFull();
+                }
+            }
+        } catch (ContradictionException cex) {
+            pruned = true;
+            throw cex;
+        } finally {
+            aid = lastProp.getEngineSlot();
+            if (aid > -1) { // the propagator may have been removed
+                if (pruned) {
+                    idles[aid] = 0;
+                } else if (idles[aid] < idleThreshold) {
+                    idles[aid]++;
+                }
+            }
+        }
+    }
+
+    private int nextNotEmpty(int fromIndex) {
+        int word = notEmpty & (WORD_MASK << fromIndex);
+        if (word != 0) {
+            return Integer.numberOfTrailingZeros(word);
+        } else {
+            return -1;
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (lastProp != null && lastProp.getEngineSlot() > -1) {
+            flush(lastProp.getEngineSlot());
+        }
+        for (int i = nextNotEmpty(0); i > -1; i = nextNotEmpty(i + 1)) {
+            while (!pro_queue[i].isEmpty()) {
+                int aid = pro_queue[i].pollFirst();
+                lastProp = propagators[aid];
+                // revision of the variable
+                flush(aid);
+            }
+            notEmpty = notEmpty & ~(1 << i);
+        }
+    }
+
+    private void flush(int aid) {
+        if (lastProp.reactToFineEvent()) {
+            clearEvents(aid);
+            lastProp.flushPendingEvt();
+        }
+        scheduled[aid] = 0;
+    }
+
+    /**
+     * Clears the event masks of the propagator in slot <i>aid</i> and empties its ring buffer.
+     */
+    private void clearEvents(int aid) {
+        int off = offsets[aid];
+        int c = capacities[aid];
+        int h = heads[aid];
+        for (int k = sizes[aid]; k > 0; k--) {
+            eventmasks[off + events[off + h]] = 0;
+            if (++h == c) {
+                h = 0;
+            }
+        }
+        heads[aid] = 0;
+        sizes[aid] = 0;
+    }
+
+    @Override
+    public void onVariableUpdate(Variable variable, IEventType type, ICause cause) {
+        if (DEBUG) {
+            IPropagationEngine.Trace.printModification(variable, type, cause, COLOR);
+        }
+        if (profiler != null) {
+            profiler.onVariableUpdate(cause);
+        }
+        if (cause == lastProp) {
+            pruned = true;
+        }
+        Propagator[] vpropagators = variable.getPropagators();
+        int[] vindices = variable.getPIndices();
+        Propagator prop;
+        int pindice;
+        EvtScheduler si = variable._schedIter();
+        si.init(type);
+        while (si.hasNext()) {
+            int p = variable.getDindex(si.next());
+            int t = variable.getDindex(si.next());
+            for (; p < t; p++) {
+                prop = vpropagators[p];
+                pindice = vindices[p];
+                if (prop.isActive() && cause != prop) {
+                    int aid = prop.getEngineSlot();
+                    if (prop.reactToFineEvent()) {
+                        int off = offsets[aid];
+                        int mask = eventmasks[off + pindice];
+                        eventmasks[off + pindice] = mask | type.getMask();
+                        if (mask == 0) {
+                            if (DEBUG) {
+                                IPropagationEngine.Trace.printFineSchedule(prop, COLOR);
+                            }
+                            prop.incNbPendingEvt();
+                            int c = capacities[aid];
+                            int tail = heads[aid] + sizes[aid]++;
+                            events[off + (tail < c ? tail : tail - c)] = pindice;
+                        }
+                    }
+                    if (scheduled[aid] == 0) {
+                        // a demoted propagator is scheduled in the lowest priority queue
+                        int prio = idleThreshold > 0 && idles[aid] >= idleThreshold ?
+                                PropagatorPriority.VERY_SLOW.priority : prop.getPriority().priority;
+                        pro_queue[prio].addLast(aid);
+                        scheduled[aid] = (byte) (prio + 1);
+                        notEmpty = notEmpty | (1 << prio);
+                        if (DEBUG) {
+                            IPropagationEngine.Trace.printCoarseSchedule(prop, COLOR);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delayedPropagation(Propagator propagator, PropagatorEventType type) throws ContradictionException {
+        if (propagator.getNbPendingEvt() == 0) {
+            if (DEBUG) {
+                IPropagationEngine.Trace.printPropagation(null, propagator, COLOR);
+            }
+            if (profiler != null) {
+                profiler.propagate(propagator, type.getMask());
+            } else {
+                propagator.propagate(type.getMask());
+            }
+        }
+    }
+
+    @Override
+    public void onPropagatorExecution(Propagator propagator) {
+        desactivatePropagator(propagator);
+    }
+
+    @Override
+    public void desactivatePropagator(Propagator propagator) {
+        if (propagator.reactToFineEvent()) {
+            int aid = propagator.getEngineSlot();
+            if (aid > -1 && aid < propagators.length && propagators[aid] == propagator) {
+                // we don't remove the element from its master to avoid costly operations
+                clearEvents(aid);
+                propagator.flushPendingEvt();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (propagators != null) {
+            for (int i = 0; i < propagators.length; i++) {
+                propagators[i].setEngineSlot(-1);
+            }
+        }
+        propagators = null;
+        trigger.clear();
+        for (int i = 0; i < 8; i++) {
+            pro_queue[i] = null;
+        }
+        scheduled = null;
+        idles = null;
+        skips = null;
+        stales = null;
+        offsets = null;
+        capacities = null;
+        heads = null;
+        sizes = null;
+        eventmasks = null;
+        events = null;
+        notEmpty = 0;
+        init = false;
+    }
+
+    @Override
+    public void dynamicAddition(boolean permanent, Propagator... ps) {
+        int osize = propagators.length;
+        int nbp = ps.length;
+        int nsize = osize + nbp;
+        propagators = Arrays.copyOf(propagators, nsize);
+        System.arraycopy(ps, 0, propagators, osize, nbp);
+        for (int j = osize; j < nsize; j++) {
+            propagators[j].setEngineSlot(j);
+            trigger.dynAdd(propagators[j], permanent);
+        }
+        scheduled = Arrays.copyOf(scheduled, nsize);
+        idles = Arrays.copyOf(idles, nsize);
+        skips = Arrays.copyOf(skips, nsize);
+        stales = Arrays.copyOf(stales, nsize);
+        layout(-1);
+    }
+
+    /**
+     * The event areas are laid out again, so that <i>p</i> gets a mask for each of its variables,
+     * and <i>p</i> is propagated on backtrack, since its new variables may have been modified in the worlds
+     * which are popped.
+     * This holds whether <i>p</i> is permanent or temporary: a temporary propagator is only registered
+     * until its constraint is unposted, which removes it from the engine and from the trigger
+     * (see {@link #dynamicDeletion(Propagator[])}), and unlinks all its variables, the new ones included.
+     */
+    @Override
+    public void updateInvolvedVariables(Propagator p) {
+        if (p.reactToFineEvent()) {
+            int i = p.getEngineSlot();
+            assert scheduled[i] == 0 : "Try to update variable scope during propagation";
+            layout(i);
+        }
+        propagateOnBacktrack(p);
+    }
+
+    @Override
+    public void propagateOnBacktrack(Propagator p) {
+        trigger.dynAdd(p, true);
+    }
+
+    @Override
+    public void dynamicDeletion(Propagator... ps) {
+        for (Propagator toDelete : ps) {
+            int nsize = propagators.length - 1;
+            Propagator toMove = propagators[nsize];
+            int idtd = toDelete.getEngineSlot();
+            int idtm = nsize;
+
+            assert idtd <= idtm : "wrong id for prop to delete";
+            assert scheduled[idtd] == 0 : "try to delete a propagator which is scheduled (fine)";
+            assert !toDelete.reactToFineEvent() || sizes[idtd] == 0 : "try to delete a propagator which has events to propagate (fine)";
+
+            // 1. move the last propagator in the slot of the deleted one, its area is not moved
+            if (idtd < nsize) {
+                propagators[idtd] = toMove;
+                toMove.setEngineSlot(idtd);
+                scheduled[idtd] = scheduled[idtm];
+                idles[idtd] = idles[idtm];
+                skips[idtd] = skips[idtm];
+                stales[idtd] = stales[idtm];
+                offsets[idtd] = offsets[idtm];
+                capacities[idtd] = capacities[idtm];
+                heads[idtd] = heads[idtm];
+                sizes[idtd] = sizes[idtm];
+                if (scheduled[idtd] > 0) {
+                    // the moved propagator is scheduled under its former slot
+                    IntCircularQueue queue = pro_queue[scheduled[idtd] - 1];
+                    for (int k = queue.size(); k > 0; k--) {
+                        int s = queue.pollFirst();
+                        queue.addLast(s == idtm ? idtd : s);
+                    }
+                }
+            }
+            toDelete.setEngineSlot(-1);
+            // 2. shrink the arrays, the area of the deleted propagator is reclaimed on the next layout
+            propagators = Arrays.copyOf(propagators, nsize);
+            scheduled = Arrays.copyOf(scheduled, nsize);
+            idles = Arrays.copyOf(idles, nsize);
+            skips = Arrays.copyOf(skips, nsize);
+            stales = Arrays.copyOf(stales, nsize);
+            offsets = Arrays.copyOf(offsets, nsize);
+            capacities = Arrays.copyOf(capacities, nsize);
+            heads = Arrays.copyOf(heads, nsize);
+            sizes = Arrays.copyOf(sizes, nsize);
+            trigger.remove(toDelete);
+        }
+    }
+}
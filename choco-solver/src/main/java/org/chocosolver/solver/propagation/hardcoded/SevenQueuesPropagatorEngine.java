@@ -37,6 +37,7 @@ import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.propagation.PropagationProfiler;
 import org.chocosolver.solver.propagation.PropagationTrigger;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
@@ -68,6 +69,7 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
     private final Solver solver;
     protected Propagator[] propagators;
     private final boolean DEBUG,COLOR;
+    private final PropagationProfiler profiler; // null if profiling is disabled
 
     protected final CircularQueue<Propagator>[] pro_queue;
     protected Propagator lastProp;
@@ -92,9 +94,16 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
         pro_queue = new CircularQueue[8];
         this.DEBUG = solver.getSettings().debugPropagation();
         this.COLOR = solver.getSettings().outputWithANSIColors();
+        int period = solver.getSettings().getPropagationProfilingPeriod();
+        this.profiler = period > 0 ? new PropagationProfiler(period) : null;
 
     }
 
+    @Override
+    public PropagationProfiler getProfiler() {
+        return profiler;
+    }
+
     @Override
     public void fails(ICause cause, Variable variable, String message) throws ContradictionException {
         throw exception.set(cause, variable, message);
@@ -175,14 +184,22 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
                         eventmasks[aid][v] = 0;
                         lastProp.decNbPendingEvt();
                         // run propagation on the specific event
-                        lastProp.propagate(v, mask);
+                        if (profiler != null) {
+                            profiler.propagate(lastProp, v, mask);
+                        } else {
+                            lastProp.propagate(v, mask);
+                        }
                     }
                 } else if (lastProp.isActive()) { // need to be checked due to views
                     //assert lastProp.isActive() : "propagator is not active:" + lastProp;
                     if (DEBUG) {
                         IPropagationEngine.Trace.printPropagation(null, lastProp, COLOR);
                     }
-                    lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+                    if (profiler != null) {
+                        profiler.propagate(lastProp, PropagatorEventType.FULL_PROPAGATION.getMask());
+                    } else {
+                        lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+                    }
                 }
                 // This part is for debugging only!!
                 if (Settings.Idem.disabled != idemStrat) {
@@ -236,6 +253,9 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
         if (DEBUG) {
             IPropagationEngine.Trace.printModification(variable, type, cause, COLOR);
         }
+        if (profiler != null) {
+            profiler.onVariableUpdate(cause);
+        }
         Propagator[] vpropagators = variable.getPropagators();
         int[] vindices = variable.getPIndices();
         Propagator prop;
@@ -282,7 +302,11 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
             if (DEBUG) {
                 IPropagationEngine.Trace.printPropagation(null, propagator, COLOR);
             }
-            propagator.propagate(type.getMask());
+            if (profiler != null) {
+                profiler.propagate(propagator, type.getMask());
+            } else {
+                propagator.propagate(type.getMask());
+            }
         }
     }
 
@@ -38,6 +38,7 @@ import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.propagation.PropagationProfiler;
 import org.chocosolver.solver.propagation.PropagationTrigger;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
@@ -109,6 +110,11 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
      */
     private final boolean COLOR;
 
+    /**
+     * Records per-propagator statistics, null if profiling is disabled.
+     */
+    private final PropagationProfiler profiler;
+
     /**
      * Fine events priority binding.
      */
@@ -216,6 +222,8 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
 
         this.DEBUG = solver.getSettings().debugPropagation();
         this.COLOR = solver.getSettings().outputWithANSIColors();
+        int period = solver.getSettings().getPropagationProfilingPeriod();
+        this.profiler = period > 0 ? new PropagationProfiler(period) : null;
     }
 
     @Override
@@ -281,6 +289,11 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         }
     }
 
+    @Override
+    public PropagationProfiler getProfiler() {
+        return profiler;
+    }
+
     @Override
     public void fails(ICause cause, Variable variable, String message) throws ContradictionException {
         throw exception.set(cause, variable, message);
@@ -350,14 +363,22 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
                 int mask = eventmasks[aid][v];
                 eventmasks[aid][v] = 0;
                 // run propagation on the specific event
-                lastProp.propagate(v, mask);
+                if (profiler != null) {
+                    profiler.propagate(lastProp, v, mask);
+                } else {
+                    lastProp.propagate(v, mask);
+                }
             }
         } else if (lastProp.isActive()) { // need to be checked due to views
             //assert lastProp.isActive() : "propagator is not active:" + lastProp;
             if (DEBUG) {
                 IPropagationEngine.Trace.printPropagation(null, lastProp, COLOR);
             }
-            lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+            if (profiler != null) {
+                profiler.propagate(lastProp, PropagatorEventType.FULL_PROPAGATION.getMask());
+            } else {
+                lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+            }
         }
         // This part is for debugging only!!
         if (Settings.Idem.disabled != idemStrat) {
@@ -377,7 +398,11 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         if (DEBUG) {
             IPropagationEngine.Trace.printPropagation(null, lastProp, COLOR);
         }
-        lastProp.propagate(evt.getMask());
+        if (profiler != null) {
+            profiler.propagate(lastProp, evt.getMask());
+        } else {
+            lastProp.propagate(evt.getMask());
+        }
     }
 
 
@@ -426,6 +451,9 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         if (DEBUG) {
             IPropagationEngine.Trace.printModification(variable, type, cause, COLOR);
         }
+        if (profiler != null) {
+            profiler.onVariableUpdate(cause);
+        }
         Propagator[] vpropagators = variable.getPropagators();
         int[] vindices = variable.getPIndices();
         Propagator prop;
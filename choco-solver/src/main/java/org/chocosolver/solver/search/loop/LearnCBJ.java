@@ -109,6 +109,15 @@ public class LearnCBJ extends LearnExplained {
         if (this.nogoodFromConflict) {
             postNogood();
         }
+        backjump(searchLoop);
+    }
+
+    /**
+     * Backjump to the most recent decision involved in the last explanation, and explain its refutation.
+     *
+     * @param searchLoop the search loop
+     */
+    void backjump(SearchLoop searchLoop) {
         int upto = compute(mSolver.getEnvironment().getWorldIndex());
         assert upto > 0;
         searchLoop.jumpTo = upto;
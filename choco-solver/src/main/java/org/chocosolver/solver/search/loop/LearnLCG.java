@@ -0,0 +1,440 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.nary.cnf.PropNogoods;
+import org.chocosolver.solver.constraints.nary.cnf.SatSolver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.explanations.Explanation;
+import org.chocosolver.solver.explanations.RuleStore;
+import org.chocosolver.solver.explanations.Rules;
+import org.chocosolver.solver.explanations.store.IndexedEventStore;
+import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.selectors.variables.VSIDS;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.chocosolver.solver.search.strategy.decision.RootDecision.ROOT;
+
+/**
+ * A learning strategy in the spirit of Lazy Clause Generation (LCG).
+ * <p>
+ * On each failure, the conflict is analyzed backward with the explanation engine, down to the first unique implication
+ * point (1-UIP) of the current decision level, and the cut is turned into a clause over the literals of {@link PropNogoods}
+ * ("x = v" and "x &le; v"), which is learnt.
+ * The literals of a cut are built from the events which match the rules of the explanation: for each variable,
+ * the strongest bounds, the instantiation and the removed values it relies on; and the decisions reached by the analysis.
+ * Literals which hold at the root node are ignored.
+ * <p>
+ * Then, the analysis is resumed down to the root node, which gives the explanation of the failure,
+ * and the search backjumps like {@link LearnCBJ} does. Thus, the events of a conflict are analyzed only once.
+ * <p>
+ * The literals of the learnt clauses are scored (VSIDS-like): each time a literal appears in a learnt clause, its activity
+ * is increased by an increment which grows geometrically, so that recent conflicts weigh more.
+ * See {@link VSIDS}.
+ * <p>
+ * This requires the explanation engine to be based on an {@link IndexedEventStore} and the decisions to be {@link IntDecision}.
+ * Clauses cannot be learnt when a decision is not an {@link IntDecision}, in that case, the search only backjumps.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class LearnLCG extends LearnCBJ implements IMonitorDownBranch {
+
+    /**
+     * Activities are divided by this factor on each conflict (actually, the increment is multiplied).
+     */
+    private static final double DECAY = 0.95;
+
+    /**
+     * The nogood store, where clauses are learnt.
+     */
+    private final PropNogoods ngstore;
+
+    /**
+     * The event store of the explanation engine.
+     */
+    private final IndexedEventStore store;
+
+    /**
+     * Index, in the event store, of the first event of each decision (indexed by their world index).
+     */
+    private int[] starts;
+
+    /**
+     * Local-like parameter. Decisions of the current branch, indexed by their world index.
+     */
+    private Decision[] path;
+
+    /**
+     * Local-like parameter. The clause in construction.
+     */
+    private final TIntArrayList clause;
+
+    /**
+     * Activity of the literals, indexed by their number in the nogood store.
+     */
+    private double[] activity;
+
+    /**
+     * Current activity increment.
+     */
+    private double increment;
+
+    /**
+     * The heuristic to notify when an activity is increased, may be <tt>null</tt>.
+     */
+    private VSIDS heuristic;
+
+    /**
+     * Number of learnt clauses, and sum of their size.
+     */
+    private long nbClauses, sumSizes;
+
+    /**
+     * Create a LCG learning strategy.
+     *
+     * @param mSolver the solver to instrument
+     */
+    public LearnLCG(Solver mSolver) {
+        super(mSolver, false, false);
+        if (!(mExplainer.getEventStore() instanceof IndexedEventStore)) {
+            throw new SolverException("LearnLCG requires an explanation engine based on an IndexedEventStore");
+        }
+        this.store = (IndexedEventStore) mExplainer.getEventStore();
+        this.ngstore = mSolver.getNogoodStore().getPropNogoods();
+        this.starts = new int[16];
+        this.path = new Decision[16];
+        this.clause = new TIntArrayList();
+        this.activity = new double[16];
+        this.increment = 1.;
+        mSolver.plugMonitor(this);
+    }
+
+    @Override
+    public void beforeDownBranch(boolean left) {
+        Decision decision = mSolver.getSearchLoop().getLastDecision();
+        if (decision != ROOT) {
+            int w = decision.getWorldIndex();
+            if (w >= starts.length) {
+                starts = Arrays.copyOf(starts, Math.max(w + 1, starts.length * 3 / 2));
+            }
+            starts[w] = store.getSize();
+        }
+    }
+
+    @Override
+    void onFailure(SearchLoop searchLoop) {
+        lastExplanation = learn(mSolver.getEngine().getContradictionException());
+        backjump(searchLoop);
+    }
+
+    /**
+     * Analyze the failure down to the 1-UIP and learn the corresponding clause,
+     * then complete the analysis.
+     *
+     * @param cex the failure
+     * @return the explanation of the failure
+     */
+    private Explanation learn(ContradictionException cex) {
+        Decision current = mSolver.getSearchLoop().getLastDecision();
+        if (current == ROOT) {
+            return mExplainer.explain(cex);
+        }
+        // decisions of the current branch, and the index of the first event which does not hold at the root node
+        Arrays.fill(path, null);
+        int root = 0;
+        for (Decision d = current; d != ROOT; d = d.getPrevious()) {
+            int w = d.getWorldIndex();
+            if (w >= path.length) {
+                path = Arrays.copyOf(path, Math.max(w + 1, path.length * 3 / 2));
+            }
+            path[w] = d;
+            root = starts[w];
+        }
+        int level = starts[current.getWorldIndex()];
+        Explanation explanation = mExplainer.makeExplanation(mExplainer.isSaveCauses());
+        mExplainer.init(explanation, cex);
+        int from = store.getSize() - 1;
+        int cut;
+        do {
+            cut = mExplainer.analyze(explanation, from, 0, false, level);
+            from = cut - 1;
+        } while (!makeClause(explanation, cut, level, root, current.getWorldIndex()) && cut > 0);
+        // an empty clause means the failure does not depend on any decision, the search will stop anyway
+        if (clause.size() > 0) {
+            int[] lits = clause.toArray();
+            ngstore.addLearnt(lits);
+            bump(lits);
+            nbClauses++;
+            sumSizes += lits.length;
+        }
+        // the events before the cut are analyzed as the explanation engine would do, to get the explanation of the failure
+        if (cut > 0) {
+            mExplainer.analyze(explanation, cut - 1, 0, true);
+        }
+        return explanation;
+    }
+
+    /**
+     * Build in {@link #clause} the clause related to the cut <code>cut</code> of the analysis.
+     *
+     * @param explanation the explanation in construction
+     * @param cut         all the events in [<code>cut</code>, ...] have been analyzed
+     * @param level       index of the first event of the current decision level
+     * @param root        index of the first event which does not hold at the root node
+     * @param cwi         world index of the current decision
+     * @return <tt>false</tt> if the cut is not suitable (not a UIP or not expressible by literals), <tt>true</tt> otherwise.
+     * When the analysis is complete, <tt>true</tt> is returned, but the clause is empty if it is not expressible by literals.
+     */
+    private boolean makeClause(Explanation explanation, int cut, int level, int root, int cwi) {
+        clause.resetQuick();
+        boolean last = cut == 0; // the analysis is complete, the cut has to be accepted
+        Rules rules = explanation.getRules();
+        // a propagator activation is not expressible by literals
+        if (!last) {
+            for (int e = store.getLastActivation(cut); e > -1; e = store.getPrevious(e)) {
+                if (rules.getPaRules(store.getFirstValue(e))) {
+                    return false;
+                }
+            }
+        }
+        int nbCurrent = 0;
+        // 1. the decisions
+        BitSet decisions = explanation.getDecisions();
+        for (int w = decisions.nextSetBit(0); w > -1; w = decisions.nextSetBit(w + 1)) {
+            if (w >= path.length || !(path[w] instanceof IntDecision)) {
+                clause.resetQuick();
+                return last;
+            }
+            IntDecision d = (IntDecision) path[w];
+            IntVar var = d.getDecisionVariables();
+            int value = d.getDecisionValue();
+            DecisionOperator<IntVar> op = d.getDecOp();
+            if (op == DecisionOperator.int_eq) {
+                clause.add(SatSolver.negated(ngstore.Literal(var, value, true)));
+            } else if (op == DecisionOperator.int_neq) {
+                clause.add(ngstore.Literal(var, value, true));
+            } else if (op == DecisionOperator.int_split) {
+                clause.add(SatSolver.negated(ngstore.Literal(var, value, false)));
+            } else if (op == DecisionOperator.int_reverse_split) {
+                clause.add(ngstore.Literal(var, value - 1, false));
+            } else {
+                clause.resetQuick();
+                return last;
+            }
+            if (w == cwi) {
+                nbCurrent++;
+            }
+        }
+        // 2. the events before the cut which match a rule
+        RuleStore ruleStore = mExplainer.getRuleStore();
+        for (int vid = rules.nextVmRule(0); vid > -1 && cut > 0; vid = rules.nextVmRule(vid + 1)) {
+            int mask = rules.getVmRules(vid);
+            int e = store.getLastEvent(vid, cut);
+            if (e == -1) {
+                continue;
+            }
+            IntVar var = store.getVariable(e);
+            int iev = -1, lbev = -1, ubev = -1;
+            int ival = 0, lb = Integer.MIN_VALUE, ub = Integer.MAX_VALUE;
+            int first = clause.size();
+            for (; e > -1 && iev == -1; e = store.getPrevious(e)) {
+                IEventType type = store.getEventType(e);
+                int v1 = store.getFirstValue(e);
+                if (!ruleStore.matchDomain(mask, var, (IntEventType) type, v1, store.getSecondValue(e), store.getThirdValue(e))) {
+                    continue;
+                }
+                switch ((IntEventType) type) {
+                    case INSTANTIATE:
+                        iev = e;
+                        ival = v1;
+                        break;
+                    case INCLOW:
+                        if (lbev == -1) {
+                            lbev = e;
+                            lb = v1;
+                        }
+                        break;
+                    case DECUPP:
+                        if (ubev == -1) {
+                            ubev = e;
+                            ub = v1;
+                        }
+                        break;
+                    case REMOVE:
+                        // the removal is stored now, and filtered wrt the bounds below
+                        if (e >= root) {
+                            clause.add(ngstore.Literal(var, v1, true));
+                            clause.add(e);
+                        }
+                        break;
+                }
+            }
+            // an instantiation is the last event of a variable, older events are implied
+            if (iev > -1) {
+                lbev = ubev = iev;
+                lb = ub = ival;
+            }
+            if (lb > ub) {
+                // the domain is empty: only useful when the failure occurs on the variable, not for a cut
+                clause.remove(first, clause.size() - first);
+                if (last) {
+                    continue;
+                }
+                return false;
+            }
+            // keep the removals strictly inside the bounds
+            int j = first;
+            for (int k = first; k < clause.size(); k += 2) {
+                int lit = clause.getQuick(k);
+                int v = ngstore.getValue(lit);
+                if (v > lb && v < ub) {
+                    clause.setQuick(j++, lit);
+                    if (clause.getQuick(k + 1) >= level) {
+                        nbCurrent++;
+                    }
+                }
+            }
+            clause.remove(j, clause.size() - j);
+            if (lb == ub && lbev >= root && ubev >= root) {
+                clause.add(SatSolver.negated(ngstore.Literal(var, lb, true)));
+                if (Math.max(lbev, ubev) >= level) {
+                    nbCurrent++;
+                }
+            } else {
+                if (lbev >= root) {
+                    clause.add(ngstore.Literal(var, lb - 1, false));
+                    if (lbev >= level) {
+                        nbCurrent++;
+                    }
+                }
+                if (ubev >= root) {
+                    clause.add(SatSolver.negated(ngstore.Literal(var, ub, false)));
+                    if (ubev >= level) {
+                        nbCurrent++;
+                    }
+                }
+            }
+        }
+        if (!last && nbCurrent > 1) {
+            return false;
+        }
+        // remove duplicates, a clause containing a literal and its negation is useless
+        clause.sort();
+        int j = 0;
+        for (int k = 0; k < clause.size(); k++) {
+            int lit = clause.getQuick(k);
+            if (j > 0 && clause.getQuick(j - 1) == lit) {
+                continue;
+            }
+            if (j > 0 && clause.getQuick(j - 1) == SatSolver.negated(lit)) {
+                clause.resetQuick();
+                return last;
+            }
+            clause.setQuick(j++, lit);
+        }
+        clause.remove(j, clause.size() - j);
+        return true;
+    }
+
+    /**
+     * Increase the activity of the literals of a learnt clause, then decay all the activities.
+     *
+     * @param lits a learnt clause
+     */
+    private void bump(int[] lits) {
+        for (int lit : lits) {
+            int i = lit >> 1;
+            if (i >= activity.length) {
+                activity = Arrays.copyOf(activity, Math.max(i + 1, activity.length * 3 / 2));
+            }
+            if ((activity[i] += increment) > 1e100) {
+                // rescale, the order of the activities is unchanged
+                for (int k = 0; k < activity.length; k++) {
+                    activity[k] *= 1e-100;
+                }
+                increment *= 1e-100;
+            }
+            if (heuristic != null) {
+                heuristic.onBump(i);
+            }
+        }
+        increment /= DECAY;
+    }
+
+    /**
+     * @param i the number of a literal of the nogood store (see {@link PropNogoods#literal(int)})
+     * @return the activity of the literal
+     */
+    public double getActivity(int i) {
+        return i < activity.length ? activity[i] : 0.;
+    }
+
+    /**
+     * Set the heuristic to notify each time the activity of a literal is increased.
+     *
+     * @param heuristic a VSIDS heuristic
+     */
+    public void setHeuristic(VSIDS heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * @return the nogood store where the clauses are learnt
+     */
+    public PropNogoods getNogoodStore() {
+        return ngstore;
+    }
+
+    /**
+     * @return the number of clauses learnt
+     */
+    public long getNbClauses() {
+        return nbClauses;
+    }
+
+    /**
+     * @return the average size of the clauses learnt
+     */
+    public double getAverageClauseSize() {
+        return nbClauses == 0 ? 0. : (double) sumSizes / nbClauses;
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import org.chocosolver.solver.search.loop.eps.Subproblem;
+import org.chocosolver.solver.search.loop.eps.SubproblemQueue;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntMetaDecision;
+import org.chocosolver.solver.search.strategy.decision.RootDecision;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This {@link Move}'s implementation defines an Embarrassingly Parallel Search.
+ * Subproblems are pulled from a {@link SubproblemQueue}, shared between solvers, until it is empty.
+ * Each subproblem is imposed, as a single decision, just above the root node
+ * and the sub-tree it induces is explored by the encapsulated move.
+ * When this sub-tree is entirely explored, the search restarts with the next subproblem,
+ * so the number of restarts counts the number of subproblems solved by the solver.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class MoveEPS implements Move {
+
+    Move move; // the strategy required to explore a subproblem
+    final SubproblemQueue queue;
+    final IntMetaDecision decision;
+    Subproblem current;
+    boolean freshRestart;
+    Variable[] vars;
+
+    public MoveEPS(Move move, SubproblemQueue queue) {
+        this.move = move;
+        this.queue = queue;
+        this.decision = new IntMetaDecision();
+    }
+
+    /**
+     * Return false when there is no subproblem to solve.
+     * A subproblem is taken from the queue only once the underlying move is initialized,
+     * so that it is not lost when the underlying move detects inconsistency.
+     *
+     * @return false when no subproblem can be solved, or when the underlying move detects inconsistency
+     */
+    @Override
+    public boolean init() {
+        if (!move.init()) {
+            return false;
+        }
+        current = next();
+        freshRestart = true;
+        return current != null;
+    }
+
+    /**
+     * On a fresh restart, the current subproblem is imposed above the root node.
+     * Otherwise, the underlying move is called.
+     *
+     * @param searchLoop SearchLoop
+     * @return true if the decision path is extended
+     */
+    @Override
+    public boolean extend(SearchLoop searchLoop) {
+        if (freshRestart) {
+            if (vars == null) {
+                vars = searchLoop.mSolver.getVars();
+            }
+            Decision tmp = searchLoop.decision;
+            assert tmp == RootDecision.ROOT;
+            decision.free();
+            decision.rewind();
+            current.fill(vars, decision);
+            decision.setWorldIndex(searchLoop.mSolver.getEnvironment().getWorldIndex());
+            decision.setPrevious(tmp);
+            searchLoop.decision = decision;
+            searchLoop.mSolver.getEnvironment().worldPush();
+            freshRestart = false;
+            return true;
+        }
+        return move.extend(searchLoop);
+    }
+
+    /**
+     * Return false when the underlying move cannot repair the decision path and the queue is empty.
+     * Restart with the next subproblem when the underlying move cannot repair the decision path.
+     *
+     * @param searchLoop SearchLoop
+     * @return true if the decision path is repaired
+     */
+    @Override
+    public boolean repair(SearchLoop searchLoop) {
+        if (move.repair(searchLoop)) {
+            return true;
+        }
+        current = next();
+        if (current != null) {
+            freshRestart = true;
+            searchLoop.restart();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the next subproblem to solve, or <tt>null</tt> if none remains
+     */
+    Subproblem next() {
+        return queue.poll();
+    }
+
+    @Override
+    public void setTopDecision(Decision topDecision) {
+        this.move.setTopDecision(topDecision);
+    }
+
+    @Override
+    public <V extends Variable> AbstractStrategy<V> getStrategy() {
+        return move.getStrategy();
+    }
+
+    @Override
+    public <V extends Variable> void setStrategy(AbstractStrategy<V> aStrategy) {
+        move.setStrategy(aStrategy);
+    }
+
+    @Override
+    public List<Move> getChildMoves() {
+        return Collections.singletonList(move);
+    }
+
+    @Override
+    public void setChildMoves(List<Move> someMoves) {
+        if (someMoves.size() == 1) {
+            this.move = someMoves.get(0);
+        } else {
+            throw new UnsupportedOperationException("Only one child move can be attached to it.");
+        }
+    }
+}
@@ -31,6 +31,8 @@ package org.chocosolver.solver.search.loop;
 
 import org.chocosolver.solver.search.limits.ICounter;
 import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.solution.SharedSolution;
+import org.chocosolver.solver.search.solution.Solution;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.RootDecision;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
@@ -54,6 +56,10 @@ public class MoveLNS implements Move {
     ICounter counter;
     long frequency;
 
+    SharedSolution incumbent; // the best solution shared with other solvers, may be null
+    int stamp; // stamp of the last shared solution considered
+    boolean adopted; // set to true when a solution found by another solver has been recorded by the neighbor
+
     public MoveLNS(Move move, INeighbor neighbor, ICounter restartCounter) {
         this.move = move;
         this.neighbor = neighbor;
@@ -63,6 +69,22 @@ public class MoveLNS implements Move {
         this.freshRestart = false;
     }
 
+    /**
+     * Connects this LNS to a solution shared with other solvers running on the same model.
+     * Before building a new fragment, if a new incumbent has been found by another solver, it is recorded by
+     * the neighbor (see {@link INeighbor#recordSolution(Solution)}), so that the fragment relaxes it.
+     * If no solution has been found by this search yet, a restart is triggered as soon as an incumbent is available.
+     * <p>
+     * The new solutions of this search are not published by this method,
+     * see {@link org.chocosolver.solver.search.loop.monitors.SolutionSharing}.
+     *
+     * @param incumbent the solution shared with other solvers
+     */
+    public void setSharedSolution(SharedSolution incumbent) {
+        this.incumbent = incumbent;
+        this.stamp = incumbent.getStamp();
+    }
+
     @Override
     public boolean init() {
         neighbor.init();
@@ -104,8 +126,9 @@ public class MoveLNS implements Move {
     public boolean extend(SearchLoop searchLoop) {
         boolean extend;
         // when a new fragment is needed (condition: at least one solution has been found)
-        if (solutions > 0) {
+        if (solutions > 0 || adopted) {
             if (freshRestart) {
+                adoptIncumbent(searchLoop);
                 Decision tmp = searchLoop.decision;
                 assert tmp == RootDecision.ROOT;
                 searchLoop.decision = neighbor.fixSomeVariables();
@@ -123,6 +146,11 @@ public class MoveLNS implements Move {
                     extend = move.extend(searchLoop);
                 }
             }
+        } else if (adoptIncumbent(searchLoop)) {
+            // another solver has found a solution, relax it
+            adopted = true;
+            doRestart(searchLoop);
+            extend = true;
         } else {
             extend = move.extend(searchLoop);
         }
@@ -168,7 +196,7 @@ public class MoveLNS implements Move {
     @Override
     public boolean repair(SearchLoop searchLoop) {
         boolean repair;
-        if(solutions > 0
+        if(solutions > 0 || adopted
                 // the second condition is only here for intiale calls, when solutions is not already up to date
                 || searchLoop.mSolver.getMeasures().getSolutionCount() > 0) {
             // the detection of a new solution can only be met here
@@ -219,6 +247,24 @@ public class MoveLNS implements Move {
         move.setStrategy(aStrategy);
     }
 
+    /**
+     * Records the shared incumbent in the neighbor, if it is new and has been found by another solver.
+     *
+     * @param searchLoop SearchLoop
+     * @return true if the neighbor has recorded a new incumbent
+     */
+    private boolean adoptIncumbent(SearchLoop searchLoop) {
+        if (incumbent == null || incumbent.getStamp() == stamp) {
+            return false;
+        }
+        Solution solution;
+        synchronized (incumbent) {
+            stamp = incumbent.getStamp();
+            solution = incumbent.getOwner() == searchLoop.mSolver ? null : incumbent.getSolution();
+        }
+        return solution != null && neighbor.recordSolution(solution);
+    }
+
     /**
      * Extend the neighbor when conditions are met and do the restart
      *
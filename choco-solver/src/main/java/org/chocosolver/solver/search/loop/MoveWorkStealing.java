@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.search.loop.eps.Subproblem;
+import org.chocosolver.solver.search.loop.eps.WorkStealingPool;
+import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.decision.IntMetaDecision;
+import org.chocosolver.solver.search.strategy.decision.RootDecision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.Arrays;
+
+/**
+ * This {@link Move}'s implementation defines a parallel Depth First Search with work stealing.
+ * <p>
+ * Like {@link MoveEPS}, subproblems are pulled from a shared pool, imposed above the root node
+ * and explored by the encapsulated move (commonly, a {@link MoveBinaryDFS}).
+ * But the pool is fed dynamically: anytime a new node is opened while some workers are idle,
+ * the shallowest open right branch of the decision path (the refutation of a decision which is still in its left branch)
+ * is given away. It is stored in the pool as the sequence of decisions which leads to it,
+ * and the decision is marked as having only one branch, so that this worker does not explore the refutation.
+ * <p>
+ * The <code>granularity</code> bounds the depth, from the top of the current subproblem, at which a right branch
+ * can be given away, so that too small sub-trees are not stolen.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class MoveWorkStealing extends MoveEPS implements IMonitorClose {
+
+    final WorkStealingPool pool;
+    final int granularity;
+    boolean busy; // true when a subproblem has been taken and is not entirely explored yet
+    TIntIntHashMap indices; // variable id to index in Solver.getVars()
+    Decision[] path; // the decision path, from the bottom
+    int[] dvars, dvals; // the subproblem to give away
+    DecisionOperator<IntVar>[] ddops;
+
+    @SuppressWarnings("unchecked")
+    public MoveWorkStealing(Move move, WorkStealingPool pool, int granularity) {
+        super(move, pool);
+        this.pool = pool;
+        this.granularity = granularity;
+        this.path = new Decision[16];
+        this.dvars = new int[16];
+        this.dvals = new int[16];
+        this.ddops = new DecisionOperator[16];
+    }
+
+    /**
+     * Before extending the decision path, an open right branch is given away if some workers are idle.
+     *
+     * @param searchLoop SearchLoop
+     * @return true if the decision path is extended
+     */
+    @Override
+    public boolean extend(SearchLoop searchLoop) {
+        if (!freshRestart && pool.isHungry()) {
+            donate(searchLoop);
+        }
+        return super.extend(searchLoop);
+    }
+
+    @Override
+    Subproblem next() {
+        busy = false;
+        Subproblem subproblem = super.next();
+        busy = subproblem != null;
+        return subproblem;
+    }
+
+    @Override
+    public void afterClose() {
+        if (busy) {
+            // the current subproblem will not be explored further
+            busy = false;
+            pool.leave();
+        }
+    }
+
+    /**
+     * Gives away the shallowest open right branch of the decision path, if any.
+     *
+     * @param searchLoop SearchLoop
+     */
+    private void donate(SearchLoop searchLoop) {
+        if (indices == null) {
+            Variable[] vars = searchLoop.mSolver.getVars();
+            indices = new TIntIntHashMap(vars.length, .5f, -1, -1);
+            for (int i = 0; i < vars.length; i++) {
+                indices.put(vars[i].getId(), i);
+            }
+        }
+        int n = 0;
+        for (Decision d = searchLoop.decision; d != RootDecision.ROOT; d = d.getPrevious()) {
+            if (n == path.length) {
+                path = Arrays.copyOf(path, n * 3 / 2 + 1);
+            }
+            path[n++] = d;
+        }
+        int size = 0;
+        int depth = 0;
+        IntDecision refuted = null;
+        for (int i = n - 1; i >= 0 && refuted == null; i--) {
+            if (path[i] instanceof IntMetaDecision) {
+                IntMetaDecision md = (IntMetaDecision) path[i];
+                for (int j = 0; j < md.size(); j++) {
+                    if (!push(size++, md.getVar(j), md.getVal(j), md.getDop(j))) {
+                        return;
+                    }
+                }
+            } else if (path[i] instanceof IntDecision) {
+                IntDecision d = (IntDecision) path[i];
+                // a binary decision with a branch left is in its left branch
+                boolean left = d.getArity() == 1 || d.hasNext();
+                if (d.hasNext()) {
+                    refuted = d;
+                    left = false;
+                }
+                int val = d.getDecisionValue();
+                DecisionOperator<IntVar> dop = d.getDecOp();
+                if (!left) {
+                    // refutation, as done in IntDecision.flip()
+                    if (dop == DecisionOperator.int_split) {
+                        val++;
+                    } else if (dop == DecisionOperator.int_reverse_split) {
+                        val--;
+                    }
+                    dop = dop.opposite();
+                }
+                if (!push(size++, d.getDecisionVariables(), val, dop)
+                        || (refuted == null && ++depth >= granularity)) {
+                    return;
+                }
+            } else {
+                // such a decision cannot be replayed
+                return;
+            }
+        }
+        if (refuted != null) {
+            refuted.once(true);
+            pool.add(new Subproblem(Arrays.copyOf(dvars, size), Arrays.copyOf(dvals, size), Arrays.copyOf(ddops, size)));
+        }
+    }
+
+    /**
+     * Stores the <i>i</i>th decision of the subproblem to give away.
+     *
+     * @return <tt>false</tt> if the variable is unknown
+     */
+    private boolean push(int i, IntVar var, int val, DecisionOperator<IntVar> dop) {
+        int idx = indices.get(var.getId());
+        if (idx == -1) {
+            return false;
+        }
+        if (i == dvars.length) {
+            int ns = i * 3 / 2 + 1;
+            dvars = Arrays.copyOf(dvars, ns);
+            dvals = Arrays.copyOf(dvals, ns);
+            ddops = Arrays.copyOf(ddops, ns);
+        }
+        dvars[i] = idx;
+        dvals[i] = val;
+        ddops[i] = dop;
+        return true;
+    }
+}
@@ -357,6 +357,7 @@ public final class SearchLoop implements Serializable {
                         sat = UNDEFINED;
                     }
                     mSolver.setFeasible(sat);
+                    mSolver.getEnvironment().recordHighWaterMarks();
                     if (stopAtFirst) { // for the next call, if needed
                         jumpTo = 1;
                         action = repair;
@@ -32,10 +32,14 @@ package org.chocosolver.solver.search.loop;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.search.limits.ICounter;
 import org.chocosolver.solver.search.limits.SolutionCounter;
+import org.chocosolver.solver.search.loop.eps.SubproblemQueue;
+import org.chocosolver.solver.search.loop.eps.WorkStealingPool;
 import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
 import org.chocosolver.solver.search.restart.IRestartStrategy;
 import org.chocosolver.solver.search.restart.MonotonicRestartStrategy;
+import org.chocosolver.solver.search.strategy.selectors.variables.VSIDS;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.criteria.LongCriterion;
 
@@ -205,6 +209,39 @@ public class SearchLoopFactory {
         aSolver.getSearchLoop().setMove(new MoveLNS(currentMove, neighbor, ICounter.Impl.None));
     }
 
+    /**
+     * Fit the <code>aSearchLoop</code> with an Embarrassingly Parallel Search.
+     * It encapsulates the current move within an EPS move.
+     * Subproblems are pulled from the <code>queue</code>, which is commonly shared between solvers of the same model.
+     * Each subproblem is imposed above the root node, then the current move explores the sub-tree it induces.
+     * Once this sub-tree is entirely explored, the search restarts with the next subproblem, until the queue is empty.
+     *
+     * @param aSolver the target solver
+     * @param queue   the subproblems to solve, see {@link SubproblemQueue#decompose(Solver, int)}
+     */
+    public static void eps(Solver aSolver, SubproblemQueue queue) {
+        Move currentMove = aSolver.getSearchLoop().getMove();
+        aSolver.getSearchLoop().setMove(new MoveEPS(currentMove, queue));
+    }
+
+    /**
+     * Fit the <code>aSearchLoop</code> with a parallel Depth First Search based on work stealing.
+     * It encapsulates the current move within a work-stealing move.
+     * Like {@link #eps(Solver, SubproblemQueue)}, subproblems are pulled from the <code>pool</code>, shared between solvers
+     * of the same model, but the pool is fed by busy solvers: while some solvers are idle, a busy solver gives away
+     * the shallowest open right branch of its decision path, which is then replayed from the root node by an idle solver.
+     *
+     * @param aSolver     the target solver
+     * @param pool        the pool shared between solvers, see {@link WorkStealingPool#reset(int)}
+     * @param granularity maximum depth, from the top of the current subproblem, of a right branch to give away
+     */
+    public static void workStealing(Solver aSolver, WorkStealingPool pool, int granularity) {
+        Move currentMove = aSolver.getSearchLoop().getMove();
+        MoveWorkStealing ws = new MoveWorkStealing(currentMove, pool, granularity);
+        aSolver.getSearchLoop().setMove(ws);
+        aSolver.plugMonitor(ws);
+    }
+
     /**
      * Equips the <code>aSearchLoop</code> with a tabu decision-repair (TDR) algorithm.
      * It encapsulates the current move into a TDR algorithm and add a learn component to explain failure.
@@ -258,4 +295,27 @@ public class SearchLoopFactory {
             aSolver.getSearchLoop().setLearn(new LearnDBT(aSolver, nogoodsOn, userFeedbackOn));
         }
     }
+
+    /**
+     * Lazy Clause Generation (LCG) learning strategy.
+     * On each failure, a clause is learnt, over "x = v" and "x &le; v" literals, from the first unique implication point
+     * of the conflict, then it backtracks up to the most recent decision involved in the explanation.
+     * The search is driven by VSIDS on the literals of the learnt clauses, <code>fallback</code> being used when no literal
+     * is active.
+     * Note that this strategy is not designed to be combined with LNS.
+     * @param aSolver  the target solver
+     * @param fallback the search strategy to use when no literal is active
+     * @see LearnLCG
+     * @see VSIDS
+     */
+    public static void learnLCG(Solver aSolver, AbstractStrategy<IntVar> fallback) {
+        LearnLCG lcg;
+        if (aSolver.getSearchLoop().getLearn() instanceof LearnLCG) {
+            lcg = (LearnLCG) aSolver.getSearchLoop().getLearn();
+        } else {
+            lcg = new LearnLCG(aSolver);
+            aSolver.getSearchLoop().setLearn(lcg);
+        }
+        aSolver.set(new VSIDS(lcg, fallback));
+    }
 }
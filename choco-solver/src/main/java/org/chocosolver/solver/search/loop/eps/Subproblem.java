@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.eps;
+
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.IntMetaDecision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.io.Serializable;
+
+/**
+ * A subproblem of an Embarrassingly Parallel Search, that is, a consistent sequence of decisions
+ * taken from the root node of the search tree.
+ * <p>
+ * Variables are referenced by their index in {@link org.chocosolver.solver.Solver#getVars()},
+ * so that a subproblem computed on a solver can be solved by any other solver which declares the same model.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public final class Subproblem implements Serializable {
+
+    /**
+     * Indices of the variables, in {@link org.chocosolver.solver.Solver#getVars()}
+     */
+    private final int[] vars;
+
+    /**
+     * The decision values
+     */
+    private final int[] vals;
+
+    /**
+     * The decision operators
+     */
+    private final DecisionOperator<IntVar>[] dops;
+
+    /**
+     * Creates a subproblem defined by the conjunction of <i>vars[i] dops[i] vals[i]</i>, taken from the root node.
+     *
+     * @param vars indices of the variables, in {@link org.chocosolver.solver.Solver#getVars()}
+     * @param vals decision values
+     * @param dops decision operators
+     */
+    public Subproblem(int[] vars, int[] vals, DecisionOperator<IntVar>[] dops) {
+        this.vars = vars;
+        this.vals = vals;
+        this.dops = dops;
+    }
+
+    /**
+     * @return the number of decisions which define this subproblem
+     */
+    public int size() {
+        return vars.length;
+    }
+
+    /**
+     * Adds the decisions of this subproblem to <i>decision</i>.
+     *
+     * @param variables   the variables of the solver which solves this subproblem
+     * @param decision    the decision to fill
+     */
+    public void fill(Variable[] variables, IntMetaDecision decision) {
+        for (int i = 0; i < vars.length; i++) {
+            decision.add((IntVar) variables[vars[i]], vals[i], dops[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("(");
+        for (int i = 0; i < vars.length; i++) {
+            if (i > 0) {
+                st.append(" & ");
+            }
+            st.append('#').append(vars[i]).append(dops[i]).append(vals[i]);
+        }
+        return st.append(')').toString();
+    }
+}
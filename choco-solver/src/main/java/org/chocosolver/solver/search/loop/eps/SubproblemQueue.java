@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.eps;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.bind.DefaultSearchBinder;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A thread-safe work queue of {@link Subproblem}, dedicated to Embarrassingly Parallel Search[1].
+ * <p>
+ * The queue is filled by decomposing the root node of a solver:
+ * the top decisions of its search strategy are enumerated, in a depth-first way, up to a given depth;
+ * each prefix is propagated and only consistent ones are kept.
+ * The depth is increased until the expected number of subproblems is reached,
+ * or until the search tree is entirely enumerated.
+ * Since binary decisions are enumerated with their refutation, subproblems form a partition of the search space.
+ * <p>
+ * [1]: J-C. Regin, M. Rezgui and A. Malapert, Embarrassingly Parallel Search, CP-2013.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class SubproblemQueue implements Serializable {
+
+    /**
+     * The subproblems not solved yet
+     */
+    private final ConcurrentLinkedQueue<Subproblem> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of subproblems generated by the last decomposition
+     */
+    private int nbSubproblems;
+
+    /**
+     * Variable id to index in {@link Solver#getVars()}, used during decomposition
+     */
+    private TIntIntHashMap indices;
+
+    /**
+     * The current decision path, during decomposition
+     */
+    private int[] pvars, pvals;
+    private DecisionOperator<IntVar>[] pdops;
+
+    /**
+     * @return the next subproblem to solve, or <tt>null</tt> if none remains
+     */
+    public Subproblem poll() {
+        return queue.poll();
+    }
+
+    /**
+     * Adds a subproblem to solve
+     *
+     * @param subproblem a subproblem
+     */
+    public void add(Subproblem subproblem) {
+        queue.add(subproblem);
+    }
+
+    /**
+     * @return the number of subproblems not solved yet
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Removes all the subproblems
+     */
+    public void clear() {
+        queue.clear();
+        nbSubproblems = 0;
+    }
+
+    /**
+     * @return the number of subproblems generated by the last decomposition
+     */
+    public int getNbSubproblems() {
+        return nbSubproblems;
+    }
+
+    /**
+     * Clears the queue and fills it with the subproblems obtained by decomposing the root node of <i>master</i>.
+     * The declared search strategy of <i>master</i> is used (or the default one when none is declared),
+     * it must provide integer decisions.
+     * <p>
+     * The state of <i>master</i> is restored on exit, even if an exception is thrown, but its search strategy has been initialized,
+     * so it should not be solved afterward.
+     *
+     * @param master a solver which declares the model to decompose
+     * @param target the expected number of subproblems
+     */
+    @SuppressWarnings("unchecked")
+    public void decompose(Solver master, int target) {
+        clear();
+        AbstractStrategy strategy = master.getSearchLoop().getMove().getStrategy();
+        if (strategy == null) {
+            master.set(new DefaultSearchBinder().getDefault(master));
+            strategy = master.getSearchLoop().getMove().getStrategy();
+        }
+        Variable[] vars = master.getVars();
+        indices = new TIntIntHashMap(vars.length, .5f, -1, -1);
+        for (int i = 0; i < vars.length; i++) {
+            indices.put(vars[i].getId(), i);
+        }
+        IEnvironment env = master.getEnvironment();
+        int world = env.getWorldIndex();
+        env.worldPush();
+        try {
+            master.propagate();
+            if (strategy.init()) {
+                List<Subproblem> subproblems = new ArrayList<>();
+                boolean truncated = true;
+                for (int depth = 1; subproblems.size() < target && truncated; depth++) {
+                    subproblems.clear();
+                    pvars = new int[depth];
+                    pvals = new int[depth];
+                    pdops = new DecisionOperator[depth];
+                    truncated = enumerate(master, strategy, 0, depth, subproblems);
+                }
+                queue.addAll(subproblems);
+                nbSubproblems = subproblems.size();
+            }
+        } catch (ContradictionException e) {
+            master.getEngine().flush();
+        } finally {
+            env.worldPopUntil(world);
+            indices = null;
+        }
+    }
+
+    /**
+     * Enumerates the consistent decision paths from the current node, up to <i>limit</i> decisions.
+     *
+     * @return <tt>true</tt> if at least one path has been truncated by the depth limit
+     */
+    private boolean enumerate(Solver master, AbstractStrategy strategy, int depth, int limit, List<Subproblem> subproblems) {
+        if (depth == limit) {
+            subproblems.add(currentPath(depth));
+            return true;
+        }
+        Decision decision = strategy.getDecision();
+        if (decision == null) {
+            // every decision variable is instantiated
+            subproblems.add(currentPath(depth));
+            return false;
+        }
+        if (!(decision instanceof IntDecision)) {
+            throw new SolverException("Embarrassingly Parallel Search can only decompose search strategies based on integer decisions");
+        }
+        IntDecision idec = (IntDecision) decision;
+        int idx = indices.get(idec.getDecisionVariables().getId());
+        if (idx == -1) {
+            throw new SolverException(idec.getDecisionVariables().getName() + " is not declared in the solver");
+        }
+        boolean truncated = false;
+        IEnvironment env = master.getEnvironment();
+        int world = env.getWorldIndex();
+        for (boolean first = true; idec.hasNext(); first = false) {
+            env.worldPush();
+            try {
+                idec.buildNext();
+                idec.apply();
+                master.getEngine().propagate();
+                pvars[depth] = idx;
+                if (first) {
+                    pvals[depth] = idec.getDecisionValue();
+                    pdops[depth] = idec.getDecOp();
+                } else {
+                    // refutation, as done in IntDecision.flip()
+                    int val = idec.getDecisionValue();
+                    if (idec.getDecOp() == DecisionOperator.int_split) {
+                        val++;
+                    } else if (idec.getDecOp() == DecisionOperator.int_reverse_split) {
+                        val--;
+                    }
+                    pvals[depth] = val;
+                    pdops[depth] = idec.getDecOp().opposite();
+                }
+                truncated |= enumerate(master, strategy, depth + 1, limit, subproblems);
+            } catch (ContradictionException e) {
+                master.getEngine().flush();
+            } finally {
+                env.worldPopUntil(world);
+            }
+        }
+        idec.free();
+        return truncated;
+    }
+
+    private Subproblem currentPath(int depth) {
+        return new Subproblem(Arrays.copyOf(pvars, depth), Arrays.copyOf(pvals, depth), Arrays.copyOf(pdops, depth));
+    }
+}
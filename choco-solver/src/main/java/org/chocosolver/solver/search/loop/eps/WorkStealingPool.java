@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.eps;
+
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link SubproblemQueue} fed dynamically by the workers of a parallel depth-first search.
+ * <p>
+ * At the beginning, the queue only contains the entire problem, which is taken by one worker.
+ * The other workers are idle.
+ * While some workers are idle, busy workers give away open right branches of their decision path
+ * (see {@link org.chocosolver.solver.search.loop.MoveWorkStealing}): each of them is stored as a subproblem
+ * and replayed, from the root node, by an idle worker.
+ * <p>
+ * A worker which calls {@link #poll()} becomes idle and waits until a subproblem is available.
+ * The resolution is over when every active worker is idle and the queue is empty, or when {@link #stop()} is called.
+ * The counters of workers and the queue are updated under the lock of the pool, so that the termination is detected atomically;
+ * busy workers only read a volatile summary of them at each node (see {@link #isHungry()}).
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class WorkStealingPool extends SubproblemQueue {
+
+    /**
+     * Number of workers which have neither left the pool nor ended, guarded by <tt>this</tt>
+     */
+    private int active;
+
+    /**
+     * Number of workers waiting for a subproblem, guarded by <tt>this</tt>
+     */
+    private int idle;
+
+    /**
+     * Set to <tt>true</tt> to wake up and stop waiting workers, guarded by <tt>this</tt>
+     */
+    private boolean stopped;
+
+    /**
+     * Number of idle workers minus number of available subproblems,
+     * updated with the counters it is computed from, and read without locking by busy workers
+     */
+    private volatile int hunger;
+
+    /**
+     * Number of subproblems given by busy workers
+     */
+    private final AtomicLong steals = new AtomicLong();
+
+    /**
+     * Number of subproblems replayed by workers, and number of decisions they were made of
+     */
+    private final AtomicLong replays = new AtomicLong(), replayedDecisions = new AtomicLong();
+
+    /**
+     * Prepares the pool for a new resolution with <i>nbWorkers</i> workers: the queue only contains the entire problem.
+     *
+     * @param nbWorkers number of workers sharing this pool
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void reset(int nbWorkers) {
+        clear();
+        active = nbWorkers;
+        idle = 0;
+        stopped = false;
+        steals.set(0);
+        replays.set(0);
+        replayedDecisions.set(0);
+        super.add(new Subproblem(new int[0], new int[0], new DecisionOperator[0]));
+        updateHunger();
+    }
+
+    /**
+     * Waits for a subproblem to solve.
+     * The calling worker is considered as idle until it returns.
+     * Once every active worker is idle and no subproblem is available, the resolution is over:
+     * the calling worker ends, and is not considered as active anymore.
+     *
+     * @return the next subproblem to solve, or <tt>null</tt> if the resolution is over
+     */
+    @Override
+    public synchronized Subproblem poll() {
+        idle++;
+        try {
+            while (!stopped) {
+                Subproblem subproblem = super.poll();
+                if (subproblem != null) {
+                    replays.incrementAndGet();
+                    replayedDecisions.addAndGet(subproblem.size());
+                    return subproblem;
+                }
+                if (idle >= active) {
+                    active--;
+                    notifyAll();
+                    return null;
+                }
+                updateHunger();
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    stop();
+                }
+            }
+            return null;
+        } finally {
+            idle--;
+            updateHunger();
+        }
+    }
+
+    /**
+     * Adds a subproblem given away by a busy worker.
+     *
+     * @param subproblem a subproblem
+     */
+    @Override
+    public synchronized void add(Subproblem subproblem) {
+        steals.incrementAndGet();
+        super.add(subproblem);
+        updateHunger();
+        notifyAll();
+    }
+
+    /**
+     * @return <tt>true</tt> if more workers are idle than subproblems are available
+     */
+    public boolean isHungry() {
+        return hunger > 0;
+    }
+
+    /**
+     * Declares that a busy worker stops, its subproblem is not entirely explored.
+     */
+    public synchronized void leave() {
+        active--;
+        notifyAll();
+    }
+
+    /**
+     * Stops the resolution, waiting workers are woken up.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        notifyAll();
+    }
+
+    /**
+     * Publishes the balance between idle workers and available subproblems, must be called under the lock.
+     */
+    private void updateHunger() {
+        hunger = idle - size();
+    }
+
+    /**
+     * @return the number of subproblems given away by busy workers during the last resolution
+     */
+    public long getNbSteals() {
+        return steals.get();
+    }
+
+    /**
+     * @return the number of subproblems replayed by workers during the last resolution (including the entire problem)
+     */
+    public long getNbReplays() {
+        return replays.get();
+    }
+
+    /**
+     * @return the number of decisions replayed by workers during the last resolution
+     */
+    public long getNbReplayedDecisions() {
+        return replayedDecisions.get();
+    }
+
+    /**
+     * @return the number of subproblems replayed by workers during the last resolution
+     */
+    @Override
+    public int getNbSubproblems() {
+        return (int) replays.get();
+    }
+}
@@ -89,6 +89,19 @@ public class LNSFactory {
         return new ReversePropagationGuidedNeighborhood(solver, vars, seed, fgmtSize, listSize);
     }
 
+    /**
+     * Create a neighborhood which selects one of <i>neighbors</i> before each fragment with a UCB1 bandit,
+     * rewarding the improvement of the objective per unit of time
+     *
+     * @param solver    the solver concerned
+     * @param seed      a seed to break ties
+     * @param neighbors the neighborhoods to select from
+     * @return a bandit-driven neighborhood
+     */
+    public static INeighbor bandit(Solver solver, long seed, INeighbor... neighbors) {
+        return new BanditNeighborhood(solver, seed, neighbors);
+    }
+
     // PREDEFINED LNS
 
     /**
@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.lns.neighbors;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.objects.player.MultiArmedBanditPlayer;
+import org.chocosolver.util.objects.player.UCB1Player;
+
+import java.io.Serializable;
+
+/**
+ * A neighbor which, before each fragment, selects one of its neighbors with a multi-armed bandit
+ * (by default, a {@link UCB1Player}).
+ * <p>
+ * Once a fragment is over, the neighbor which built it is rewarded with the improvement of the objective it led to,
+ * per unit of time: the relative improvement of the objective divided by the time spent in the fragment
+ * (for a satisfaction problem, the improvement is 1 if a solution has been found, 0 otherwise).
+ * Rewards are normalized by the best rate observed so far, to lie in [0,1].
+ * A neighbor whose fragment has not led to any solution is asked to restrict less (see {@link INeighbor#restrictLess()}),
+ * so that each neighbor adapts the size of its own fragments.
+ * <p>
+ * Statistics are maintained for each neighbor, see {@link #getNbFragments(int)}, {@link #getNbSolutions(int)},
+ * {@link #getTimeCount(int)}, {@link #getGain(int)} and {@link #getMeanReward(int)}.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class BanditNeighborhood implements INeighbor, Serializable {
+
+    protected final Solver solver;
+    protected final INeighbor[] neighbors;
+    protected final MultiArmedBanditPlayer player;
+    protected int who; // index of the neighbor which built the current fragment, -1 if none
+
+    private long start; // starting time of the current fragment, in nanoseconds
+    private boolean improved; // set to true when a solution has been found in the current fragment
+    private double before; // objective value of the best solution before the current fragment
+    private double last; // objective value of the last solution found
+    private double bestRate; // the best improvement rate observed so far
+
+    // statistics, indexed by neighbor
+    protected final int[] fragments;
+    protected final int[] solutions;
+    protected final long[] times;
+    protected final double[] gains;
+    protected final double[] rewards;
+
+    /**
+     * Creates a neighbor which selects one of <i>neighbors</i> with a UCB1 bandit.
+     *
+     * @param solver    the solver
+     * @param seed      a seed to break ties among neighbors
+     * @param neighbors the neighbors to select from
+     */
+    public BanditNeighborhood(Solver solver, long seed, INeighbor... neighbors) {
+        this(solver, new UCB1Player(neighbors.length, seed), neighbors);
+    }
+
+    /**
+     * Creates a neighbor which selects one of <i>neighbors</i> with <i>player</i>.
+     *
+     * @param solver    the solver
+     * @param player    a multi-armed bandit, with as many arms as neighbors
+     * @param neighbors the neighbors to select from
+     */
+    public BanditNeighborhood(Solver solver, MultiArmedBanditPlayer player, INeighbor... neighbors) {
+        this.solver = solver;
+        this.neighbors = neighbors;
+        this.player = player;
+        this.who = -1;
+        this.fragments = new int[neighbors.length];
+        this.solutions = new int[neighbors.length];
+        this.times = new long[neighbors.length];
+        this.gains = new double[neighbors.length];
+        this.rewards = new double[neighbors.length];
+    }
+
+    @Override
+    public void init() {
+        for (int i = 0; i < neighbors.length; i++) {
+            neighbors[i].init();
+        }
+    }
+
+    @Override
+    public void recordSolution() {
+        for (int i = 0; i < neighbors.length; i++) {
+            neighbors[i].recordSolution();
+        }
+        last = objectiveValue();
+        improved = true;
+    }
+
+    @Override
+    public boolean recordSolution(Solution solution) {
+        boolean recorded = false;
+        for (int i = 0; i < neighbors.length; i++) {
+            recorded |= neighbors[i].recordSolution(solution);
+        }
+        Variable[] objectives = solver.getObjectives();
+        if (recorded && objectives != null && objectives.length > 0 && objectives[0] instanceof IntVar) {
+            // the improvement is not due to the current fragment
+            Integer value = solution.getIntVal((IntVar) objectives[0]);
+            if (value != null) {
+                last = before = value;
+            }
+        }
+        return recorded;
+    }
+
+    @Override
+    public Decision fixSomeVariables() {
+        long now = System.nanoTime();
+        if (who > -1) {
+            reward(now - start);
+        }
+        who = player.chooseArm();
+        fragments[who]++;
+        start = now;
+        before = last;
+        improved = false;
+        return neighbors[who].fixSomeVariables();
+    }
+
+    @Override
+    public void restrictLess() {
+        if (who > -1) {
+            neighbors[who].restrictLess();
+        }
+    }
+
+    @Override
+    public boolean isSearchComplete() {
+        boolean isComplete = false;
+        for (int i = 0; i < neighbors.length; i++) {
+            isComplete |= neighbors[i].isSearchComplete();
+        }
+        return isComplete;
+    }
+
+    /**
+     * Rewards the neighbor which built the fragment which has just ended
+     *
+     * @param elapsed time spent in the fragment, in nanoseconds
+     */
+    private void reward(long elapsed) {
+        times[who] += elapsed;
+        double gain = 0d;
+        if (improved) {
+            solutions[who]++;
+            gain = Double.isNaN(last) ? 1d : Math.abs(last - before) / Math.max(1d, Math.abs(before));
+            gains[who] += gain;
+        } else {
+            neighbors[who].restrictLess();
+        }
+        double rate = gain / Math.max(elapsed, 1L);
+        bestRate = Math.max(bestRate, rate);
+        double reward = bestRate > 0d ? rate / bestRate : 0d;
+        rewards[who] += reward;
+        player.update(who, reward);
+    }
+
+    /**
+     * @return the value of the objective variable, <tt>NaN</tt> when dealing with a satisfaction problem
+     */
+    private double objectiveValue() {
+        Variable[] objectives = solver.getObjectives();
+        if (objectives == null || objectives.length == 0) {
+            return Double.NaN;
+        } else if (objectives[0] instanceof IntVar) {
+            return ((IntVar) objectives[0]).getValue();
+        } else {
+            RealVar objective = (RealVar) objectives[0];
+            return (objective.getLB() + objective.getUB()) / 2d;
+        }
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the number of fragments built by the neighbor <i>i</i>
+     */
+    public int getNbFragments(int i) {
+        return fragments[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the number of fragments built by the neighbor <i>i</i> which have led to a solution
+     */
+    public int getNbSolutions(int i) {
+        return solutions[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the time spent in the fragments built by the neighbor <i>i</i>, in milliseconds
+     */
+    public long getTimeCount(int i) {
+        return times[i] / 1_000_000L;
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the sum of the relative improvements of the objective in the fragments built by the neighbor <i>i</i>
+     */
+    public double getGain(int i) {
+        return gains[i];
+    }
+
+    /**
+     * @param i index of a neighbor
+     * @return the mean reward of the neighbor <i>i</i>, 0 if it has not built any fragment yet
+     */
+    public double getMeanReward(int i) {
+        return fragments[i] == 0 ? 0d : rewards[i] / fragments[i];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder();
+        for (int i = 0; i < neighbors.length; i++) {
+            st.append(String.format("%d. %s: %d fragments, %d solutions, gain %.3f, %dms, mean reward %.3f\n",
+                    i, neighbors[i].getClass().getSimpleName(), fragments[i], solutions[i], gains[i],
+                    getTimeCount(i), getMeanReward(i)));
+        }
+        return st.toString();
+    }
+}
@@ -215,14 +215,7 @@ public class ExplainingObjective extends ExplainingCut{
         rs.init(explanation);
         rs.addRemovalRule(objective, value);
         IEventStore es = mExplanationEngine.getEventStore();
-        int i = es.getSize() - 1;
-
-        while (i > -1) {
-            if (rs.match(i, es)) {
-                rs.update(i, es, explanation);
-            }
-            i--;
-        }
+        mExplanationEngine.analyze(explanation, es.getSize() - 1, 0, false);
         for (int b = explanation.getDecisions().nextSetBit(0); b >= 0; b = explanation.getDecisions().nextSetBit(b + 1)) {
             tmpValueDeductions.add(b);
         }
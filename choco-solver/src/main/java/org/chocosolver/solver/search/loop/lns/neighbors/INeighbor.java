@@ -29,6 +29,7 @@
  */
 package org.chocosolver.solver.search.loop.lns.neighbors;
 
+import org.chocosolver.solver.search.solution.Solution;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 
 /**
@@ -47,6 +48,19 @@ public interface INeighbor {
      */
     void recordSolution();
 
+    /**
+     * Record values of decision variables from a solution which has not been found by this search,
+     * for instance by another solver running on the same model (see {@link org.chocosolver.solver.ParallelLNS}),
+     * to freeze some ones during the next LNS run.
+     * By default, a neighbor cannot record such a solution.
+     *
+     * @param solution a solution of the model
+     * @return <tt>true</tt> if the solution has been recorded, <tt>false</tt> if the neighbor does not support it
+     */
+    default boolean recordSolution(Solution solution) {
+        return false;
+    }
+
     /**
      * Freezes some variables in order to have a fast computation
      *
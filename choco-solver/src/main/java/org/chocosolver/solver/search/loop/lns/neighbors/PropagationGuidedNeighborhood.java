@@ -32,6 +32,7 @@ package org.chocosolver.solver.search.loop.lns.neighbors;
 import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.solution.Solution;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.IntMetaDecision;
 import org.chocosolver.solver.variables.IntVar;
@@ -98,6 +99,17 @@ public class PropagationGuidedNeighborhood implements INeighbor {
         }
     }
 
+    @Override
+    public boolean recordSolution(Solution solution) {
+        for (int i = 0; i < vars.length; i++) {
+            Integer value = solution.getIntVal(vars[i]);
+            if (value != null) {
+                bestSolution[i] = value;
+            }
+        }
+        return true;
+    }
+
     @Override
     public Decision fixSomeVariables() {
         decision.free();
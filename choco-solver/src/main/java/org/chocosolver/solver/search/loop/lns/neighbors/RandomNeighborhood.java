@@ -30,6 +30,7 @@
 package org.chocosolver.solver.search.loop.lns.neighbors;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.solution.Solution;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.IntMetaDecision;
 import org.chocosolver.solver.variables.IntVar;
@@ -94,6 +95,21 @@ public class RandomNeighborhood implements INeighbor {
         limit = 200; //geo.getNextCutoff(nbCall);
     }
 
+    @Override
+    public boolean recordSolution(Solution solution) {
+        for (int i = 0; i < vars.length; i++) {
+            previous[i] = bestSolution[i];
+            Integer value = solution.getIntVal(vars[i]);
+            if (value != null) {
+                bestSolution[i] = value;
+            }
+        }
+        nbFixedVariables = 2. * n / 3. + 1;
+        nbCall = 0;
+        limit = 200;
+        return true;
+    }
+
     @Override
     public Decision fixSomeVariables() {
         decision.free();
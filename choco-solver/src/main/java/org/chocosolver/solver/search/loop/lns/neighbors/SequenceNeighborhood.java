@@ -29,6 +29,7 @@
  */
 package org.chocosolver.solver.search.loop.lns.neighbors;
 
+import org.chocosolver.solver.search.solution.Solution;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 
 /**
@@ -63,6 +64,18 @@ public class SequenceNeighborhood implements INeighbor {
 //        System.out.printf("%s %s\n", "% REPARTITION", Arrays.toString(counters));
     }
 
+    @Override
+    public boolean recordSolution(Solution solution) {
+        boolean recorded = false;
+        for (int i = 0; i < count; i++) {
+            recorded |= neighbors[i].recordSolution(solution);
+        }
+        if (recorded) {
+            who = count - 1; // forces to start with the first neighbor
+        }
+        return recorded;
+    }
+
     @Override
     public Decision fixSomeVariables(){
         nextNeighbor();
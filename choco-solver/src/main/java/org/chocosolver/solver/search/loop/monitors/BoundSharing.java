@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.monitors;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.objective.SharedBound;
+
+/**
+ * A search monitor which connects a solver to a {@link SharedBound}.
+ * <p>
+ * Anytime a solution is found, its objective value is offered to the shared bound.
+ * Before going down in the search tree and before restarting, that is, just before the objective cut is posted,
+ * the best known bound is retrieved and transmitted to the objective manager of the solver.
+ * Thus, the objective manager is only modified by the thread which runs the solver.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class BoundSharing implements IMonitorSolution, IMonitorDownBranch, IMonitorRestart {
+
+    /**
+     * The observed solver
+     */
+    private final Solver solver;
+
+    /**
+     * The bound shared with other solvers
+     */
+    private final SharedBound bound;
+
+    /**
+     * Connects <i>solver</i> to <i>bound</i>.
+     *
+     * @param solver the solver to observe
+     * @param bound  the bound shared with other solvers
+     */
+    public BoundSharing(Solver solver, SharedBound bound) {
+        this.solver = solver;
+        this.bound = bound;
+    }
+
+    @Override
+    public void onSolution() {
+        bound.offer(solver.getObjectiveManager());
+    }
+
+    @Override
+    public void beforeDownBranch(boolean left) {
+        poll();
+    }
+
+    @Override
+    public void beforeRestart() {
+        poll();
+    }
+
+    private void poll() {
+        if (solver.getObjectiveManager().isOptimization()) {
+            bound.poll(solver.getObjectiveManager());
+        }
+    }
+}
@@ -50,6 +50,9 @@ import java.util.Arrays;
  * - Must be plugged as a monitor
  * - Only works for integer variables
  * - Only works if branching decisions are assignments (no domain split nor value removal)
+ * <p>
+ * The nogoods recorded are removable: they may be dropped by the nogood store when its budget is exceeded
+ * (see {@link PropNogoods#setBudget(int, long)}).
  *
  * @author Charles Prud'homme
  * @since 20/06/13
@@ -51,6 +51,10 @@ public class NogoodFromSolutions implements IMonitorSolution {
     final PropNogoods png;
     final protected IntVar[] decisionVars;
     final protected TIntList ps;
+    /**
+     * Set to <tt>true</tt> to let the nogood store remove the solution nogoods when it is full
+     */
+    final protected boolean removable;
 
     /**
      * Avoid exploring same solutions (useful with restart on solution)
@@ -64,6 +68,22 @@ public class NogoodFromSolutions implements IMonitorSolution {
      * @param vars all decision variables which define a solution (can be a subset of variables)
      */
     public NogoodFromSolutions(IntVar[] vars) {
+        this(vars, false);
+    }
+
+    /**
+     * Avoid exploring same solutions (useful with restart on solution)
+     * <p>
+     * By default, solution nogoods are protected from the reductions of the nogood store
+     * (see {@link PropNogoods#setBudget(int, long)}), since removing one may lead to find the same solution again.
+     * They can be declared removable when this is acceptable, for instance when optimizing,
+     * where the objective cut already makes them redundant.
+     *
+     * @param vars      all decision variables which define a solution (can be a subset of variables)
+     * @param removable set to <tt>true</tt> to let the nogood store remove the solution nogoods when it is full
+     */
+    public NogoodFromSolutions(IntVar[] vars, boolean removable) {
+        this.removable = removable;
         decisionVars = vars;
         png = vars[0].getSolver().getNogoodStore().getPropNogoods();
         ps = new TIntArrayList();
@@ -76,7 +96,7 @@ public class NogoodFromSolutions implements IMonitorSolution {
         for (int i = 0; i < n; i++) {
             ps.add(SatSolver.negated(png.Literal(decisionVars[i], decisionVars[i].getValue(), true)));
         }
-        png.addLearnt(ps.toArray());
+        png.addLearnt(removable, ps.toArray());
     }
 
 }
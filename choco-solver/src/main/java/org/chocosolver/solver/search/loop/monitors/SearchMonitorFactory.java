@@ -29,7 +29,9 @@
  */
 package org.chocosolver.solver.search.loop.monitors;
 
+import org.chocosolver.solver.ParallelPortfolio;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.objective.SharedBound;
 import org.chocosolver.solver.search.limits.*;
 import org.chocosolver.solver.search.loop.SLF;
 import org.chocosolver.solver.search.loop.SearchLoopFactory;
@@ -338,34 +340,24 @@ public class SearchMonitorFactory {
      * }
      *
      * @param solvers a list of {@code Solver}
+     * @deprecated use {@link ParallelPortfolio} instead, which also diversifies the search strategies
+     * and merges the results.
      */
+    @Deprecated
     public static void prepareForParallelResolution(List<Solver> solvers) {
         if (solvers.get(0).getObjectives() != null &&
                 solvers.get(0).getObjectives().length == 1) {
-            // share the best known bound
-            solvers.stream().forEach(s -> s.plugMonitor(
-                    (IMonitorSolution) () -> {
-                        switch (s.getObjectiveManager().getPolicy()) {
-                            case MAXIMIZE:
-                                int lb = s.getObjectiveManager().getBestSolutionValue().intValue();
-                                solvers.forEach(s1 -> s1.getSearchLoop().getObjectiveManager().updateBestLB(lb));
-                                break;
-                            case MINIMIZE:
-                                int ub = s.getObjectiveManager().getBestSolutionValue().intValue();
-                                solvers.forEach(s1 -> s1.getSearchLoop().getObjectiveManager().updateBestUB(ub));
-                                break;
-                        }
-                    }
-            ));
+            // share the best known bound, each solver polls it from its own thread
+            SharedBound bound = new SharedBound();
+            solvers.forEach(s -> s.plugMonitor(new BoundSharing(s, bound)));
         }
         AtomicInteger finishers = new AtomicInteger(0);
-        solvers.stream().forEach(s -> s.addStopCriterion(()->finishers.get()>0));
-        solvers.stream().forEach(s -> s.plugMonitor(new IMonitorClose() {
+        solvers.forEach(s -> s.addStopCriterion(() -> finishers.get() > 0));
+        solvers.forEach(s -> s.plugMonitor(new IMonitorClose() {
             @Override
             public void afterClose() {
-                int count = finishers.addAndGet(1);
-                if(count == solvers.size()){
-                    finishers.set(0); //reset the counter to 0
+                if (finishers.incrementAndGet() == solvers.size()) {
+                    finishers.set(0); // the last one to end resets the counter to 0
                 }
             }
         }));
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop.monitors;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.solution.SharedSolution;
+
+/**
+ * A search monitor which offers each solution found by a solver to a {@link SharedSolution}.
+ * <p>
+ * Solvers which run an LNS connected to the same shared solution (see
+ * {@link org.chocosolver.solver.search.loop.MoveLNS#setSharedSolution(SharedSolution)}) then adopt it at their next restart.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class SolutionSharing implements IMonitorSolution {
+
+    /**
+     * The observed solver
+     */
+    private final Solver solver;
+
+    /**
+     * The solution shared with other solvers
+     */
+    private final SharedSolution incumbent;
+
+    /**
+     * Connects <i>solver</i> to <i>incumbent</i>.
+     *
+     * @param solver    the solver to observe
+     * @param incumbent the solution shared with other solvers
+     */
+    public SolutionSharing(Solver solver, SharedSolution incumbent) {
+        this.solver = solver;
+        this.incumbent = incumbent;
+    }
+
+    @Override
+    public void onSolution() {
+        incumbent.offer(solver);
+    }
+}
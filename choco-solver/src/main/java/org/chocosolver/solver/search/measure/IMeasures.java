@@ -165,6 +165,38 @@ public interface IMeasures extends Serializable, Cloneable {
      */
     void incSolutionCount();
 
+    /**
+     * @return the number of nogoods added to the nogood store
+     */
+    long getNogoodAddedCount();
+
+    /**
+     * increment the counter of nogoods added
+     */
+    void incNogoodAddedCount();
+
+    /**
+     * @return the number of nogoods removed from the nogood store, by reductions or because they are dominated
+     */
+    long getNogoodDeletedCount();
+
+    /**
+     * increment the counter of nogoods removed
+     * @param nb number of nogoods removed
+     */
+    void incNogoodDeletedCount(long nb);
+
+    /**
+     * @return the number of times a learnt nogood became unit (and filtered) or failed
+     */
+    long getNogoodFiredCount();
+
+    /**
+     * increment the counter of nogoods fired
+     * @param nb number of nogoods fired
+     */
+    void incNogoodFiredCount(long nb);
+
     /**
      * @return the maximum depth of the search tree
      */
@@ -175,6 +207,11 @@ public interface IMeasures extends Serializable, Cloneable {
      */
     long getCurrentDepth();
 
+    /**
+     * @return the number of times the structures of the environment (stacks, trails) have been increased
+     */
+    long getEnvironmentGrowthCount();
+
     /**
      * indicates an objective variable
      */
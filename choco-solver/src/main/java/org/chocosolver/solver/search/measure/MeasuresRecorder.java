@@ -88,6 +88,11 @@ public final class MeasuresRecorder implements IMeasures {
      */
     public long restartCount;
 
+    /**
+     * Counts the number of nogoods added, removed and fired so far.
+     */
+    public long nogoodAddedCount, nogoodDeletedCount, nogoodFiredCount;
+
     /**
      * Stores the overall maximum depth
      */
@@ -129,6 +134,9 @@ public final class MeasuresRecorder implements IMeasures {
         mr.backtrackCount = backtrackCount;
         mr.failCount = failCount;
         mr.restartCount = restartCount;
+        mr.nogoodAddedCount = nogoodAddedCount;
+        mr.nogoodDeletedCount = nogoodDeletedCount;
+        mr.nogoodFiredCount = nogoodFiredCount;
         mr.startingTime = startingTime;
         mr.maxDepth = maxDepth;
         mr.depth = depth;
@@ -161,6 +169,9 @@ public final class MeasuresRecorder implements IMeasures {
         backtrackCount = 0;
         restartCount = 0;
         failCount = 0;
+        nogoodAddedCount = 0;
+        nogoodDeletedCount = 0;
+        nogoodFiredCount = 0;
         solutionCount = 0;
         hasObjective = false;
         depth = 0;
@@ -211,6 +222,21 @@ public final class MeasuresRecorder implements IMeasures {
         return restartCount;
     }
 
+    @Override
+    public long getNogoodAddedCount() {
+        return nogoodAddedCount;
+    }
+
+    @Override
+    public long getNogoodDeletedCount() {
+        return nogoodDeletedCount;
+    }
+
+    @Override
+    public long getNogoodFiredCount() {
+        return nogoodFiredCount;
+    }
+
     @Override
     public long getMaxDepth() {
         return maxDepth;
@@ -221,6 +247,11 @@ public final class MeasuresRecorder implements IMeasures {
         return depth;
     }
 
+    @Override
+    public long getEnvironmentGrowthCount() {
+        return solver.getEnvironment().getNbGrowths();
+    }
+
     @Override
     public boolean isObjectiveOptimal() {
         return objectiveOptimal;
@@ -269,6 +300,21 @@ public final class MeasuresRecorder implements IMeasures {
         restartCount++;
     }
 
+    @Override
+    public void incNogoodAddedCount() {
+        nogoodAddedCount++;
+    }
+
+    @Override
+    public void incNogoodDeletedCount(long nb) {
+        nogoodDeletedCount += nb;
+    }
+
+    @Override
+    public void incNogoodFiredCount(long nb) {
+        nogoodFiredCount += nb;
+    }
+
     @Override
     public void incSolutionCount() {
         solutionCount++;
@@ -393,6 +439,10 @@ public final class MeasuresRecorder implements IMeasures {
                 solver.getNbVars(),
                 solver.getNbCstrs()
         ));
+        if (nogoodAddedCount > 0) {
+            st.append(String.format("\n\tNogoods: %,d added, %,d deleted, %,d fired",
+                    nogoodAddedCount, nogoodDeletedCount, nogoodFiredCount));
+        }
         return st.toString();
     }
 
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.solution;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.objective.ObjectiveManager;
+
+import java.io.Serializable;
+
+/**
+ * A thread-safe channel which stores the best solution (the incumbent) found by a set of solvers running in parallel
+ * on the same model.
+ * <p>
+ * A solver <i>offers</i> each of its solutions to the channel, which is recorded only if it improves the objective value
+ * of the current incumbent (or, when dealing with a satisfaction problem, if no solution has been recorded yet).
+ * Each new incumbent gets a new stamp, so that solvers can cheaply detect, from their own thread, that a better
+ * solution has been found by another solver, and adopt it (see {@link org.chocosolver.solver.search.loop.MoveLNS}).
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public final class SharedSolution implements Serializable {
+
+    /**
+     * The incumbent, <tt>null</tt> while no solution has been found.
+     */
+    private Solution solution;
+
+    /**
+     * The objective value of the incumbent, <tt>null</tt> when dealing with a satisfaction problem.
+     */
+    private Number value;
+
+    /**
+     * The solver which found the incumbent.
+     */
+    private Solver owner;
+
+    /**
+     * Stamp of the incumbent, incremented each time a new one is recorded.
+     */
+    private volatile int stamp;
+
+    /**
+     * Offers the current solution of <i>solver</i> to the channel.
+     * It is recorded only if it improves the incumbent wrt the objective value.
+     * <b>This method has to be called by the thread which runs <i>solver</i>, when a solution has just been found.</b>
+     *
+     * @param solver a solver which has just found a solution
+     * @return <tt>true</tt> if the solution is the new incumbent, <tt>false</tt> otherwise
+     */
+    public synchronized boolean offer(Solver solver) {
+        ObjectiveManager om = solver.getObjectiveManager();
+        Number v = om.isOptimization() ? om.getBestSolutionValue() : null;
+        if (solution != null && (v == null || !improves(om.getPolicy(), v, value))) {
+            return false;
+        }
+        Solution s = new Solution();
+        s.record(solver);
+        solution = s;
+        value = v;
+        owner = solver;
+        stamp++;
+        return true;
+    }
+
+    /**
+     * @return the incumbent, or <tt>null</tt> if no solution has been found yet
+     */
+    public synchronized Solution getSolution() {
+        return solution;
+    }
+
+    /**
+     * @return the objective value of the incumbent, or <tt>null</tt> if no solution has been found yet
+     * or when dealing with a satisfaction problem
+     */
+    public synchronized Number getValue() {
+        return value;
+    }
+
+    /**
+     * @return the solver which found the incumbent, or <tt>null</tt> if no solution has been found yet
+     */
+    public synchronized Solver getOwner() {
+        return owner;
+    }
+
+    /**
+     * @return the stamp of the incumbent, 0 while no solution has been found.
+     * A different stamp indicates a different incumbent.
+     */
+    public int getStamp() {
+        return stamp;
+    }
+
+    /**
+     * Forgets the incumbent
+     */
+    public synchronized void reset() {
+        solution = null;
+        value = null;
+        owner = null;
+        stamp++;
+    }
+
+    private static boolean improves(ResolutionPolicy policy, Number value, Number current) {
+        switch (policy) {
+            case MAXIMIZE:
+                return value.doubleValue() > current.doubleValue();
+            case MINIMIZE:
+                return value.doubleValue() < current.doubleValue();
+            default:
+                return false;
+        }
+    }
+}
@@ -556,6 +556,68 @@ public class IntStrategyFactory {
         return domOverWDeg(VARS, SEED, min_value_selector());
     }
 
+    /**
+     * Assignment strategy which selects a variable according to <code>DomOverWDeg</code>[1],
+     * where the weighted degrees are maintained incrementally, and assign it to the selected value.
+     * <p>
+     * [1]: F. Boussemart, F. Hemery, C. Lecoutre, and L. Sais,
+     * Boosting Systematic Search by Weighting Constraints, ECAI-04.
+     *
+     * @param VARS         list of variables
+     * @param SEED         random seed
+     * @param DECAY        multiplier of the weights on each restart, in ]0,1], 1 means no decay
+     * @param VAL_SELECTOR heuristic to selected the value to assign to the selected variable
+     * @return assignment strategy
+     * @see IncrementalDomOverWDeg
+     */
+    public static AbstractStrategy<IntVar> incDomOverWDeg(IntVar[] VARS, long SEED, double DECAY, IntValueSelector VAL_SELECTOR) {
+        return new IncrementalDomOverWDeg(VARS, SEED, DECAY, VAL_SELECTOR);
+    }
+
+    /**
+     * Assignment strategy which selects a variable according to <code>DomOverWDeg</code>,
+     * where the weighted degrees are maintained incrementally and are not aged on restarts,
+     * and assign it to its lower bound
+     *
+     * @param VARS list of variables
+     * @param SEED random seed
+     * @return assignment strategy
+     * @see IncrementalDomOverWDeg
+     */
+    public static AbstractStrategy<IntVar> incDomOverWDeg(IntVar[] VARS, long SEED) {
+        return incDomOverWDeg(VARS, SEED, 1., min_value_selector());
+    }
+
+    /**
+     * Assignment strategy which selects a variable according to the Conflict-History Search[1]
+     * and assign it to the selected value.
+     * <p>
+     * [1]: D. Habet and C. Terrioux, Conflict history based heuristic for constraint satisfaction problem solving,
+     * Journal of Heuristics, 2021.
+     *
+     * @param VARS         list of variables
+     * @param SEED         random seed
+     * @param VAL_SELECTOR heuristic to selected the value to assign to the selected variable
+     * @return assignment strategy
+     * @see ConflictHistory
+     */
+    public static AbstractStrategy<IntVar> conflictHistory(IntVar[] VARS, long SEED, IntValueSelector VAL_SELECTOR) {
+        return new ConflictHistory(VARS, SEED, VAL_SELECTOR);
+    }
+
+    /**
+     * Assignment strategy which selects a variable according to the Conflict-History Search
+     * and assign it to its lower bound
+     *
+     * @param VARS list of variables
+     * @param SEED random seed
+     * @return assignment strategy
+     * @see ConflictHistory
+     */
+    public static AbstractStrategy<IntVar> conflictHistory(IntVar[] VARS, long SEED) {
+        return conflictHistory(VARS, SEED, min_value_selector());
+    }
+
 
     /**
      * Create an Activity based search strategy.
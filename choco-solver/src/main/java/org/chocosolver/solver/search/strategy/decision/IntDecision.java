@@ -83,6 +83,7 @@ public class IntDecision extends Decision<IntVar> {
     @Override
     public void free() {
         previous = null;
+        once(false); // may have been set by a Once strategy or a work-stealing donation
         poolManager.returnE(this);
     }
 
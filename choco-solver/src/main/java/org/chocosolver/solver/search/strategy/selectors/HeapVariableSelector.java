@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy.selectors;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.variables.IVariableMonitor;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.util.objects.IntMap;
+
+import java.util.Arrays;
+
+/**
+ * A variable selector which maintains the uninstantiated variables in a binary heap, keyed by a
+ * {@link VariableEvaluator} whose evaluation only depends on the domain of a variable
+ * (see {@link VariableEvaluator#isDomainBased()}).
+ * The variable with the smallest evaluation is selected, ties are broken by the lowest index,
+ * that is, the same variable as the one a linear scan would select.
+ * <p>
+ * The heap is updated from domain events: each modified variable is logged and re-evaluated on the next selection.
+ * The size of the log is backtrackable, but the heap is not: on backtrack, the variables logged beyond the size
+ * are lazily re-evaluated before the next selection.
+ * The variables are monitored from the first selection on.
+ * Thus, a selection costs O(k.log(n)), where k is the number of variables modified since the previous one,
+ * instead of O(n).
+ * <p>
+ * It is transparently used by {@link org.chocosolver.solver.search.strategy.strategy.IntStrategy}
+ * on large enough scopes (see {@link #make(VariableSelector, IntVar[])}).
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class HeapVariableSelector implements VariableSelector<IntVar>, IVariableMonitor<IntVar> {
+
+    /**
+     * Minimal number of variables for a heap to be worth maintaining
+     */
+    public static final int MIN_SIZE = 32;
+
+    private final IntVar[] vars;
+    private final VariableEvaluator<IntVar> evaluator;
+    private final IntMap v2i; // variable id to index in vars
+
+    private final double[] keys; // evaluation of each variable, when last re-evaluated
+    private final int[] heap; // indices of the uninstantiated variables, as a binary heap
+    private final int[] pos; // position of each variable in the heap, -1 if not in the heap
+    private int size; // number of variables in the heap
+    private final IStateBool valid; // set to true in the world the heap is built in
+    private boolean attached; // set to true once this is a monitor of the variables
+
+    private int[] log; // indices of the variables modified since their last re-evaluation
+    private int[] logWorld; // world index of each entry of the log
+    private final int[] logPos; // position of the last entry of each variable in the log
+    private int logged; // number of entries in the log, may be greater than the size after a backtrack
+    private int processed; // number of entries already re-evaluated
+    private final IStateInt logSize;
+    private final IEnvironment environment;
+
+    /**
+     * Creates a heap-based selector over <i>vars</i>.
+     * Each variable should appear at most once.
+     *
+     * @param vars      the variables to select from
+     * @param evaluator an evaluator which only depends on the domain of a variable
+     */
+    public HeapVariableSelector(IntVar[] vars, VariableEvaluator<IntVar> evaluator) {
+        this.vars = vars;
+        this.evaluator = evaluator;
+        int n = vars.length;
+        this.keys = new double[n];
+        this.heap = new int[n];
+        this.pos = new int[n];
+        this.log = new int[Math.max(16, n)];
+        this.logPos = new int[n];
+        Arrays.fill(logPos, -1);
+        this.logWorld = new int[log.length];
+        this.environment = vars[0].getSolver().getEnvironment();
+        this.logSize = environment.makeInt(0);
+        this.valid = environment.makeBool(false);
+        this.v2i = new IntMap(n);
+        for (int i = 0; i < n; i++) {
+            v2i.put(vars[i].getId(), i);
+        }
+    }
+
+    /**
+     * Returns a heap-based selector equivalent to <i>selector</i> over <i>vars</i>, when possible and worthwhile,
+     * <i>selector</i> otherwise.
+     * This is possible when <i>selector</i> is a domain-based evaluator and each variable appears at most once.
+     *
+     * @param selector a variable selector
+     * @param vars     the variables it selects from
+     * @return a selector equivalent to <i>selector</i>
+     */
+    @SuppressWarnings("unchecked")
+    public static VariableSelector<IntVar> make(VariableSelector<IntVar> selector, IntVar[] vars) {
+        if (vars.length < MIN_SIZE
+                || !(selector instanceof VariableEvaluator)
+                || !((VariableEvaluator<IntVar>) selector).isDomainBased()) {
+            return selector;
+        }
+        IntMap ids = new IntMap(vars.length);
+        for (int i = 0; i < vars.length; i++) {
+            if (ids.containsKey(vars[i].getId()) || vars[i].getSolver() != vars[0].getSolver()) {
+                return selector;
+            }
+            ids.put(vars[i].getId(), i);
+        }
+        return new HeapVariableSelector(vars, (VariableEvaluator<IntVar>) selector);
+    }
+
+    @Override
+    public IntVar getVariable(IntVar[] variables) {
+        if (!valid.get()) {
+            build();
+        } else {
+            sync();
+        }
+        return size > 0 ? vars[heap[0]] : null;
+    }
+
+    @Override
+    public void onUpdate(IntVar var, IEventType evt) {
+        if (!valid.get()) {
+            return; // the heap will be built again on the next selection
+        }
+        truncate();
+        int i = v2i.get(var.getId());
+        int p = logPos[i];
+        int w = environment.getWorldIndex();
+        if (p >= processed && p < logged && log[p] == i && logWorld[p] == w) {
+            return; // already waiting for re-evaluation, and logged in the same world
+        }
+        if (logged == log.length) {
+            log = Arrays.copyOf(log, logged * 3 / 2 + 1);
+            logWorld = Arrays.copyOf(logWorld, log.length);
+        }
+        log[logged] = i;
+        logWorld[logged] = w;
+        logPos[i] = logged++;
+        logSize.set(logged);
+    }
+
+    /**
+     * Puts every uninstantiated variable in the heap.
+     * This is done on the first selection, and each time the search backtracks above the world the heap was built in
+     * (for instance, on a new resolution), since the domain events of such worlds are not logged.
+     */
+    private void build() {
+        if (!attached) {
+            for (int i = 0; i < vars.length; i++) {
+                vars[i].addMonitor(this);
+            }
+            attached = true;
+        }
+        size = 0;
+        for (int i = 0; i < vars.length; i++) {
+            if (vars[i].isInstantiated()) {
+                pos[i] = -1;
+            } else {
+                keys[i] = evaluator.evaluate(vars[i]);
+                heap[size] = i;
+                pos[i] = size++;
+            }
+        }
+        for (int p = size / 2 - 1; p >= 0; p--) {
+            siftDown(p);
+        }
+        logged = logSize.get();
+        processed = logged;
+        valid.set(true);
+    }
+
+    /**
+     * Re-evaluates, in reverse chronological order, the variables logged in backtracked worlds
+     */
+    private void truncate() {
+        int s = logSize.get();
+        if (logged > s) {
+            while (logged > s) {
+                fix(log[--logged]);
+            }
+            logged = s;
+            if (processed > logged) {
+                processed = logged;
+            }
+        }
+    }
+
+    /**
+     * Re-evaluates the variables logged in backtracked worlds, then the ones modified since the previous selection
+     */
+    private void sync() {
+        truncate();
+        while (processed < logged) {
+            fix(log[processed++]);
+        }
+    }
+
+    /**
+     * Updates the position of the variable <i>i</i> in the heap
+     */
+    private void fix(int i) {
+        int p = pos[i];
+        if (vars[i].isInstantiated()) {
+            if (p > -1) {
+                removeAt(p);
+            }
+        } else if (p == -1) {
+            keys[i] = evaluator.evaluate(vars[i]);
+            heap[size] = i;
+            pos[i] = size;
+            siftUp(size++);
+        } else {
+            double k = evaluator.evaluate(vars[i]);
+            if (k < keys[i]) {
+                keys[i] = k;
+                siftUp(p);
+            } else if (k > keys[i]) {
+                keys[i] = k;
+                siftDown(p);
+            }
+        }
+    }
+
+    private void removeAt(int p) {
+        int i = heap[p];
+        pos[i] = -1;
+        if (p == --size) {
+            return;
+        }
+        int last = heap[size];
+        heap[p] = last;
+        pos[last] = p;
+        if (p > 0 && less(last, heap[(p - 1) / 2])) {
+            siftUp(p);
+        } else {
+            siftDown(p);
+        }
+    }
+
+    private boolean less(int i, int j) {
+        return keys[i] < keys[j] || (keys[i] == keys[j] && i < j);
+    }
+
+    private void siftUp(int p) {
+        int i = heap[p];
+        while (p > 0) {
+            int q = (p - 1) / 2;
+            int j = heap[q];
+            if (!less(i, j)) {
+                break;
+            }
+            heap[p] = j;
+            pos[j] = p;
+            p = q;
+        }
+        heap[p] = i;
+        pos[i] = p;
+    }
+
+    private void siftDown(int p) {
+        int i = heap[p];
+        int half = size / 2;
+        while (p < half) {
+            int c = 2 * p + 1;
+            if (c + 1 < size && less(heap[c + 1], heap[c])) {
+                c++;
+            }
+            int j = heap[c];
+            if (!less(j, i)) {
+                break;
+            }
+            heap[p] = j;
+            pos[j] = p;
+            p = c;
+        }
+        heap[p] = i;
+        pos[i] = p;
+    }
+}
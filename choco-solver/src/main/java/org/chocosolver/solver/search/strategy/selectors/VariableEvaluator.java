@@ -57,4 +57,16 @@ public interface VariableEvaluator<V extends Variable> {
      * @return the result of the evaluation, to minimize
      */
     double evaluate(V variable);
+
+    /**
+     * Indicates whether the evaluation of a variable only depends on the domain of this variable,
+     * and thus can only change when this domain is modified.
+     * Such an evaluator can be maintained incrementally, instead of being computed on each variable at each decision
+     * (see {@link HeapVariableSelector}).
+     *
+     * @return <tt>true</tt> if the evaluation only depends on the domain of the variable, <tt>false</tt> by default
+     */
+    default boolean isDomainBased() {
+        return false;
+    }
 }
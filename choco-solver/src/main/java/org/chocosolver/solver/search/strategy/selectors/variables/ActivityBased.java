@@ -33,7 +33,10 @@ package org.chocosolver.solver.search.strategy.selectors.variables;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntDoubleHashMap;
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.search.loop.Move;
 import org.chocosolver.solver.search.loop.MoveRestart;
@@ -53,14 +56,18 @@ import org.chocosolver.util.PoolManager;
 import org.chocosolver.util.iterators.DisposableValueIterator;
 import org.chocosolver.util.objects.IntMap;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Comparator;
+import java.util.function.Supplier;
 
 /**
  * Implementation of the search described in:
  * "Activity-Based Search for Black-Box Constraint Propagramming Solver",
  * Laurent Michel and Pascal Van Hentenryck, CPAIOR12.
  * <br/>
+ * The sampling phase can be distributed over copies of the model (see {@link #setParallelProbing(Supplier, int)}).
+ * <br/>
  *
  * @author Charles Prud'homme
  * @since 07/06/12
@@ -148,6 +155,11 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 
     Move rfMove;
 
+    Supplier<Solver> modeler; // builds copies of the model to sample in parallel, if any
+    int nbWorkers; // number of copies sampled in parallel
+    ActivityBased master; // when sampling a copy of the model, the strategy which gathers the probes
+    volatile boolean converged; // set to true when the probes gathered from copies are enough
+
     public ActivityBased(final Solver solver, IntVar[] vars, double g, double d, int a, int samplingIterationForced, long seed) {
         super(vars);
         this.solver = solver;
@@ -188,20 +200,107 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 //        init(vars);
     }
 
+    /**
+     * Distributes the sampling phase over <code>nbWorkers</code> copies of the model.
+     * Before the search starts, each copy runs its own probes, in its own thread, and gathers them into this strategy,
+     * until the estimated activities are accurate enough; the sampling then goes on sequentially, if needed.
+     * The domains of a copy are first restricted to the domains at the root node of this strategy's solver.
+     *
+     * @param modeler   a method which creates a solver and declares in it the same model, in the same order,
+     *                  so that variables can be matched by their ids
+     * @param nbWorkers number of copies to sample in parallel, set to 1 (or less) to sample sequentially
+     */
+    public void setParallelProbing(Supplier<Solver> modeler, int nbWorkers) {
+        this.modeler = nbWorkers > 1 ? modeler : null;
+        this.nbWorkers = nbWorkers;
+    }
+
     @Override
     public boolean init() {
+        // when sampling a copy, the value activities are shaped on the original domains
+        IntVar[] domains = master == null ? vars : master.vars;
         for (int i = 0; i < vars.length; i++) {
             //TODO handle large domain size
-            int ampl = vars[i].getUB() - vars[i].getLB() + 1;
+            int ampl = domains[i].getUB() - domains[i].getLB() + 1;
             if (ampl > 512) {
-                vAct[i] = new MapVal(vars[i].getLB());
+                vAct[i] = new MapVal(domains[i].getLB());
             } else {
-                vAct[i] = new ArrayVal(ampl, vars[i].getLB());
+                vAct[i] = new ArrayVal(ampl, domains[i].getLB());
+            }
+        }
+        if (modeler != null && sampling) {
+            sampleInParallel();
+            if (converged) {
+                endSampling();
             }
         }
         return true;
     }
 
+    /**
+     * Runs the probes on copies of the model, each of them sampled by an activity-based strategy
+     * which gathers its probes into this one, until the estimated activities are accurate enough
+     * or until each copy stops by itself.
+     */
+    private void sampleInParallel() {
+        converged = false;
+        long seed = random.nextLong();
+        RootProbing.run(nbWorkers, rank -> {
+            Solver copy = modeler.get();
+            IntVar[] cvars = RootProbing.mirror(copy, vars);
+            try {
+                RootProbing.restrict(cvars, vars, Cause.Null);
+            } catch (ContradictionException e) {
+                throw new SolverException("The copy of the model is inconsistent at the root node");
+            }
+            ActivityBased worker = new ActivityBased(copy, cvars, g, d, a, samplingIterationForced,
+                    seed + rank);
+            worker.master = this;
+            copy.set(worker);
+            copy.addStopCriterion(() -> converged);
+            copy.findSolution();
+        });
+    }
+
+    /**
+     * Gathers the last probe of <code>worker</code>: the activities are aggregated, as if the probe was run
+     * on this strategy.
+     *
+     * @param worker the strategy of a copy of the model
+     */
+    private synchronized void gather(ActivityBased worker) {
+        if (!converged) {
+            converged = sample(worker.A, worker.vAct);
+        }
+    }
+
+    /**
+     * Updates the means and variances of the activities with a new probe.
+     *
+     * @param pA    the activity of each variable in the probe
+     * @param pvAct the activity of each value in the probe
+     * @return <tt>true</tt> if the sampling phase can end
+     */
+    private boolean sample(double[] pA, IVal[] pvAct) {
+        nb_probes++;
+        for (int i = 0; i < A.length; i++) {
+            double activity = pA[i];
+            double oldmA = mA[i];
+
+            double U = activity - oldmA;
+            mA[i] += (U / nb_probes);
+            sA[i] += (U * (activity - mA[i]));
+            vAct[i].update(pvAct[i], nb_probes);
+        }
+        // check if sampling is still required
+        int idx = 0;
+        while (idx < vars.length && checkInterval(idx)) {
+            idx++;
+        }
+        //BEWARE: when it fails very soon (after 1 node), it is worth forcing sampling
+        return nb_probes > samplingIterationForced && idx == vars.length;
+    }
+
     @Override
     public Decision<IntVar> computeDecision(IntVar variable) {
         if (variable == null || variable.isInstantiated()) {
@@ -356,48 +455,45 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
     @Override
     public void afterRestart() {
         if (sampling) {
-            nb_probes++;
-            for (int i = 0; i < A.length; i++) {
-                double activity = A[i];
-                double oldmA = mA[i];
-
-                double U = activity - oldmA;
-                mA[i] += (U / nb_probes);
-                sA[i] += (U * (activity - mA[i]));
-                A[i] = 0;
-                vAct[i].update(nb_probes);
-            }
-            // check if sampling is still required
-            int idx = 0;
-            while (idx < vars.length && checkInterval(idx)) {
-                idx++;
-            }
-            //BEWARE: when it fails very soon (after 1 node), it is worth forcing sampling
-            if (nb_probes > samplingIterationForced && idx == vars.length) {
-                sampling = false;
-                if(restartAfterEachFail){
-                    SearchLoop sl = solver.getSearchLoop();
-                    Move m = sl.getMove();
-                    if(m == rfMove){
-                        sl.setMove(rfMove.getChildMoves().get(0));
-                    }else{
-                        while(m.getChildMoves()!= null && m.getChildMoves()!= rfMove){
-                            m = m.getChildMoves().get(0);
-                        }
-                        if(m.getChildMoves()!= rfMove){
-                            m.setChildMoves(rfMove.getChildMoves());
-                        }
-                    }
+            if (master != null) {
+                master.gather(this);
+                Arrays.fill(A, 0);
+            } else {
+                boolean enough = sample(A, vAct);
+                Arrays.fill(A, 0);
+                if (enough) {
+                    endSampling();
                 }
-                restartAfterEachFail = false;
+            }
+        }
+    }
 
-                // then copy values estimated
-                System.arraycopy(mA, 0, A, 0, mA.length);
-                for (int i = 0; i < A.length; i++) {
-                    vAct[i].transfer();
+    /**
+     * Ends the sampling phase: the restarts after each fail are removed and the estimated activities are copied.
+     */
+    private void endSampling() {
+        sampling = false;
+        if(restartAfterEachFail){
+            SearchLoop sl = solver.getSearchLoop();
+            Move m = sl.getMove();
+            if(m == rfMove){
+                sl.setMove(rfMove.getChildMoves().get(0));
+            }else{
+                while(m.getChildMoves()!= null && m.getChildMoves()!= rfMove){
+                    m = m.getChildMoves().get(0);
+                }
+                if(m.getChildMoves()!= rfMove){
+                    m.setChildMoves(rfMove.getChildMoves());
                 }
             }
         }
+        restartAfterEachFail = false;
+
+        // then copy values estimated
+        System.arraycopy(mA, 0, A, 0, mA.length);
+        for (int i = 0; i < A.length; i++) {
+            vAct[i].transfer();
+        }
     }
 
     /**
@@ -424,7 +520,7 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 
         void setactivity(int value, double activity);
 
-        void update(int nb_probes);
+        void update(IVal probe, int nb_probes);
 
         void transfer();
     }
@@ -455,10 +551,11 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
         }
 
         @Override
-        public void update(int nb_probes) {
+        public void update(IVal probe, int nb_probes) {
+            double[] pAv = ((ArrayVal) probe).Av;
             double activity, oldmA, U;
             for (int j = 0; j < Av.length; j++) {
-                activity = Av[j];
+                activity = pAv[j];
                 oldmA = mAv[j];
                 U = activity - oldmA;
                 mAv[j] += (U / nb_probes);
@@ -494,12 +591,13 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
         }
 
         @Override
-        public void update(int nb_probes) {
+        public void update(IVal probe, int nb_probes) {
+            TIntDoubleHashMap pAv = ((MapVal) probe).Av;
             double activity, oldmA, U;
-            int[] keys = Av.keys();
+            int[] keys = pAv.keys();
             for (int j = 0; j < keys.length; j++) {
                 int k = keys[j];
-                activity = Av.get(k);
+                activity = pAv.get(k);
                 oldmA = mAv.get(k);
                 U = activity - oldmA;
                 mAv.adjustValue(k, U / nb_probes);
@@ -61,4 +61,9 @@ public class AntiFirstFail implements VariableSelector<IntVar>,VariableEvaluator
     public double evaluate(IntVar variable) {
         return -variable.getDomainSize();
     }
+
+    @Override
+    public boolean isDomainBased() {
+        return true;
+    }
 }
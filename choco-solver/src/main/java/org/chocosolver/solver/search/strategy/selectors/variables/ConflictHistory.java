@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.search.strategy.selectors.IntValueSelector;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of the Conflict-History Search[1].
+ * <p>
+ * Each propagator is given a score, which is rewarded on each of its failures: the more recent its previous failure,
+ * the higher the reward.
+ * The score of a variable is the sum of the scores of its propagators, and is maintained incrementally:
+ * the variables of a failing propagator are updated on failure, and all the scores are smoothed on each restart,
+ * according to the number of failures since the last failure of each propagator.
+ * Unlike [1], the propagators with less than two uninstantiated variables are not filtered out.
+ * <p>
+ * [1]: D. Habet and C. Terrioux, Conflict history based heuristic for constraint satisfaction problem solving,
+ * Journal of Heuristics, 2021.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class ConflictHistory extends ConflictScoring {
+
+    /**
+     * Initial step-size of the exponential recency weighted average
+     */
+    private static final double ALPHA = .1;
+
+    /**
+     * Minimal step-size
+     */
+    private static final double ALPHA_MIN = .06;
+
+    /**
+     * Decrement of the step-size on each failure
+     */
+    private static final double ALPHA_STEP = 1e-6;
+
+    /**
+     * Smoothing factor, applied on restart
+     */
+    private static final double SMOOTHING = .995;
+
+    /**
+     * Score of each variable before any failure, for each of its propagators
+     */
+    private static final double DELTA = 1e-4;
+
+    /**
+     * Current step-size
+     */
+    private double alpha;
+
+    /**
+     * Score of each propagator, indexed by propagator ID
+     */
+    private double[] q;
+
+    /**
+     * Index of the last failure of each propagator, indexed by propagator ID
+     */
+    private long[] last;
+
+    /**
+     * Stamp of the last variable whose score summed the score of each propagator, indexed by propagator ID
+     */
+    private int[] marks;
+
+    /**
+     * Stamp of the current variable
+     */
+    private int mark;
+
+    /**
+     * Creates a Conflict-History Search strategy
+     *
+     * @param variables     decision variables
+     * @param seed          seed for breaking ties randomly
+     * @param valueSelector a value selector
+     */
+    public ConflictHistory(IntVar[] variables, long seed, IntValueSelector valueSelector) {
+        super(variables, seed, valueSelector);
+        this.alpha = ALPHA;
+        this.q = new double[0];
+        this.last = new long[0];
+        this.marks = new int[0];
+    }
+
+    @Override
+    protected double initialScore(IntVar var) {
+        return DELTA * var.getNbProps();
+    }
+
+    @Override
+    protected void onFailure(Propagator propagator) {
+        int pid = propagator.getId();
+        if (pid >= q.length) {
+            int size = Math.max(pid + 1, q.length * 3 / 2);
+            q = Arrays.copyOf(q, size);
+            last = Arrays.copyOf(last, size);
+            marks = Arrays.copyOf(marks, size);
+        }
+        double reward = 1. / (conflicts - last[pid] + 1);
+        double delta = alpha * (reward - q[pid]);
+        q[pid] += delta;
+        last[pid] = conflicts;
+        increase(propagator, delta);
+        if (alpha > ALPHA_MIN) {
+            alpha -= ALPHA_STEP;
+        }
+    }
+
+    @Override
+    public void afterRestart() {
+        alpha = ALPHA;
+        for (int pid = 0; pid < q.length; pid++) {
+            if (q[pid] > 0.) {
+                q[pid] *= Math.pow(SMOOTHING, conflicts - last[pid]);
+            }
+        }
+        for (int i = 0; i < vars.length; i++) {
+            IntVar var = vars[i];
+            if (mark == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                mark = 0;
+            }
+            mark++;
+            double s = DELTA * var.getNbProps();
+            for (int p = 0; p < var.getNbProps(); p++) {
+                int pid = var.getPropagator(p).getId();
+                if (pid < q.length && marks[pid] != mark) {
+                    // a propagator is summed once, even if var appears several times in its scope
+                    marks[pid] = mark;
+                    s += q[pid];
+                }
+            }
+            scores[var.getId()] = s;
+        }
+    }
+
+    /**
+     * @param propagator a propagator
+     * @return the current score of <i>propagator</i>
+     */
+    public double score(Propagator propagator) {
+        int pid = propagator.getId();
+        return pid < q.length ? q[pid] : 0.;
+    }
+}
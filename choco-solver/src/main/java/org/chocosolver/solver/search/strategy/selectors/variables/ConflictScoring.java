@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.selectors.IntValueSelector;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.PoolManager;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Base class of the search strategies which score the variables from the failures of the propagators,
+ * such as {@link IncrementalDomOverWDeg} or {@link ConflictHistory}.
+ * <p>
+ * The score of each variable is maintained incrementally in a primitive array indexed by variable ID:
+ * it is updated on each failure (see {@link #onFailure(Propagator)}), and may be aged on each restart
+ * (see {@link #afterRestart()}).
+ * The variable which maximizes its score divided by its domain size is selected,
+ * ties are broken randomly; the selection iterates over the variables only, and does not allocate.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public abstract class ConflictScoring extends AbstractStrategy<IntVar> implements IMonitorContradiction, IMonitorRestart {
+
+    /**
+     * Score of each variable, indexed by variable ID
+     */
+    protected double[] scores;
+
+    /**
+     * Stamp of the last failure which increased the score of each variable, indexed by variable ID
+     */
+    private int[] stamps;
+
+    /**
+     * Stamp of the current failure
+     */
+    private int stamp;
+
+    /**
+     * Number of failures caused by a propagator since the beginning of the resolution
+     */
+    protected long conflicts;
+
+    /**
+     * Randomness to break ties
+     */
+    private final Random random;
+
+    /**
+     * The way value is selected for a given variable
+     */
+    private final IntValueSelector valueSelector;
+
+    /**
+     * Decisions pool, to limit memory footprint
+     */
+    private final PoolManager<IntDecision> decisionPool;
+
+    /**
+     * Creates a conflict-driven strategy, and plugs it as a search monitor of the solver of the variables
+     *
+     * @param variables     decision variables
+     * @param seed          seed for breaking ties randomly
+     * @param valueSelector a value selector
+     */
+    protected ConflictScoring(IntVar[] variables, long seed, IntValueSelector valueSelector) {
+        super(variables);
+        Solver solver = variables[0].getSolver();
+        this.scores = new double[0];
+        this.stamps = new int[0];
+        this.random = new Random(seed);
+        this.valueSelector = valueSelector;
+        this.decisionPool = new PoolManager<>();
+        solver.plugMonitor(this);
+    }
+
+    @Override
+    public boolean init() {
+        int max = 0;
+        for (int i = 0; i < vars.length; i++) {
+            max = Math.max(max, vars[i].getId());
+        }
+        ensureVariable(max);
+        for (int i = 0; i < vars.length; i++) {
+            scores[vars[i].getId()] = initialScore(vars[i]);
+        }
+        return true;
+    }
+
+    /**
+     * @param var a decision variable
+     * @return the score of <i>var</i> before any failure
+     */
+    protected abstract double initialScore(IntVar var);
+
+    /**
+     * Updates the scores on a failure of <i>propagator</i>
+     *
+     * @param propagator a failing propagator, with at least two variables
+     */
+    protected abstract void onFailure(Propagator propagator);
+
+    @Override
+    public void onContradiction(ContradictionException cex) {
+        if (cex.c instanceof Propagator) {
+            Propagator propagator = (Propagator) cex.c;
+            if (propagator.getNbVars() > 1) {
+                onFailure(propagator);
+                conflicts++;
+            }
+        }
+    }
+
+    @Override
+    public Decision<IntVar> getDecision() {
+        IntVar best = null;
+        double bestScore = -1.;
+        int ties = 0;
+        for (int i = 0; i < vars.length; i++) {
+            int dsize = vars[i].getDomainSize();
+            if (dsize > 1) {
+                double s = score(vars[i]) / dsize;
+                if (s > bestScore) {
+                    best = vars[i];
+                    bestScore = s;
+                    ties = 1;
+                } else if (s == bestScore && random.nextInt(++ties) == 0) {
+                    best = vars[i];
+                }
+            }
+        }
+        return computeDecision(best);
+    }
+
+    @Override
+    public Decision<IntVar> computeDecision(IntVar variable) {
+        if (variable == null || variable.isInstantiated()) {
+            return null;
+        }
+        int value = valueSelector.selectValue(variable);
+        IntDecision current = decisionPool.getE();
+        if (current == null) {
+            current = new IntDecision(decisionPool);
+        }
+        current.set(variable, value, DecisionOperator.int_eq);
+        return current;
+    }
+
+    /**
+     * @param var a variable
+     * @return the current score of <i>var</i>, 0 if it is not scored
+     */
+    public double score(Variable var) {
+        int id = var.getId();
+        return id < scores.length ? scores[id] : 0.;
+    }
+
+    /**
+     * Adds <i>delta</i> to the score of each variable of <i>propagator</i>,
+     * once per variable even if it appears several times in the scope of <i>propagator</i>
+     */
+    protected void increase(Propagator propagator, double delta) {
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 0;
+        }
+        stamp++;
+        Variable[] pvars = propagator.getVars();
+        for (int i = 0; i < pvars.length; i++) {
+            int id = pvars[i].getId();
+            ensureVariable(id);
+            if (stamps[id] != stamp) {
+                stamps[id] = stamp;
+                scores[id] += delta;
+            }
+        }
+    }
+
+    /**
+     * Ensures that the variable ID <i>id</i> can be scored
+     */
+    private void ensureVariable(int id) {
+        if (id >= scores.length) {
+            int size = Math.max(id + 1, scores.length * 3 / 2);
+            scores = Arrays.copyOf(scores, size);
+            stamps = Arrays.copyOf(stamps, size);
+        }
+    }
+
+    /**
+     * @return the number of failures caused by a propagator since the beginning of the resolution
+     */
+    public long getNbConflicts() {
+        return conflicts;
+    }
+}
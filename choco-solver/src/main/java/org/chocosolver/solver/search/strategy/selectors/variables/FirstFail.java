@@ -62,4 +62,9 @@ public class FirstFail implements VariableSelector<IntVar>, VariableEvaluator<In
     public double evaluate(IntVar variable) {
         return variable.getDomainSize();
     }
+
+    @Override
+    public boolean isDomainBased() {
+        return true;
+    }
 }
@@ -33,6 +33,7 @@ import org.chocosolver.memory.IStateDouble;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
 import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
 import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
@@ -47,6 +48,9 @@ import org.chocosolver.util.iterators.DisposableValueIterator;
 import org.chocosolver.util.objects.IntList;
 
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Implementation of the search described in:
@@ -56,6 +60,8 @@ import java.util.Random;
  * <p/>
  * Impacts of variables are first computed on initialisation, (only 3 values are tested for bounded variables);
  * Ties are broken randomly.
+ * <p/>
+ * The initialisation can be distributed over copies of the model (see {@link #setParallelProbing(Supplier, int)}).
  *
  * @author Charles Prud'homme
  * @since 21/09/12
@@ -88,6 +94,9 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
 
     protected long timeLimit = Integer.MAX_VALUE; // a time limit for init()
 
+    protected Supplier<Solver> modeler; // builds copies of the model to probe in parallel, if any
+    protected int nbWorkers; // number of copies probed in parallel
+
     /**
      * Create an Impact-based search strategy with Node Impact strategy.
      * <p/>
@@ -193,6 +202,21 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
         }
     }
 
+    /**
+     * Distributes the initialisation phase over <code>nbWorkers</code> copies of the model, each of them probing,
+     * in its own thread, the variables not yet probed by the others.
+     * The domains of a copy are first restricted to the domains at the root node of this strategy's solver.
+     * The time limit, if any, applies to each copy.
+     *
+     * @param modeler   a method which creates a solver and declares in it the same model, in the same order,
+     *                  so that variables can be matched by their ids
+     * @param nbWorkers number of copies to probe in parallel, set to 1 (or less) to probe sequentially
+     */
+    public void setParallelProbing(Supplier<Solver> modeler, int nbWorkers) {
+        this.modeler = nbWorkers > 1 ? modeler : null;
+        this.nbWorkers = nbWorkers;
+    }
+
     @Override
     public boolean init(){
         long tl = System.currentTimeMillis() + this.timeLimit;
@@ -203,58 +227,10 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
         double before = searchSpaceSize();
         searchSpaceSize.set(before);
         learnsAndFails = false;
-        loop:
-        for (int i = 0; i < vars.length; i++) {
-            IntVar v = vars[i];
-            int offset = v.getLB();
-            int UB = v.getUB();
-            int dsz = UB - offset + 1;//v.getDomainSize();
-            if (!v.isInstantiated()) { // if the variable is not instantiated
-                Ilabel[i] = new double[v.hasEnumeratedDomain() ? dsz : 1];
-                offsets[i] = offset;
-
-                if (v.hasEnumeratedDomain()) {
-                    if (v.getDomainSize() < split) { // try each value
-                        DisposableValueIterator it = v.getValueIterator(true);
-                        while (it.hasNext()) {
-                            if (System.currentTimeMillis() > tl) {
-                                break loop;
-                            }
-                            int a = it.next();
-                            double im = computeImpact(v, a, before);
-                            Ilabel[i][a - offset] = im;
-                        }
-                        it.dispose();
-                    } else { // estimate per subdomains
-                        int step = 0;
-                        int size = dsz / split;
-                        DisposableValueIterator it = v.getValueIterator(true);
-                        while (it.hasNext()) {
-                            if (System.currentTimeMillis() > tl) {
-                                break loop;
-                            }
-                            int a = it.next();
-                            double im;
-                            if (step % size == 0) {
-                                im = computeImpact(v, a, before);
-                            } else {
-                                im = Ilabel[i][a - 1 - offset];
-                            }
-                            Ilabel[i][a - offset] = im;
-                            step++;
-                        }
-                        it.dispose();
-                    }
-                } else {
-                    if (System.currentTimeMillis() > tl) {
-                        break;
-                    }
-                    // A. choose 3 values in the domain to have an estimation of the impact
-                    double i1 = computeImpact(v, v.getLB(), before);
-                    double i2 = computeImpact(v, v.getUB(), before);
-                    double i3 = computeImpact(v, (v.getLB() + v.getUB()) / 2, before);
-                    Ilabel[i][0] = (i1 + i2 + i3) / 3d;
-                }
+        if (modeler != null) {
+            probeInParallel(before, tl);
+        } else {
+            for (int i = 0; i < vars.length && probe(i, before, tl); i++) {
             }
         }
         if (learnsAndFails) {
@@ -279,6 +255,102 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
     }
 
 
+    /**
+     * Estimate the impacts of the assignments of the variable <code>i</code>
+     *
+     * @param i      index of the variable
+     * @param before search space size at the root node
+     * @param tl     time limit (in milliseconds)
+     * @return <tt>false</tt> if the time limit has been reached
+     */
+    private boolean probe(int i, double before, long tl) {
+        IntVar v = vars[i];
+        int offset = v.getLB();
+        int UB = v.getUB();
+        int dsz = UB - offset + 1;//v.getDomainSize();
+        if (!v.isInstantiated()) { // if the variable is not instantiated
+            Ilabel[i] = new double[v.hasEnumeratedDomain() ? dsz : 1];
+            offsets[i] = offset;
+
+            if (v.hasEnumeratedDomain()) {
+                if (v.getDomainSize() < split) { // try each value
+                    DisposableValueIterator it = v.getValueIterator(true);
+                    while (it.hasNext()) {
+                        if (System.currentTimeMillis() > tl) {
+                            return false;
+                        }
+                        int a = it.next();
+                        double im = computeImpact(v, a, before);
+                        Ilabel[i][a - offset] = im;
+                    }
+                    it.dispose();
+                } else { // estimate per subdomains
+                    int step = 0;
+                    int size = dsz / split;
+                    DisposableValueIterator it = v.getValueIterator(true);
+                    while (it.hasNext()) {
+                        if (System.currentTimeMillis() > tl) {
+                            return false;
+                        }
+                        int a = it.next();
+                        double im;
+                        if (step % size == 0) {
+                            im = computeImpact(v, a, before);
+                        } else {
+                            im = Ilabel[i][a - 1 - offset];
+                        }
+                        Ilabel[i][a - offset] = im;
+                        step++;
+                    }
+                    it.dispose();
+                }
+            } else {
+                if (System.currentTimeMillis() > tl) {
+                    return false;
+                }
+                // A. choose 3 values in the domain to have an estimation of the impact
+                double i1 = computeImpact(v, v.getLB(), before);
+                double i2 = computeImpact(v, v.getUB(), before);
+                double i3 = computeImpact(v, (v.getLB() + v.getUB()) / 2, before);
+                Ilabel[i][0] = (i1 + i2 + i3) / 3d;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimate the impacts of the assignments of all variables, over copies of the model.
+     * Each copy is probed by an impact-based strategy which shares the impact tables of this one,
+     * the variables being pulled one by one, so that each row of the tables is filled by exactly one copy.
+     *
+     * @param before search space size at the root node
+     * @param tl     time limit (in milliseconds)
+     */
+    private void probeInParallel(double before, long tl) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean fails = new AtomicBoolean();
+        RootProbing.run(nbWorkers, rank -> {
+            Solver copy = modeler.get();
+            ImpactBased worker = new ImpactBased(RootProbing.mirror(copy, vars), aging, 0, 0, rank, true);
+            worker.split = split;
+            worker.Ilabel = Ilabel;
+            worker.offsets = offsets;
+            try {
+                RootProbing.restrict(worker.vars, vars, worker);
+                copy.propagate();
+            } catch (ContradictionException e) {
+                throw new SolverException("The copy of the model is inconsistent at the root node");
+            }
+            int i;
+            while ((i = next.getAndIncrement()) < vars.length && worker.probe(i, before, tl)) {
+            }
+            if (worker.learnsAndFails) {
+                fails.set(true);
+            }
+        });
+        learnsAndFails |= fails.get();
+    }
+
     @Override
     public void onContradiction(ContradictionException cex) {
         asgntFailed = true;
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.selectors.IntValueSelector;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Implementation of DowOverWDeg[1] where the weighted degree of each variable is maintained incrementally.
+ * <p>
+ * Unlike {@link DomOverWDeg}, which sums the failures of the propagators of each variable at each decision,
+ * the weighted degree of all the variables of a failing propagator is increased on failure.
+ * As a consequence, a failure is counted even when the propagator has less than two uninstantiated variables
+ * afterwards.
+ * On each restart, the weights can be multiplied by a decay factor, to favour the recent failures.
+ * <p>
+ * [1]: F. Boussemart, F. Hemery, C. Lecoutre, and L. Sais, Boosting Systematic Search by Weighting Constraints, ECAI-04.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class IncrementalDomOverWDeg extends ConflictScoring {
+
+    /**
+     * Multiplier applied to the weights on each restart
+     */
+    private final double decay;
+
+    /**
+     * Creates a DomOverWDeg strategy with incremental weighted degrees
+     *
+     * @param variables     decision variables
+     * @param seed          seed for breaking ties randomly
+     * @param decay         multiplier of the weights on each restart, in ]0,1], 1 means no decay
+     * @param valueSelector a value selector
+     */
+    public IncrementalDomOverWDeg(IntVar[] variables, long seed, double decay, IntValueSelector valueSelector) {
+        super(variables, seed, valueSelector);
+        if (decay <= 0. || decay > 1.) {
+            throw new SolverException("The decay factor should be in ]0,1]");
+        }
+        this.decay = decay;
+    }
+
+    @Override
+    protected double initialScore(IntVar var) {
+        return 1.;
+    }
+
+    @Override
+    protected void onFailure(Propagator propagator) {
+        increase(propagator, 1.);
+    }
+
+    @Override
+    public void afterRestart() {
+        if (decay < 1.) {
+            for (int i = 0; i < scores.length; i++) {
+                if (scores[i] > 1.) {
+                    scores[i] = 1. + (scores[i] - 1.) * decay;
+                }
+            }
+        }
+    }
+}
@@ -63,4 +63,9 @@ public class Largest implements VariableSelector<IntVar>,VariableEvaluator<IntVa
     public double evaluate(IntVar variable) {
         return -variable.getUB();
     }
+
+    @Override
+    public boolean isDomainBased() {
+        return true;
+    }
 }
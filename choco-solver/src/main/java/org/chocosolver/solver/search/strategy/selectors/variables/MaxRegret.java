@@ -65,4 +65,9 @@ public class MaxRegret implements VariableSelector<IntVar>,VariableEvaluator<Int
         int lower = variable.getLB();
         return -(variable.nextValue(lower) - lower);
     }
+
+    @Override
+    public boolean isDomainBased() {
+        return true;
+    }
 }
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.objects.IntMap;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Utilities to distribute the root probing of {@link ImpactBased} and {@link ActivityBased} over copies of the model.
+ * <p>
+ * A copy is a solver in which the same model has been declared, in the same order,
+ * so that its variables can be matched with the original ones by their ids.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+final class RootProbing {
+
+    private RootProbing() {
+    }
+
+    /**
+     * @param copy a copy of the model
+     * @param vars variables of the original model
+     * @return the variables of <i>copy</i> which match <i>vars</i>
+     * @throws SolverException if a variable cannot be matched
+     */
+    static IntVar[] mirror(Solver copy, IntVar[] vars) {
+        Variable[] cvars = copy.getVars();
+        IntMap indices = new IntMap(cvars.length);
+        for (int i = 0; i < cvars.length; i++) {
+            indices.put(cvars[i].getId(), i);
+        }
+        IntVar[] mirror = new IntVar[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            int idx = indices.get(vars[i].getId());
+            if (idx == -1 || !(cvars[idx] instanceof IntVar)) {
+                throw new SolverException("The copy of the model does not declare the variable " + vars[i].getName());
+            }
+            mirror[i] = (IntVar) cvars[idx];
+        }
+        return mirror;
+    }
+
+    /**
+     * Restricts the domain of each variable of <i>copies</i> to the domain of the matching variable of <i>vars</i>.
+     *
+     * @param copies variables of a copy of the model
+     * @param vars   variables of the original model
+     * @param cause  the cause of the modifications
+     * @throws ContradictionException if a domain becomes empty
+     */
+    static void restrict(IntVar[] copies, IntVar[] vars, ICause cause) throws ContradictionException {
+        for (int i = 0; i < vars.length; i++) {
+            IntVar c = copies[i];
+            IntVar v = vars[i];
+            c.updateBounds(v.getLB(), v.getUB(), cause);
+            if (v.hasEnumeratedDomain()) {
+                int ub = c.getUB();
+                for (int a = c.getLB(); a <= ub; a = c.nextValue(a)) {
+                    if (!v.contains(a)) {
+                        c.removeValue(a, cause);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs <i>task</i> in <i>nbWorkers</i> threads, each of them being given its rank, and waits for all of them to end.
+     *
+     * @param nbWorkers number of threads
+     * @param task      the task to run
+     * @throws SolverException if a task ends unexpectedly
+     */
+    static void run(int nbWorkers, IntConsumer task) {
+        Thread[] workers = new Thread[nbWorkers];
+        SolverException[] errors = new SolverException[1];
+        for (int i = 0; i < nbWorkers; i++) {
+            int rank = i;
+            workers[i] = new Thread(() -> {
+                try {
+                    task.accept(rank);
+                } catch (RuntimeException e) {
+                    synchronized (errors) {
+                        if (errors[0] == null) {
+                            errors[0] = new SolverException("Probing worker " + rank + " ended unexpectedly", e);
+                        }
+                    }
+                }
+            }, "probing-" + i);
+            workers[i].start();
+        }
+        try {
+            for (Thread w : workers) {
+                w.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (errors[0] != null) {
+            throw errors[0];
+        }
+    }
+}
@@ -62,4 +62,9 @@ public class Smallest implements VariableSelector<IntVar>, VariableEvaluator<Int
     public double evaluate(IntVar variable) {
         return variable.getLB();
     }
+
+    @Override
+    public boolean isDomainBased() {
+        return true;
+    }
 }
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.nary.cnf.PropNogoods;
+import org.chocosolver.solver.search.loop.LearnLCG;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.PoolManager;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of VSIDS (Variable State Independent Decaying Sum) over the literals of the learnt clauses.
+ * <p>
+ * The literal not yet decided with the highest activity (see {@link LearnLCG#getActivity(int)}) is selected:
+ * a literal "x = v" is branched on with "x = v", a literal "x &le; v" with "x &le; v".
+ * When no active literal is undecided (typically, before the first conflict), the decision is delegated to a fallback
+ * strategy, which ensures the completeness of the search.
+ * <p>
+ * The active literals are stored in a binary max-heap ordered by activity, ties being broken by the highest index.
+ * A literal enters the heap when its activity is first increased, and moves up each time it is increased
+ * (a rescaling does not change the order).
+ * Decided literals are removed lazily, when they reach the top of the heap, and pushed on a stack whose size is
+ * backtrackable: on backtrack, the literals removed in the popped worlds are put back in the heap before the next selection.
+ * Thus, a selection costs O((k+1).log(n)), where k is the number of literals removed or put back,
+ * instead of O(n) for a scan of the literals.
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class VSIDS extends AbstractStrategy<IntVar> {
+
+    /**
+     * The learning strategy which maintains the activities
+     */
+    private final LearnLCG lcg;
+
+    /**
+     * The strategy to use when no literal is active
+     */
+    private final AbstractStrategy<IntVar> fallback;
+
+    /**
+     * Decisions pool, to limit memory footprint
+     */
+    private final PoolManager<IntDecision> decisionPool;
+
+    private int[] heap; // numbers of the active literals, as a binary max-heap
+    private int[] pos; // position of each literal in the heap, -1 if not active, -2 if in the stack of decided literals
+    private int size; // number of literals in the heap
+
+    private int[] decided; // literals removed from the heap because they were decided
+    private int nbDecided; // number of entries in the stack, may be greater than its size after a backtrack
+    private final IStateInt decidedSize;
+
+    /**
+     * Creates a VSIDS strategy
+     *
+     * @param lcg      the learning strategy which maintains the activities of the literals
+     * @param fallback the strategy to use when no literal is active
+     */
+    public VSIDS(LearnLCG lcg, AbstractStrategy<IntVar> fallback) {
+        super(fallback.getVariables());
+        this.lcg = lcg;
+        this.fallback = fallback;
+        this.decisionPool = new PoolManager<>();
+        this.heap = new int[16];
+        this.pos = new int[16];
+        Arrays.fill(pos, -1);
+        this.decided = new int[16];
+        this.decidedSize = lcg.getNogoodStore().getSolver().getEnvironment().makeInt(0);
+        lcg.setHeuristic(this);
+    }
+
+    @Override
+    public boolean init() {
+        return fallback.init();
+    }
+
+    @Override
+    public Decision<IntVar> getDecision() {
+        PropNogoods ngstore = lcg.getNogoodStore();
+        int s = decidedSize.get();
+        while (nbDecided > s) {
+            insert(decided[--nbDecided]);
+        }
+        while (size > 0 && !isUndecided(ngstore, PropNogoods.literal(heap[0]))) {
+            int i = heap[0];
+            removeTop();
+            if (nbDecided == decided.length) {
+                decided = Arrays.copyOf(decided, nbDecided * 3 / 2 + 1);
+            }
+            decided[nbDecided++] = i;
+            pos[i] = -2;
+        }
+        decidedSize.set(nbDecided);
+        if (size == 0) {
+            return fallback.getDecision();
+        }
+        int lit = PropNogoods.literal(heap[0]);
+        IntDecision decision = decisionPool.getE();
+        if (decision == null) {
+            decision = new IntDecision(decisionPool);
+        }
+        decision.set(ngstore.getIntVar(lit), ngstore.getValue(lit),
+                ngstore.isEq(lit) ? DecisionOperator.int_eq : DecisionOperator.int_split);
+        return decision;
+    }
+
+    /**
+     * Called by {@link LearnLCG} each time the activity of a literal is increased.
+     *
+     * @param i the number of a literal of the nogood store (see {@link PropNogoods#literal(int)})
+     */
+    public void onBump(int i) {
+        if (i >= pos.length) {
+            int n = pos.length;
+            pos = Arrays.copyOf(pos, Math.max(i + 1, n * 3 / 2));
+            Arrays.fill(pos, n, pos.length, -1);
+            heap = Arrays.copyOf(heap, pos.length);
+        }
+        if (pos[i] == -1) {
+            insert(i);
+        } else if (pos[i] >= 0) {
+            siftUp(pos[i]);
+        } // otherwise, the literal is decided, and will be put back in the heap with its new activity on backtrack
+    }
+
+    /**
+     * @return <tt>true</tt> if both the literal and its negation are still consistent with the domain of its variable
+     */
+    private static boolean isUndecided(PropNogoods ngstore, int lit) {
+        IntVar var = ngstore.getIntVar(lit);
+        int value = ngstore.getValue(lit);
+        if (ngstore.isEq(lit)) {
+            return !var.isInstantiated() && var.contains(value);
+        }
+        return var.getLB() <= value && value < var.getUB();
+    }
+
+    private void insert(int i) {
+        heap[size] = i;
+        pos[i] = size;
+        siftUp(size++);
+    }
+
+    private void removeTop() {
+        pos[heap[0]] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+    }
+
+    private boolean greater(int i, int j) {
+        double ai = lcg.getActivity(i);
+        double aj = lcg.getActivity(j);
+        return ai > aj || (ai == aj && i > j);
+    }
+
+    private void siftUp(int p) {
+        int i = heap[p];
+        while (p > 0) {
+            int q = (p - 1) / 2;
+            int j = heap[q];
+            if (!greater(i, j)) {
+                break;
+            }
+            heap[p] = j;
+            pos[j] = p;
+            p = q;
+        }
+        heap[p] = i;
+        pos[i] = p;
+    }
+
+    private void siftDown(int p) {
+        int i = heap[p];
+        int half = size / 2;
+        while (p < half) {
+            int c = 2 * p + 1;
+            if (c + 1 < size && greater(heap[c + 1], heap[c])) {
+                c++;
+            }
+            int j = heap[c];
+            if (!greater(j, i)) {
+                break;
+            }
+            heap[p] = j;
+            pos[j] = p;
+            p = c;
+        }
+        heap[p] = i;
+        pos[i] = p;
+    }
+}
@@ -32,6 +32,7 @@ package org.chocosolver.solver.search.strategy.strategy;
 import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.selectors.HeapVariableSelector;
 import org.chocosolver.solver.search.strategy.selectors.IntValueSelector;
 import org.chocosolver.solver.search.strategy.selectors.VariableSelector;
 import org.chocosolver.solver.variables.IntVar;
@@ -83,11 +84,14 @@ public class IntStrategy extends AbstractStrategy<IntVar> {
 	 * @param varSelector	defines how to select the next variable to branch on
 	 * @param valSelector	defines how to select the value involved in the branching decision
 	 * @param decOperator	defines what to do in a branching decision
+	 *
+	 * On large scopes, a domain-based variable selector is transparently replaced by an equivalent
+	 * {@link HeapVariableSelector}.
 	 */
     public IntStrategy(IntVar[] scope, VariableSelector<IntVar> varSelector, IntValueSelector valSelector,
 					   DecisionOperator<IntVar> decOperator) {
         super(scope);
-        this.variableSelector = varSelector;
+        this.variableSelector = HeapVariableSelector.make(varSelector, vars);
         this.valueSelector = valSelector;
 		this.decisionOperator = decOperator;
         this.decisionPool = new PoolManager<>();
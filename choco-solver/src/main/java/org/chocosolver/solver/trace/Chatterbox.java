@@ -32,6 +32,7 @@ package org.chocosolver.solver.trace;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.propagation.PropagationProfiler;
 import org.chocosolver.solver.search.loop.monitors.*;
 import org.chocosolver.solver.search.solution.ISolutionRecorder;
 import org.chocosolver.solver.search.solution.Solution;
@@ -173,6 +174,45 @@ public class Chatterbox {
     }
 
 
+    /**
+     * Output the propagation profile: one line per propagator, sorted by decreasing estimated time,
+     * with the number of fine and coarse calls, the estimated time, the number of domain modifications and of failures.
+     * The profiling must have been enabled before the creation of the propagation engine
+     * (see {@link org.chocosolver.solver.Settings#getPropagationProfilingPeriod()}).
+     * <p>
+     * Recommended usage: to be called after the resolution step.
+     *
+     * @param solver the solver to evaluate
+     */
+    public static void printPropagationProfile(Solver solver) {
+        PropagationProfiler profiler = solver.getEngine().getProfiler();
+        if (profiler == null) {
+            out.println("- Propagation profiling is disabled, see Settings#getPropagationProfilingPeriod()");
+        } else {
+            profiler.print(out);
+        }
+    }
+
+    /**
+     * Output the propagation profile in CSV, one line per propagator, sorted by decreasing estimated time.
+     * The header is:
+     * <pre>
+     *     id;propagator;constraint;fineCalls;coarseCalls;time(ns);reductions;fails;
+     * </pre>
+     * The profiling must have been enabled before the creation of the propagation engine
+     * (see {@link org.chocosolver.solver.Settings#getPropagationProfilingPeriod()}).
+     *
+     * @param solver the solver to evaluate
+     */
+    public static void printCSVPropagationProfile(Solver solver) {
+        PropagationProfiler profiler = solver.getEngine().getProfiler();
+        if (profiler == null) {
+            out.println("- Propagation profiling is disabled, see Settings#getPropagationProfilingPeriod()");
+        } else {
+            profiler.printCSV(out);
+        }
+    }
+
     /**
      * Print a posteriori the solutions found (beware, a solution recorder must has been defined).
      * <p>
@@ -230,6 +270,22 @@ public class Chatterbox {
         });
     }
 
+    /**
+     * Plug a search monitor which calls {@link #printPropagationProfile(Solver)} after closing the search.
+     * <p>
+     * Recommended usage: to be called before the resolution step.
+     *
+     * @param solver the solver to evaluate
+     */
+    public static void showPropagationProfile(final Solver solver) {
+        solver.plugMonitor(new IMonitorClose() {
+            @Override
+            public void afterClose() {
+                printPropagationProfile(solver);
+            }
+        });
+    }
+
     /**
      * Plug a search monitor which calls {@link #printShortStatistics(Solver)} before closing the search.
      * <p>
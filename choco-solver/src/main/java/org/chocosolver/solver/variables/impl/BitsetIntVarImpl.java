@@ -85,7 +85,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         IEnvironment env = solver.getEnvironment();
         OFFSET = sortedValues[0];
         int capacity = sortedValues[sortedValues.length - 1] - OFFSET + 1;
-        this.VALUES = env.makeBitSet(capacity);
+        this.VALUES = makeBitSet(capacity, solver);
         for (int i = 0; i < sortedValues.length; i++) {
             this.VALUES.set(sortedValues[i] - OFFSET);
         }
@@ -100,7 +100,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         IEnvironment env = this.solver.getEnvironment();
         OFFSET = offset;
         int cardinality = values.previousSetBit(values.size());
-        this.VALUES = env.makeBitSet(cardinality);
+        this.VALUES = makeBitSet(cardinality + 1, solver);
         for (int i = values.nextSetBit(0); i > -1; i = values.nextSetBit(i + 1)) {
             this.VALUES.set(i);
         }
@@ -115,7 +115,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         IEnvironment env = this.solver.getEnvironment();
         this.OFFSET = min;
         int capacity = max - min + 1;
-        this.VALUES = env.makeBitSet(capacity);
+        this.VALUES = makeBitSet(capacity, solver);
         this.VALUES.set(0, max - min + 1);
         this.LB = env.makeInt(0);
         this.UB = env.makeInt(max - min);
@@ -123,6 +123,21 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         LENGTH = capacity;
     }
 
+    /**
+     * Large domains are stored in a sparse bitset, which only iterates over non-zero words to count values.
+     *
+     * @param capacity number of values
+     * @param solver   solver of the variable
+     * @return a backtrackable bitset
+     */
+    private static IStateBitSet makeBitSet(int capacity, Solver solver) {
+        IEnvironment env = solver.getEnvironment();
+        if (capacity >= solver.getSettings().getMinSizeForSparseBitSet()) {
+            return env.makeSparseBitSet(capacity);
+        }
+        return env.makeBitSet(capacity);
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -381,8 +396,8 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
                 oldUB = getUB();
             }
 
-            this.VALUES.clear();
-            this.VALUES.set(aValue);
+            this.VALUES.clear(this.LB.get(), aValue);
+            this.VALUES.clear(aValue + 1, this.UB.get() + 1);
             this.LB.set(aValue);
             this.UB.set(aValue);
             this.SIZE.set(1);
@@ -90,7 +90,7 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
 			max = Math.max(max,i);
 		}
 		check(env,ker,max,min);
-		envelope = SetFactory.makeStoredSet(envType, max-min+1, solver);
+		envelope = SetFactory.makeStoredEnvelope(envType, max-min+1, solver);
 		kernel = SetFactory.makeStoredSet(kerType, max-min+1, solver);
 		for(int i:env){
 			envelope.add(i-min);
@@ -112,7 +112,7 @@ public class SetVarImpl extends AbstractVariable implements SetVar {
 	 */
 	public SetVarImpl(String name, int min, int max, Solver solver) {
 		super(name, solver);
-		envelope = SetFactory.makeStoredSet(SetType.BITSET, max-min+1, this.solver);
+		envelope = SetFactory.makeStoredEnvelope(SetType.BITSET, max-min+1, this.solver);
 		kernel = SetFactory.makeStoredSet(SetType.BITSET, max-min+1, this.solver);
 		for(int i=min; i<=max; i++){
 			envelope.add(i-min);
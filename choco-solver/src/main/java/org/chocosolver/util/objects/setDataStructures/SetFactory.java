@@ -37,6 +37,7 @@
 package org.chocosolver.util.objects.setDataStructures;
 
 import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.copy.EnvironmentCopyOnWrite;
 import org.chocosolver.memory.copy.EnvironmentCopying;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
 import org.chocosolver.solver.Solver;
@@ -93,8 +94,8 @@ public class SetFactory {
                 case BOOL_ARRAY:
                     return new Set_Std_Array(environment, maximumSize);
             }
-        if (environment instanceof EnvironmentTrailing) {
-            return new Set_Trail((EnvironmentTrailing) environment, makeSet(type, maximumSize));
+        if (environment instanceof EnvironmentTrailing || environment instanceof EnvironmentCopyOnWrite) {
+            return new Set_Trail(environment, makeSet(type, maximumSize));
         } else if (environment instanceof EnvironmentCopying) {
             return new Set_Copy((EnvironmentCopying) environment, makeSet(type, maximumSize));
         } else {
@@ -102,6 +103,23 @@ public class SetFactory {
         }
     }
 
+    /**
+     * Make a stored set of integers in the range [0,maximumSize-1] which only shrinks during search,
+     * such as the envelope of a set variable.
+     * Large bitsets are then replaced by sparse bitsets (see {@link Set_Std_SparseBitSet}).
+     *
+     * @param type        of set data structure
+     * @param maximumSize of the set (maximum value -1)
+     * @param solver	  solver providing the backtracking environment
+     * @return a new set which can be restored during search, after some backtracks
+     */
+    public static ISet makeStoredEnvelope(SetType type, int maximumSize, Solver solver) {
+        if (HARD_CODED && type == SetType.BITSET && maximumSize >= solver.getSettings().getMinSizeForSparseBitSet()) {
+            return new Set_Std_SparseBitSet(solver.getEnvironment(), maximumSize);
+        }
+        return makeStoredSet(type, maximumSize, solver);
+    }
+
 
     //***********************************************************************************
     // FACTORY - SET
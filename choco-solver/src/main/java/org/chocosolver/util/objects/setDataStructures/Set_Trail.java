@@ -30,7 +30,7 @@
 package org.chocosolver.util.objects.setDataStructures;
 
 import org.chocosolver.memory.structure.Operation;
-import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.util.PoolManager;
 
 /**
@@ -42,14 +42,14 @@ import org.chocosolver.util.PoolManager;
 public class Set_Trail implements ISet {
 
     // trailing
-    private final EnvironmentTrailing environment;
+    private final IEnvironment environment;
     private PoolManager<ListOP> operationPoolGC;
     private final static boolean ADD = true;
     private final static boolean REMOVE = false;
     // set (decorator design pattern)
     private ISet set;
 
-    public Set_Trail(EnvironmentTrailing environment, ISet set) {
+    public Set_Trail(IEnvironment environment, ISet set) {
         super();
         this.environment = environment;
         this.operationPoolGC = new PoolManager<>();
@@ -29,12 +29,14 @@
  */
 package org.chocosolver.util.sort;
 
+import java.io.Serializable;
+
 /**
  * Comparator to sort primitive integers (presumably indexes)
  * @author Jean-Guillaume Fages
  * @since 07/11/13
  */
-public interface IntComparator {
+public interface IntComparator extends Serializable {
 
 	/**
 	 * comparator for primitive integers
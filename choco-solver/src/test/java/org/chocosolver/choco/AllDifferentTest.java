@@ -35,6 +35,9 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffAC;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffACIncremental;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffInst;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
@@ -370,4 +373,39 @@ public class AllDifferentTest {
         Assert.assertEquals(X[14].getLB(), -16);
         Assert.assertEquals(X[14].getDomainSize(), 2);
     }
+
+    @Test(groups = "1s")
+    public void testIncrementalAC() {
+        for (int seed = 0; seed < 30; seed++) {
+            long[][] measures = new long[2][];
+            for (int k = 0; k < 2; k++) {
+                Random rnd = new Random(seed);
+                Solver solver = new Solver();
+                int n = 4 + rnd.nextInt(6);
+                // sparse values for odd seeds
+                int scale = seed % 2 == 0 ? 1 : 1000;
+                IntVar[] X = new IntVar[n];
+                for (int i = 0; i < n; i++) {
+                    int[] dom = DomainBuilder.buildFullDomains(1, 0, n + 1, rnd, rnd.nextDouble(), false)[0];
+                    for (int j = 0; j < dom.length; j++) {
+                        dom[j] *= scale;
+                    }
+                    X[i] = VF.enumerated("X" + i, dom, solver);
+                }
+                if (k == 0) {
+                    solver.post(new Constraint("AllDifferent", new PropAllDiffInst(X), new PropAllDiffAC(X)));
+                } else {
+                    solver.post(ICF.alldifferent(X, "AC"));
+                    Assert.assertTrue(solver.getCstrs()[0].getPropagator(1) instanceof PropAllDiffACIncremental);
+                }
+                // to get failures
+                solver.post(ICF.sum(X, "<=", VF.fixed(n * (n + 1) * scale / 2, solver)));
+                solver.set(IntStrategyFactory.random_value(X, seed));
+                solver.findAllSolutions();
+                measures[k] = new long[]{solver.getMeasures().getSolutionCount(),
+                        solver.getMeasures().getNodeCount(), solver.getMeasures().getFailCount()};
+            }
+            Assert.assertEquals(measures[1], measures[0], "seed " + seed);
+        }
+    }
 }
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.copy.EnvironmentCopyOnWrite;
+import org.chocosolver.memory.copy.EnvironmentCopying;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.search.limits.NodeCounter;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class CopyOnWriteTest {
+
+    private static void check(List<IStateInt> refInts, List<IStateInt> ints,
+                              List<IStateLong> refLongs, List<IStateLong> longs,
+                              List<IStateBool> refBools, List<IStateBool> bools,
+                              List<IStateDouble> refDoubles, List<IStateDouble> doubles) {
+        for (int i = 0; i < ints.size(); i++) {
+            Assert.assertEquals(ints.get(i).get(), refInts.get(i).get());
+            Assert.assertEquals(longs.get(i).get(), refLongs.get(i).get());
+            Assert.assertEquals(bools.get(i).get(), refBools.get(i).get());
+            Assert.assertEquals(doubles.get(i).get(), refDoubles.get(i).get());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testRandom() {
+        for (int seed = 0; seed < 3; seed++) {
+            random(new EnvironmentCopyOnWrite(16, 4), seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testRandomCopying() {
+        for (int seed = 0; seed < 3; seed++) {
+            random(new EnvironmentCopying(), seed);
+        }
+    }
+
+    private static void random(IEnvironment env, int seed) {
+        IEnvironment ref = new EnvironmentTrailing();
+        Random rnd = new Random(seed);
+        List<IStateInt> refInts = new ArrayList<>(), ints = new ArrayList<>();
+        List<IStateLong> refLongs = new ArrayList<>(), longs = new ArrayList<>();
+        List<IStateBool> refBools = new ArrayList<>(), bools = new ArrayList<>();
+        List<IStateDouble> refDoubles = new ArrayList<>(), doubles = new ArrayList<>();
+        for (int j = 0; j < 300; j++) {
+            refInts.add(ref.makeInt(j));
+            ints.add(env.makeInt(j));
+            refLongs.add(ref.makeLong(-j));
+            longs.add(env.makeLong(-j));
+            refBools.add(ref.makeBool(j % 2 == 0));
+            bools.add(env.makeBool(j % 2 == 0));
+            refDoubles.add(ref.makeFloat(j / 3.));
+            doubles.add(env.makeFloat(j / 3.));
+        }
+        for (int k = 0; k < 1000; k++) {
+            if (rnd.nextInt(3) == 0 && env.getWorldIndex() > 0) {
+                int w = rnd.nextInt(env.getWorldIndex());
+                ref.worldPopUntil(w);
+                env.worldPopUntil(w);
+            } else {
+                ref.worldPush();
+                env.worldPush();
+            }
+            // either a few modifications, or a lot of them
+            int n = rnd.nextBoolean() ? 3 : 200;
+            for (int j = 0; j < n; j++) {
+                int i = rnd.nextInt(ints.size());
+                int v = rnd.nextInt(10);
+                refInts.get(i).add(v);
+                ints.get(i).add(v);
+                long l = rnd.nextLong();
+                refLongs.get(i).set(l);
+                longs.get(i).set(l);
+                boolean b = rnd.nextBoolean();
+                refBools.get(i).set(b);
+                bools.get(i).set(b);
+                double d = rnd.nextDouble();
+                refDoubles.get(i).set(d);
+                doubles.get(i).set(d);
+            }
+            check(refInts, ints, refLongs, longs, refBools, bools, refDoubles, doubles);
+        }
+        ref.worldPopUntil(0);
+        env.worldPopUntil(0);
+        check(refInts, ints, refLongs, longs, refBools, bools, refDoubles, doubles);
+    }
+
+    @Test(groups = "1s")
+    public void testHybrid() {
+        EnvironmentCopyOnWrite env = new EnvironmentCopyOnWrite(64, 8);
+        IStateInt[] ints = new IStateInt[640];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = env.makeInt(i);
+        }
+        // a few modifications are trailed
+        env.worldPush();
+        ints[0].set(-1);
+        ints[100].set(-1);
+        Assert.assertEquals(env.getNbTrailedSlots(), 2);
+        Assert.assertEquals(env.getNbCopiedPages(), 0);
+        // a modified page is copied
+        env.worldPush();
+        for (int i = 0; i < 64; i++) {
+            ints[i].set(-2);
+        }
+        Assert.assertEquals(env.getNbTrailedSlots(), 10);
+        Assert.assertEquals(env.getNbCopiedPages(), 1);
+        env.worldPop();
+        Assert.assertEquals(ints[0].get(), -1);
+        for (int i = 1; i < 64; i++) {
+            Assert.assertEquals(ints[i].get(), i);
+        }
+        env.worldPop();
+        for (int i = 0; i < ints.length; i++) {
+            Assert.assertEquals(ints[i].get(), i);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testAllocationDuringSearch() {
+        EnvironmentCopyOnWrite env = new EnvironmentCopyOnWrite(16, 2);
+        IStateInt[] ints = new IStateInt[64];
+        for (int i = 0; i < 8; i++) {
+            ints[i] = env.makeInt(i);
+        }
+        for (int w = 1; w <= 4; w++) {
+            env.worldPush();
+            for (int i = 0; i < 16 * w; i++) {
+                if (ints[i] == null) {
+                    ints[i] = env.makeInt(i);
+                }
+                ints[i].set(-w);
+            }
+        }
+        for (int w = 4; w > 0; w--) {
+            for (int i = 0; i < 16 * w; i++) {
+                Assert.assertEquals(ints[i].get(), -w);
+            }
+            env.worldPop();
+        }
+        for (int i = 0; i < 64; i++) {
+            Assert.assertEquals(ints[i].get(), i);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSet() {
+        Solver solver = new Solver(new EnvironmentCopyOnWrite(), "Test");
+        ISet set = SetFactory.makeStoredSet(SetType.BITSET, 10, solver);
+        IEnvironment env = solver.getEnvironment();
+        set.add(1);
+        env.worldPush();
+        set.add(2);
+        set.remove(1);
+        env.worldPop();
+        Assert.assertTrue(set.contain(1));
+        Assert.assertFalse(set.contain(2));
+    }
+
+    @Test(groups = "1s")
+    public void testSolver() {
+        long[] nodes = new long[2];
+        for (int k = 0; k < 2; k++) {
+            Solver solver = new Solver(k == 0 ? Environments.TRAIL.make() : Environments.COPY_ON_WRITE.make(), "Test");
+            IntVar[] q = VF.enumeratedArray("q", 8, 1, 8, solver);
+            IntVar[] d1 = new IntVar[8];
+            IntVar[] d2 = new IntVar[8];
+            for (int i = 0; i < 8; i++) {
+                d1[i] = VF.offset(q[i], i);
+                d2[i] = VF.offset(q[i], -i);
+            }
+            solver.post(ICF.alldifferent(q, "AC"));
+            solver.post(ICF.alldifferent(d1, "BC"));
+            solver.post(ICF.alldifferent(d2, "BC"));
+            solver.set(ISF.random_value(q, 0));
+            SMF.luby(solver, 2, 2, new NodeCounter(solver, 2), 25);
+            solver.findAllSolutions();
+            Assert.assertTrue(solver.getMeasures().getSolutionCount() > 0);
+            nodes[k] = solver.getMeasures().getNodeCount();
+        }
+        Assert.assertEquals(nodes[1], nodes[0]);
+    }
+}
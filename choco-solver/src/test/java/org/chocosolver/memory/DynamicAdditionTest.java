@@ -56,6 +56,7 @@ package org.chocosolver.memory; /**
 
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 /**
@@ -66,9 +67,13 @@ import org.testng.annotations.Test;
  */
 public class DynamicAdditionTest {
 
-    @Test(groups = "1s")
-    public void test1() {
-        IEnvironment environment = new EnvironmentTrailing();
+    @DataProvider(name = "env")
+    public Object[][] env() {
+        return new Object[][]{{new EnvironmentTrailing()}, {new EnvironmentTrailing(AbstractEnvironment.Type.SLAB)}};
+    }
+
+    @Test(groups = "1s", dataProvider = "env")
+    public void test1(IEnvironment environment) {
         environment.buildFakeHistoryOn(new Except_0());
         IStateInt a = environment.makeInt(10);
         a.set(11);
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class SlabTrailTest {
+
+    @Test(groups = "1s")
+    public void testRandom() {
+        IEnvironment ref = new EnvironmentTrailing();
+        IEnvironment env = Environments.SLAB.make();
+        Random rnd = new Random(0);
+        int n = 500;
+        IStateInt[] refInts = new IStateInt[n];
+        IStateInt[] ints = new IStateInt[n];
+        IStateLong[] refLongs = new IStateLong[n];
+        IStateLong[] longs = new IStateLong[n];
+        for (int i = 0; i < n; i++) {
+            refInts[i] = ref.makeInt(i);
+            ints[i] = env.makeInt(i);
+            refLongs[i] = ref.makeLong(-i);
+            longs[i] = env.makeLong(-i);
+        }
+        for (int k = 0; k < 2000; k++) {
+            if (rnd.nextInt(3) == 0 && env.getWorldIndex() > 0) {
+                ref.worldPop();
+                env.worldPop();
+            } else {
+                ref.worldPush();
+                env.worldPush();
+            }
+            for (int j = 0; j < 20; j++) {
+                int i = rnd.nextInt(n);
+                int v = rnd.nextInt(10);
+                refInts[i].add(v);
+                ints[i].add(v);
+                long l = rnd.nextLong();
+                refLongs[i].set(l);
+                longs[i].set(l);
+            }
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(ints[i].get(), refInts[i].get());
+                Assert.assertEquals(longs[i].get(), refLongs[i].get());
+            }
+        }
+        while (env.getWorldIndex() > 0) {
+            ref.worldPop();
+            env.worldPop();
+        }
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(ints[i].get(), refInts[i].get());
+            Assert.assertEquals(longs[i].get(), refLongs[i].get());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSolver() {
+        long[] nodes = new long[2];
+        for (int k = 0; k < 2; k++) {
+            Solver solver = new Solver(k == 0 ? Environments.TRAIL.make() : Environments.SLAB.make(), "Test");
+            IntVar[] q = VF.enumeratedArray("q", 8, 1, 8, solver);
+            IntVar[] d1 = new IntVar[8];
+            IntVar[] d2 = new IntVar[8];
+            for (int i = 0; i < 8; i++) {
+                d1[i] = VF.offset(q[i], i);
+                d2[i] = VF.offset(q[i], -i);
+            }
+            solver.post(ICF.alldifferent(q, "BC"));
+            solver.post(ICF.alldifferent(d1, "BC"));
+            solver.post(ICF.alldifferent(d2, "BC"));
+            solver.set(ISF.lexico_LB(q));
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+            nodes[k] = solver.getMeasures().getNodeCount();
+        }
+        Assert.assertEquals(nodes[1], nodes[0]);
+    }
+}
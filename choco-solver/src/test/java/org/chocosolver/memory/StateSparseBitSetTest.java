@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.copy.EnvironmentCopyOnWrite;
+import org.chocosolver.memory.copy.EnvironmentCopying;
+import org.chocosolver.memory.structure.StateSparseBitSet;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class StateSparseBitSetTest {
+
+    @DataProvider(name = "env")
+    public Object[][] env() {
+        return new Object[][]{{new EnvironmentTrailing()}, {new EnvironmentCopying()}, {new EnvironmentCopyOnWrite()}};
+    }
+
+    @Test(groups = "1s", dataProvider = "env")
+    public void testSetClear(IEnvironment env) {
+        StateSparseBitSet set = env.makeSparseBitSet(200);
+        Assert.assertTrue(set.isEmpty());
+        set.set(3);
+        set.set(70, 140);
+        set.set(199);
+        Assert.assertEquals(set.cardinality(), 72);
+        Assert.assertEquals(set.getNbNonZeroWords(), 4);
+        Assert.assertEquals(set.nextSetBit(4), 70);
+        Assert.assertEquals(set.prevSetBit(198), 139);
+        Assert.assertEquals(set.nextClearBit(70), 140);
+        Assert.assertEquals(set.prevClearBit(139), 69);
+        Assert.assertEquals(set.prevSetBit(1000), 199);
+        env.worldPush();
+        set.clear(3);
+        set.clear(64, 128);
+        Assert.assertEquals(set.getNbNonZeroWords(), 2);
+        Assert.assertEquals(set.nextSetBit(0), 128);
+        Assert.assertEquals(set.cardinality(), 13);
+        set.set(130);
+        Assert.assertTrue(set.get(130));
+        env.worldPush();
+        set.clear();
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertEquals(set.nextSetBit(0), -1);
+        env.worldPop();
+        Assert.assertEquals(set.cardinality(), 13);
+        env.worldPop();
+        Assert.assertEquals(set.cardinality(), 72);
+        Assert.assertEquals(set.getNbNonZeroWords(), 4);
+        Assert.assertEquals(set.nextSetBit(0), 3);
+    }
+
+    @Test(groups = "1s", dataProvider = "env")
+    public void testRestoreAfterPush(IEnvironment env) {
+        StateSparseBitSet set = env.makeSparseBitSet(200);
+        set.set(3);
+        set.set(100);
+        env.worldPush();
+        set.clear(3);
+        set.set(3);
+        set.set(150);
+        set.clear(100);
+        Assert.assertEquals(set.getNbNonZeroWords(), 2);
+        env.worldPush();
+        set.clear(3);
+        set.set(70);
+        Assert.assertEquals(set.getNbNonZeroWords(), 2);
+        Assert.assertEquals(set.nextSetBit(0), 70);
+        env.worldPop();
+        Assert.assertEquals(set.getNbNonZeroWords(), 2);
+        Assert.assertEquals(set.nextSetBit(0), 3);
+        Assert.assertEquals(set.nextSetBit(4), 150);
+        env.worldPop();
+        Assert.assertEquals(set.getNbNonZeroWords(), 2);
+        Assert.assertEquals(set.cardinality(), 2);
+        Assert.assertEquals(set.nextSetBit(4), 100);
+        Assert.assertEquals(set.nextSetBit(101), -1);
+    }
+
+    @Test(groups = "1s", dataProvider = "env")
+    public void testRandomSetAfterPush(IEnvironment env) {
+        Random rnd = new Random(0);
+        int n = 640;
+        StateSparseBitSet set = env.makeSparseBitSet(n);
+        BitSet ref = new BitSet(n);
+        Deque<BitSet> refs = new ArrayDeque<>();
+        for (int k = 0; k < 2000; k++) {
+            if (refs.isEmpty() || (refs.size() < 20 && rnd.nextBoolean())) {
+                refs.push((BitSet) ref.clone());
+                env.worldPush();
+                for (int i = rnd.nextInt(8); i >= 0; i--) {
+                    int bit = rnd.nextInt(n);
+                    if (rnd.nextInt(3) == 0) {
+                        set.set(bit);
+                        ref.set(bit);
+                    } else {
+                        int to = Math.min(n, bit + rnd.nextInt(128));
+                        set.clear(bit, to);
+                        ref.clear(bit, to);
+                    }
+                }
+            } else {
+                env.worldPop();
+                ref = refs.pop();
+            }
+            Assert.assertEquals(set.copyToBitSet(), ref);
+            Assert.assertEquals(set.cardinality(), ref.cardinality());
+            int nbWords = 0;
+            for (int w = 0; w < n / 64; w++) {
+                if (ref.get(w * 64, (w + 1) * 64).cardinality() > 0) {
+                    nbWords++;
+                }
+            }
+            Assert.assertEquals(set.getNbNonZeroWords(), nbWords);
+        }
+    }
+
+    @Test(groups = "1s", dataProvider = "env")
+    public void testMask(IEnvironment env) {
+        StateSparseBitSet set = env.makeSparseBitSet(256);
+        set.set(0, 256);
+        long[] m1 = new long[4];
+        long[] m2 = new long[4];
+        m1[1] = 0xFFL;
+        m2[3] = 1L << 63;
+        env.worldPush();
+        set.clearMask();
+        set.addToMask(m1);
+        set.addToMask(m2);
+        set.intersectWithMask();
+        Assert.assertEquals(set.cardinality(), 9);
+        Assert.assertEquals(set.getNbNonZeroWords(), 2);
+        Assert.assertEquals(set.intersectIndex(m2), 3);
+        Assert.assertEquals(set.countIntersection(m1, 100), 8);
+        Assert.assertEquals(set.countIntersection(m1, 2) >= 2, true);
+        env.worldPush();
+        set.clearMask();
+        set.addToMask(m2);
+        set.reverseMask();
+        set.intersectWithMask();
+        Assert.assertEquals(set.cardinality(), 8);
+        Assert.assertEquals(set.intersectIndex(m2), -1);
+        env.worldPop();
+        Assert.assertEquals(set.intersectIndex(m2), 3);
+        env.worldPop();
+        Assert.assertEquals(set.cardinality(), 256);
+        Assert.assertEquals(set.getNbNonZeroWords(), 4);
+    }
+
+    @Test(groups = "1s", dataProvider = "env")
+    public void testRandom(IEnvironment env) {
+        Random rnd = new Random(0);
+        int n = 1000;
+        StateSparseBitSet set = env.makeSparseBitSet(n);
+        BitSet ref = new BitSet(n);
+        for (int i = 0; i < n; i++) {
+            if (rnd.nextInt(4) > 0) {
+                set.set(i);
+                ref.set(i);
+            }
+        }
+        Deque<BitSet> refs = new ArrayDeque<>();
+        for (int k = 0; k < 50; k++) {
+            refs.push((BitSet) ref.clone());
+            env.worldPush();
+            int from = rnd.nextInt(n);
+            int to = Math.min(n, from + rnd.nextInt(100));
+            set.clear(from, to);
+            ref.clear(from, to);
+            int bit = rnd.nextInt(n);
+            set.clear(bit);
+            ref.clear(bit);
+            int other = set.nextSetBit(rnd.nextInt(n));
+            if (other >= 0) {
+                // setting a bit of a non-zero word is allowed
+                int word = other & ~63;
+                bit = word + rnd.nextInt(Math.min(64, n - word));
+                set.set(bit);
+                ref.set(bit);
+            }
+            Assert.assertEquals(set.copyToBitSet(), ref);
+            Assert.assertEquals(set.cardinality(), ref.cardinality());
+        }
+        while (!refs.isEmpty()) {
+            env.worldPop();
+            ref = refs.pop();
+            Assert.assertEquals(set.copyToBitSet(), ref);
+            Assert.assertEquals(set.cardinality(), ref.cardinality());
+            int b = rnd.nextInt(n);
+            Assert.assertEquals(set.nextSetBit(b), ref.nextSetBit(b));
+            Assert.assertEquals(set.prevSetBit(b), ref.previousSetBit(b));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.memory.trailing.TrailSizing;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class TrailSizingTest {
+
+    private static void run(EnvironmentTrailing env, int depth) {
+        IStateInt[] ints = new IStateInt[10];
+        IStateLong[] longs = new IStateLong[10];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = env.makeInt(i);
+            longs[i] = env.makeLong(i);
+        }
+        env.worldPush();
+        for (int w = 0; w < depth; w++) {
+            env.worldPush();
+            for (int i = 0; i < ints.length; i++) {
+                ints[i].add(1);
+                longs[i].add(1);
+            }
+        }
+        env.worldPopUntil(0);
+        for (int i = 0; i < ints.length; i++) {
+            Assert.assertEquals(ints[i].get(), i);
+            Assert.assertEquals(longs[i].get(), i);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testGrowths() {
+        EnvironmentTrailing env = new EnvironmentTrailing(new TrailSizing(2, 1, 16, false));
+        Assert.assertEquals(env.getNbGrowths(), 0);
+        run(env, 100);
+        Assert.assertTrue(env.getNbGrowths() > 0);
+        Assert.assertEquals(env.getSizing().getInitialDepth(), 2);
+        Assert.assertEquals(env.getSizing().getInitialUpdates(), 2);
+    }
+
+    @Test(groups = "1s")
+    public void testAutoTune() {
+        for (AbstractEnvironment.Type type : AbstractEnvironment.Type.values()) {
+            TrailSizing sizing = new TrailSizing(2, 1, 16, true);
+            EnvironmentTrailing env = new EnvironmentTrailing(type, sizing);
+            run(env, 100);
+            Assert.assertTrue(env.getNbGrowths() > 0, type.name());
+            Assert.assertTrue(sizing.getInitialDepth() > 100, type.name());
+            env = new EnvironmentTrailing(type, sizing);
+            run(env, 100);
+            Assert.assertEquals(env.getNbGrowths(), 0, type.name());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testMeasures() {
+        TrailSizing sizing = new TrailSizing(2, 1, 16, true);
+        long[] growths = new long[2];
+        for (int k = 0; k < 2; k++) {
+            Solver solver = new Solver(new EnvironmentTrailing(sizing), "Test");
+            IntVar[] q = VF.enumeratedArray("q", 8, 1, 8, solver);
+            solver.post(ICF.alldifferent(q, "AC"));
+            solver.set(ISF.lexico_LB(q));
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 40320);
+            growths[k] = solver.getMeasures().getEnvironmentGrowthCount();
+        }
+        Assert.assertTrue(growths[0] > 0);
+        Assert.assertEquals(growths[1], 0);
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.search.loop.MoveBinaryDFS;
+import org.chocosolver.solver.search.loop.MoveEPS;
+import org.chocosolver.solver.search.loop.eps.SubproblemQueue;
+import org.chocosolver.solver.search.measure.IMeasures;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class EmbarrassinglyParallelSearchTest {
+
+    @Test(groups = "1s")
+    public void testDecompose() {
+        SubproblemQueue queue = new SubproblemQueue();
+        queue.decompose(ParallelPortfolioTest.queens(8), 50);
+        Assert.assertTrue(queue.getNbSubproblems() >= 50);
+        Assert.assertEquals(queue.size(), queue.getNbSubproblems());
+        queue.decompose(ParallelPortfolioTest.queens(3), 10);
+        Assert.assertEquals(queue.getNbSubproblems(), 0);
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test(groups = "1s")
+    public void testDecomposeRestoresWorld() {
+        Solver master = ParallelPortfolioTest.queens(8);
+        int world = master.getEnvironment().getWorldIndex();
+        new SubproblemQueue().decompose(master, 50);
+        Assert.assertEquals(master.getEnvironment().getWorldIndex(), world);
+    }
+
+    @Test(groups = "1s")
+    public void testInitFailureKeepsSubproblem() {
+        SubproblemQueue queue = new SubproblemQueue();
+        queue.decompose(ParallelPortfolioTest.queens(8), 10);
+        int size = queue.size();
+        Solver worker = ParallelPortfolioTest.queens(8);
+        AbstractStrategy failing = new AbstractStrategy(worker.retrieveIntVars()) {
+            @Override
+            public boolean init() {
+                return false;
+            }
+
+            @Override
+            public Decision getDecision() {
+                return null;
+            }
+        };
+        Assert.assertFalse(new MoveEPS(new MoveBinaryDFS(failing), queue).init());
+        Assert.assertEquals(queue.size(), size);
+        Assert.assertTrue(new MoveEPS(new MoveBinaryDFS(ISF.lexico_LB(worker.retrieveIntVars())), queue).init());
+        Assert.assertEquals(queue.size(), size - 1);
+    }
+
+    @Test(groups = "1s")
+    public void testAllSolutions() {
+        for (int w = 1; w < 5; w++) {
+            EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch(() -> ParallelPortfolioTest.queens(8), w);
+            Assert.assertEquals(eps.findAllSolutions(), 92);
+            Assert.assertTrue(eps.getNbGeneratedSubproblems() > 0);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSatisfaction() {
+        EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch(() -> ParallelPortfolioTest.queens(12), 4);
+        Assert.assertTrue(eps.findSolution());
+        Assert.assertNotNull(eps.getBestSolution());
+        eps = new EmbarrassinglyParallelSearch(() -> ParallelPortfolioTest.queens(3), 2);
+        Assert.assertFalse(eps.findSolution());
+    }
+
+    @Test(groups = "10s")
+    public void testOptimization() {
+        Solver reference = SolverTest.knapsack();
+        reference.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        int opt = reference.getObjectiveManager().getBestSolutionValue().intValue();
+
+        EmbarrassinglyParallelSearch eps = new EmbarrassinglyParallelSearch(SolverTest::knapsack, 4);
+        eps.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        IMeasures measures = eps.getMeasures();
+        Assert.assertTrue(measures.isObjectiveOptimal());
+        Assert.assertEquals(measures.getBestSolutionValue().intValue(), opt);
+        Assert.assertTrue(measures.getRestartCount() > 0);
+    }
+}
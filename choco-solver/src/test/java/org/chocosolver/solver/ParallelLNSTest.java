@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.search.loop.lns.LNSFactory;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.loop.monitors.SolutionSharing;
+import org.chocosolver.solver.search.solution.SharedSolution;
+import org.chocosolver.solver.search.solution.Solution;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.chocosolver.solver.ParallelPortfolio.decisionVariables;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class ParallelLNSTest {
+
+    @Test(groups = "1s")
+    public void testSharedSolution() {
+        SharedSolution incumbent = new SharedSolution();
+        Assert.assertNull(incumbent.getSolution());
+        Solver solver = SolverTest.knapsack();
+        solver.plugMonitor(new SolutionSharing(solver, incumbent));
+        SMF.limitSolution(solver, 3);
+        solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        Assert.assertNotNull(incumbent.getSolution());
+        Assert.assertEquals(incumbent.getOwner(), solver);
+        Assert.assertEquals(incumbent.getStamp(), 3);
+        Assert.assertEquals(incumbent.getValue(), solver.getObjectiveManager().getBestSolutionValue());
+        // a worse solution is not recorded
+        Assert.assertFalse(incumbent.offer(SolverTest.knapsack()));
+        incumbent.reset();
+        Assert.assertNull(incumbent.getSolution());
+    }
+
+    @Test(groups = "10s")
+    public void testOptimization() {
+        Solver reference = SolverTest.knapsack();
+        reference.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        int opt = reference.getObjectiveManager().getBestSolutionValue().intValue();
+
+        ParallelLNS lns = new ParallelLNS(() -> {
+            Solver s = SolverTest.knapsack();
+            SMF.limitFail(s, 2000);
+            return s;
+        }, 4);
+        lns.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        Solution best = lns.getBestSolution();
+        Assert.assertNotNull(best);
+        IntVar power = (IntVar) lns.getSolvers().get(0).getObjectives()[0];
+        int value = best.getIntVal(power);
+        Assert.assertTrue(value <= opt);
+        Assert.assertEquals(lns.getSharedSolution().getValue().intValue(), value);
+        Assert.assertEquals(lns.getMeasures().getBestSolutionValue().intValue(), value);
+        // each solver has improved upon the shared incumbent
+        for (Solver s : lns.getSolvers()) {
+            Assert.assertTrue(s.getObjectiveManager().getBestSolutionValue().intValue() <= value);
+        }
+    }
+
+    @Test(groups = "10s")
+    public void testNeighbors() {
+        ParallelLNS lns = new ParallelLNS(() -> {
+            Solver s = SolverTest.knapsack();
+            SMF.limitFail(s, 2000);
+            return s;
+        }, 2);
+        lns.setFailLimit(50);
+        lns.setNeighbors((s, r) -> LNSFactory.random(s, decisionVariables(s), 100, r));
+        lns.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        Assert.assertNotNull(lns.getBestSolution());
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.nary.cnf.SharedClauses;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.BacktrackCounter;
+import org.chocosolver.solver.search.loop.SLF;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.measure.IMeasures;
+import org.chocosolver.solver.search.restart.MonotonicRestartStrategy;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class ParallelPortfolioTest {
+
+    static Solver queens(int n) {
+        Solver solver = new Solver();
+        IntVar[] vars = VF.enumeratedArray("Q", n, 1, n, solver);
+        IntVar[] diag1 = new IntVar[n];
+        IntVar[] diag2 = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            diag1[i] = VF.offset(vars[i], i);
+            diag2[i] = VF.offset(vars[i], -i);
+        }
+        solver.post(ICF.alldifferent(vars, "BC"));
+        solver.post(ICF.alldifferent(diag1, "BC"));
+        solver.post(ICF.alldifferent(diag2, "BC"));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testSatisfaction() {
+        ParallelPortfolio portfolio = new ParallelPortfolio(() -> queens(12), 4);
+        Assert.assertTrue(portfolio.findSolution());
+        Solver best = portfolio.getBestSolver();
+        Assert.assertNotNull(best);
+        Assert.assertNotNull(portfolio.getBestSolution());
+        Assert.assertTrue(portfolio.getMeasures().getSolutionCount() >= 1);
+    }
+
+    @Test(groups = "1s")
+    public void testUnsatisfiable() {
+        ParallelPortfolio portfolio = new ParallelPortfolio(() -> queens(3), 3);
+        Assert.assertFalse(portfolio.findSolution());
+        Assert.assertNull(portfolio.getBestSolution());
+    }
+
+    @Test(groups = "10s")
+    public void testOptimization() {
+        Solver reference = SolverTest.knapsack();
+        reference.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        int opt = reference.getObjectiveManager().getBestSolutionValue().intValue();
+
+        ParallelPortfolio portfolio = new ParallelPortfolio();
+        for (int i = 0; i < 4; i++) {
+            Solver s = SolverTest.knapsack();
+            if (i > 0) {
+                // let the portfolio diversify the search strategies
+                s.getSearchLoop().getMove().setStrategy(null);
+            }
+            portfolio.addSolver(s);
+        }
+        portfolio.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        Solver best = portfolio.getBestSolver();
+        IntVar power = (IntVar) best.getObjectives()[0];
+        Assert.assertEquals(portfolio.getBestSolution().getIntVal(power).intValue(), opt);
+        IMeasures measures = portfolio.getMeasures();
+        Assert.assertTrue(measures.isObjectiveOptimal());
+        Assert.assertEquals(measures.getBestSolutionValue().intValue(), opt);
+    }
+
+    @Test(groups = "10s")
+    public void testClauseSharing() {
+        ParallelPortfolio portfolio = new ParallelPortfolio();
+        for (int i = 0; i < 4; i++) {
+            // 8 pigeons, 7 holes
+            Solver s = new Solver();
+            IntVar[] vars = VF.enumeratedArray("P", 8, 1, 7, s);
+            for (int j = 0; j < vars.length; j++) {
+                for (int k = j + 1; k < vars.length; k++) {
+                    s.post(ICF.arithm(vars[j], "!=", vars[k]));
+                }
+            }
+            s.set(ISF.random_value(vars, i));
+            SMF.nogoodRecordingFromRestarts(s);
+            SLF.restart(s, new BacktrackCounter(s, 0), new MonotonicRestartStrategy(10), Integer.MAX_VALUE);
+            portfolio.addSolver(s);
+        }
+        portfolio.setSearchAutoConf(false);
+        portfolio.setClauseSharing(4);
+        Assert.assertFalse(portfolio.findSolution());
+        SharedClauses clauses = portfolio.getSharedClauses();
+        Assert.assertTrue(clauses.getNbExported() > 0);
+        Assert.assertTrue(clauses.getNbImported() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testWorkerError() {
+        ParallelPortfolio portfolio = new ParallelPortfolio();
+        for (int i = 0; i < 2; i++) {
+            // 12 pigeons, 11 holes: far too long to be proven
+            Solver s = new Solver();
+            IntVar[] vars = VF.enumeratedArray("P", 12, 1, 11, s);
+            for (int j = 0; j < vars.length; j++) {
+                for (int k = j + 1; k < vars.length; k++) {
+                    s.post(ICF.arithm(vars[j], "!=", vars[k]));
+                }
+            }
+            s.set(ISF.lexico_LB(vars));
+            portfolio.addSolver(s);
+        }
+        AssertionError error = new AssertionError("broken worker");
+        portfolio.getSolvers().get(1).plugMonitor((IMonitorContradiction) cex -> {
+            throw error;
+        });
+        try {
+            portfolio.findSolution();
+            Assert.fail();
+        } catch (SolverException e) {
+            // the other solver has been stopped, and the error is kept
+            Assert.assertSame(e.getCause(), error);
+        }
+    }
+}
@@ -29,8 +29,10 @@
  */
 package org.chocosolver.solver;
 
+import org.chocosolver.memory.Environments;
 import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.set.SCF;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
@@ -46,6 +48,7 @@ import org.testng.annotations.Test;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * <br/>
@@ -399,4 +402,94 @@ public class SolverTest {
         solver.setName("Revlos");
         Assert.assertEquals(solver.getName(), "Revlos");
     }
+
+    @Test(groups="1s")
+    public void testCopy() {
+        Solver solver = ParallelPortfolioTest.queens(8);
+        Solver copy = solver.copy();
+        Assert.assertNotSame(copy.getEnvironment(), solver.getEnvironment());
+        Assert.assertEquals(copy.getNbVars(), solver.getNbVars());
+        Assert.assertEquals(copy.getNbCstrs(), solver.getNbCstrs());
+        for (int i = 0; i < solver.getNbVars(); i++) {
+            Assert.assertEquals(copy.getVar(i).getId(), solver.getVar(i).getId());
+            Assert.assertNotSame(copy.getVar(i), solver.getVar(i));
+        }
+        Assert.assertEquals(copy.findAllSolutions(), 92);
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 0);
+        Assert.assertEquals(solver.findAllSolutions(), 92);
+    }
+
+    @Test(groups="1s")
+    public void testCopier() {
+        Solver solver = knapsack();
+        Supplier<Solver> copier = solver.copier();
+        solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        int opt = solver.getObjectiveManager().getBestSolutionValue().intValue();
+        for (int i = 0; i < 3; i++) {
+            Solver copy = copier.get();
+            copy.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+            Assert.assertEquals(copy.getObjectiveManager().getBestSolutionValue().intValue(), opt);
+        }
+    }
+
+    @Test(groups="1s", expectedExceptions = SolverException.class)
+    public void testCopyFail() {
+        Solver solver = ParallelPortfolioTest.queens(4);
+        solver.plugMonitor((IMonitorSolution) solver::copy);
+        solver.findSolution();
+    }
+
+    @Test(groups="1s")
+    public void testCopyEnvironments() throws ContradictionException {
+        for (Environments env : new Environments[]{Environments.TRAIL, Environments.SLAB, Environments.COPY, Environments.COPY_ON_WRITE}) {
+            Solver solver = new Solver(env.make(), "copy");
+            IntVar x = VF.enumerated("x", 0, 10, solver);
+            IntVar y = VF.bounded("y", 0, 10, solver);
+            BoolVar b = VF.bool("b", solver);
+            SetVar s = VF.set("s", new int[]{1, 2, 3, 4, 5}, solver);
+            solver.post(ICF.arithm(x, ">", 3));
+            solver.post(ICF.arithm(x, "+", y, "=", 12));
+            ICF.arithm(y, "<", 6).reifyWith(b);
+            solver.post(SCF.sum(s, x, false));
+            solver.propagate();
+            Solver copy = solver.copy();
+            Assert.assertEquals(copy.getEnvironment().getClass(), solver.getEnvironment().getClass());
+            Assert.assertNotSame(copy.getEnvironment(), solver.getEnvironment());
+            Assert.assertEquals(copy.getEnvironment().getWorldIndex(), 0);
+            Assert.assertEquals(((IntVar) copy.getVar(0)).getLB(), x.getLB());
+            Assert.assertEquals(((IntVar) copy.getVar(1)).getUB(), y.getUB());
+            int[] count = {0};
+            copy.plugMonitor((IMonitorSolution) () -> count[0]++);
+            long nbSols = copy.findAllSolutions();
+            Assert.assertEquals(count[0], nbSols);
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 0);
+            Assert.assertEquals(solver.findAllSolutions(), nbSols, env.name());
+        }
+    }
+
+    @Test(groups="1s")
+    public void testCopyCapturedValues() {
+        Solver solver = ParallelPortfolioTest.queens(6);
+        IntVar x = (IntVar) solver.getVar(0);
+        List<Integer> values = new ArrayList<>();
+        // x is owned by the solver, values is not
+        solver.plugMonitor((IMonitorSolution) () -> values.add(x.isInstantiated() ? x.getValue() : -1));
+        Solver copy = solver.copy();
+        Assert.assertEquals(copy.findAllSolutions(), 4);
+        Assert.assertEquals(values.size(), 4);
+        Assert.assertFalse(values.contains(-1));
+        Assert.assertFalse(x.isInstantiated());
+        // a lambda which does not refer to the solver is shared
+        solver.addStopCriterion(() -> false);
+        Assert.assertEquals(solver.copy().findAllSolutions(), 4);
+        Assert.assertEquals(values.size(), 8);
+    }
+
+    @Test(groups="1s", expectedExceptions = SolverException.class)
+    public void testCopyRefusesLambda() {
+        Solver solver = ParallelPortfolioTest.queens(4);
+        // Criterion is not serializable, and the lambda refers to the solver
+        solver.addStopCriterion(() -> solver.getMeasures().getNodeCount() > 1000);
+        solver.copy();
+    }
 }
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.eps.Subproblem;
+import org.chocosolver.solver.search.loop.eps.WorkStealingPool;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.measure.IMeasures;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class WorkStealingSearchTest {
+
+    @Test(groups = "1s")
+    public void testAllSolutions() {
+        for (int w = 1; w < 5; w++) {
+            WorkStealingSearch ws = new WorkStealingSearch(() -> ParallelPortfolioTest.queens(10), w);
+            Assert.assertEquals(ws.findAllSolutions(), 724);
+            Assert.assertEquals(ws.getNbReplays(), ws.getNbSteals() + 1);
+            if (w == 1) {
+                Assert.assertEquals(ws.getNbSteals(), 0);
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testGranularity() {
+        WorkStealingSearch ws = new WorkStealingSearch(() -> ParallelPortfolioTest.queens(8), 4);
+        ws.setGranularity(1);
+        Assert.assertEquals(ws.findAllSolutions(), 92);
+        // only the first decision of a subproblem can be refuted
+        Assert.assertTrue(ws.getNbReplayedDecisions() <= ws.getNbSteals() * 8);
+        // solving again gives the same result
+        Assert.assertEquals(ws.findAllSolutions(), 92);
+    }
+
+    @Test(groups = "1s")
+    public void testSatisfaction() {
+        WorkStealingSearch ws = new WorkStealingSearch(() -> ParallelPortfolioTest.queens(12), 4);
+        Assert.assertTrue(ws.findSolution());
+        Assert.assertNotNull(ws.getBestSolution());
+        ws = new WorkStealingSearch(() -> ParallelPortfolioTest.queens(3), 2);
+        Assert.assertFalse(ws.findSolution());
+    }
+
+    @Test(groups = "10s")
+    public void testOptimization() {
+        Solver reference = SolverTest.knapsack();
+        reference.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        int opt = reference.getObjectiveManager().getBestSolutionValue().intValue();
+
+        WorkStealingSearch ws = new WorkStealingSearch(SolverTest::knapsack, 4);
+        ws.findOptimalSolution(ResolutionPolicy.MAXIMIZE);
+        IMeasures measures = ws.getMeasures();
+        Assert.assertTrue(measures.isObjectiveOptimal());
+        Assert.assertEquals(measures.getBestSolutionValue().intValue(), opt);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testWorkerError() {
+        AssertionError error = new AssertionError("broken worker");
+        WorkStealingSearch ws = new WorkStealingSearch(() -> {
+            Solver s = ParallelPortfolioTest.queens(10);
+            s.plugMonitor((IMonitorContradiction) cex -> {
+                throw error;
+            });
+            return s;
+        }, 4);
+        try {
+            ws.findAllSolutions();
+            Assert.fail();
+        } catch (SolverException e) {
+            // idle workers have been woken up, and the error is kept
+            Assert.assertSame(e.getCause(), error);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    @SuppressWarnings("unchecked")
+    public void testPoolTermination() throws InterruptedException {
+        WorkStealingPool pool = new WorkStealingPool();
+        pool.reset(2);
+        Assert.assertFalse(pool.isHungry());
+        Assert.assertNotNull(pool.poll());
+        AtomicReferenceArray<Subproblem> polled = new AtomicReferenceArray<>(2);
+        Thread idle = new Thread(() -> {
+            polled.set(0, pool.poll());
+            polled.set(1, pool.poll());
+        });
+        idle.start();
+        while (!pool.isHungry()) {
+            Thread.yield();
+        }
+        pool.add(new Subproblem(new int[]{0}, new int[]{1}, new DecisionOperator[]{DecisionOperator.int_neq}));
+        while (polled.get(0) == null) {
+            Thread.yield();
+        }
+        // the other worker is still busy with its subproblem: the pool is not over
+        Assert.assertTrue(idle.isAlive());
+        // the last busy worker ends the resolution, and exited workers are not idle anymore
+        Assert.assertNull(pool.poll());
+        idle.join();
+        Assert.assertNull(polled.get(1));
+        Assert.assertFalse(pool.isHungry());
+    }
+}
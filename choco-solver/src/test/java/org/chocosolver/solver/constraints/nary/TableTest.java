@@ -42,6 +42,8 @@ import org.chocosolver.solver.constraints.IntConstraintFactory;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.constraints.extension.TuplesFactory;
 import org.chocosolver.solver.constraints.extension.nary.LargeRelation;
+import org.chocosolver.solver.constraints.extension.nary.PropCompactTable;
+import org.chocosolver.solver.constraints.extension.nary.PropLargeGACSTRPos;
 import org.chocosolver.solver.constraints.extension.nary.TuplesLargeTable;
 import org.chocosolver.solver.constraints.extension.nary.TuplesTable;
 import org.chocosolver.solver.constraints.extension.nary.TuplesVeryLargeTable;
@@ -57,7 +59,7 @@ import java.util.Random;
 
 public class TableTest {
 
-    private static String[] ALGOS = {"FC", "GAC2001", "GACSTR+", "GAC2001+", "GAC3rm+", "GAC3rm", "STR2+"};
+    private static String[] ALGOS = {"FC", "GAC2001", "GACSTR+", "GAC2001+", "GAC3rm+", "GAC3rm", "STR2+", "CT"};
 
     @Test(groups = "1s")
     public void test1() {
@@ -199,7 +201,7 @@ public class TableTest {
 
     @Test(groups = "1s")
     public static void testThierry1() {
-        String[] ALGOS = {"FC", "GAC2001", "GAC3rm"};
+        String[] ALGOS = {"FC", "GAC2001", "GAC3rm", "CT"};
         for(String s : ALGOS){
         Solver solver = new Solver();
         IntVar[] vars = VF.enumeratedArray("vars", 10, 0, 100, solver);
@@ -414,4 +416,46 @@ public class TableTest {
         }
     }
 
+    @Test(groups = "10s")
+    public void testCTNegative() {
+        int[][] params = {{3, 1, 3}, {5, 2, 5}, {5, -2, 3}, {4, 0, 6}};
+        final Random rnd = new Random();
+        for (int p = 0; p < params.length; p++) {
+            for (long seed = 0; seed < 5; seed++) {
+                rnd.setSeed(seed);
+                long[] nbs = new long[2];
+                long[] nbn = new long[2];
+                String[] algos = {"GAC3rm", "CT"};
+                for (int a = 0; a < algos.length; a++) {
+                    Solver solver = new Solver(algos[a]);
+                    IntVar[] vars = VF.enumeratedArray("v", params[p][0], params[p][1], params[p][2], solver);
+                    rnd.setSeed(seed);
+                    Tuples tuples = TuplesFactory.generateTuples(values -> rnd.nextInt(10) > 2, false, vars);
+                    solver.post(ICF.table(vars, tuples, algos[a]));
+                    solver.set(ISF.random_value(vars, seed));
+                    nbs[a] = solver.findAllSolutions();
+                    nbn[a] = solver.getMeasures().getNodeCount();
+                }
+                Assert.assertEquals(nbs[1], nbs[0]);
+                Assert.assertTrue(nbn[1] <= nbn[0]);
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testCTByDefault() {
+        Solver solver = new Solver();
+        IntVar[] vars = VF.enumeratedArray("v", 5, 0, 9, solver);
+        Tuples tuples = TuplesFactory.generateTuples(values -> values[0] + values[1] + values[2] == values[3] + values[4], true, vars);
+        Assert.assertTrue(tuples.nbTuples() >= solver.getSettings().getMinTuplesForCompactTable());
+        Constraint table = ICF.table(vars, tuples, "");
+        Assert.assertTrue(table.getPropagator(0) instanceof PropCompactTable);
+        solver.post(table);
+        Assert.assertEquals(solver.findAllSolutions(), tuples.nbTuples());
+        // a small table
+        Tuples small = new Tuples(true);
+        small.add(0, 1, 2, 1, 2);
+        Assert.assertTrue(ICF.table(vars, small, "").getPropagator(0) instanceof PropLargeGACSTRPos);
+    }
+
 }
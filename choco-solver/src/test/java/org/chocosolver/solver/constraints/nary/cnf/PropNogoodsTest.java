@@ -309,4 +309,31 @@ public class PropNogoodsTest {
             Assert.fail();
         }
     }
-}
\ No newline at end of file
+
+    @Test(groups="1s")
+    public void testShareLearnts() throws Exception {
+        SharedClauses channel = new SharedClauses(2);
+        Solver other = new Solver("other");
+        IntVar[] ovars = VF.enumeratedArray("X", 4, -1, 1, other);
+        PropNogoods OPNG = other.getNogoodStore().getPropNogoods();
+        PNG.shareLearnts(channel);
+        OPNG.shareLearnts(channel);
+        // X0 = 0 => X1 != 0
+        PNG.addLearnt(SatSolver.negated(lits[0]), SatSolver.negated(lits[2]));
+        // too long to be shared
+        PNG.addLearnt(lits[1], lits[3], lits[5]);
+        Assert.assertEquals(channel.getNbExported(), 1);
+        Assert.assertEquals(PNG.importSharedClauses(), 0);
+        Assert.assertEquals(OPNG.importSharedClauses(), 1);
+        Assert.assertEquals(OPNG.importSharedClauses(), 0);
+        Assert.assertEquals(channel.getNbImported(), 1);
+        ovars[0].instantiateTo(0, Cause.Null);
+        try {
+            OPNG.propagate(2);
+        } catch (ContradictionException c) {
+            Assert.fail();
+        }
+        Assert.assertFalse(ovars[1].contains(0));
+        Assert.assertEquals(ovars[2].getDomainSize(), 3);
+    }
+}
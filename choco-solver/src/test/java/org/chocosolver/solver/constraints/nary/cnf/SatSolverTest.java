@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.constraints.nary.cnf;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.search.loop.SLF;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.chocosolver.solver.constraints.nary.cnf.SatSolver.makeLiteral;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class SatSolverTest {
+
+    @Test(groups = "1s")
+    public void testReduce() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 20; i++) {
+            sat.newVariable();
+        }
+        sat.setReductionPolicy(4, 2);
+        // x0, ..., x9 are false, each one at its own level
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(sat.propagateOneLiteral(makeLiteral(i, false)));
+        }
+        // glue clause (LBD = 2)
+        sat.learnClause(makeLiteral(0, true), makeLiteral(10, true));
+        for (int i = 1; i < 9; i++) {
+            sat.learnClause(makeLiteral(i - 1, true), makeLiteral(i, true), makeLiteral(i + 1, true), makeLiteral(11 + i, true));
+        }
+        Assert.assertTrue(sat.getNbReductions() > 0);
+        Assert.assertTrue(sat.getNbRemovedLearnts() > 0);
+        Assert.assertEquals(sat.nLearnt() + sat.getNbRemovedLearnts(), 9);
+        boolean glue = false;
+        for (int k = 0; k < sat.nLearnt(); k++) {
+            int cr = sat.learnts.getQuick(k);
+            glue |= sat.clauseSize(cr) == 2;
+        }
+        Assert.assertTrue(glue);
+    }
+
+    @Test(groups = "1s")
+    public void testGarbageCollect() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 30; i++) {
+            sat.newVariable();
+        }
+        sat.setReductionPolicy(2, 1);
+        Assert.assertTrue(sat.addClause(makeLiteral(20, true), makeLiteral(21, true), makeLiteral(22, true)));
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(sat.propagateOneLiteral(makeLiteral(i, false)));
+        }
+        for (int r = 0; r < 5; r++) {
+            for (int i = 2; i < 10; i++) {
+                sat.learnClause(makeLiteral(i - 2, true), makeLiteral(i - 1, true), makeLiteral(i, true), makeLiteral(10 + i, true));
+            }
+        }
+        Assert.assertTrue(sat.getNbRemovedLearnts() > 0);
+        sat.cancelUntil(0);
+        // the original clause still propagates
+        Assert.assertTrue(sat.propagateOneLiteral(makeLiteral(20, false)));
+        Assert.assertTrue(sat.propagateOneLiteral(makeLiteral(21, false)));
+        Assert.assertEquals(sat.valueLit(makeLiteral(22, true)), SatSolver.Boolean.kTrue);
+        // and so do the remaining learnt clauses
+        for (int k = 0; k < sat.nLearnt(); k++) {
+            sat.cancelUntil(0);
+            int cr = sat.learnts.getQuick(k);
+            int size = sat.clauseSize(cr);
+            int[] lits = sat.clauseLiterals(cr);
+            for (int i = 0; i < size - 1; i++) {
+                Assert.assertTrue(sat.propagateOneLiteral(SatSolver.negated(lits[i])));
+            }
+            Assert.assertEquals(sat.valueLit(lits[size - 1]), SatSolver.Boolean.kTrue);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testReduceInSearch() {
+        for (int n = 5; n < 8; n++) {
+            Solver solver = new Solver();
+            IntVar[] pigeons = VF.enumeratedArray("p", n, 0, n - 2, solver);
+            solver.post(ICF.alldifferent(pigeons, "NEQS"));
+            SLF.learnLCG(solver, ISF.lexico_LB(pigeons));
+            SatSolver sat = solver.getNogoodStore().getPropNogoods().getSatSolver();
+            sat.setReductionPolicy(20, 10);
+            Assert.assertFalse(solver.findSolution());
+            if (n > 6) {
+                Assert.assertTrue(sat.getNbReductions() > 0);
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testProtected() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 63; i++) {
+            sat.newVariable();
+        }
+        sat.setReductionPolicy(4, 2);
+        // x0, ..., x9 are false, each one at its own level
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(sat.propagateOneLiteral(makeLiteral(i, false)));
+        }
+        for (int i = 0; i < 3; i++) {
+            sat.learnClause(false, makeLiteral(i, true), makeLiteral(i + 1, true), makeLiteral(i + 2, true), makeLiteral(10 + i, true));
+        }
+        for (int i = 3; i < 53; i++) {
+            int j = i % 8;
+            sat.learnClause(makeLiteral(j, true), makeLiteral(j + 1, true), makeLiteral(j + 2, true), makeLiteral(10 + i, true));
+        }
+        Assert.assertTrue(sat.getNbRemovedLearnts() > 0);
+        Assert.assertEquals(sat.nLearnt() + sat.getNbRemovedLearnts(), 53);
+        int prot = 0;
+        for (int k = 0; k < sat.nLearnt(); k++) {
+            prot += sat.isProtected(sat.learnts.getQuick(k)) ? 1 : 0;
+        }
+        Assert.assertEquals(prot, 3);
+    }
+
+    @Test(groups = "1s")
+    public void testSolutionNogoodsKept() {
+        Solver solver = new Solver();
+        IntVar[] vars = VF.enumeratedArray("x", 5, 0, 3, solver);
+        SMF.nogoodRecordingOnSolution(vars);
+        SLF.restartOnSolutions(solver);
+        solver.set(ISF.lexico_LB(vars));
+        solver.getNogoodStore().getPropNogoods().getSatSolver().setReductionPolicy(20, 10);
+        solver.findAllSolutions();
+        // each solution is found once, although the solution nogoods exceed the reduction threshold
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 1024);
+    }
+
+    @Test(groups = "1s")
+    public void testBudget() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 60; i++) {
+            sat.newVariable();
+        }
+        sat.setLearntBudget(10, Long.MAX_VALUE);
+        for (int i = 0; i < 3; i++) {
+            sat.learnClause(false, makeLiteral(i, true), makeLiteral(i + 1, true), makeLiteral(i + 2, true));
+        }
+        for (int i = 0; i < 50; i++) {
+            sat.learnClause(makeLiteral(10 + i, true), makeLiteral(i % 10, false));
+            Assert.assertTrue(sat.nLearnt() <= 13);
+        }
+        Assert.assertEquals(sat.nLearnt() + sat.getNbRemovedLearnts(), 53);
+        int prot = 0;
+        for (int k = 0; k < sat.nLearnt(); k++) {
+            prot += sat.isProtected(sat.learnts.getQuick(k)) ? 1 : 0;
+        }
+        Assert.assertEquals(prot, 3);
+    }
+
+    @Test(groups = "1s")
+    public void testBytesBudget() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 60; i++) {
+            sat.newVariable();
+        }
+        sat.setLearntBudget(Integer.MAX_VALUE, 1024);
+        for (int i = 0; i < 50; i++) {
+            sat.learnClause(makeLiteral(10 + i, true), makeLiteral(i % 10, false));
+            Assert.assertTrue(sat.getRemovableLearntBytes() <= 1024);
+        }
+        Assert.assertTrue(sat.getNbRemovedLearnts() > 0);
+    }
+
+    @Test(groups = "1s", expectedExceptions = IllegalArgumentException.class)
+    public void testWrongBudget() {
+        new SatSolver().setLearntBudget(0, 1024);
+    }
+
+    @Test(groups = "1s")
+    public void testBudgetInSearch() {
+        Solver solver = new Solver();
+        IntVar[] pigeons = VF.enumeratedArray("p", 7, 0, 5, solver);
+        solver.post(ICF.alldifferent(pigeons, "NEQS"));
+        SLF.learnLCG(solver, ISF.lexico_LB(pigeons));
+        PropNogoods png = solver.getNogoodStore().getPropNogoods();
+        png.setBudget(20, Long.MAX_VALUE);
+        Assert.assertFalse(solver.findSolution());
+        Assert.assertTrue(solver.getMeasures().getNogoodAddedCount() > 0);
+        Assert.assertTrue(solver.getMeasures().getNogoodDeletedCount() > 0);
+        Assert.assertTrue(solver.getMeasures().getNogoodFiredCount() > 0);
+    }
+}
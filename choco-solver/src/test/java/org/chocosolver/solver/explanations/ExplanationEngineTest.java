@@ -29,6 +29,7 @@
  */
 package org.chocosolver.solver.explanations;
 
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
@@ -37,6 +38,8 @@ import org.chocosolver.solver.constraints.IntConstraintFactory;
 import org.chocosolver.solver.constraints.SatFactory;
 import org.chocosolver.solver.constraints.binary.PropGreaterOrEqualX_YC;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.store.ArrayEventStore;
+import org.chocosolver.solver.explanations.store.IndexedEventStore;
 import org.chocosolver.solver.search.loop.LearnCBJ;
 import org.chocosolver.solver.search.loop.SLF;
 import org.chocosolver.solver.search.loop.monitors.SMF;
@@ -53,6 +56,7 @@ import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VF;
 import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.tools.StringUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -939,4 +943,126 @@ public class ExplanationEngineTest {
         System.out.printf("%s\n", solver);
     }
 
+
+    private Solver queens(int n, long seed, boolean dbt, boolean indexed) {
+        Solver solver = new Solver();
+        IntVar[] vars = VF.enumeratedArray("Q", n, 1, n, solver);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int k = j - i;
+                solver.post(ICF.arithm(vars[i], "!=", vars[j]));
+                solver.post(ICF.arithm(vars[i], "!=", vars[j], "+", -k));
+                solver.post(ICF.arithm(vars[i], "!=", vars[j], "+", k));
+            }
+        }
+        solver.set(new ExplanationEngine(solver, false, false,
+                indexed ? new IndexedEventStore(solver.getEnvironment()) : new ArrayEventStore(solver.getEnvironment())));
+        if (dbt) {
+            SLF.learnDBT(solver, false, false);
+        } else {
+            SLF.learnCBJ(solver, false, false);
+        }
+        solver.set(ISF.random_value(vars, seed));
+        solver.findAllSolutions();
+        return solver;
+    }
+
+    @Test(groups = "10s")
+    public void testIndexedStore1() {
+        for (int seed = 0; seed < 5; seed++) {
+            for (boolean dbt : new boolean[]{false, true}) {
+                Solver s1 = queens(8, seed, dbt, false);
+                Solver s2 = queens(8, seed, dbt, true);
+                Assert.assertEquals(s2.getMeasures().getSolutionCount(), 92);
+                Assert.assertEquals(s2.getMeasures().getSolutionCount(), s1.getMeasures().getSolutionCount());
+                Assert.assertEquals(s2.getMeasures().getNodeCount(), s1.getMeasures().getNodeCount());
+                Assert.assertEquals(s2.getMeasures().getFailCount(), s1.getMeasures().getFailCount());
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testIndexedStore2() throws ContradictionException {
+        Solver solver = new Solver();
+        IntVar x = VF.enumerated("x", 0, 5, solver);
+        IntVar y = VF.enumerated("y", 0, 5, solver);
+        IndexedEventStore store = new IndexedEventStore(solver.getEnvironment());
+        store.pushEvent(x, Cause.Null, IntEventType.REMOVE, 0, 0, 0);
+        store.pushEvent(y, Cause.Null, IntEventType.REMOVE, 0, 0, 0);
+        solver.getEnvironment().worldPush();
+        store.pushEvent(x, Cause.Null, IntEventType.REMOVE, 1, 0, 0);
+        store.pushEvent(y, Cause.Null, IntEventType.REMOVE, 1, 0, 0);
+        Assert.assertEquals(store.getLastEvent(x.getId(), 4), 2);
+        Assert.assertEquals(store.getLastEvent(x.getId(), 2), 0);
+        Assert.assertEquals(store.getLastEvent(y.getId(), 3), 1);
+        Assert.assertEquals(store.getPrevious(3), 1);
+        Assert.assertEquals(store.getPrevious(1), -1);
+        solver.getEnvironment().worldPop();
+        Assert.assertEquals(store.getLastEvent(x.getId(), 4), 0);
+        Assert.assertEquals(store.getLastEvent(y.getId(), 4), 1);
+        store.pushEvent(y, Cause.Null, IntEventType.REMOVE, 2, 0, 0);
+        Assert.assertEquals(store.getLastEvent(x.getId(), 3), 0);
+        Assert.assertEquals(store.getLastEvent(y.getId(), 3), 2);
+        Assert.assertEquals(store.getPrevious(2), 1);
+        Assert.assertEquals(store.getLastActivation(3), -1);
+    }
+
+    @Test(groups = "1s")
+    public void testStoreChunks() {
+        Solver solver = new Solver();
+        IntVar[] vars = VF.enumeratedArray("x", 3, 0, 5, solver);
+        IndexedEventStore store = new IndexedEventStore(solver.getEnvironment());
+        int n = 3000; // more than two chunks
+        for (int i = 0; i < n; i++) {
+            if (i == n / 2) {
+                solver.getEnvironment().worldPush();
+            }
+            store.pushEvent(vars[i % 3], Cause.Null, IntEventType.REMOVE, i, i + 1, i + 2);
+        }
+        Assert.assertEquals(store.getSize(), n);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(store.getVariable(i), vars[i % 3]);
+            Assert.assertEquals(store.getFirstValue(i), i);
+            Assert.assertEquals(store.getSecondValue(i), i + 1);
+            Assert.assertEquals(store.getThirdValue(i), i + 2);
+            Assert.assertEquals(store.getPrevious(i), i < 3 ? -1 : i - 3);
+        }
+        solver.getEnvironment().worldPop();
+        Assert.assertEquals(store.getSize(), n / 2);
+        Assert.assertEquals(store.getLastEvent(vars[0].getId(), n), n / 2 - 3);
+        store.pushEvent(vars[2], Cause.Null, IntEventType.REMOVE, -1, -1, -1);
+        Assert.assertEquals(store.getFirstValue(n / 2), -1);
+        Assert.assertEquals(store.getPrevious(n / 2), n / 2 - 1);
+    }
+
+    @Test(groups = "1s")
+    public void testCauses() {
+        Solver solver = new Solver();
+        IntVar[] vars = VF.enumeratedArray("x", 3, 0, 5, solver);
+        Constraint c1 = ICF.arithm(vars[0], "<", vars[1]);
+        Constraint c2 = ICF.arithm(vars[1], "<", vars[2]);
+        ExplanationEngine ee = new ExplanationEngine(solver, false, true);
+        Explanation e1 = ee.makeExplanation(true);
+        Assert.assertTrue(e1.addCause(c1.getPropagator(0)));
+        Assert.assertTrue(e1.addCause(c2.getPropagator(0)));
+        Assert.assertTrue(e1.addCause(Cause.Null));
+        Assert.assertFalse(e1.addCause(c1.getPropagator(0)));
+        Assert.assertFalse(e1.addCause(Cause.Null));
+        Assert.assertEquals(e1.nbCauses(), 3);
+        Assert.assertTrue(e1.remove(c1.getPropagator(0)));
+        Assert.assertFalse(e1.remove(c1.getPropagator(0)));
+        Assert.assertEquals(e1.nbCauses(), 2);
+        Assert.assertTrue(e1.getCauses().contains(c2.getPropagator(0)));
+        Assert.assertTrue(e1.getCauses().contains(Cause.Null));
+        Explanation e2 = e1.duplicate();
+        Assert.assertEquals(e2.nbCauses(), 2);
+        Assert.assertTrue(e2.remove(c2.getPropagator(0)));
+        Assert.assertEquals(e2.getCause(0), Cause.Null);
+        e1.recycle();
+        Explanation e3 = ee.makeExplanation(true);
+        Assert.assertSame(e3, e1);
+        Assert.assertEquals(e3.nbCauses(), 0);
+        Assert.assertTrue(e3.addCause(c2.getPropagator(0)));
+    }
+
 }
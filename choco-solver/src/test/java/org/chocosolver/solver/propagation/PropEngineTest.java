@@ -35,6 +35,7 @@ import org.chocosolver.solver.Settings;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.*;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.propagation.hardcoded.DensePropagatorEngine;
 import org.chocosolver.solver.propagation.hardcoded.SevenQueuesPropagatorEngine;
 import org.chocosolver.solver.propagation.hardcoded.TwoBucketPropagationEngine;
 import org.chocosolver.solver.search.strategy.ISF;
@@ -143,6 +144,101 @@ public class PropEngineTest {
         Assert.assertEquals(solver.getSolutionRecorder().getLastSolution().getIntVal((IntVar)solver.getObjectives()[0]).intValue(), 55);
     }
     
+    @Test(groups="1s")
+    public void test7(){
+        Solver solver = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        solver.set(new DensePropagatorEngine(solver));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+    }
+
+    @Test(groups="1s")
+    public void test8(){
+        Solver solver = ProblemMaker.makeGolombRuler(10);
+        solver.set(new DensePropagatorEngine(solver));
+        solver.findOptimalSolution(ResolutionPolicy.MINIMIZE);
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 1);
+        Assert.assertEquals(solver.getSolutionRecorder().getLastSolution().getIntVal((IntVar)solver.getObjectives()[0]).intValue(), 55);
+    }
+
+    @Test(groups="1s")
+    public void testDenseSameSearch(){
+        // the dense engine schedules propagators and events in the same order than the seven queues one
+        for (int seed = 0; seed < 10; seed++) {
+            long[][] stats = new long[2][];
+            PropagationEngineFactory[] engines = {PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+                    PropagationEngineFactory.PROPAGATORDRIVEN_7QD_DENSE};
+            for (int e = 0; e < 2; e++) {
+                Solver solver = ProblemMaker.makeCostasArrays(7);
+                solver.set(engines[e].make(solver));
+                solver.set(ISF.random_value(solver.retrieveIntVars(), seed));
+                solver.findAllSolutions();
+                stats[e] = new long[]{solver.getMeasures().getSolutionCount(),
+                        solver.getMeasures().getNodeCount(), solver.getMeasures().getFailCount(),
+                        solver.getMeasures().getBackTrackCount()};
+            }
+            Assert.assertEquals(stats[1], stats[0], "seed " + seed);
+        }
+    }
+
+    private static Solver redundantNQueens(int n, boolean redundant, int threshold, int period) {
+        Solver solver = ProblemMaker.makeNQueenWithBinaryConstraints(n);
+        solver.set(new Settings() {
+            @Override
+            public int getWeakRedundancyThreshold() {
+                return threshold;
+            }
+
+            @Override
+            public int getWeakRedundancySkipPeriod() {
+                return period;
+            }
+        });
+        IntVar[] vars = (IntVar[]) solver.getHook("vars");
+        if (redundant) {
+            // both are implied by the binary constraints
+            solver.post(ICF.alldifferent(vars, "AC").setWeakRedundant());
+            solver.post(ICF.sum(vars, VF.fixed(n * (n + 1) / 2, solver)).setWeakRedundant());
+        }
+        solver.set(new DensePropagatorEngine(solver));
+        return solver;
+    }
+
+    @Test(groups="1s")
+    public void testWeakRedundant1(){
+        for (int seed = 0; seed < 5; seed++) {
+            Solver ref = redundantNQueens(8, false, 16, 8);
+            ref.set(ISF.random_value((IntVar[]) ref.getHook("vars"), seed));
+            ref.findAllSolutions();
+            Assert.assertEquals(ref.getMeasures().getSolutionCount(), 92);
+            for (int threshold : new int[]{0, 1, 4}) {
+                Solver solver = redundantNQueens(8, true, threshold, 3);
+                solver.set(ISF.random_value((IntVar[]) solver.getHook("vars"), seed));
+                solver.findAllSolutions();
+                Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+                Assert.assertTrue(solver.getMeasures().getNodeCount() <= ref.getMeasures().getNodeCount());
+                DensePropagatorEngine engine = (DensePropagatorEngine) solver.getEngine();
+                if (threshold == 0) {
+                    Assert.assertEquals(engine.getNbSkips(), 0);
+                } else {
+                    Assert.assertTrue(engine.getNbSkips() > 0);
+                }
+            }
+        }
+    }
+
+    @Test(groups="1s")
+    public void testWeakRedundant2(){
+        // skipped propagators are re-promoted as soon as they filter
+        Solver solver = redundantNQueens(10, true, 1, 1000);
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 724);
+        Solver ref = redundantNQueens(10, true, 0, 1);
+        ref.findAllSolutions();
+        Assert.assertEquals(ref.getMeasures().getSolutionCount(), 724);
+        Assert.assertTrue(solver.getMeasures().getNodeCount() >= ref.getMeasures().getNodeCount());
+    }
+
     @Test(groups="1s")
     public void testGregy41(){
         for(int i = 0 ; i < 20; i++) {
@@ -181,4 +277,64 @@ public class PropEngineTest {
             Assert.assertEquals(solver.getMeasures().getSolutionCount(), 9);
         }
     }
+
+    /**
+     * A propagator which counts its executions, and whose scope can be enlarged.
+     */
+    private static class GrowingPropagator extends Propagator<IntVar> {
+
+        int calls;
+
+        GrowingPropagator(IntVar var) {
+            super(new IntVar[]{var}, PropagatorPriority.UNARY, true);
+        }
+
+        void grow(IntVar var) {
+            addVariable(var);
+        }
+
+        @Override
+        public void propagate(int evtmask) throws ContradictionException {
+            calls++;
+        }
+
+        @Override
+        public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+            calls++;
+        }
+
+        @Override
+        public ESat isEntailed() {
+            return ESat.UNDEFINED;
+        }
+    }
+
+    @Test(groups="1s")
+    public void testDenseTemporaryGrowing() throws ContradictionException {
+        Solver solver = new Solver();
+        IntVar[] X = VF.enumeratedArray("X", 3, 0, 3, solver);
+        solver.post(ICF.arithm(X[0], "<", X[2]));
+        solver.set(new DensePropagatorEngine(solver));
+        solver.propagate();
+        GrowingPropagator p = new GrowingPropagator(X[0]);
+        Constraint c = new Constraint("grow", p);
+        solver.getEnvironment().worldPush();
+        solver.postTemp(c);
+        p.grow(X[1]);
+        int calls = p.calls;
+        X[1].instantiateTo(2, Cause.Null);
+        solver.propagate();
+        Assert.assertTrue(p.calls > calls);
+        calls = p.calls;
+        solver.getEnvironment().worldPop();
+        solver.unpost(c);
+        Assert.assertEquals(p.getEngineSlot(), -1);
+        Assert.assertEquals(X[1].getNbProps(), 0);
+        solver.getEnvironment().worldPush();
+        X[1].instantiateTo(3, Cause.Null);
+        X[0].instantiateTo(0, Cause.Null);
+        solver.propagate();
+        Assert.assertEquals(p.calls, calls);
+        Assert.assertEquals(X[2].getLB(), 1);
+    }
 }
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.trace.Chatterbox;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class PropagationProfilerTest {
+
+    private static Solver profiled(int period, PropagationEngineFactory engine) {
+        Solver solver = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        solver.set(new Settings() {
+            @Override
+            public int getPropagationProfilingPeriod() {
+                return period;
+            }
+        });
+        solver.set(engine.make(solver));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testDisabled() {
+        Solver solver = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        solver.set(PropagationEngineFactory.DEFAULT.make(solver));
+        Assert.assertNull(solver.getEngine().getProfiler());
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+    }
+
+    @Test(groups = "1s")
+    public void testCounters() {
+        for (PropagationEngineFactory engine : new PropagationEngineFactory[]{
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+                PropagationEngineFactory.TWOBUCKETPROPAGATIONENGINE,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_DENSE}) {
+            Solver solver = profiled(1, engine);
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+            PropagationProfiler profiler = solver.getEngine().getProfiler();
+            Assert.assertNotNull(profiler);
+            List<Propagator> propagators = profiler.getPropagators();
+            Assert.assertEquals(propagators.size(), solver.getCstrs().length);
+            long calls = 0, fails = 0, reductions = 0;
+            for (Propagator p : propagators) {
+                // each propagator is at least propagated once, on initial propagation
+                Assert.assertTrue(profiler.getCoarseCalls(p) > 0, p.toString());
+                calls += profiler.getFineCalls(p);
+                fails += profiler.getFails(p);
+                reductions += profiler.getReductions(p);
+            }
+            Assert.assertTrue(calls > 0);
+            Assert.assertTrue(reductions > 0);
+            // decisions never fail here, so each failure is due to a propagator
+            Assert.assertEquals(fails, solver.getMeasures().getFailCount(), engine.name());
+            for (int i = 1; i < propagators.size(); i++) {
+                Assert.assertTrue(profiler.getTime(propagators.get(i - 1)) >= profiler.getTime(propagators.get(i)));
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSampling() {
+        Solver exact = profiled(1, PropagationEngineFactory.PROPAGATORDRIVEN_7QD);
+        exact.findAllSolutions();
+        Solver sampled = profiled(16, PropagationEngineFactory.PROPAGATORDRIVEN_7QD);
+        sampled.findAllSolutions();
+        PropagationProfiler pe = exact.getEngine().getProfiler();
+        PropagationProfiler ps = sampled.getEngine().getProfiler();
+        Assert.assertEquals(ps.getPeriod(), 16);
+        List<Propagator> le = pe.getPropagators();
+        List<Propagator> ls = ps.getPropagators();
+        Assert.assertEquals(ls.size(), le.size());
+        long ce = 0, cs = 0, fe = 0, fs = 0;
+        for (int i = 0; i < le.size(); i++) {
+            ce += pe.getFineCalls(le.get(i)) + pe.getCoarseCalls(le.get(i));
+            cs += ps.getFineCalls(ls.get(i)) + ps.getCoarseCalls(ls.get(i));
+            fe += pe.getFails(le.get(i));
+            fs += ps.getFails(ls.get(i));
+        }
+        // sampling only applies to timers
+        Assert.assertEquals(cs, ce);
+        Assert.assertEquals(fs, fe);
+    }
+
+    @Test(groups = "1s")
+    public void testOutput() {
+        Solver solver = profiled(4, PropagationEngineFactory.DEFAULT);
+        solver.findAllSolutions();
+        PrintStream out = Chatterbox.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            Chatterbox.setOut(new PrintStream(bytes));
+            Chatterbox.printCSVPropagationProfile(solver);
+        } finally {
+            Chatterbox.setOut(out);
+        }
+        String[] lines = bytes.toString().split("\n");
+        Assert.assertEquals(lines[0], PropagationProfiler.CSV_HEADER);
+        Assert.assertEquals(lines.length, solver.getCstrs().length + 1);
+        Assert.assertEquals(lines[1].split(";").length, 8);
+    }
+}
@@ -30,13 +30,19 @@
 package org.chocosolver.solver.search;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.loop.monitors.SMF;
 import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.search.strategy.selectors.variables.ActivityBased;
+import org.chocosolver.solver.search.strategy.selectors.variables.ImpactBased;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
 import org.chocosolver.util.ProblemMaker;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+
 /**
  * @author Jean-Guillaume Fages
  * @since 22/04/15
@@ -58,6 +64,46 @@ public class ImpactTest {
 		Assert.assertEquals(s1.getMeasures().getSolutionCount(), s2.getMeasures().getSolutionCount());
 	}
 
+	@Test(groups = "1s")
+	public void testParallelProbing() throws ContradictionException {
+		Solver solver = ProblemMaker.makeCostasArrays(7);
+		IntVar[] vectors = (IntVar[]) solver.getHook("vectors");
+		solver.propagate();
+		Impacts sequential = new Impacts(vectors);
+		Assert.assertTrue(sequential.init());
+		Impacts parallel = new Impacts(vectors);
+		parallel.setParallelProbing(() -> ProblemMaker.makeCostasArrays(7), 3);
+		Assert.assertTrue(parallel.init());
+		for (int i = 0; i < vectors.length; i++) {
+			Assert.assertTrue(Arrays.equals(parallel.impacts()[i], sequential.impacts()[i]));
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testParallelImpact() {
+		Solver s1 = costasArray(7, false);
+		s1.findAllSolutions();
+
+		Solver s2 = ProblemMaker.makeCostasArrays(7);
+		IntVar[] vectors = (IntVar[]) s2.getHook("vectors");
+		ImpactBased impact = new ImpactBased(vectors, 2, 3, 10, 0, true);
+		impact.setParallelProbing(() -> ProblemMaker.makeCostasArrays(7), 2);
+		s2.set(impact);
+		s2.findAllSolutions();
+		Assert.assertEquals(s2.getMeasures().getSolutionCount(), s1.getMeasures().getSolutionCount());
+	}
+
+	@Test(groups = "1s")
+	public void testParallelActivity() {
+		Solver solver = ProblemMaker.makeCostasArrays(7);
+		IntVar[] vectors = (IntVar[]) solver.getHook("vectors");
+		ActivityBased activity = new ActivityBased(solver, vectors, 0.999d, 0.2d, 8, 1, 0);
+		activity.setParallelProbing(() -> ProblemMaker.makeCostasArrays(7), 3);
+		solver.set(activity);
+		Assert.assertTrue(solver.findSolution());
+		Assert.assertEquals(solver.isSatisfied(), ESat.TRUE);
+	}
+
 	private Solver costasArray(int n, boolean impact){
 		Solver solver = ProblemMaker.makeCostasArrays(n);
 		IntVar[] vectors = (IntVar[]) solver.getHook("vectors");
@@ -71,4 +117,18 @@ public class ImpactTest {
 		}
 		return solver;
 	}
+
+	/**
+	 * Exposes the impacts computed on initialisation
+	 */
+	private static class Impacts extends ImpactBased {
+
+		Impacts(IntVar[] vars) {
+			super(vars, 2, 3, 10, 0, true);
+		}
+
+		double[][] impacts() {
+			return Ilabel;
+		}
+	}
 }
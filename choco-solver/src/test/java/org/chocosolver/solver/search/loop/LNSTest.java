@@ -32,12 +32,14 @@ package org.chocosolver.solver.search.loop;
 import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.search.loop.lns.neighbors.*;
 import org.chocosolver.solver.search.loop.monitors.SearchMonitorFactory;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.trace.Chatterbox;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 /**
@@ -50,6 +52,7 @@ public class LNSTest {
 
     Solver solver;
     IntVar[] vars;
+    BanditNeighborhood bandit;
 
     private void knapsack20(final int lns) {
         int[] capacities = {99, 1101};
@@ -115,6 +118,14 @@ public class LNSTest {
                         new RandomNeighborhood(solver, objects, 200, 123456L)));
                 SearchMonitorFactory.limitTime(solver, 10000);
                 break;
+            case 8:
+                bandit = new BanditNeighborhood(solver, 123456L,
+                        new PropagationGuidedNeighborhood(solver, objects, 123456L, 100, 10),
+                        new ReversePropagationGuidedNeighborhood(solver, objects, 123456L, 100, 10),
+                        new RandomNeighborhood(solver, objects, 200, 123456L));
+                SLF.lns(solver, bandit, new FailCounter(solver, 100));
+                SearchMonitorFactory.limitTime(solver, 2000);
+                break;
         }
 //        Chatterbox.showDecisions(solver, ()->""+solver.getEnvironment().getWorldIndex());
         solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, power);
@@ -134,6 +145,23 @@ public class LNSTest {
         knapsack20(5);
         knapsack20(6);
         knapsack20(7);
+        knapsack20(8);
+    }
+
+    @Test(groups = "10s")
+    public void testBandit() {
+        knapsack20(8);
+        int fragments = 0, solutions = 0;
+        for (int i = 0; i < 3; i++) {
+            fragments += bandit.getNbFragments(i);
+            solutions += bandit.getNbSolutions(i);
+            Assert.assertTrue(bandit.getNbSolutions(i) <= bandit.getNbFragments(i));
+            Assert.assertTrue(bandit.getMeanReward(i) >= 0d && bandit.getMeanReward(i) <= 1d);
+            Assert.assertEquals(bandit.getGain(i) > 0d, bandit.getNbSolutions(i) > 0);
+        }
+        Assert.assertTrue(fragments > 0);
+        Assert.assertTrue(solutions <= solver.getMeasures().getSolutionCount() - 1);
+        Assert.assertTrue(solutions > 0);
     }
 
 
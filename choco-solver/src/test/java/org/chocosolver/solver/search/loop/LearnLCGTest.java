@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.loop;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.nary.cnf.PropNogoods;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.explanations.ExplanationEngine;
+import org.chocosolver.solver.explanations.store.ArrayEventStore;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.selectors.variables.VSIDS;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class LearnLCGTest {
+
+    private static IntVar[] queens(Solver solver, int n) {
+        IntVar[] q = VF.enumeratedArray("Q", n, 1, n, solver);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int k = j - i;
+                solver.post(ICF.arithm(q[i], "!=", q[j]));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", -k));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", k));
+            }
+        }
+        return q;
+    }
+
+    private static IntVar[] random(Solver solver, long seed) {
+        Random rnd = new Random(seed);
+        String[] ops = {"=", "!=", "<", "<=", ">", ">="};
+        IntVar[] x = VF.enumeratedArray("x", 8, 0, 4, solver);
+        for (int c = 0; c < 10; c++) {
+            int i = rnd.nextInt(x.length);
+            int j = rnd.nextInt(x.length);
+            if (i != j) {
+                solver.post(ICF.arithm(x[i], ops[rnd.nextInt(ops.length)], x[j], "+", rnd.nextInt(3) - 1));
+            }
+        }
+        solver.post(ICF.sum(new IntVar[]{x[0], x[1], x[2], x[3]}, ">=", VF.fixed(6 + rnd.nextInt(6), solver)));
+        return x;
+    }
+
+    @Test(groups = "1s")
+    public void testQueens() {
+        Solver solver = new Solver();
+        IntVar[] q = queens(solver, 8);
+        SLF.learnLCG(solver, ISF.minDom_LB(q));
+        Assert.assertEquals(solver.findAllSolutions(), 92);
+        LearnLCG lcg = (LearnLCG) solver.getSearchLoop().getLearn();
+        Assert.assertTrue(lcg.getNbClauses() > 0);
+        Assert.assertTrue(lcg.getAverageClauseSize() > 0);
+    }
+
+    @Test(groups = "1s")
+    public void testRandom() {
+        for (long seed = 0; seed < 30; seed++) {
+            Solver ref = new Solver();
+            ref.set(ISF.lexico_LB(random(ref, seed)));
+            long expected = ref.findAllSolutions();
+
+            Solver solver = new Solver();
+            SLF.learnLCG(solver, ISF.lexico_LB(random(solver, seed)));
+            Assert.assertEquals(solver.findAllSolutions(), expected, "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testPigeons() {
+        for (int n = 5; n < 8; n++) {
+            Solver solver = new Solver();
+            IntVar[] pigeons = VF.enumeratedArray("p", n, 0, n - 2, solver);
+            solver.post(ICF.alldifferent(pigeons, "NEQS"));
+            SLF.learnLCG(solver, ISF.lexico_LB(pigeons));
+            Assert.assertFalse(solver.findSolution());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testOptimize() {
+        for (long seed = 0; seed < 10; seed++) {
+            Solver ref = new Solver();
+            IntVar[] x = random(ref, seed);
+            IntVar obj = VF.bounded("obj", 0, 40, ref);
+            ref.post(ICF.sum(x, obj));
+            ref.set(ISF.lexico_LB(x));
+            ref.findOptimalSolution(ResolutionPolicy.MAXIMIZE, obj);
+
+            Solver solver = new Solver();
+            IntVar[] y = random(solver, seed);
+            IntVar objy = VF.bounded("obj", 0, 40, solver);
+            solver.post(ICF.sum(y, objy));
+            SLF.learnLCG(solver, ISF.lexico_LB(y));
+            solver.findOptimalSolution(ResolutionPolicy.MAXIMIZE, objy);
+
+            Assert.assertEquals(solver.getMeasures().getSolutionCount() > 0, ref.getMeasures().getSolutionCount() > 0);
+            if (ref.getMeasures().getSolutionCount() > 0) {
+                Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue(),
+                        ref.getObjectiveManager().getBestSolutionValue(), "seed " + seed);
+            }
+        }
+    }
+
+    @Test(groups = "1s", expectedExceptions = SolverException.class)
+    public void testStore() {
+        Solver solver = new Solver();
+        solver.set(new ExplanationEngine(solver, true, false, new ArrayEventStore(solver.getEnvironment())));
+        new LearnLCG(solver);
+    }
+
+    @Test(groups = "1s")
+    public void testVSIDSHeap() {
+        // each literal selected from the heap is the one a scan of the literals selects
+        Solver solver = new Solver();
+        IntVar[] q = queens(solver, 8);
+        SLF.learnLCG(solver, ISF.minDom_LB(q));
+        LearnLCG lcg = (LearnLCG) solver.getSearchLoop().getLearn();
+        VSIDS vsids = (VSIDS) solver.getStrategy();
+        PropNogoods ngstore = lcg.getNogoodStore();
+        int[] nbChecks = new int[1];
+        solver.set(new AbstractStrategy<IntVar>(q) {
+            @Override
+            public boolean init() {
+                return vsids.init();
+            }
+
+            @Override
+            public Decision<IntVar> getDecision() {
+                int best = -1;
+                double bestActivity = 0.;
+                for (int i = ngstore.getNbLiterals() - 1; i >= 0; i--) {
+                    int lit = PropNogoods.literal(i);
+                    IntVar var = ngstore.getIntVar(lit);
+                    int value = ngstore.getValue(lit);
+                    boolean undecided = ngstore.isEq(lit) ?
+                            !var.isInstantiated() && var.contains(value) :
+                            var.getLB() <= value && value < var.getUB();
+                    if (lcg.getActivity(i) > bestActivity && undecided) {
+                        best = i;
+                        bestActivity = lcg.getActivity(i);
+                    }
+                }
+                Decision<IntVar> decision = vsids.getDecision();
+                if (best > -1) {
+                    int lit = PropNogoods.literal(best);
+                    IntDecision d = (IntDecision) decision;
+                    Assert.assertEquals(d.getDecisionVariables(), ngstore.getIntVar(lit));
+                    Assert.assertEquals(d.getDecisionValue().intValue(), ngstore.getValue(lit));
+                    Assert.assertEquals(d.getDecOp(), ngstore.isEq(lit) ? DecisionOperator.int_eq : DecisionOperator.int_split);
+                    nbChecks[0]++;
+                }
+                return decision;
+            }
+        });
+        Assert.assertEquals(solver.findAllSolutions(), 92);
+        Assert.assertTrue(nbChecks[0] > 0);
+    }
+}
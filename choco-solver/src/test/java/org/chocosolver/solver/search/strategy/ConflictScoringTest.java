@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.FailPerPropagator;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.selectors.variables.ConflictHistory;
+import org.chocosolver.solver.search.strategy.selectors.variables.ConflictScoring;
+import org.chocosolver.solver.search.strategy.selectors.variables.IncrementalDomOverWDeg;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class ConflictScoringTest {
+
+    private static ConflictScoring make(int k, IntVar[] vars) {
+        switch (k) {
+            case 0:
+                return (ConflictScoring) ISF.incDomOverWDeg(vars, 0);
+            case 1:
+                return (ConflictScoring) ISF.incDomOverWDeg(vars, 0, .9, ISF.min_value_selector());
+            default:
+                return (ConflictScoring) ISF.conflictHistory(vars, 0);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testAllSolutions() {
+        for (int k = 0; k < 3; k++) {
+            Solver solver = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+            IntVar[] vars = (IntVar[]) solver.getHook("vars");
+            ConflictScoring strategy = make(k, vars);
+            solver.set(strategy);
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+            Assert.assertTrue(strategy.getNbConflicts() > 0);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testWeightedDegrees() {
+        Solver solver = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        IntVar[] vars = (IntVar[]) solver.getHook("vars");
+        FailPerPropagator counter = new FailPerPropagator(solver.getCstrs(), solver);
+        ConflictScoring strategy = make(0, vars);
+        solver.set(strategy);
+        solver.findAllSolutions();
+        for (IntVar var : vars) {
+            int w = 1;
+            for (int p = 0; p < var.getNbProps(); p++) {
+                Propagator prop = var.getPropagator(p);
+                if (prop.getNbVars() > 1) {
+                    w += counter.getFails(prop);
+                }
+            }
+            Assert.assertEquals(strategy.score(var), (double) w);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testDecay() {
+        Solver solver = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        IntVar[] vars = (IntVar[]) solver.getHook("vars");
+        try {
+            ISF.incDomOverWDeg(vars, 0, 0., ISF.min_value_selector());
+            Assert.fail();
+        } catch (SolverException ignored) {
+        }
+        try {
+            ISF.incDomOverWDeg(vars, 0, 1.5, ISF.min_value_selector());
+            Assert.fail();
+        } catch (SolverException ignored) {
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testConflictHistory() {
+        Solver solver = ProblemMaker.makeNQueenWithBinaryConstraints(10);
+        IntVar[] vars = (IntVar[]) solver.getHook("vars");
+        ConflictHistory chs = (ConflictHistory) make(2, vars);
+        solver.set(chs);
+        SMF.luby(solver, 2, 2, new FailCounter(solver, 2), 25);
+        Assert.assertTrue(solver.findSolution());
+        Assert.assertEquals(solver.isSatisfied(), ESat.TRUE);
+        // on a restart, the score of a variable is the sum of the scores of its propagators
+        chs.afterRestart();
+        for (IntVar var : vars) {
+            double s = 1e-4 * var.getNbProps();
+            for (int p = 0; p < var.getNbProps(); p++) {
+                s += chs.score(var.getPropagator(p));
+            }
+            Assert.assertEquals(chs.score(var), s, 1e-9);
+        }
+    }
+
+    private static class PropRepeated extends Propagator<IntVar> {
+
+        PropRepeated(IntVar x, IntVar y) {
+            super(new IntVar[]{x, x, y}, PropagatorPriority.TERNARY, false);
+        }
+
+        @Override
+        public void propagate(int evtmask) throws ContradictionException {
+        }
+
+        @Override
+        public ESat isEntailed() {
+            return ESat.UNDEFINED;
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testRepeatedVariable() {
+        // a variable appearing twice in a failing propagator is scored once
+        for (int k = 0; k < 3; k++) {
+            Solver solver = new Solver();
+            IntVar x = VF.enumerated("x", 0, 3, solver);
+            IntVar y = VF.enumerated("y", 0, 3, solver);
+            PropRepeated prop = new PropRepeated(x, y);
+            ConflictScoring strategy = make(k, new IntVar[]{x, y});
+            strategy.init();
+            double sx = strategy.score(x);
+            double sy = strategy.score(y);
+            strategy.onContradiction(new ContradictionException().set(prop, x, ""));
+            Assert.assertEquals(strategy.getNbConflicts(), 1);
+            Assert.assertTrue(strategy.score(y) > sy);
+            Assert.assertEquals(strategy.score(x) - sx, strategy.score(y) - sy, 1e-9);
+            if (k == 2) {
+                ConflictHistory chs = (ConflictHistory) strategy;
+                chs.afterRestart();
+                Assert.assertEquals(chs.score(x), 2e-4 + chs.score(prop), 1e-9);
+                Assert.assertEquals(chs.score(y), 1e-4 + chs.score(prop), 1e-9);
+            }
+        }
+    }
+
+    @Test(groups = "10s")
+    public void testCostasArrays() {
+        for (int k = 0; k < 3; k++) {
+            Solver solver = ProblemMaker.makeCostasArrays(10);
+            IntVar[] vectors = (IntVar[]) solver.getHook("vectors");
+            solver.set(make(k, vectors));
+            SMF.luby(solver, 2, 2, new FailCounter(solver, 2), 25);
+            Assert.assertTrue(solver.findSolution());
+            Assert.assertEquals(solver.isSatisfied(), ESat.TRUE);
+        }
+    }
+}
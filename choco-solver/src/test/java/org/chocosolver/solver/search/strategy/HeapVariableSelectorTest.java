@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2015, Ecole des Mines de Nantes
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ * 3. All advertising materials mentioning features or use of this software
+ *    must display the following acknowledgement:
+ *    This product includes software developed by the <organization>.
+ * 4. Neither the name of the <organization> nor the
+ *    names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <COPYRIGHT HOLDER> ''AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.search.limits.NodeCounter;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.selectors.HeapVariableSelector;
+import org.chocosolver.solver.search.strategy.selectors.VariableEvaluator;
+import org.chocosolver.solver.search.strategy.selectors.VariableSelector;
+import org.chocosolver.solver.search.strategy.selectors.variables.*;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 18/10/2016
+ */
+public class HeapVariableSelectorTest {
+
+    @SuppressWarnings("unchecked")
+    private static VariableEvaluator<IntVar> evaluator(int k) {
+        switch (k) {
+            case 0:
+                return new FirstFail();
+            case 1:
+                return new AntiFirstFail();
+            case 2:
+                return new Smallest();
+            case 3:
+                return new Largest();
+            default:
+                return new MaxRegret();
+        }
+    }
+
+    private static IntVar[] model(Solver solver, int n, long seed) {
+        Random rnd = new Random(seed);
+        IntVar[] vars = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            vars[i] = VF.enumerated("x" + i, 0, 2 + rnd.nextInt(6), solver);
+        }
+        for (int i = 0; i < 2 * n; i++) {
+            IntVar x = vars[rnd.nextInt(n)];
+            IntVar y = vars[rnd.nextInt(n)];
+            if (x != y) {
+                solver.post(ICF.arithm(x, rnd.nextBoolean() ? "!=" : "<=", y, "+", rnd.nextInt(3)));
+            }
+        }
+        return vars;
+    }
+
+    @Test(groups = "1s")
+    public void testMake() {
+        Solver solver = new Solver();
+        IntVar[] vars = VF.enumeratedArray("X", HeapVariableSelector.MIN_SIZE, 0, 5, solver);
+        Assert.assertTrue(HeapVariableSelector.make(new FirstFail(), vars) instanceof HeapVariableSelector);
+        Assert.assertFalse(HeapVariableSelector.make(new InputOrder<>(), vars) instanceof HeapVariableSelector);
+        Assert.assertFalse(HeapVariableSelector.make(new Occurrence<>(), vars) instanceof HeapVariableSelector);
+        IntVar[] small = new IntVar[HeapVariableSelector.MIN_SIZE - 1];
+        System.arraycopy(vars, 0, small, 0, small.length);
+        Assert.assertFalse(HeapVariableSelector.make(new FirstFail(), small) instanceof HeapVariableSelector);
+        IntVar[] twice = vars.clone();
+        twice[1] = twice[0];
+        Assert.assertFalse(HeapVariableSelector.make(new FirstFail(), twice) instanceof HeapVariableSelector);
+    }
+
+    @Test(groups = "1s")
+    public void testSameSelection() {
+        for (int k = 0; k < 5; k++) {
+            for (long seed = 0; seed < 5; seed++) {
+                Solver solver = new Solver();
+                IntVar[] vars = model(solver, 40, seed);
+                VariableEvaluator<IntVar> eval = evaluator(k);
+                VariableSelector<IntVar> scan = (VariableSelector<IntVar>) eval;
+                HeapVariableSelector heap = new HeapVariableSelector(vars, eval);
+                solver.set(ISF.custom(variables -> {
+                    IntVar var = heap.getVariable(variables);
+                    Assert.assertEquals(var, scan.getVariable(variables));
+                    return var;
+                }, ISF.min_value_selector(), vars));
+                SMF.luby(solver, 2, 2, new NodeCounter(solver, 10), 50);
+                SMF.limitNode(solver, 3000);
+                solver.findAllSolutions();
+                Assert.assertTrue(solver.getMeasures().getNodeCount() > 0);
+                // a second resolution starts from the root world again
+                solver.getSearchLoop().reset();
+                solver.findSolution();
+            }
+        }
+    }
+
+    @Test(groups = "10s")
+    public void testSameSearch() {
+        for (int k = 0; k < 5; k++) {
+            for (long seed = 0; seed < 3; seed++) {
+                long[] nodes = new long[2];
+                long[] sols = new long[2];
+                for (int h = 0; h < 2; h++) {
+                    Solver solver = new Solver();
+                    IntVar[] vars = model(solver, 40, seed);
+                    VariableSelector<IntVar> sel = (VariableSelector<IntVar>) evaluator(k);
+                    // a plain selector is never replaced by a heap
+                    solver.set(ISF.custom(h == 0 ? sel : sel::getVariable, ISF.min_value_selector(), vars));
+                    SMF.limitNode(solver, 20000);
+                    solver.findAllSolutions();
+                    nodes[h] = solver.getMeasures().getNodeCount();
+                    sols[h] = solver.getMeasures().getSolutionCount();
+                }
+                Assert.assertEquals(nodes[0], nodes[1]);
+                Assert.assertEquals(sols[0], sols[1]);
+            }
+        }
+    }
+}
@@ -43,6 +43,11 @@ import org.chocosolver.util.iterators.DisposableValueIterator;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+
 /**
  * <br/>
  *
@@ -668,4 +673,53 @@ public class BitsetIntVarImplTest {
         Assert.assertEquals(i.getUB(), 50);
     }
 
+    @Test(groups = "1s")
+    public void testSparseDomain() throws ContradictionException {
+        Solver s = new Solver();
+        BitsetIntVarImpl i = new BitsetIntVarImpl("i", 0, 5000, s);
+        Random rnd = new Random(0);
+        Deque<BitSet> domains = new ArrayDeque<>();
+        for (int k = 0; k < 40 && i.getDomainSize() > 2; k++) {
+            domains.push(domainOf(i));
+            s.getEnvironment().worldPush();
+            int a = i.getLB() + rnd.nextInt(i.getDomainSize());
+            int b = a + rnd.nextInt(300);
+            switch (rnd.nextInt(4)) {
+                case 0:
+                    i.removeValue(a, Cause.Null);
+                    break;
+                case 1:
+                    i.removeInterval(a, Math.min(b, i.getUB() - 1), Cause.Null);
+                    break;
+                case 2:
+                    i.updateLowerBound(Math.min(a, i.getUB()), Cause.Null);
+                    break;
+                default:
+                    i.updateUpperBound(Math.max(b, i.getLB()), Cause.Null);
+                    break;
+            }
+            Assert.assertEquals(i.getDomainSize(), domainOf(i).cardinality());
+        }
+        s.getEnvironment().worldPush();
+        i.instantiateTo(i.nextValue(i.getLB()), Cause.Null);
+        Assert.assertEquals(i.getDomainSize(), 1);
+        s.getEnvironment().worldPop();
+        while (!domains.isEmpty()) {
+            s.getEnvironment().worldPop();
+            BitSet expected = domains.pop();
+            Assert.assertEquals(domainOf(i), expected);
+            Assert.assertEquals(i.getDomainSize(), expected.cardinality());
+        }
+        Assert.assertEquals(i.getDomainSize(), 5001);
+    }
+
+    private static BitSet domainOf(IntVar var) {
+        BitSet values = new BitSet();
+        int ub = var.getUB();
+        for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+            values.set(v);
+        }
+        return values;
+    }
+
 }